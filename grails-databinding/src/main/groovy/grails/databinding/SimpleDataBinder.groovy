@@ -26,10 +26,15 @@ import java.lang.annotation.Annotation
 import java.lang.reflect.Array
 import java.lang.reflect.Field
 import java.lang.reflect.ParameterizedType
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.regex.Pattern
 
 import grails.databinding.BindUsing
+import org.grails.databinding.BindingPlan
 import org.grails.databinding.ClosureValueConverter
 import org.grails.databinding.IndexedPropertyReferenceDescriptor
+import org.grails.databinding.PropertyBindingPlan
 import org.grails.databinding.converters.ConversionService
 import org.grails.databinding.converters.FormattedDateValueConverter
 import org.grails.databinding.converters.StructuredCalendarBindingEditor
@@ -86,6 +91,9 @@ class SimpleDataBinder implements DataBinder {
     ]
 
     static final INDEXED_PROPERTY_REGEX = /(.*)\[\s*([^\s]*)\s*\]\s*$/
+    private static final Pattern INDEXED_PROPERTY_PATTERN = Pattern.compile(INDEXED_PROPERTY_REGEX)
+
+    protected final ConcurrentMap<Class, BindingPlan> bindingPlans = new ConcurrentHashMap<Class, BindingPlan>()
 
     int autoGrowCollectionLimit = 256
 
@@ -108,6 +116,15 @@ class SimpleDataBinder implements DataBinder {
         formattedValueConversionHelpers[converter.targetType] = converter
     }
 
+    /**
+     * Discards the binding plans of all classes. Called when classes are reloaded.
+     *
+     * @see BindingPlan
+     */
+    void clearBindingPlans() {
+        bindingPlans.clear()
+    }
+
     /**
      * 
      * @param obj The object being bound to
@@ -214,6 +231,7 @@ class SimpleDataBinder implements DataBinder {
 
     protected void doBind(obj, DataBindingSource source, String filter, List whiteList, List blackList, DataBindingListener listener, errors) {
 
+        StaticBindingContext staticBindingContext = obj instanceof StaticallyBindable ? createStaticBindingContext(listener, errors) : null
         def keys = source.getPropertyNames()
         for (String key in keys) {
             if (!filter || key.startsWith(filter + '.')) {
@@ -221,17 +239,19 @@ class SimpleDataBinder implements DataBinder {
                 if (filter) {
                     propName = key[(1+filter.size())..-1]
                 }
-                def metaProperty = obj.metaClass.getMetaProperty propName
+                def metaProperty = getMetaProperty obj, propName
 
                 if (metaProperty) { // normal property
                     if (isOkToBind(metaProperty.name, whiteList, blackList)) {
                         def val = source[key]
                         try {
-                            def converter = getValueConverter(obj, metaProperty.name)
-                            if(converter) {
-                                bindProperty obj, source, metaProperty, converter.convert(source), listener, errors
-                            } else {
-                                processProperty obj, metaProperty, preprocessValue(val), source, listener, errors
+                            if (staticBindingContext == null || !bindStatically((StaticallyBindable)obj, metaProperty, val, staticBindingContext)) {
+                                def converter = getValueConverter(obj, metaProperty.name)
+                                if(converter) {
+                                    bindProperty obj, source, metaProperty, converter.convert(source), listener, errors
+                                } else {
+                                    processProperty obj, metaProperty, preprocessValue(val), source, listener, errors
+                                }
                             }
                         } catch (Exception e) {
                             addBindingError(obj, propName, val, e, listener, errors)
@@ -240,7 +260,7 @@ class SimpleDataBinder implements DataBinder {
                 } else {
                     def descriptor = getIndexedPropertyReferenceDescriptor propName
                     if (descriptor) { // indexed property
-                        metaProperty = obj.metaClass.getMetaProperty descriptor.propertyName
+                        metaProperty = getMetaProperty obj, descriptor.propertyName
                         if (metaProperty && isOkToBind(metaProperty.name, whiteList, blackList)) {
                             def val = source.getPropertyValue key
                             processIndexedProperty obj, metaProperty, descriptor, val, source, listener, errors
@@ -248,7 +268,7 @@ class SimpleDataBinder implements DataBinder {
                     } else if (propName.startsWith('_') && propName.length() > 1) { // boolean special handling
                         def restOfPropertyName = propName[1..-1]
                         if (!source.containsProperty(restOfPropertyName)) {
-                            metaProperty = obj.metaClass.getMetaProperty restOfPropertyName
+                            metaProperty = getMetaProperty obj, restOfPropertyName
                             if (metaProperty && isOkToBind(restOfPropertyName, whiteList, blackList)) {
                                 if ((Boolean == metaProperty.type || Boolean.TYPE == metaProperty.type)) {
                                     bindProperty obj, source, metaProperty, false, listener, errors
@@ -261,14 +281,188 @@ class SimpleDataBinder implements DataBinder {
         }
     }
 
+    /**
+     * Binds a value with the code generated for a {@link StaticallyBindable} class. Properties of classes with a
+     * {@link BindingHelper}, properties with a format that no formatted value converter is registered for and values
+     * that a structured editor is registered for are bound dynamically.
+     *
+     * @param obj The object being bound to
+     * @param metaProperty The property
+     * @param val The value from the data binding source
+     * @param context The context created by {@link #createStaticBindingContext(DataBindingListener, Object)}
+     * @return true if the value has been bound
+     */
+    protected boolean bindStatically(StaticallyBindable obj, MetaProperty metaProperty, val, StaticBindingContext context) {
+        if (getBindingPlan(obj.getClass()).bindingHelperType != null) {
+            return false
+        }
+        def property = getPropertyBindingPlan(obj.getClass(), metaProperty.name)
+        if (property.bindingFormat != null && !formattedValueConversionHelpers.containsKey(property.field.type)) {
+            return false
+        }
+        if (('struct' == val || 'date.struct' == val) && structuredEditors.containsKey(metaProperty.type)) {
+            return false
+        }
+        obj.bindFrom(metaProperty.name, preprocessValue(val), context)
+    }
+
+    /**
+     * @param listener The listener of the binding
+     * @param errors The errors of the binding
+     * @return A context that converts values with this binder and reports to the listener
+     */
+    protected StaticBindingContext createStaticBindingContext(final DataBindingListener listener, final errors) {
+        final SimpleDataBinder binder = this
+        new StaticBindingContext() {
+            boolean isSingleValue(Object value) {
+                !(value instanceof Map || value instanceof DataBindingSource || isMultiValue(value))
+            }
+
+            boolean isMultiValue(Object value) {
+                value instanceof Collection || (value != null && value.getClass().isArray())
+            }
+
+            boolean isBindingSource(Object value) {
+                value instanceof Map || value instanceof DataBindingSource
+            }
+
+            Object convert(Class<?> type, Object value) {
+                binder.convert(type, value)
+            }
+
+            Object convert(Class<?> type, Object value, String format) {
+                value == null ? null : binder.formattedValueConversionHelpers.get(type).convert(value, format)
+            }
+
+            List<Object> convertElements(Class<?> elementType, Object value) {
+                List<Object> elements = []
+                for (element in (value instanceof Collection ? (Collection) value : value as List)) {
+                    if (element == null || elementType.isAssignableFrom(element.getClass())) {
+                        elements << element
+                    } else {
+                        elements << binder.convert(elementType, element)
+                    }
+                }
+                elements
+            }
+
+            void bind(Object obj, Object value) {
+                def source = value instanceof DataBindingSource ? (DataBindingSource) value : new SimpleMapDataBindingSource((Map) value)
+                binder.bind obj, source, listener
+            }
+
+            boolean beforeBinding(Object obj, String propertyName, Object value) {
+                listener == null || listener.beforeBinding(obj, propertyName, value, errors) != false
+            }
+
+            void afterBinding(Object obj, String propertyName) {
+                listener?.afterBinding obj, propertyName, errors
+            }
+
+            void bindingError(Object obj, String propertyName, Object value, Exception e) {
+                binder.addBindingError obj, propertyName, value, e, listener, errors
+            }
+        }
+    }
+
     protected isOkToBind(String propName, List whiteList, List blackList) {
         'metaClass' != propName && !blackList?.contains(propName) && (!whiteList || whiteList.contains(propName) || whiteList.find { it -> it?.toString()?.startsWith(propName + '.')})
     }
 
+    /**
+     * @param clazz The class being bound to
+     * @return The binding plan of the class, which is created the first time the class is bound to
+     */
+    protected BindingPlan getBindingPlan(Class clazz) {
+        def plan = bindingPlans.get(clazz)
+        if (plan == null) {
+            plan = createBindingPlan(clazz)
+            def existing = bindingPlans.putIfAbsent(clazz, plan)
+            if (existing != null) {
+                plan = existing
+            }
+        }
+        plan
+    }
+
+    protected BindingPlan createBindingPlan(Class clazz) {
+        Class bindingHelperType = null
+        def annotation = clazz.getAnnotation(BindUsing)
+        if (annotation) {
+            def valueClass = getValueOfBindUsing(annotation)
+            if (BindingHelper.isAssignableFrom(valueClass)) {
+                bindingHelperType = valueClass
+            }
+        }
+        new BindingPlan(clazz, GroovySystem.metaClassRegistry.getMetaClass(clazz), bindingHelperType)
+    }
+
+    protected PropertyBindingPlan getPropertyBindingPlan(Class clazz, String propertyName) {
+        def plan = getBindingPlan(clazz)
+        def property = plan.findPropertyBindingPlan(propertyName)
+        if (property == null) {
+            property = plan.addPropertyBindingPlan(createPropertyBindingPlan(clazz, propertyName))
+        }
+        property
+    }
+
+    protected PropertyBindingPlan createPropertyBindingPlan(Class clazz, String propertyName) {
+        Closure bindUsingClosure = null
+        Annotation bindingFormat = null
+        Class referencedType = null
+        def field = getField(clazz, propertyName)
+        if (field) {
+            try {
+                def annotation = field.getAnnotation(BindUsing)
+                if (annotation) {
+                    def valueClass = getValueOfBindUsing(annotation)
+                    if (Closure.isAssignableFrom(valueClass)) {
+                        bindUsingClosure = (Closure)valueClass.newInstance(null, null)
+                    }
+                } else {
+                    bindingFormat = field.getAnnotation(BindingFormat)
+                }
+            } catch (Exception e) {
+            }
+            def genericType = field.genericType
+            if (genericType instanceof ParameterizedType) {
+                ParameterizedType pt = (ParameterizedType)genericType
+                Class rawType = pt.getRawType()
+                if(Map.isAssignableFrom(rawType)) {
+                    referencedType = pt.getActualTypeArguments()[1]
+                } else {
+                    referencedType = pt.getActualTypeArguments()[0]
+                }
+            }
+        }
+        new PropertyBindingPlan(propertyName, field, bindUsingClosure, bindingFormat, referencedType)
+    }
+
+    /**
+     * @param obj The object being bound to
+     * @param propName The name of a property
+     * @return The meta property of obj or null if obj doesn't have the property
+     */
+    protected MetaProperty getMetaProperty(obj, String propName) {
+        def metaClass = obj.metaClass
+        def plan = getBindingPlan(obj.getClass())
+        if (!plan.typeMetaClass.is(metaClass)) {
+            if (!metaClass.is(GroovySystem.metaClassRegistry.getMetaClass(obj.getClass()))) {
+                // the object has a meta class of its own
+                return metaClass.getMetaProperty(propName)
+            }
+            // the meta class of the class has been replaced since the plan was created
+            plan = createBindingPlan(obj.getClass())
+            bindingPlans.put(obj.getClass(), plan)
+        }
+        plan.getMetaProperty propName
+    }
+
     protected IndexedPropertyReferenceDescriptor getIndexedPropertyReferenceDescriptor(propName) {
         IndexedPropertyReferenceDescriptor descriptor
-        def matcher = propName =~ INDEXED_PROPERTY_REGEX
-        if (matcher) {
+        def name = propName.toString()
+        def matcher = name.indexOf('[') > -1 ? INDEXED_PROPERTY_PATTERN.matcher(name) : null
+        if (matcher?.find()) {
             def indexedPropertyName = matcher.group(1)
             def index = matcher.group(2)
             if (index.size() > 2 && ((index.startsWith("'") && index.endsWith("'")) || (index.startsWith('"') && index.endsWith('"')))) {
@@ -377,21 +571,7 @@ class SimpleDataBinder implements DataBinder {
     
     
     protected Class<?> getReferencedTypeForCollectionInClass(String propertyName, Class clazz) {
-        Class referencedType
-        def field = getField(clazz, propertyName)
-        if(field) {
-            def genericType = field.genericType
-            if (genericType instanceof ParameterizedType) {
-                ParameterizedType pt = (ParameterizedType)genericType
-                Class rawType = pt.getRawType()
-                if(Map.isAssignableFrom(rawType)) {
-                    referencedType = pt.getActualTypeArguments()[1]
-                } else {
-                    referencedType = pt.getActualTypeArguments()[0]
-                }
-            }
-        }
-        referencedType
+        getPropertyBindingPlan(clazz, propertyName).referencedType
     }
 
     protected Class<?> getReferencedTypeForCollection(String propertyName, Object obj) {
@@ -497,21 +677,11 @@ class SimpleDataBinder implements DataBinder {
     protected ValueConverter getValueConverterForField(obj, String propName) {
         def converter
         try {
-            def field = getField(obj.getClass(), propName)
-            if (field) {
-                def annotation = field.getAnnotation(BindUsing)
-                if (annotation) {
-                    def valueClass = getValueOfBindUsing(annotation)
-                    if (Closure.isAssignableFrom(valueClass)) {
-                        Closure closure = (Closure)valueClass.newInstance(null, null)
-                        converter = new ClosureValueConverter(converterClosure: closure.curry(obj), targetType: field.type)
-                    }
-                } else {
-                    annotation = field.getAnnotation(BindingFormat)
-                    if (annotation) {
-                        converter = getFormattedConverter field, getFormatString(annotation)
-                    }
-                }
+            def property = getPropertyBindingPlan(obj.getClass(), propName)
+            if (property.bindUsingClosure != null) {
+                converter = new ClosureValueConverter(converterClosure: property.bindUsingClosure.curry(obj), targetType: property.field.type)
+            } else if (property.bindingFormat != null) {
+                converter = getFormattedConverter property.field, getFormatString(property.bindingFormat)
             }
         } catch (Exception e) {
         }
@@ -546,14 +716,10 @@ class SimpleDataBinder implements DataBinder {
 
     protected ValueConverter getValueConverterForClass(obj, String propName) {
         def converter
-        def objClass = obj.getClass()
-        def annotation = objClass.getAnnotation(BindUsing)
-        if (annotation) {
-            def valueClass = getValueOfBindUsing(annotation)
-            if (BindingHelper.isAssignableFrom(valueClass)) {
-                BindingHelper dataConverter = (BindingHelper)valueClass.newInstance()
-                converter = new ClosureValueConverter(converterClosure: { DataBindingSource it -> dataConverter.getPropertyValue(obj, propName, it) })
-            }
+        def bindingHelperType = getBindingPlan(obj.getClass()).bindingHelperType
+        if (bindingHelperType != null) {
+            BindingHelper dataConverter = (BindingHelper)bindingHelperType.newInstance()
+            converter = new ClosureValueConverter(converterClosure: { DataBindingSource it -> dataConverter.getPropertyValue(obj, propName, it) })
         }
         converter
     }
@@ -696,7 +862,7 @@ class SimpleDataBinder implements DataBinder {
     }
 
     private void addElementsToCollection(obj, String collectionPropertyName, Collection collection, boolean removeExistingElements = false) {
-        Class propertyType = obj.metaClass.getMetaProperty(collectionPropertyName).type
+        Class propertyType = getMetaProperty(obj, collectionPropertyName).type
         def referencedType = getReferencedTypeForCollection(collectionPropertyName, obj)
         def coll = initializeCollection(obj, collectionPropertyName, propertyType, !removeExistingElements)
         if (removeExistingElements == true) {
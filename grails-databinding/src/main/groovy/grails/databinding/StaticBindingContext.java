@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package grails.databinding;
+
+import java.util.List;
+
+/**
+ * Gives the code generated for a {@link StaticallyBindable} class access to the conversions and the listener of the
+ * binder that is binding it, so that statically bound values are converted and reported the same way as values that
+ * are bound dynamically.
+ *
+ * @since 3.3
+ */
+public interface StaticBindingContext {
+
+    /**
+     * @param value A value from the data binding source
+     * @return true if the value is null or a single value, which isn't a Map, a data binding source, a collection or an
+     * array
+     */
+    boolean isSingleValue(Object value);
+
+    /**
+     * @param value A value from the data binding source
+     * @return true if the value is a collection or an array
+     */
+    boolean isMultiValue(Object value);
+
+    /**
+     * @param value A value from the data binding source
+     * @return true if the value is a Map or a data binding source that can be bound to an object
+     */
+    boolean isBindingSource(Object value);
+
+    /**
+     * Converts a value that isn't an instance of the type with the converters of the binder
+     *
+     * @param type The type of the property
+     * @param value The value
+     * @return The converted value
+     */
+    Object convert(Class<?> type, Object value);
+
+    /**
+     * Converts a value with the formatted value converter of the binder for the type
+     *
+     * @param type The type of the property
+     * @param value The value
+     * @param format The format of the {@link BindingFormat} annotation of the property
+     * @return The converted value
+     */
+    Object convert(Class<?> type, Object value, String format);
+
+    /**
+     * @param elementType The type of the elements of a collection property
+     * @param value A collection or an array
+     * @return The elements of the value converted to the element type
+     */
+    List<Object> convertElements(Class<?> elementType, Object value);
+
+    /**
+     * Binds a Map or data binding source to an object
+     *
+     * @param obj The object
+     * @param value The Map or data binding source
+     */
+    void bind(Object obj, Object value);
+
+    /**
+     * Notifies the listener of the binder that a value is about to be bound
+     *
+     * @return false if the listener vetoes binding the value
+     */
+    boolean beforeBinding(Object obj, String propertyName, Object value);
+
+    /**
+     * Notifies the listener of the binder that a property has been bound
+     */
+    void afterBinding(Object obj, String propertyName);
+
+    /**
+     * Reports an error binding a value to the listener of the binder
+     */
+    void bindingError(Object obj, String propertyName, Object value, Exception e);
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package grails.databinding;
+
+/**
+ * Implemented by classes with data binding code generated at compile time. {@link SimpleDataBinder} binds each value
+ * with {@link #bindFrom(String, Object, StaticBindingContext)} first and only binds the values the generated code
+ * doesn't handle dynamically.
+ *
+ * @since 3.3
+ */
+public interface StaticallyBindable {
+
+    /**
+     * Binds the value of a property
+     *
+     * @param propertyName The name of the property
+     * @param value The value from the data binding source
+     * @param context The binding context of the binder
+     * @return true if the value has been bound, false if it has to be bound dynamically
+     */
+    boolean bindFrom(String propertyName, Object value, StaticBindingContext context);
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding;
+
+import groovy.lang.MetaClass;
+import groovy.lang.MetaProperty;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * What a {@link grails.databinding.SimpleDataBinder} has resolved about a class to bind to its instances. A plan is
+ * created once per class and filled in as properties of the class are bound, so that the meta properties, fields and
+ * binding annotations aren't looked up again for each binding.
+ * <p/>
+ * Only properties that exist are added to a plan, so its size depends on the class and not on the data being bound.
+ *
+ * @since 3.3
+ */
+public class BindingPlan {
+
+    private final Class<?> type;
+    private final MetaClass typeMetaClass;
+    private final Class<?> bindingHelperType;
+    private final ConcurrentMap<String, MetaProperty> metaProperties = new ConcurrentHashMap<String, MetaProperty>();
+    private final ConcurrentMap<String, PropertyBindingPlan> properties = new ConcurrentHashMap<String, PropertyBindingPlan>();
+
+    /**
+     * @param type The class
+     * @param typeMetaClass The meta class of the class when the plan is created
+     * @param bindingHelperType The BindingHelper of the BindUsing annotation of the class or null
+     */
+    public BindingPlan(Class<?> type, MetaClass typeMetaClass, Class<?> bindingHelperType) {
+        this.type = type;
+        this.typeMetaClass = typeMetaClass;
+        this.bindingHelperType = bindingHelperType;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public MetaClass getTypeMetaClass() {
+        return typeMetaClass;
+    }
+
+    public Class<?> getBindingHelperType() {
+        return bindingHelperType;
+    }
+
+    /**
+     * Looks up a meta property. Properties that don't exist aren't remembered, so properties added to the meta class
+     * later are found.
+     *
+     * @param name The name of the property
+     * @return The meta property or null if the class doesn't have the property
+     */
+    public MetaProperty getMetaProperty(String name) {
+        MetaProperty metaProperty = metaProperties.get(name);
+        if (metaProperty == null) {
+            metaProperty = typeMetaClass.getMetaProperty(name);
+            if (metaProperty != null) {
+                metaProperties.put(name, metaProperty);
+            }
+        }
+        return metaProperty;
+    }
+
+    /**
+     * @param name The name of the property
+     * @return The plan of the property or null if it hasn't been added
+     */
+    public PropertyBindingPlan findPropertyBindingPlan(String name) {
+        return properties.get(name);
+    }
+
+    /**
+     * @param property The plan of a property
+     * @return The plan of the property, which is a plan that was added before by another thread if there is one
+     */
+    public PropertyBindingPlan addPropertyBindingPlan(PropertyBindingPlan property) {
+        PropertyBindingPlan existing = properties.putIfAbsent(property.getName(), property);
+        return existing != null ? existing : property;
+    }
+}
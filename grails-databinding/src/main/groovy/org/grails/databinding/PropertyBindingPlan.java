@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding;
+
+import groovy.lang.Closure;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+
+/**
+ * What a {@link grails.databinding.SimpleDataBinder} has resolved about a property of a class: the field of the
+ * property, the closure of its BindUsing annotation, its BindingFormat annotation and the type of its elements if it
+ * is a collection or a map.
+ *
+ * @since 3.3
+ * @see BindingPlan
+ */
+public class PropertyBindingPlan {
+
+    private final String name;
+    private final Field field;
+    private final Closure<?> bindUsingClosure;
+    private final Annotation bindingFormat;
+    private final Class<?> referencedType;
+
+    public PropertyBindingPlan(String name, Field field, Closure<?> bindUsingClosure, Annotation bindingFormat, Class<?> referencedType) {
+        this.name = name;
+        this.field = field;
+        this.bindUsingClosure = bindUsingClosure;
+        this.bindingFormat = bindingFormat;
+        this.referencedType = referencedType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The field of the property, declared by the class or a super class, or null
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return The closure of the BindUsing annotation of the field or null. Curry it with the object being bound.
+     */
+    public Closure<?> getBindUsingClosure() {
+        return bindUsingClosure;
+    }
+
+    /**
+     * @return The BindingFormat annotation of the field or null
+     */
+    public Annotation getBindingFormat() {
+        return bindingFormat;
+    }
+
+    /**
+     * @return The type of the elements of a collection or the values of a map, or null if the field isn't generic
+     */
+    public Class<?> getReferencedType() {
+        return referencedType;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding;
+
+import grails.databinding.CollectionDataBindingSource;
+import grails.databinding.DataBindingSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A CollectionDataBindingSource that reads its data binding sources one at a time from a stream, so that large
+ * collections are bound in constant memory.
+ * <p/>
+ * The first iterator of the list returned by {@link #getDataBindingSources()} reads the next source each time it
+ * advances and doesn't keep the sources it has returned, so the list can only be iterated once. If any other method of
+ * the list is called first, the remaining sources are read into memory and the list behaves like any other list.
+ *
+ * @since 3.3
+ */
+public abstract class StreamingCollectionDataBindingSource implements CollectionDataBindingSource, Closeable {
+
+    private final List<DataBindingSource> dataBindingSources = new DataBindingSourceList();
+    private List<DataBindingSource> readSources;
+    private boolean streamed;
+    private boolean exhausted;
+
+    /**
+     * Reads the next data binding source from the stream
+     *
+     * @return The source or null if there are no more sources
+     * @throws Exception If the stream can't be read
+     */
+    protected abstract DataBindingSource readNext() throws Exception;
+
+    /**
+     * Closes the stream. Called once all sources have been read or reading has failed.
+     *
+     * @throws IOException If the stream can't be closed
+     */
+    public abstract void close() throws IOException;
+
+    /**
+     * Creates the exception that is thrown by the list of sources when the stream can't be read. Runtime exceptions are
+     * thrown as they are by default.
+     *
+     * @param e The exception thrown by {@link #readNext()}
+     * @return The exception to throw
+     */
+    protected RuntimeException createReadException(Exception e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        return new IllegalStateException("Error reading data binding source: " + e.getMessage(), e);
+    }
+
+    @Override
+    public List<DataBindingSource> getDataBindingSources() {
+        return dataBindingSources;
+    }
+
+    private DataBindingSource next() {
+        if (exhausted) {
+            return null;
+        }
+        DataBindingSource source;
+        try {
+            source = readNext();
+        }
+        catch (Exception e) {
+            exhausted = true;
+            closeQuietly();
+            throw createReadException(e);
+        }
+        if (source == null) {
+            exhausted = true;
+            closeQuietly();
+        }
+        return source;
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        }
+        catch (IOException e) {
+            // ignore, everything has been read
+        }
+    }
+
+    private List<DataBindingSource> readAll() {
+        if (streamed) {
+            throw new IllegalStateException("The data binding sources are read from a stream and have already been iterated");
+        }
+        if (readSources == null) {
+            readSources = new ArrayList<DataBindingSource>();
+            DataBindingSource source;
+            while ((source = next()) != null) {
+                readSources.add(source);
+            }
+        }
+        return readSources;
+    }
+
+    private class DataBindingSourceList extends AbstractList<DataBindingSource> {
+
+        @Override
+        public Iterator<DataBindingSource> iterator() {
+            if (streamed || readSources != null) {
+                return readAll().iterator();
+            }
+            streamed = true;
+            return new Iterator<DataBindingSource>() {
+                private DataBindingSource nextSource;
+
+                @Override
+                public boolean hasNext() {
+                    if (nextSource == null) {
+                        nextSource = StreamingCollectionDataBindingSource.this.next();
+                    }
+                    return nextSource != null;
+                }
+
+                @Override
+                public DataBindingSource next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    DataBindingSource source = nextSource;
+                    nextSource = null;
+                    return source;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public DataBindingSource get(int index) {
+            return readAll().get(index);
+        }
+
+        @Override
+        public int size() {
+            return readAll().size();
+        }
+    }
+}
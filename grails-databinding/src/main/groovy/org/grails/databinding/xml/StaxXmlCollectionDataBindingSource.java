@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding.xml;
+
+import grails.databinding.DataBindingSource;
+import grails.databinding.SimpleMapDataBindingSource;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.grails.databinding.StreamingCollectionDataBindingSource;
+
+/**
+ * A CollectionDataBindingSource with a data binding source for each child element of the root element of an XML
+ * document, like {@link GPathResultCollectionDataBindingSource}. The child elements are read one at a time with
+ * {@link StaxXmlParser} while the sources are iterated.
+ *
+ * @since 3.3
+ */
+public class StaxXmlCollectionDataBindingSource extends StreamingCollectionDataBindingSource {
+
+    private final Reader reader;
+    private final XMLStreamReader xml;
+    private boolean started;
+
+    public StaxXmlCollectionDataBindingSource(Reader reader) throws XMLStreamException {
+        this.reader = reader;
+        this.xml = StaxXmlParser.createXMLStreamReader(reader);
+    }
+
+    @Override
+    protected DataBindingSource readNext() throws XMLStreamException {
+        if (!started) {
+            started = true;
+            // the root element
+            xml.nextTag();
+        }
+        while (xml.hasNext()) {
+            switch (xml.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    return new SimpleMapDataBindingSource(StaxXmlParser.readElement(xml));
+                case XMLStreamConstants.END_ELEMENT:
+                    // the end of the root element
+                    return null;
+                default:
+                    // text, comments and processing instructions between the elements
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        }
+        catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        finally {
+            reader.close();
+        }
+    }
+}
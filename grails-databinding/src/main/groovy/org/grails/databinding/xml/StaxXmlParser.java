@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding.xml;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads XML elements into {@link XmlElementMap} instances with a StAX reader, without building a tree of the whole
+ * document. DTDs and external entities aren't processed.
+ *
+ * @since 3.3
+ */
+public final class StaxXmlParser {
+
+    private static final String ID = "id";
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private StaxXmlParser() {
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * @param reader The XML
+     * @return A StAX reader of the given XML
+     * @throws XMLStreamException If the reader can't be created
+     */
+    public static XMLStreamReader createXMLStreamReader(Reader reader) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(reader);
+    }
+
+    /**
+     * Reads the root element of an XML document
+     *
+     * @param reader The XML
+     * @return The properties of the root element
+     * @throws XMLStreamException If the XML can't be parsed
+     */
+    public static XmlElementMap parse(Reader reader) throws XMLStreamException {
+        XMLStreamReader xml = createXMLStreamReader(reader);
+        try {
+            xml.nextTag();
+            return readElement(xml);
+        }
+        finally {
+            xml.close();
+        }
+    }
+
+    /**
+     * Reads the element that starts at the current position of the given reader. The reader is positioned at the end of
+     * the element afterwards.
+     *
+     * @param xml The reader, positioned at the start of an element
+     * @return The properties of the element
+     * @throws XMLStreamException If the XML can't be parsed
+     */
+    public static XmlElementMap readElement(XMLStreamReader xml) throws XMLStreamException {
+        return (XmlElementMap) readValue(xml, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object readValue(XMLStreamReader xml, boolean asMap) throws XMLStreamException {
+        String id = xml.getAttributeValue(null, ID);
+        XmlElementMap map = null;
+        StringBuilder text = null;
+        while (true) {
+            switch (xml.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (map == null) {
+                        map = new XmlElementMap();
+                    }
+                    String name = xml.getLocalName();
+                    Object value = readValue(xml, false);
+                    Object existing = map.get(name);
+                    if (existing == null) {
+                        map.put(name, value);
+                    }
+                    else if (existing instanceof List) {
+                        ((List<Object>) existing).add(value);
+                    }
+                    else {
+                        List<Object> values = new ArrayList<Object>();
+                        values.add(existing);
+                        values.add(value);
+                        map.put(name, values);
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    // only the text of elements without child elements is a value
+                    if (map == null) {
+                        if (text == null) {
+                            text = new StringBuilder();
+                        }
+                        text.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+                    }
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    boolean hasId = id != null && id.length() > 0;
+                    if (map == null && !asMap && !hasId) {
+                        return text == null || isWhitespace(text) ? "" : text.toString();
+                    }
+                    if (map == null) {
+                        map = new XmlElementMap();
+                    }
+                    if (hasId) {
+                        map.put(ID, id);
+                    }
+                    return map;
+                case XMLStreamConstants.END_DOCUMENT:
+                    throw new XMLStreamException("Unexpected end of document", xml.getLocation());
+                default:
+                    // comments and processing instructions
+            }
+        }
+    }
+
+    private static boolean isWhitespace(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
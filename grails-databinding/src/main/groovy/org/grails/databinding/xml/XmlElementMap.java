@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding.xml;
+
+import java.util.LinkedHashMap;
+
+/**
+ * The properties of an XML element read by {@link StaxXmlParser}, with the same keys and values as a
+ * {@link GPathResultMap} of the element: the values of the child elements by their names, in document order, and the
+ * id attribute as "id". The value of a child element is its text if it has neither child elements nor an id, and
+ * otherwise an XmlElementMap. The values of repeated child elements are a List.
+ *
+ * @since 3.3
+ */
+public class XmlElementMap extends LinkedHashMap<String, Object> {
+
+    private static final long serialVersionUID = 1L;
+
+    XmlElementMap() {
+        super(8);
+    }
+}
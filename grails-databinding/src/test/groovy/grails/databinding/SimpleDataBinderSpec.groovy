@@ -538,6 +538,49 @@ class SimpleDataBinderSpec extends Specification {
         obj.map.one == 1
         obj.map.two == 2
     }
+
+    void 'Test the binding plan of a class is reused'() {
+        given:
+        def binder = new SimpleDataBinder()
+        def widget = new Widget()
+        def otherWidget = new Widget()
+
+        when:
+        binder.bind widget, [listOfIntegers: '2', names: ['one'], 'numbers[0]': '1'] as SimpleMapDataBindingSource
+        def plan = binder.getBindingPlan(Widget)
+        binder.bind otherWidget, [listOfIntegers: '3', names: ['two']] as SimpleMapDataBindingSource
+
+        then:
+        binder.getBindingPlan(Widget).is plan
+        plan.findPropertyBindingPlan('listOfIntegers').bindUsingClosure != null
+        plan.findPropertyBindingPlan('names').referencedType == String
+        widget.listOfIntegers == [0, 1]
+        widget.names == ['one']
+        widget.numbers == [1] as Set
+        otherWidget.listOfIntegers == [0, 1, 2]
+        otherWidget.names == ['two']
+
+        when:
+        binder.clearBindingPlans()
+
+        then:
+        !binder.getBindingPlan(Widget).is(plan)
+    }
+
+    void 'Test binding to a property added to the meta class of an object'() {
+        given:
+        def binder = new SimpleDataBinder()
+        def widget = new Widget()
+        binder.bind new Widget(), [alpha: 1] as SimpleMapDataBindingSource
+        widget.metaClass.zeta = null
+
+        when:
+        binder.bind widget, [alpha: 2, zeta: 'z'] as SimpleMapDataBindingSource
+
+        then:
+        widget.alpha == 2
+        widget.zeta == 'z'
+    }
 }
 
 class Factory {
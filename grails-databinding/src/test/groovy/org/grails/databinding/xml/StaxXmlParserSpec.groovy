@@ -0,0 +1,145 @@
+/* Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding.xml
+
+import javax.xml.stream.XMLStreamException
+
+import spock.lang.Specification
+
+class StaxXmlParserSpec extends Specification {
+
+    static final String PERSON = '''
+<person id="42">
+   <name>John Doe</name>
+   <nickName></nickName>
+   <employer id="7"/>
+   <locations>
+      <location>
+         <shippingAddress>foo</shippingAddress>
+         <billingAddress>bar</billingAddress>
+      </location>
+      <location>
+         <shippingAddress>foo2</shippingAddress>
+         <billingAddress><![CDATA[bar2 & co]]></billingAddress>
+      </location>
+   </locations>
+</person>
+'''
+
+    void 'Test the element is read with the same properties as a GPathResultMap'() {
+        when:
+        def person = StaxXmlParser.parse(new StringReader(PERSON))
+        def gpathMap = new GPathResultMap(new XmlSlurper().parseText(PERSON))
+
+        then:
+        person.keySet() == gpathMap.keySet()
+        person.name == gpathMap.name
+        person.employer == gpathMap.employer
+        person.locations.location*.shippingAddress == gpathMap.locations.location*.shippingAddress
+        person.id == '42'
+        person.name == 'John Doe'
+        person.nickName == ''
+        person.employer == [id: '7']
+        person.locations.location.size() == 2
+        person.locations.location[1].billingAddress == 'bar2 & co'
+    }
+
+    void 'Test a document type declaration is not processed'() {
+        when:
+        StaxXmlParser.parse(new StringReader('''<?xml version="1.0"?>
+<!DOCTYPE person [<!ENTITY name SYSTEM "file:///etc/passwd">]>
+<person><name>&name;</name></person>'''))
+
+        then:
+        thrown XMLStreamException
+    }
+
+    void 'Test the child elements of the root element are streamed'() {
+        given:
+        def xml = '''
+<list>
+    <person><firstName>Peter</firstName></person>
+    <!-- a comment -->
+    <person id="2"><firstName>Tony</firstName></person>
+    <person><firstName>
+'''
+        def source = new StaxXmlCollectionDataBindingSource(new StringReader(xml))
+        def iterator = source.dataBindingSources.iterator()
+
+        when: 'the elements before the unterminated one are read'
+        def names = [iterator.next()['firstName'], iterator.next()['firstName']]
+
+        then: 'they are read without reading the rest of the document'
+        names == ['Peter', 'Tony']
+
+        when:
+        iterator.hasNext()
+
+        then:
+        IllegalStateException e = thrown()
+        e.cause instanceof XMLStreamException
+
+        when:
+        source.dataBindingSources.size()
+
+        then:
+        thrown IllegalStateException
+    }
+
+    void 'Test the child elements are iterated once'() {
+        given:
+        def source = new StaxXmlCollectionDataBindingSource(new StringReader('<list><a><x>1</x></a><a><x>2</x></a></list>'))
+        def values = []
+
+        when:
+        for (element in source.dataBindingSources) {
+            values << element['x']
+        }
+
+        then:
+        values == ['1', '2']
+
+        when:
+        source.dataBindingSources.iterator()
+
+        then:
+        thrown IllegalStateException
+    }
+
+    void 'Test the child elements are read into memory when the list is accessed by index'() {
+        given:
+        def source = new StaxXmlCollectionDataBindingSource(new StringReader('<list><a><x>1</x></a><a><x>2</x></a></list>'))
+
+        when:
+        def dataBindingSources = source.dataBindingSources
+
+        then:
+        dataBindingSources.size() == 2
+        dataBindingSources[1]['x'] == '2'
+        dataBindingSources.collect { it['x'] } == ['1', '2']
+    }
+
+    void 'Test malformed XML fails while the sources are iterated'() {
+        given:
+        def source = new StaxXmlCollectionDataBindingSource(new StringReader('<list><a><x>1</x></a><a>'))
+
+        when:
+        source.dataBindingSources.each { }
+
+        then:
+        IllegalStateException e = thrown()
+        e.cause instanceof XMLStreamException
+    }
+}
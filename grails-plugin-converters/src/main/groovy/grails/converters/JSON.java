@@ -15,20 +15,22 @@
  */
 package grails.converters;
 
-import grails.io.IOUtils;
 import grails.util.GrailsWebUtil;
 import grails.web.mime.MimeType;
 import groovy.lang.Closure;
 import groovy.util.BuilderSupport;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.grails.buffer.StreamCharBuffer;
 import org.grails.web.converters.AbstractConverter;
 import org.grails.web.converters.Converter;
 import org.grails.web.converters.ConverterUtil;
 import org.grails.web.converters.IncludeExcludeConverter;
+import org.grails.web.converters.ParallelChunkedMarshalling;
 import org.grails.web.converters.configuration.ConverterConfiguration;
 import org.grails.web.converters.configuration.ConvertersConfigurationHolder;
 import org.grails.web.converters.configuration.DefaultConverterConfiguration;
+import org.grails.web.converters.configuration.ExtendedConverterConfiguration;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ClosureObjectMarshaller;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
@@ -70,6 +72,8 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
         contentType = MimeType.JSON.getName();
         circularReferenceBehaviour = config != null ? config.getCircularReferenceBehaviour() : CircularReferenceBehaviour.DEFAULT;
         prettyPrint = config != null && config.isPrettyPrint();
+        byteOutput = config instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<JSON>) config).isByteOutput();
     }
 
     /**
@@ -82,6 +86,27 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
         setTarget(target);
     }
 
+    /**
+     * Creates a JSON Converter for a chunk of a collection that the given converter converts in parallel. It has the
+     * configuration, includes and excludes of the given converter.
+     *
+     * @param parent the converter of the collection
+     * @param ancestors the objects the given converter is converting, for the detection of circular references
+     */
+    protected JSON(JSON parent, Collection<?> ancestors) {
+        config = parent.config;
+        encoding = parent.encoding;
+        contentType = parent.contentType;
+        circularReferenceBehaviour = parent.circularReferenceBehaviour;
+        includes.putAll(parent.includes);
+        excludes.putAll(parent.excludes);
+        referenceStack = new Stack<Object>();
+        for (Object ancestor : ancestors) {
+            addReference(ancestor, referenceStack.size());
+            referenceStack.push(ancestor);
+        }
+    }
+
     public void setPrettyPrint(boolean prettyPrint) {
         this.prettyPrint = prettyPrint;
     }
@@ -95,6 +120,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
             writer = new PathCapturingJSONWriterWrapper(writer);
         }
         referenceStack = new Stack<Object>();
+        clearReferences();
     }
 
     private void finalizeRender(Writer out) {
@@ -128,6 +154,10 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
      */
     public void render(HttpServletResponse response) throws ConverterException {
         response.setContentType(GrailsWebUtil.getContentType(contentType, encoding));
+        if (byteOutput) {
+            renderBytes(response);
+            return;
+        }
         try {
             render(response.getWriter());
         }
@@ -144,6 +174,61 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
         value(o);
     }
 
+    /**
+     * Converts the elements of a collection to values of the current array. Collections with at least as many elements
+     * as the parallel threshold of the configuration are converted in chunks on a fork-join pool, see
+     * {@link ParallelChunkedMarshalling}, unless the output is pretty printed or circular references are rendered as
+     * paths, which depend on everything written before.
+     *
+     * @param elements the elements
+     * @throws ConverterException
+     */
+    public void convertElements(Collection<?> elements) throws ConverterException {
+        if (prettyPrint || circularReferenceBehaviour == CircularReferenceBehaviour.PATH ||
+                !ParallelChunkedMarshalling.isParallel(config, elements.size())) {
+            for (Object o : elements) {
+                value(o);
+            }
+            return;
+        }
+
+        List<StreamCharBuffer> chunks = ParallelChunkedMarshalling.marshalChunks(elements, JSON.class, config,
+                new ParallelChunkedMarshalling.ChunkMarshaller<JSON>() {
+                    public void marshalChunk(List<?> chunk, Writer out) throws ConverterException {
+                        createChunkConverter().renderElements(chunk, out);
+                    }
+                });
+        try {
+            for (StreamCharBuffer chunk : chunks) {
+                writer.appendElements(chunk);
+            }
+        }
+        catch (JSONException e) {
+            throw new ConverterException(e);
+        }
+    }
+
+    /**
+     * @return a converter for a chunk of a collection that this converter converts in parallel
+     */
+    protected JSON createChunkConverter() {
+        return new JSON(this, referenceStack);
+    }
+
+    private void renderElements(List<?> elements, Writer out) throws ConverterException {
+        writer = new JSONWriter(out);
+        try {
+            writer.beginElements();
+            for (Object o : elements) {
+                value(o);
+            }
+            writer.endElements();
+        }
+        catch (JSONException e) {
+            throw new ConverterException(e);
+        }
+    }
+
     public void build(@SuppressWarnings("rawtypes") Closure c) throws ConverterException {
         new Builder(this).execute(c);
     }
@@ -167,15 +252,16 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
             else if (o instanceof Number) {
                 writer.value((Number)o);
             } else if (o instanceof Boolean) {
-                writer.value((Boolean)o);
+                writer.value(((Boolean)o).booleanValue());
             } else if (o.getClass().isPrimitive() && !o.getClass().equals(byte[].class)) {
                 writer.value(o);
             }
             else {
-                if (referenceStack.contains(o)) {
+                if (getReferencePosition(o) >= 0) {
                     handleCircularRelationship(o);
                 }
                 else {
+                    addReference(o, referenceStack.size());
                     referenceStack.push(o);
                     ObjectMarshaller<JSON> marshaller = config.getMarshaller(o);
                     if (marshaller == null) {
@@ -183,6 +269,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
                     }
                     marshaller.marshalObject(o, this);
                     referenceStack.pop();
+                    removeReference(o);
                 }
             }
         }
@@ -236,7 +323,18 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
      * @throws ConverterException when the JSON content is not valid
      */
     public static JSONElement parse(Reader reader) throws ConverterException {
-        return parse(IOUtils.toString(reader));
+        try {
+            final Object value = new JSONStreamParser(reader).parse();
+            if (value instanceof JSONElement) {
+                return (JSONElement) value;
+            }
+
+            // return empty object
+            return new JSONObject();
+        }
+        catch (JSONException e) {
+            throw new ConverterException("Error parsing JSON", e);
+        }
     }
 
     /**
@@ -247,8 +345,33 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
      * @throws ConverterException when the JSON content is not valid
      */
     public static JSONElement parse(String source) throws ConverterException {
+        return parse(new StringReader(source));
+    }
+
+    /**
+     * Parses the given JSON and returns either a JSONObject or a JSONArray
+     *
+     * @param is       An InputStream which delivers some JSON
+     * @param encoding the Character Encoding to use
+     * @return either a JSONObject or a JSONArray - depending on the given JSON
+     * @throws ConverterException when the JSON content is not valid
+     */
+    public static JSONElement parse(InputStream is, String encoding) throws ConverterException {
+        return parse(createReader(is, encoding));
+    }
+
+    /**
+     * Parses the given JSON and returns either a JSONObject or a JSONArray that is only parsed as far as it is
+     * accessed: the objects and arrays it contains are parsed when they are first accessed
+     *
+     * @param reader JSON source
+     * @return either a JSONObject or a JSONArray - depending on the given JSON
+     * @throws ConverterException when the JSON content can't be read. Syntax errors in an object or array are thrown
+     * as a JSONException when it is accessed
+     */
+    public static JSONElement parseLazily(Reader reader) throws ConverterException {
         try {
-            final Object value = new JSONTokener(source).nextValue();
+            final Object value = JSONStreamParser.parseLazily(reader);
             if (value instanceof JSONElement) {
                 return (JSONElement) value;
             }
@@ -262,19 +385,83 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
     }
 
     /**
-     * Parses the given JSON and returns either a JSONObject or a JSONArray
+     * Returns an iterator that parses the elements of the JSON array in the given source one at a time, so that large
+     * arrays don't have to be held in memory. A source that isn't an array is returned as the only element.
      *
-     * @param is       An InputStream which delivers some JSON
-     * @param encoding the Character Encoding to use
-     * @return either a JSONObject or a JSONArray - depending on the given JSON
-     * @throws ConverterException when the JSON content is not valid
+     * @param reader JSON source
+     * @return the elements
+     * @throws ConverterException from the iterator when the JSON content is not valid
      */
-    public static JSONElement parse(InputStream is, String encoding) throws ConverterException {
-          return parse(IOUtils.toString(is, encoding));
+    public static Iterator<Object> iterate(Reader reader) throws ConverterException {
+        final Iterator<Object> elements = new JSONStreamParser(reader).elements();
+        return new Iterator<Object>() {
+            public boolean hasNext() {
+                try {
+                    return elements.hasNext();
+                }
+                catch (JSONException e) {
+                    throw new ConverterException("Error parsing JSON", e);
+                }
+            }
+
+            public Object next() {
+                try {
+                    return elements.next();
+                }
+                catch (JSONException e) {
+                    throw new ConverterException("Error parsing JSON", e);
+                }
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        };
     }
 
     /**
-     * Parses the given request's InputStream and returns either a JSONObject or a JSONArray
+     * Returns an iterator that parses the elements of the JSON array in the body of the given request one at a time.
+     * The body is read by the iterator and therefore isn't available to {@link #parse(HttpServletRequest)} afterwards,
+     * but if the request has already been parsed, the elements of the parsed JSON are returned.
+     *
+     * @param request the JSON Request
+     * @return the elements
+     * @throws ConverterException from the iterator when the JSON content is not valid
+     */
+    public static Iterator<Object> iterate(HttpServletRequest request) throws ConverterException {
+        Object json = request.getAttribute(CACHED_JSON);
+        if (json instanceof JSONArray) {
+            return ((JSONArray) json).iterator();
+        }
+        if (json != null) {
+            return Collections.singletonList(json).iterator();
+        }
+
+        try {
+            return iterate(createReader(request.getInputStream(), getRequestEncoding(request)));
+        }
+        catch (IOException e) {
+            throw new ConverterException("Error parsing JSON", e);
+        }
+    }
+
+    private static Reader createReader(InputStream is, String encoding) throws ConverterException {
+        try {
+            return encoding != null && encoding.length() > 0 ? new InputStreamReader(is, encoding) : new InputStreamReader(is);
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new ConverterException("Error parsing JSON", e);
+        }
+    }
+
+    private static String getRequestEncoding(HttpServletRequest request) {
+        String encoding = request.getCharacterEncoding();
+        return encoding != null ? encoding : Converter.DEFAULT_REQUEST_ENCODING;
+    }
+
+    /**
+     * Parses the given request's InputStream and returns either a JSONObject or a JSONArray. With the
+     * grails.converters.json.lazy.parsing setting, the objects and arrays are only parsed when they are accessed.
      *
      * @param request the JSON Request
      * @return either a JSONObject or a JSONArray - depending on the given JSON
@@ -286,10 +473,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
             return json;
         }
 
-        String encoding = request.getCharacterEncoding();
-        if (encoding == null) {
-            encoding = Converter.DEFAULT_REQUEST_ENCODING;
-        }
+        String encoding = getRequestEncoding(request);
         try {
             PushbackInputStream pushbackInputStream = null;
             int firstByte = -1;
@@ -304,7 +488,14 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
             }
             else {
                 pushbackInputStream.unread(firstByte);
-                json = parse(pushbackInputStream, encoding);
+                ConverterConfiguration<JSON> config = ConvertersConfigurationHolder.getConverterConfiguration(JSON.class);
+                if (config instanceof ExtendedConverterConfiguration &&
+                        ((ExtendedConverterConfiguration<JSON>) config).isLazyParsing()) {
+                    json = parseLazily(createReader(pushbackInputStream, encoding));
+                }
+                else {
+                    json = parse(pushbackInputStream, encoding);
+                }
             }
             request.setAttribute(CACHED_JSON, json);
             return json;
@@ -334,7 +525,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
                     Map<String, Object> props = new HashMap<String, Object>();
                     props.put("class", o.getClass());
                     StringBuilder ref = new StringBuilder();
-                    int idx = referenceStack.indexOf(o);
+                    int idx = getReferencePosition(o);
                     for (int i = referenceStack.size() - 1; i > idx; i--) {
                         ref.append("../");
                     }
@@ -358,7 +549,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
             case PATH:
                 Map<String, Object> props = new HashMap<String, Object>();
                 props.put("class", o.getClass());
-                int idx = referenceStack.indexOf(o);
+                int idx = getReferencePosition(o);
                 PathCapturingJSONWriterWrapper pcWriter = (PathCapturingJSONWriterWrapper) writer;
                 props.put("ref", String.format("root%s", pcWriter.getStackReference(idx)));
                 value(props);
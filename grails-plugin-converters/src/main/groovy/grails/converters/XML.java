@@ -29,13 +29,16 @@ import grails.core.support.proxy.ProxyHandler;
 import grails.web.mime.MimeType;
 
 import org.grails.buffer.FastStringWriter;
+import org.grails.buffer.StreamCharBuffer;
 import org.grails.web.converters.AbstractConverter;
 import org.grails.web.converters.Converter;
 import org.grails.web.converters.ConverterUtil;
 import org.grails.web.converters.IncludeExcludeConverter;
+import org.grails.web.converters.ParallelChunkedMarshalling;
 import org.grails.web.converters.configuration.ConverterConfiguration;
 import org.grails.web.converters.configuration.ConvertersConfigurationHolder;
 import org.grails.web.converters.configuration.DefaultConverterConfiguration;
+import org.grails.web.converters.configuration.ExtendedConverterConfiguration;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ClosureObjectMarshaller;
 import org.grails.web.converters.marshaller.NameAwareMarshaller;
@@ -52,6 +55,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Writer;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
@@ -82,6 +86,8 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements IncludeEx
         encoding = config.getEncoding() != null ? config.getEncoding() : "UTF-8";
         contentType = MimeType.XML.getName();
         circularReferenceBehaviour = config.getCircularReferenceBehaviour();
+        byteOutput = config instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<XML>) config).isByteOutput();
     }
 
     public XML(Object target) {
@@ -95,6 +101,26 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements IncludeEx
         this.isRendering = true;
     }
 
+    /**
+     * Creates an XML Converter for a chunk of a collection that the given converter converts in parallel. It has the
+     * configuration, includes and excludes of the given converter.
+     *
+     * @param parent the converter of the collection
+     * @param ancestors the objects the given converter is converting, for the detection of circular references
+     */
+    protected XML(XML parent, Collection<?> ancestors) {
+        config = parent.config;
+        encoding = parent.encoding;
+        contentType = parent.contentType;
+        circularReferenceBehaviour = parent.circularReferenceBehaviour;
+        includes.putAll(parent.includes);
+        excludes.putAll(parent.excludes);
+        for (Object ancestor : ancestors) {
+            addReference(ancestor, referenceStack.size());
+            referenceStack.push(ancestor);
+        }
+    }
+
 
 
     protected ConverterConfiguration<XML> initConfig() {
@@ -175,10 +201,11 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements IncludeEx
             }
             else {
 
-                if (referenceStack.contains(o)) {
+                if (getReferencePosition(o) >= 0) {
                     handleCircularRelationship(o);
                 }
                 else {
+                    addReference(o, referenceStack.size());
                     referenceStack.push(o);
                     ObjectMarshaller<XML> marshaller = config.getMarshaller(o);
                     if (marshaller == null) {
@@ -186,6 +213,7 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements IncludeEx
                     }
                     marshaller.marshalObject(o, this);
                     referenceStack.pop();
+                    removeReference(o);
                 }
             }
         }
@@ -194,6 +222,73 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements IncludeEx
         }
     }
 
+    /**
+     * Converts the elements of a collection to child nodes of the current node, named by {@link #getElementName(Object)}.
+     * Collections with at least as many elements as the parallel threshold of the configuration are converted in chunks
+     * on a fork-join pool, see {@link ParallelChunkedMarshalling}, unless the output is pretty printed, which depends on
+     * the indentation of everything written before.
+     *
+     * @param elements the elements
+     * @throws ConverterException
+     */
+    public void convertElements(Collection<?> elements) throws ConverterException {
+        checkState();
+        if (writer instanceof PrettyPrintXMLStreamWriter || !ParallelChunkedMarshalling.isParallel(config, elements.size())) {
+            for (Object o : elements) {
+                convertElement(o);
+            }
+            return;
+        }
+
+        List<StreamCharBuffer> chunks = ParallelChunkedMarshalling.marshalChunks(elements, XML.class, config,
+                new ParallelChunkedMarshalling.ChunkMarshaller<XML>() {
+                    public void marshalChunk(List<?> chunk, Writer out) throws ConverterException {
+                        createChunkConverter().renderElements(chunk, out);
+                    }
+                });
+        try {
+            for (StreamCharBuffer chunk : chunks) {
+                writer.content(chunk);
+            }
+        }
+        catch (Exception e) {
+            throw ConverterUtil.resolveConverterException(e);
+        }
+    }
+
+    /**
+     * @return a converter for a chunk of a collection that this converter converts in parallel
+     */
+    protected XML createChunkConverter() {
+        return new XML(this, referenceStack);
+    }
+
+    private void convertElement(Object o) throws ConverterException {
+        if (o != null) {
+            startNode(getElementName(o));
+            convertAnother(o);
+            end();
+        }
+        else {
+            startNode("null");
+            end();
+        }
+    }
+
+    private void renderElements(List<?> elements, Writer out) throws ConverterException {
+        stream = new StreamingMarkupWriter(out, encoding);
+        writer = new XMLStreamWriter(stream);
+        isRendering = true;
+        try {
+            for (Object o : elements) {
+                convertElement(o);
+            }
+        }
+        finally {
+            isRendering = false;
+        }
+    }
+
     public ObjectMarshaller<XML> lookupObjectMarshaller(Object target) {
         return config.getMarshaller(target);
     }
@@ -251,7 +346,7 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements IncludeEx
         switch (circularReferenceBehaviour) {
             case DEFAULT:
                 StringBuilder ref = new StringBuilder();
-                int idx = referenceStack.indexOf(o);
+                int idx = getReferencePosition(o);
                 for (int i = referenceStack.size() - 1; i > idx; i--) {
                     ref.append("../");
                 }
@@ -266,6 +361,10 @@ public class XML extends AbstractConverter<XMLStreamWriter> implements IncludeEx
 
     public void render(HttpServletResponse response) throws ConverterException {
         response.setContentType(GrailsWebUtil.getContentType(contentType, encoding));
+        if (byteOutput) {
+            renderBytes(response);
+            return;
+        }
         try {
             render(response.getWriter());
         }
@@ -16,9 +16,15 @@
 package org.grails.web.converters;
 
 import org.grails.buffer.FastStringWriter;
+import org.grails.buffer.StreamByteBuffer;
+import org.grails.web.converters.exceptions.ConverterException;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,9 +39,16 @@ public abstract class AbstractConverter<W> implements ConfigurableConverter<W> {
 
     protected String contentType;
     protected String encoding = "UTF-8";
+    protected boolean byteOutput;
     protected Map<Class, List<String>> includes = new LinkedHashMap<Class, List<String>>();
     protected Map<Class, List<String>> excludes = new LinkedHashMap<Class, List<String>>();
 
+    /**
+     * The positions of the objects that are being converted on the reference stack of the converter by identity, so
+     * that circular references are found in constant time and without calling equals, which may load lazy associations
+     */
+    private final Map<Object, Integer> referencePositions = new IdentityHashMap<Object, Integer>();
+
     public abstract void setTarget(Object target);
 
     /**
@@ -58,6 +71,43 @@ public abstract class AbstractConverter<W> implements ConfigurableConverter<W> {
         this.encoding = encoding;
     }
 
+    /**
+     * Sets whether {@link #render(HttpServletResponse)} encodes the output into bytes before writing it to the response
+     *
+     * @param byteOutput True to write bytes to the output stream of the response
+     */
+    public void setByteOutput(boolean byteOutput) {
+        this.byteOutput = byteOutput;
+    }
+
+    /**
+     * @return Whether {@link #render(HttpServletResponse)} encodes the output into bytes before writing it to the response
+     */
+    public boolean isByteOutput() {
+        return byteOutput;
+    }
+
+    /**
+     * Renders into a buffer of bytes in the character encoding of the response and writes the buffer to the output
+     * stream of the response, so that characters are only encoded once and the Content-Length of the response is set.
+     * The content type has to be set by the caller.
+     *
+     * @param response The response
+     * @throws ConverterException If rendering fails
+     */
+    public void renderBytes(HttpServletResponse response) throws ConverterException {
+        String charset = response.getCharacterEncoding();
+        StreamByteBuffer buffer = new StreamByteBuffer();
+        try {
+            render(new OutputStreamWriter(buffer.getOutputStream(), charset != null ? charset : encoding));
+            response.setContentLength(buffer.totalBytesUnread());
+            buffer.writeTo(response.getOutputStream());
+        }
+        catch (IOException e) {
+            throw new ConverterException(e);
+        }
+    }
+
     /**
      * Set to include properties for the given type
      *
@@ -102,6 +152,41 @@ public abstract class AbstractConverter<W> implements ConfigurableConverter<W> {
         return includes.get(type);
     }
 
+    /**
+     * Records that the given object is being converted
+     *
+     * @param o The object
+     * @param position The position of the object on the reference stack
+     */
+    protected void addReference(Object o, int position) {
+        referencePositions.put(o, position);
+    }
+
+    /**
+     * Records that the given object has been converted
+     *
+     * @param o The object
+     */
+    protected void removeReference(Object o) {
+        referencePositions.remove(o);
+    }
+
+    /**
+     * Forgets all objects that are being converted
+     */
+    protected void clearReferences() {
+        referencePositions.clear();
+    }
+
+    /**
+     * @param o The object
+     * @return The position of the given object on the reference stack or -1 if the object isn't being converted
+     */
+    protected int getReferencePosition(Object o) {
+        Integer position = referencePositions.get(o);
+        return position != null ? position : -1;
+    }
+
     @Override
     public String toString() {
         FastStringWriter writer = new FastStringWriter();
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.converters;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import org.grails.buffer.StreamCharBuffer;
+import org.grails.web.converters.configuration.ConverterConfiguration;
+import org.grails.web.converters.configuration.ConvertersConfigurationHolder;
+import org.grails.web.converters.configuration.ExtendedConverterConfiguration;
+import org.grails.web.converters.exceptions.ConverterException;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Marshals the elements of large collections in chunks on a fork-join pool. Each chunk is written into its own
+ * {@link StreamCharBuffer} and the buffers are returned in the order of the elements, so that the converter can write
+ * them to its output as sub-buffers without copying the text of the chunks.
+ * <p/>
+ * While a chunk is marshalled, the converter configuration the converter was created with is the thread-local
+ * configuration of the pool thread, and the request attributes and locale of the calling thread are bound to it.
+ * Chunks are marshalled concurrently, so the elements must not share state that isn't thread-safe, like domain
+ * instances with lazy associations of the same Hibernate session.
+ *
+ * @since 3.3
+ */
+@SuppressWarnings("rawtypes")
+public final class ParallelChunkedMarshalling {
+
+    /**
+     * The smallest number of elements of a chunk, so that scheduling a chunk costs less than marshalling it
+     */
+    public static final int MIN_CHUNK_SIZE = 64;
+
+    /**
+     * The number of chunks per thread of the pool, so that threads that are done can take chunks of busy threads
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static volatile ForkJoinPool pool;
+
+    private ParallelChunkedMarshalling() {
+    }
+
+    /**
+     * Marshals the elements of a chunk
+     *
+     * @param <C> The type of converter
+     */
+    public interface ChunkMarshaller<C extends Converter> {
+
+        /**
+         * Writes the given elements to the given writer
+         *
+         * @param chunk The elements
+         * @param out The writer of the chunk
+         * @throws ConverterException If an element can't be converted
+         */
+        void marshalChunk(List<?> chunk, Writer out) throws ConverterException;
+    }
+
+    /**
+     * @param config The converter configuration
+     * @param size The number of elements of the collection
+     * @return Whether a collection of the given size is marshalled in parallel with the given configuration
+     */
+    public static boolean isParallel(ConverterConfiguration<?> config, int size) {
+        int threshold = config instanceof ExtendedConverterConfiguration ?
+                ((ExtendedConverterConfiguration<?>) config).getParallelThreshold() : 0;
+        return threshold > 0 && size >= threshold && size > MIN_CHUNK_SIZE;
+    }
+
+    /**
+     * Marshals the elements of the given collection in chunks on the fork-join pool
+     *
+     * @param elements The elements
+     * @param converterClass The type of converter
+     * @param config The configuration the converter was created with
+     * @param marshaller Marshals each chunk
+     * @return The buffers of the chunks in the order of the elements
+     * @throws ConverterException If an element can't be converted
+     */
+    public static <C extends Converter> List<StreamCharBuffer> marshalChunks(Collection<?> elements, Class<C> converterClass,
+            ConverterConfiguration<C> config, ChunkMarshaller<C> marshaller) throws ConverterException {
+        List<?> list = elements instanceof List && elements instanceof RandomAccess ? (List<?>) elements : Arrays.asList(elements.toArray());
+        int size = list.size();
+        int parallelism = getPool().getParallelism();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (size + parallelism * CHUNKS_PER_THREAD - 1) / (parallelism * CHUNKS_PER_THREAD));
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        final List<ChunkTask<C>> tasks = new ArrayList<ChunkTask<C>>((size + chunkSize - 1) / chunkSize);
+        for (int start = 0; start < size; start += chunkSize) {
+            tasks.add(new ChunkTask<C>(list.subList(start, Math.min(start + chunkSize, size)), converterClass, config,
+                    requestAttributes, localeContext, marshaller));
+        }
+
+        if (ForkJoinTask.inForkJoinPool()) {
+            // a chunk of an enclosing collection, the tasks are forked in the pool that marshals it
+            ForkJoinTask.invokeAll(tasks);
+        }
+        else {
+            getPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        List<StreamCharBuffer> buffers = new ArrayList<StreamCharBuffer>(tasks.size());
+        for (ChunkTask<C> task : tasks) {
+            buffers.add(task.join());
+        }
+        return buffers;
+    }
+
+    private static ForkJoinPool getPool() {
+        ForkJoinPool current = pool;
+        if (current == null) {
+            synchronized (ParallelChunkedMarshalling.class) {
+                current = pool;
+                if (current == null) {
+                    // the threads of the default thread factory are daemon threads
+                    pool = current = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class ChunkTask<C extends Converter> extends RecursiveTask<StreamCharBuffer> {
+        private final List<?> chunk;
+        private final Class<C> converterClass;
+        private final ConverterConfiguration<C> config;
+        private final RequestAttributes requestAttributes;
+        private final LocaleContext localeContext;
+        private final ChunkMarshaller<C> marshaller;
+
+        ChunkTask(List<?> chunk, Class<C> converterClass, ConverterConfiguration<C> config,
+                  RequestAttributes requestAttributes, LocaleContext localeContext, ChunkMarshaller<C> marshaller) {
+            this.chunk = chunk;
+            this.converterClass = converterClass;
+            this.config = config;
+            this.requestAttributes = requestAttributes;
+            this.localeContext = localeContext;
+            this.marshaller = marshaller;
+        }
+
+        @Override
+        protected StreamCharBuffer compute() {
+            ConverterConfiguration<C> previousConfig = ConvertersConfigurationHolder.getThreadLocalConverterConfiguration(converterClass);
+            RequestAttributes previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+            LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+            ConvertersConfigurationHolder.setThreadLocalConverterConfiguration(converterClass, config);
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            LocaleContextHolder.setLocaleContext(localeContext);
+            try {
+                StreamCharBuffer buffer = new StreamCharBuffer();
+                marshaller.marshalChunk(chunk, buffer.getWriter());
+                return buffer;
+            }
+            finally {
+                ConvertersConfigurationHolder.setThreadLocalConverterConfiguration(converterClass, previousConfig);
+                RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+                LocaleContextHolder.setLocaleContext(previousLocaleContext);
+            }
+        }
+    }
+}
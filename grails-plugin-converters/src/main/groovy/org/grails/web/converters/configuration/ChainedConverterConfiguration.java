@@ -15,13 +15,8 @@
  */
 package org.grails.web.converters.configuration;
 
-import grails.util.Environment;
-
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import grails.core.support.proxy.DefaultProxyHandler;
 import grails.core.support.proxy.ProxyHandler;
@@ -31,7 +26,7 @@ import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
 
 /**
- * An immutable ConverterConfiguration which chains the lookup calls for ObjectMarshallers
+ * An immutable ConverterConfiguration which caches the ObjectMarshaller selected for a class
  * for performance reasons.
  *
  * @author Siegfried Puchbauer
@@ -40,24 +35,18 @@ import org.grails.web.converters.marshaller.ObjectMarshaller;
  * @since 1.1
  */
 @SuppressWarnings("rawtypes")
-public class ChainedConverterConfiguration<C extends Converter> implements ConverterConfiguration<C> {
+public class ChainedConverterConfiguration<C extends Converter> implements ExtendedConverterConfiguration<C> {
 
     private List<ObjectMarshaller<C>> marshallerList;
-    private ChainedObjectMarshaller<C> root;
+    private final ObjectMarshallerResolver<C> resolver;
     private final String encoding;
     private final Converter.CircularReferenceBehaviour circularReferenceBehaviour;
     private final boolean prettyPrint;
+    private final boolean byteOutput;
+    private final boolean lazyParsing;
+    private final int parallelThreshold;
     private ProxyHandler proxyHandler;
     private final boolean cacheObjectMarshallerByClass;
-    private Map<Integer, ObjectMarshaller<C>> objectMarshallerForClassCache;
-    private final boolean developmentMode = Environment.isDevelopmentMode();
-    private final ObjectMarshaller<C> NULL_HOLDER=new ObjectMarshaller<C>() {
-        public boolean supports(Object object) {
-            return false;
-        }
-        public void marshalObject(Object object, C converter) throws ConverterException {
-        }
-    };
 
     public ChainedConverterConfiguration(ConverterConfiguration<C> cfg) {
         this(cfg, new DefaultProxyHandler());
@@ -69,39 +58,23 @@ public class ChainedConverterConfiguration<C extends Converter> implements Conve
 
         encoding = cfg.getEncoding();
         prettyPrint = cfg.isPrettyPrint();
+        byteOutput = cfg instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<C>) cfg).isByteOutput();
+        lazyParsing = cfg instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<C>) cfg).isLazyParsing();
+        parallelThreshold = cfg instanceof ExtendedConverterConfiguration ?
+                ((ExtendedConverterConfiguration<C>) cfg).getParallelThreshold() : 0;
         cacheObjectMarshallerByClass = cfg.isCacheObjectMarshallerByClass();
-        if (cacheObjectMarshallerByClass) {
-            objectMarshallerForClassCache = new ConcurrentHashMap<Integer, ObjectMarshaller<C>>();
-        }
         circularReferenceBehaviour = cfg.getCircularReferenceBehaviour();
-
-        List<ObjectMarshaller<C>> oms = new ArrayList<ObjectMarshaller<C>>(marshallerList);
-        Collections.reverse(oms);
-        ChainedObjectMarshaller<C> prev = null;
-        for (ObjectMarshaller<C> om : oms) {
-            prev = new ChainedObjectMarshaller<C>(om, prev);
-        }
-        root = prev;
+        resolver = ObjectMarshallerResolver.forConfiguration(cfg, marshallerList);
     }
 
     public ObjectMarshaller<C> getMarshaller(Object o) {
-        ObjectMarshaller<C> marshaller = null;
-
-        Integer cacheKey = null;
-        if (!developmentMode && cacheObjectMarshallerByClass && o != null) {
-            cacheKey = System.identityHashCode(o.getClass());
-            marshaller = objectMarshallerForClassCache.get(cacheKey);
-            if (marshaller != NULL_HOLDER && marshaller != null && !marshaller.supports(o)) {
-                marshaller = null;
-            }
-        }
-        if (marshaller == null) {
-            marshaller = root.findMarhallerFor(o);
-            if (cacheKey != null) {
-                objectMarshallerForClassCache.put(cacheKey, marshaller != null ? marshaller : NULL_HOLDER);
-            }
-        }
-        return marshaller != NULL_HOLDER ? marshaller : null;
+        return resolver.resolve(o);
+    }
+
+    ObjectMarshallerResolver<C> getResolver() {
+        return resolver;
     }
 
     public String getEncoding() {
@@ -116,15 +89,35 @@ public class ChainedConverterConfiguration<C extends Converter> implements Conve
         return prettyPrint;
     }
 
+    public boolean isByteOutput() {
+        return byteOutput;
+    }
+
+    public boolean isLazyParsing() {
+        return lazyParsing;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
     public List<ObjectMarshaller<C>> getOrderedObjectMarshallers() {
         return marshallerList;
     }
 
+    /**
+     * A link of a chain of marshallers, which this configuration used to select the marshaller of an object.
+     *
+     * @deprecated The marshaller is selected by an {@link ObjectMarshallerResolver}, which
+     * {@link #findMarhallerFor(Object)} delegates to
+     */
+    @Deprecated
     @SuppressWarnings("hiding")
     public class ChainedObjectMarshaller<C extends Converter> implements ObjectMarshaller<C> {
 
         private ObjectMarshaller<C> om;
         private ChainedObjectMarshaller<C> next;
+        private volatile ObjectMarshallerResolver<C> chainResolver;
 
         public ChainedObjectMarshaller(ObjectMarshaller<C> om, ChainedObjectMarshaller<C> next) {
             this.om = om;
@@ -132,11 +125,16 @@ public class ChainedConverterConfiguration<C extends Converter> implements Conve
         }
 
         public ObjectMarshaller<C> findMarhallerFor(Object o) {
-            if (supports(o)) {
-                return om;
+            ObjectMarshallerResolver<C> resolver = chainResolver;
+            if (resolver == null) {
+                List<ObjectMarshaller<C>> marshallers = new ArrayList<ObjectMarshaller<C>>();
+                for (ChainedObjectMarshaller<C> link = this; link != null; link = link.next) {
+                    marshallers.add(link.om);
+                }
+                resolver = new ObjectMarshallerResolver<C>(marshallers, cacheObjectMarshallerByClass);
+                chainResolver = resolver;
             }
-
-            return next != null ? next.findMarhallerFor(o) : null;
+            return resolver.resolve(o);
         }
 
         public boolean supports(Object object) {
@@ -51,6 +51,11 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
     public static final String SETTING_CONVERTERS_PRETTY_PRINT = "grails.converters.default.pretty.print";
     public static final String SETTING_CONVERTERS_JSON_PRETTY_PRINT = "grails.converters.json.pretty.print";
     public static final String SETTING_CONVERTERS_JSON_CACHE_OBJECTS = "grails.converters.json.cacheObjectMarshallerSelectionByClass";
+    public static final String SETTING_CONVERTERS_BYTE_OUTPUT = "grails.converters.default.byte.output";
+    public static final String SETTING_CONVERTERS_JSON_BYTE_OUTPUT = "grails.converters.json.byte.output";
+    public static final String SETTING_CONVERTERS_JSON_LAZY_PARSING = "grails.converters.json.lazy.parsing";
+    public static final String SETTING_CONVERTERS_PARALLEL_THRESHOLD = "grails.converters.default.parallel.threshold";
+    public static final String SETTING_CONVERTERS_JSON_PARALLEL_THRESHOLD = "grails.converters.json.parallel.threshold";
     public static final String SETTING_CONVERTERS_XML_DEEP = "grails.converters.xml.default.deep";
 
 
@@ -134,6 +139,11 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
         Boolean defaultPrettyPrint = grailsConfig.getProperty(SETTING_CONVERTERS_PRETTY_PRINT, Boolean.class, false);
         Boolean prettyPrint = grailsConfig.getProperty(SETTING_CONVERTERS_JSON_PRETTY_PRINT, Boolean.class, defaultPrettyPrint);
         cfg.setPrettyPrint(prettyPrint);
+        Boolean defaultByteOutput = grailsConfig.getProperty(SETTING_CONVERTERS_BYTE_OUTPUT, Boolean.class, false);
+        cfg.setByteOutput(grailsConfig.getProperty(SETTING_CONVERTERS_JSON_BYTE_OUTPUT, Boolean.class, defaultByteOutput));
+        cfg.setLazyParsing(grailsConfig.getProperty(SETTING_CONVERTERS_JSON_LAZY_PARSING, Boolean.class, false));
+        Integer defaultParallelThreshold = grailsConfig.getProperty(SETTING_CONVERTERS_PARALLEL_THRESHOLD, Integer.class, 0);
+        cfg.setParallelThreshold(grailsConfig.getProperty(SETTING_CONVERTERS_JSON_PARALLEL_THRESHOLD, Integer.class, defaultParallelThreshold));
         cfg.setCacheObjectMarshallerByClass(grailsConfig.getProperty(SETTING_CONVERTERS_JSON_CACHE_OBJECTS, Boolean.class, true));
 
         registerObjectMarshallersFromApplicationContext(cfg, JSON.class);
@@ -196,6 +206,10 @@ public class ConvertersConfigurationInitializer implements ApplicationContextAwa
         Boolean defaultPrettyPrint = grailsConfig.getProperty(SETTING_CONVERTERS_PRETTY_PRINT, Boolean.class, false);
         Boolean prettyPrint = grailsConfig.getProperty("grails.converters.xml.pretty.print", Boolean.class, defaultPrettyPrint);
         cfg.setPrettyPrint(prettyPrint);
+        Boolean defaultByteOutput = grailsConfig.getProperty(SETTING_CONVERTERS_BYTE_OUTPUT, Boolean.class, false);
+        cfg.setByteOutput(grailsConfig.getProperty("grails.converters.xml.byte.output", Boolean.class, defaultByteOutput));
+        Integer defaultParallelThreshold = grailsConfig.getProperty(SETTING_CONVERTERS_PARALLEL_THRESHOLD, Integer.class, 0);
+        cfg.setParallelThreshold(grailsConfig.getProperty("grails.converters.xml.parallel.threshold", Integer.class, defaultParallelThreshold));
         cfg.setCacheObjectMarshallerByClass(grailsConfig.getProperty("grails.converters.xml.cacheObjectMarshallerSelectionByClass", Boolean.class, true));
         registerObjectMarshallersFromApplicationContext(cfg, XML.class);
         ConvertersConfigurationHolder.setDefaultConfiguration(XML.class, new ChainedConverterConfiguration<XML>(cfg,proxyHandler));
@@ -37,7 +37,7 @@ import org.grails.web.converters.marshaller.ObjectMarshaller;
  * @since 1.1
  */
 @SuppressWarnings("rawtypes")
-public class DefaultConverterConfiguration<C extends Converter> implements ConverterConfiguration<C> {
+public class DefaultConverterConfiguration<C extends Converter> implements ExtendedConverterConfiguration<C> {
 
     public static final int DEFAULT_PRIORITY = 0;
 
@@ -46,10 +46,14 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
     private ConverterConfiguration<C> delegate;
     private String encoding;
     private boolean prettyPrint = false;
+    private boolean byteOutput = false;
+    private boolean lazyParsing = false;
+    private int parallelThreshold = 0;
     private final SortedSet<Entry> objectMarshallers = new TreeSet<Entry>();
     private Converter.CircularReferenceBehaviour circularReferenceBehaviour;
     private ProxyHandler proxyHandler;
     private boolean cacheObjectMarshallerByClass = true;
+    private volatile ObjectMarshallerResolver<C> resolver;
 
     public String getEncoding() {
         return encoding != null ? encoding : (delegate != null ? delegate.getEncoding() : null);
@@ -71,6 +75,30 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
         this.prettyPrint = prettyPrint;
     }
 
+    public boolean isByteOutput() {
+        return byteOutput;
+    }
+
+    public void setByteOutput(boolean byteOutput) {
+        this.byteOutput = byteOutput;
+    }
+
+    public boolean isLazyParsing() {
+        return lazyParsing;
+    }
+
+    public void setLazyParsing(boolean lazyParsing) {
+        this.lazyParsing = lazyParsing;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
     public List<ObjectMarshaller<C>> getOrderedObjectMarshallers() {
         List<ObjectMarshaller<C>> list = new ArrayList<ObjectMarshaller<C>>();
         for (Entry entry : objectMarshallers) {
@@ -96,6 +124,12 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
         this();
         this.delegate = delegate;
         prettyPrint = delegate.isPrettyPrint();
+        byteOutput = delegate instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<C>) delegate).isByteOutput();
+        lazyParsing = delegate instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<C>) delegate).isLazyParsing();
+        parallelThreshold = delegate instanceof ExtendedConverterConfiguration ?
+                ((ExtendedConverterConfiguration<C>) delegate).getParallelThreshold() : 0;
         circularReferenceBehaviour = delegate.getCircularReferenceBehaviour();
         encoding = delegate.getEncoding();
     }
@@ -108,6 +142,12 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
         this(proxyHandler);
         this.delegate = delegate;
         prettyPrint = delegate.isPrettyPrint();
+        byteOutput = delegate instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<C>) delegate).isByteOutput();
+        lazyParsing = delegate instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<C>) delegate).isLazyParsing();
+        parallelThreshold = delegate instanceof ExtendedConverterConfiguration ?
+                ((ExtendedConverterConfiguration<C>) delegate).getParallelThreshold() : 0;
         circularReferenceBehaviour = delegate.getCircularReferenceBehaviour();
         encoding = delegate.getEncoding();
     }
@@ -131,6 +171,7 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
 
     public void registerObjectMarshaller(ObjectMarshaller<C> marshaller, int priority) {
         objectMarshallers.add(new Entry(marshaller, priority));
+        resolver = null;
     }
 
     public void registerObjectMarshaller(Class<?> c, int priority, Closure callable) {
@@ -142,14 +183,34 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
     }
 
     public ObjectMarshaller<C> getMarshaller(Object o) {
-        for (Entry entry : objectMarshallers) {
-            if (entry.marshaller.supports(o)) {
-                return entry.marshaller;
-            }
+        ObjectMarshaller<C> marshaller = getResolver().resolve(o);
+        if (marshaller != null) {
+            return marshaller;
         }
         return delegate != null ? delegate.getMarshaller(o) : null;
     }
 
+    /**
+     * @return The resolver for the marshallers registered with this configuration, excluding those of the delegate.
+     * It is replaced whenever a marshaller is registered.
+     */
+    ObjectMarshallerResolver<C> getResolver() {
+        ObjectMarshallerResolver<C> current = resolver;
+        if (current == null) {
+            List<ObjectMarshaller<C>> list = new ArrayList<ObjectMarshaller<C>>(objectMarshallers.size());
+            for (Entry entry : objectMarshallers) {
+                list.add(entry.marshaller);
+            }
+            current = new ObjectMarshallerResolver<C>(list, cacheObjectMarshallerByClass);
+            resolver = current;
+        }
+        return current;
+    }
+
+    boolean hasDelegate() {
+        return delegate != null;
+    }
+
     public class Entry implements Comparable<Entry> {
         protected final ObjectMarshaller<C> marshaller;
         private final int priority;
@@ -176,5 +237,6 @@ public class DefaultConverterConfiguration<C extends Converter> implements Conve
 
     public void setCacheObjectMarshallerByClass(boolean cacheObjectMarshallerByClass) {
         this.cacheObjectMarshallerByClass = cacheObjectMarshallerByClass;
+        resolver = null;
     }
 }
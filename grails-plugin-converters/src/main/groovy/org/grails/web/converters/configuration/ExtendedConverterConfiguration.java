@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.converters.configuration;
+
+import org.grails.web.converters.Converter;
+
+/**
+ * Settings of a ConverterConfiguration that were added after the ConverterConfiguration interface was published, so
+ * that existing implementations of the interface don't have to implement them. Converters check for this interface and
+ * use the defaults for configurations that don't implement it.
+ *
+ * @since 3.3
+ */
+@SuppressWarnings("rawtypes")
+public interface ExtendedConverterConfiguration<C extends Converter> extends ConverterConfiguration<C> {
+
+    /**
+     * Lookup method whether the converter should encode its output into bytes before writing it to a response
+     * @return a boolean, false by default
+     */
+    boolean isByteOutput();
+
+    /**
+     * Lookup method whether parsed request bodies are only parsed as far as they are accessed
+     * @return a boolean, false by default
+     */
+    boolean isLazyParsing();
+
+    /**
+     * Lookup method for the number of elements from which collections and arrays are marshalled in parallel chunks
+     * @return the number of elements or 0, the default, if collections are always marshalled on the calling thread
+     */
+    int getParallelThreshold();
+}
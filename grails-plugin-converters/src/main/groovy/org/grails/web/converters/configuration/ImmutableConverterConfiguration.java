@@ -31,16 +31,24 @@ import org.grails.web.converters.marshaller.ObjectMarshaller;
  * @see org.grails.web.converters.configuration.ChainedConverterConfiguration
  */
 @SuppressWarnings("rawtypes")
-public class ImmutableConverterConfiguration<C extends Converter> implements ConverterConfiguration<C> {
+public class ImmutableConverterConfiguration<C extends Converter> implements ExtendedConverterConfiguration<C> {
 
     protected final List<ObjectMarshaller<C>> marshallers;
 
+    private final ObjectMarshallerResolver<C> resolver;
+
     private final String encoding;
 
     private final Converter.CircularReferenceBehaviour circularReferenceBehaviour;
 
     private final boolean prettyPrint;
 
+    private final boolean byteOutput;
+
+    private final boolean lazyParsing;
+
+    private final int parallelThreshold;
+
     private ProxyHandler proxyHandler;
 
     private final boolean cacheObjectMarshallerByClass;
@@ -53,21 +61,27 @@ public class ImmutableConverterConfiguration<C extends Converter> implements Con
         marshallers = Collections.unmodifiableList(cfg.getOrderedObjectMarshallers());
         encoding = cfg.getEncoding();
         prettyPrint = cfg.isPrettyPrint();
+        byteOutput = cfg instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<C>) cfg).isByteOutput();
+        lazyParsing = cfg instanceof ExtendedConverterConfiguration &&
+                ((ExtendedConverterConfiguration<C>) cfg).isLazyParsing();
+        parallelThreshold = cfg instanceof ExtendedConverterConfiguration ?
+                ((ExtendedConverterConfiguration<C>) cfg).getParallelThreshold() : 0;
         cacheObjectMarshallerByClass = cfg.isCacheObjectMarshallerByClass();
         circularReferenceBehaviour = cfg.getCircularReferenceBehaviour();
         this.proxyHandler = proxyHandler;
+        resolver = ObjectMarshallerResolver.forConfiguration(cfg, marshallers);
     }
 
     /**
      * @see ConverterConfiguration#getMarshaller(Object)
      */
     public ObjectMarshaller<C> getMarshaller(Object o) {
-        for (ObjectMarshaller<C> om : marshallers) {
-            if (om.supports(o)) {
-                return om;
-            }
-        }
-        return null;
+        return resolver.resolve(o);
+    }
+
+    ObjectMarshallerResolver<C> getResolver() {
+        return resolver;
     }
 
     /**
@@ -91,6 +105,27 @@ public class ImmutableConverterConfiguration<C extends Converter> implements Con
         return prettyPrint;
     }
 
+    /**
+     * @see ExtendedConverterConfiguration#isByteOutput()
+     */
+    public boolean isByteOutput() {
+        return byteOutput;
+    }
+
+    /**
+     * @see ExtendedConverterConfiguration#isLazyParsing()
+     */
+    public boolean isLazyParsing() {
+        return lazyParsing;
+    }
+
+    /**
+     * @see ExtendedConverterConfiguration#getParallelThreshold()
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
     public List<ObjectMarshaller<C>> getOrderedObjectMarshallers() {
         return marshallers;
     }
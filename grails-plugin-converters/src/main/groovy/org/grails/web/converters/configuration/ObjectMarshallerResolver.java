@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.converters.configuration;
+
+import grails.util.Environment;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.grails.web.converters.Converter;
+import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
+
+/**
+ * Selects the first marshaller of an ordered list that supports an object and caches the selection per class.
+ *
+ * <p>Marshallers implementing {@link TypeBasedMarshaller} only need to be asked once per class, unless they are
+ * subclasses overriding {@link ObjectMarshaller#supports(Object)} without declaring the interface again, whose
+ * selection may depend on the instance. The scan for a class is cached up to the first type based marshaller that
+ * supports it. Marshallers that aren't type based and come before that one are still asked for every object, but the
+ * type based marshallers between them aren't asked again. The list is copied, so a resolver has to be replaced when
+ * marshallers are added. Caching is disabled in development mode, where classes are reloaded.</p>
+ *
+ * @since 3.3
+ */
+@SuppressWarnings("rawtypes")
+class ObjectMarshallerResolver<C extends Converter> {
+
+    private final ObjectMarshaller<C>[] marshallers;
+    private final boolean[] typeBased;
+    private final ConcurrentMap<Class<?>, Resolution<C>> resolutions;
+
+    @SuppressWarnings("unchecked")
+    ObjectMarshallerResolver(List<ObjectMarshaller<C>> marshallers, boolean cacheByClass) {
+        this.marshallers = marshallers.toArray(new ObjectMarshaller[marshallers.size()]);
+        typeBased = new boolean[this.marshallers.length];
+        for (int i = 0; i < typeBased.length; i++) {
+            typeBased[i] = isTypeBased(this.marshallers[i]);
+        }
+        resolutions = cacheByClass && !Environment.isDevelopmentMode() ?
+                new ConcurrentHashMap<Class<?>, Resolution<C>>() : null;
+    }
+
+    /**
+     * @param marshaller The marshaller
+     * @return Whether the marshaller is type based and its supports method is declared by a class that declares
+     * {@link TypeBasedMarshaller}, not inherited from a superclass that does
+     */
+    static boolean isTypeBased(ObjectMarshaller<?> marshaller) {
+        if (!(marshaller instanceof TypeBasedMarshaller)) {
+            return false;
+        }
+        try {
+            Class<?> declaringClass = marshaller.getClass().getMethod("supports", Object.class).getDeclaringClass();
+            return Arrays.asList(declaringClass.getInterfaces()).contains(TypeBasedMarshaller.class);
+        }
+        catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the resolver for the marshallers of a configuration, reusing the resolver and therefore the cached
+     * selections of the configuration if it has one for the same marshallers
+     *
+     * @param cfg The configuration
+     * @param marshallers The ordered marshallers of the configuration
+     * @return The resolver
+     */
+    static <C extends Converter> ObjectMarshallerResolver<C> forConfiguration(ConverterConfiguration<C> cfg, List<ObjectMarshaller<C>> marshallers) {
+        if (cfg instanceof ChainedConverterConfiguration) {
+            return ((ChainedConverterConfiguration<C>) cfg).getResolver();
+        }
+        if (cfg instanceof ImmutableConverterConfiguration) {
+            return ((ImmutableConverterConfiguration<C>) cfg).getResolver();
+        }
+        if (cfg instanceof DefaultConverterConfiguration && !((DefaultConverterConfiguration<C>) cfg).hasDelegate()) {
+            return ((DefaultConverterConfiguration<C>) cfg).getResolver();
+        }
+        return new ObjectMarshallerResolver<C>(marshallers, cfg.isCacheObjectMarshallerByClass());
+    }
+
+    /**
+     * @param o The object
+     * @return The first marshaller that supports the object or null if none does
+     */
+    ObjectMarshaller<C> resolve(Object o) {
+        if (resolutions == null || o == null) {
+            return find(o);
+        }
+
+        Class<?> type = o.getClass();
+        Resolution<C> resolution = resolutions.get(type);
+        if (resolution == null) {
+            resolution = scan(o);
+            resolutions.put(type, resolution);
+        }
+        for (int index : resolution.perObject) {
+            if (marshallers[index].supports(o)) {
+                return marshallers[index];
+            }
+        }
+        return resolution.marshaller;
+    }
+
+    private Resolution<C> scan(Object o) {
+        int[] perObject = new int[marshallers.length];
+        int count = 0;
+        for (int i = 0; i < marshallers.length; i++) {
+            if (!typeBased[i]) {
+                perObject[count++] = i;
+            }
+            else if (marshallers[i].supports(o)) {
+                return new Resolution<C>(marshallers[i], Arrays.copyOf(perObject, count));
+            }
+        }
+        return new Resolution<C>(null, Arrays.copyOf(perObject, count));
+    }
+
+    private ObjectMarshaller<C> find(Object o) {
+        for (int i = 0; i < marshallers.length; i++) {
+            if (marshallers[i].supports(o)) {
+                return marshallers[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The cached result of scanning the marshallers for a class: the indexes of the marshallers that have to be asked
+     * for every object, in order, and the type based marshaller to use if none of them supports the object, which is
+     * null if none supports the class
+     */
+    private static class Resolution<C extends Converter> {
+        final ObjectMarshaller<C> marshaller;
+        final int[] perObject;
+
+        Resolution(ObjectMarshaller<C> marshaller, int[] perObject) {
+            this.marshaller = marshaller;
+            this.perObject = perObject;
+        }
+    }
+}
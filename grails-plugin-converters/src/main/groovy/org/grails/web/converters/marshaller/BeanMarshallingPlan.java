@@ -0,0 +1,221 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.converters.marshaller;
+
+import grails.util.Environment;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.grails.web.json.JSONWriter;
+
+/**
+ * The properties a bean marshaller writes for a class, in order, with their names already quoted for JSON and a
+ * {@link MethodHandle} to read each of them. Plans are built once per class and set of includes and excludes, so
+ * marshalling an object doesn't need any property descriptors or reflection.
+ *
+ * @since 3.3
+ */
+public class BeanMarshallingPlan {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle METHOD_INVOKE;
+
+    static {
+        try {
+            METHOD_INVOKE = MethodHandles.publicLookup().findVirtual(Method.class, "invoke",
+                    MethodType.methodType(Object.class, Object.class, Object[].class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final BeanProperty[] properties;
+
+    public BeanMarshallingPlan(List<BeanProperty> properties) {
+        this.properties = properties.toArray(new BeanProperty[properties.size()]);
+    }
+
+    /**
+     * @return The properties in the order they are written
+     */
+    public BeanProperty[] getProperties() {
+        return properties;
+    }
+
+    /**
+     * Creates a property read through its getter
+     *
+     * @param name The name of the property
+     * @param readMethod The getter
+     * @return The property
+     */
+    public static BeanProperty property(String name, Method readMethod) {
+        MethodHandle getter;
+        try {
+            getter = MethodHandles.publicLookup().unreflect(readMethod);
+        }
+        catch (IllegalAccessException e) {
+            // getters of classes that aren't public fail the same way they did with Method.invoke
+            getter = MethodHandles.insertArguments(METHOD_INVOKE.bindTo(readMethod), 1, (Object) null);
+        }
+        return new BeanProperty(name, getter.asType(GETTER_TYPE));
+    }
+
+    /**
+     * Creates a property read from a public field
+     *
+     * @param field The field
+     * @return The property
+     * @throws IllegalAccessException If the field isn't accessible
+     */
+    public static BeanProperty field(Field field) throws IllegalAccessException {
+        return new BeanProperty(field.getName(), MethodHandles.publicLookup().unreflectGetter(field).asType(GETTER_TYPE));
+    }
+
+    /**
+     * A property of a plan
+     */
+    public static class BeanProperty {
+        private final String name;
+        private final String quotedName;
+        private final MethodHandle getter;
+
+        BeanProperty(String name, MethodHandle getter) {
+            this.name = name;
+            this.quotedName = JSONWriter.quoteKey(name);
+            this.getter = getter;
+        }
+
+        /**
+         * @return The name of the property, which is also the XML element name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The name of the property quoted and escaped as a JSON key
+         */
+        public String getQuotedName() {
+            return quotedName;
+        }
+
+        /**
+         * Reads the value of the property
+         *
+         * @param bean The bean
+         * @return The value
+         * @throws Exception If the getter throws an exception
+         */
+        public Object getValue(Object bean) throws Exception {
+            try {
+                return (Object) getter.invokeExact(bean);
+            }
+            catch (Exception e) {
+                throw e;
+            }
+            catch (Error e) {
+                throw e;
+            }
+            catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+    }
+
+    /**
+     * Caches the plans of a marshaller by class, includes and excludes. Nothing is cached in development mode, where
+     * classes are reloaded.
+     */
+    public static class Cache {
+        private final ConcurrentMap<Object, BeanMarshallingPlan> plans =
+                Environment.isDevelopmentMode() ? null : new ConcurrentHashMap<Object, BeanMarshallingPlan>();
+
+        /**
+         * @param type The class
+         * @param includes The properties to include or null
+         * @param excludes The properties to exclude or null
+         * @return The cached plan or null
+         */
+        public BeanMarshallingPlan get(Class<?> type, List<String> includes, List<String> excludes) {
+            return plans != null ? plans.get(keyFor(type, includes, excludes)) : null;
+        }
+
+        /**
+         * @param type The class
+         * @param includes The properties to include or null
+         * @param excludes The properties to exclude or null
+         * @param plan The plan
+         * @return The plan
+         */
+        public BeanMarshallingPlan put(Class<?> type, List<String> includes, List<String> excludes, BeanMarshallingPlan plan) {
+            if (plans != null) {
+                // the lists of the caller may be modified later, so the key that is stored gets copies of them
+                plans.put(keyFor(type, copyOf(includes), copyOf(excludes)), plan);
+            }
+            return plan;
+        }
+
+        private static Object keyFor(Class<?> type, List<String> includes, List<String> excludes) {
+            return includes == null && excludes == null ? type : new Key(type, includes, excludes);
+        }
+
+        private static List<String> copyOf(List<String> properties) {
+            return properties != null ? Collections.unmodifiableList(new ArrayList<String>(properties)) : null;
+        }
+    }
+
+    private static class Key {
+        private final Class<?> type;
+        private final List<String> includes;
+        private final List<String> excludes;
+
+        Key(Class<?> type, List<String> includes, List<String> excludes) {
+            this.type = type;
+            this.includes = includes;
+            this.excludes = excludes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return type.equals(key.type) &&
+                    (includes != null ? includes.equals(key.includes) : key.includes == null) &&
+                    (excludes != null ? excludes.equals(key.excludes) : key.excludes == null);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type.hashCode();
+            result = 31 * result + (includes != null ? includes.hashCode() : 0);
+            result = 31 * result + (excludes != null ? excludes.hashCode() : 0);
+            return result;
+        }
+    }
+}
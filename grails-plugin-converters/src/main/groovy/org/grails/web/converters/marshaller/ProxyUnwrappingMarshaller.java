@@ -24,7 +24,8 @@ import org.grails.web.converters.Converter;
 import org.grails.web.converters.exceptions.ConverterException;
 
 /**
- * Unwraps Hibernate proxies with no direct references to the Hibernate APIs
+ * Unwraps Hibernate proxies with no direct references to the Hibernate APIs. Whether an object is a proxy only depends
+ * on the meta class of its class, so the marshaller is type based.
  *
  * @author Siegfried Puchbauer
  * @author Graeme Rocher
@@ -32,7 +33,7 @@ import org.grails.web.converters.exceptions.ConverterException;
  * @since 1.1
  */
 @SuppressWarnings({ "unchecked", "rawtypes" })
-public class ProxyUnwrappingMarshaller<C extends Converter> implements ObjectMarshaller<C>, NameAwareMarshaller {
+public class ProxyUnwrappingMarshaller<C extends Converter> implements ObjectMarshaller<C>, NameAwareMarshaller, TypeBasedMarshaller {
 
     private static final String HIBERNATE_LAZY_INITIALIZER_PROP = "hibernateLazyInitializer";
     private static final String IMPLEMENTATION_PROP = "implementation";
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.converters.marshaller;
+
+/**
+ * Marker for ObjectMarshallers whose {@link ObjectMarshaller#supports(Object)} only depends on the class of the
+ * object, which allows the converter configurations to cache the marshaller selected for a class. Subclasses that
+ * override supports have to implement the interface themselves to be treated as type based.
+ *
+ * @since 3.3
+ */
+public interface TypeBasedMarshaller {
+}
@@ -18,16 +18,18 @@ package org.grails.web.converters.marshaller.json;
 import grails.converters.JSON;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
 
 import org.grails.web.json.JSONWriter;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ArrayMarshaller implements ObjectMarshaller<JSON> {
+public class ArrayMarshaller implements ObjectMarshaller<JSON>, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object.getClass().isArray();
@@ -35,10 +37,15 @@ public class ArrayMarshaller implements ObjectMarshaller<JSON> {
 
     public void marshalObject(Object o, JSON converter) throws ConverterException {
         JSONWriter writer = converter.getWriter();
-        int len = Array.getLength(o);
         writer.array();
-        for (int i = 0; i < len; i++) {
-            converter.convertAnother(Array.get(o, i));
+        if (o instanceof Object[]) {
+            converter.convertElements(Arrays.asList((Object[]) o));
+        }
+        else {
+            int len = Array.getLength(o);
+            for (int i = 0; i < len; i++) {
+                converter.convertAnother(Array.get(o, i));
+            }
         }
         writer.endArray();
     }
@@ -19,12 +19,13 @@ import grails.converters.JSON;
 
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ByteArrayMarshaller implements ObjectMarshaller<JSON> {
+public class ByteArrayMarshaller implements ObjectMarshaller<JSON>, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof byte[];
@@ -22,13 +22,14 @@ import java.util.Collection;
 import org.grails.web.json.JSONWriter;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
 @SuppressWarnings("rawtypes")
-public class CollectionMarshaller implements ObjectMarshaller<JSON> {
+public class CollectionMarshaller implements ObjectMarshaller<JSON>, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof Collection;
@@ -37,9 +38,7 @@ public class CollectionMarshaller implements ObjectMarshaller<JSON> {
     public void marshalObject(Object o, JSON converter) throws ConverterException {
         JSONWriter writer = converter.getWriter();
         writer.array();
-        for (Object o1 : ((Collection) o)) {
-            converter.convertAnother(o1);
-        }
+        converter.convertElements((Collection) o);
         writer.endArray();
     }
 }
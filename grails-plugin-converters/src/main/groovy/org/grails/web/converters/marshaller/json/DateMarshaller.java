@@ -26,6 +26,7 @@ import org.apache.commons.lang.time.FastDateFormat;
 import org.grails.web.json.JSONException;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * JSON ObjectMarshaller which converts a Date Object, conforming to the ECMA-Script-Specification
@@ -34,7 +35,7 @@ import org.grails.web.converters.marshaller.ObjectMarshaller;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class DateMarshaller implements ObjectMarshaller<JSON> {
+public class DateMarshaller implements ObjectMarshaller<JSON>, TypeBasedMarshaller {
 
     private final Format formatter;
 
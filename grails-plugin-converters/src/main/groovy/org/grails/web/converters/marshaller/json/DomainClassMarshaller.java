@@ -31,6 +31,7 @@ import org.grails.core.util.IncludeExcludeSupport;
 import org.grails.web.converters.ConverterUtil;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.IncludeExcludePropertyMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 import grails.core.support.proxy.DefaultProxyHandler;
 import grails.core.support.proxy.EntityProxyHandler;
@@ -49,7 +50,7 @@ import org.springframework.beans.BeanWrapperImpl;
  *
  * @since 1.1
  */
-public class DomainClassMarshaller extends IncludeExcludePropertyMarshaller<JSON> {
+public class DomainClassMarshaller extends IncludeExcludePropertyMarshaller<JSON> implements TypeBasedMarshaller {
 
     private boolean includeVersion = false;
     private boolean includeClass = false;
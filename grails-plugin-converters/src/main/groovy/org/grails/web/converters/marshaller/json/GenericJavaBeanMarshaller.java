@@ -21,17 +21,24 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.grails.web.json.JSONWriter;
 import org.grails.web.converters.exceptions.ConverterException;
+import org.grails.web.converters.marshaller.BeanMarshallingPlan;
+import org.grails.web.converters.marshaller.BeanMarshallingPlan.BeanProperty;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 import org.springframework.beans.BeanUtils;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class GenericJavaBeanMarshaller implements ObjectMarshaller<JSON> {
+public class GenericJavaBeanMarshaller implements ObjectMarshaller<JSON>, TypeBasedMarshaller {
+
+    private final BeanMarshallingPlan.Cache plans = new BeanMarshallingPlan.Cache();
 
     public boolean supports(Object object) {
         return true;
@@ -41,21 +48,10 @@ public class GenericJavaBeanMarshaller implements ObjectMarshaller<JSON> {
         JSONWriter writer = json.getWriter();
         try {
             writer.object();
-            for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(o.getClass())) {
-                String name = property.getName();
-                Method readMethod = property.getReadMethod();
-                if (readMethod != null) {
-                    Object value = readMethod.invoke(o, (Object[]) null);
-                    writer.key(name);
-                    json.convertAnother(value);
-                }
-            }
-            for (Field field : o.getClass().getDeclaredFields()) {
-                int modifiers = field.getModifiers();
-                if (field.isAccessible() && Modifier.isPublic(modifiers) && !(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))) {
-                    writer.key(field.getName());
-                    json.convertAnother(field.get(o));
-                }
+            for (BeanProperty property : getPlan(o.getClass()).getProperties()) {
+                Object value = property.getValue(o);
+                writer.key(property.getName(), property.getQuotedName());
+                json.convertAnother(value);
             }
             writer.endObject();
         }
@@ -66,4 +62,29 @@ public class GenericJavaBeanMarshaller implements ObjectMarshaller<JSON> {
             throw new ConverterException("Error converting Bean with class " + o.getClass().getName(), e);
         }
     }
+
+    protected BeanMarshallingPlan getPlan(Class<?> clazz) throws IllegalAccessException {
+        BeanMarshallingPlan plan = plans.get(clazz, null, null);
+        if (plan == null) {
+            plan = plans.put(clazz, null, null, createPlan(clazz));
+        }
+        return plan;
+    }
+
+    protected BeanMarshallingPlan createPlan(Class<?> clazz) throws IllegalAccessException {
+        List<BeanProperty> properties = new ArrayList<BeanProperty>();
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(clazz)) {
+            Method readMethod = property.getReadMethod();
+            if (readMethod != null) {
+                properties.add(BeanMarshallingPlan.property(property.getName(), readMethod));
+            }
+        }
+        for (Field field : clazz.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (field.isAccessible() && Modifier.isPublic(modifiers) && !(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))) {
+                properties.add(BeanMarshallingPlan.field(field));
+            }
+        }
+        return new BeanMarshallingPlan(properties);
+    }
 }
@@ -24,11 +24,15 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.grails.core.util.IncludeExcludeSupport;
 import org.grails.web.converters.exceptions.ConverterException;
+import org.grails.web.converters.marshaller.BeanMarshallingPlan;
+import org.grails.web.converters.marshaller.BeanMarshallingPlan.BeanProperty;
 import org.grails.web.converters.marshaller.IncludeExcludePropertyMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 import org.grails.web.json.JSONWriter;
 import org.springframework.beans.BeanUtils;
 
@@ -36,7 +40,9 @@ import org.springframework.beans.BeanUtils;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class GroovyBeanMarshaller extends IncludeExcludePropertyMarshaller<JSON> {
+public class GroovyBeanMarshaller extends IncludeExcludePropertyMarshaller<JSON> implements TypeBasedMarshaller {
+
+    private final BeanMarshallingPlan.Cache plans = new BeanMarshallingPlan.Cache();
 
     public boolean supports(Object object) {
         return object instanceof GroovyObject;
@@ -49,32 +55,16 @@ public class GroovyBeanMarshaller extends IncludeExcludePropertyMarshaller<JSON>
         Class<? extends Object> clazz = o.getClass();
         List<String> excludes = json.getExcludes(clazz);
         List<String> includes = json.getIncludes(clazz);
-        IncludeExcludeSupport<String> includeExcludeSupport = new IncludeExcludeSupport<String>();
         try {
             writer.object();
-            for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(clazz)) {
-
-                Method readMethod = property.getReadMethod();
+            for (BeanProperty property : getPlan(clazz, includes, excludes).getProperties()) {
                 String name = property.getName();
 
-                if(!shouldInclude(includeExcludeSupport, includes, excludes, o, name)) continue;
+                if(!shouldInclude(o, name)) continue;
 
-                if (readMethod != null && !(name.equals("metaClass"))&& !(name.equals("class"))) {
-                    if(readMethod.getAnnotation(PersistenceMethod.class) != null) continue;
-                    if(readMethod.getAnnotation(ControllerMethod.class) != null) continue;
-                    Object value = readMethod.invoke(o, (Object[]) null);
-                    writer.key(name);
-                    json.convertAnother(value);
-                }
-            }
-            for (Field field : clazz.getDeclaredFields()) {
-                int modifiers = field.getModifiers();
-                if (Modifier.isPublic(modifiers) && !(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))) {
-                    String name = field.getName();
-                    if(!shouldInclude(includeExcludeSupport,includes,excludes,o,name)) continue;
-                    writer.key(name);
-                    json.convertAnother(field.get(o));
-                }
+                Object value = property.getValue(o);
+                writer.key(name, property.getQuotedName());
+                json.convertAnother(value);
             }
             writer.endObject();
         }
@@ -86,8 +76,42 @@ public class GroovyBeanMarshaller extends IncludeExcludePropertyMarshaller<JSON>
         }
     }
 
-    private boolean shouldInclude(IncludeExcludeSupport<String> includeExcludeSupport, List<String> includes, List<String> excludes, Object o, String name) {
-        return includeExcludeSupport.shouldInclude(includes,excludes, name) && shouldInclude(o,name);
+    protected BeanMarshallingPlan getPlan(Class<?> clazz, List<String> includes, List<String> excludes) throws IllegalAccessException {
+        BeanMarshallingPlan plan = plans.get(clazz, includes, excludes);
+        if (plan == null) {
+            plan = plans.put(clazz, includes, excludes, createPlan(clazz, includes, excludes));
+        }
+        return plan;
     }
 
+    /**
+     * Creates the plan of the properties to write for the given class. The per object {@link #shouldInclude(Object, String)}
+     * check is applied when marshalling.
+     */
+    protected BeanMarshallingPlan createPlan(Class<?> clazz, List<String> includes, List<String> excludes) throws IllegalAccessException {
+        IncludeExcludeSupport<String> includeExcludeSupport = new IncludeExcludeSupport<String>();
+        List<BeanProperty> properties = new ArrayList<BeanProperty>();
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(clazz)) {
+
+            Method readMethod = property.getReadMethod();
+            String name = property.getName();
+
+            if(!includeExcludeSupport.shouldInclude(includes, excludes, name)) continue;
+
+            if (readMethod != null && !(name.equals("metaClass"))&& !(name.equals("class"))) {
+                if(readMethod.getAnnotation(PersistenceMethod.class) != null) continue;
+                if(readMethod.getAnnotation(ControllerMethod.class) != null) continue;
+                properties.add(BeanMarshallingPlan.property(name, readMethod));
+            }
+        }
+        for (Field field : clazz.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isPublic(modifiers) && !(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))) {
+                String name = field.getName();
+                if(!includeExcludeSupport.shouldInclude(includes, excludes, name)) continue;
+                properties.add(BeanMarshallingPlan.field(field));
+            }
+        }
+        return new BeanMarshallingPlan(properties);
+    }
 }
@@ -22,13 +22,14 @@ import java.util.Date;
 import org.grails.web.json.JSONException;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  *
  * @since 1.1
  */
-public class JavascriptDateMarshaller implements ObjectMarshaller<JSON> {
+public class JavascriptDateMarshaller implements ObjectMarshaller<JSON>, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof Date;
@@ -22,13 +22,14 @@ import java.util.Map;
 import org.grails.web.json.JSONWriter;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
 @SuppressWarnings("unchecked")
-public class MapMarshaller implements ObjectMarshaller<JSON> {
+public class MapMarshaller implements ObjectMarshaller<JSON>, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof Map;
@@ -22,6 +22,7 @@ import java.util.Locale;
 import org.grails.web.json.JSONWriter;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.i18n.LocaleContextHolder;
@@ -33,7 +34,7 @@ import org.springframework.validation.ObjectError;
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ValidationErrorsMarshaller implements ObjectMarshaller<JSON>, ApplicationContextAware {
+public class ValidationErrorsMarshaller implements ObjectMarshaller<JSON>, ApplicationContextAware, TypeBasedMarshaller {
 
     private ApplicationContext applicationContext;
 
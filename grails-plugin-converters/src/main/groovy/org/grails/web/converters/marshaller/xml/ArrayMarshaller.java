@@ -20,20 +20,26 @@ import grails.converters.XML;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.NameAwareMarshaller;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ArrayMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller {
+public class ArrayMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object != null && object.getClass().isArray();
     }
 
     public void marshalObject(Object o, XML xml) throws ConverterException {
+        if (o instanceof Object[]) {
+            xml.convertElements(Arrays.asList((Object[]) o));
+            return;
+        }
         int len = Array.getLength(o);
         for (int i = 0; i < len; i++) {
             Object cur = Array.get(o, i);
@@ -23,12 +23,13 @@ import java.io.IOException;
 import org.codehaus.groovy.runtime.EncodingGroovyMethods;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class Base64ByteArrayMarshaller implements ObjectMarshaller<XML> {
+public class Base64ByteArrayMarshaller implements ObjectMarshaller<XML>, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof byte[] || object instanceof Byte[];
@@ -23,31 +23,21 @@ import java.util.Set;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.NameAwareMarshaller;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
 @SuppressWarnings("rawtypes")
-public class CollectionMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller {
+public class CollectionMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof Collection;
     }
 
     public void marshalObject(Object object, XML xml) throws ConverterException {
-        Collection col = (Collection) object;
-        for (Object o : col) {
-            if (o != null) {
-                xml.startNode(xml.getElementName(o));
-                xml.convertAnother(o);
-                xml.end();
-            }
-            else {
-                xml.startNode("null");
-                xml.end();
-            }
-        }
+        xml.convertElements((Collection) object);
     }
 
     public String getElementName(Object o) {
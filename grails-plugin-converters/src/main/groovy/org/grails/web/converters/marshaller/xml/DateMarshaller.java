@@ -24,12 +24,13 @@ import org.apache.commons.lang.time.FastDateFormat;
 import org.grails.web.converters.ConverterUtil;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class DateMarshaller implements ObjectMarshaller<XML> {
+public class DateMarshaller implements ObjectMarshaller<XML>, TypeBasedMarshaller {
 
     private final Format formatter;
 
@@ -34,6 +34,7 @@ import org.grails.core.artefact.DomainClassArtefactHandler;
 import org.grails.web.converters.ConverterUtil;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.IncludeExcludePropertyMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 
@@ -45,7 +46,7 @@ import org.springframework.beans.BeanWrapperImpl;
  * @author Graeme Rocher
  * @since 1.1
  */
-public class DomainClassMarshaller extends IncludeExcludePropertyMarshaller<XML> {
+public class DomainClassMarshaller extends IncludeExcludePropertyMarshaller<XML> implements TypeBasedMarshaller {
 
     protected final boolean includeVersion;
     protected ProxyHandler proxyHandler;
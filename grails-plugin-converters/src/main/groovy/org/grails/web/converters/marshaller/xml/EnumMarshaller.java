@@ -21,13 +21,14 @@ import java.lang.reflect.Method;
 
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 import org.springframework.beans.BeanUtils;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class EnumMarshaller implements ObjectMarshaller<XML> {
+public class EnumMarshaller implements ObjectMarshaller<XML>, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object.getClass().isEnum();
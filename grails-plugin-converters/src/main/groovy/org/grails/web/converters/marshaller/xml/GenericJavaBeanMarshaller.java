@@ -21,16 +21,23 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.grails.web.converters.exceptions.ConverterException;
+import org.grails.web.converters.marshaller.BeanMarshallingPlan;
+import org.grails.web.converters.marshaller.BeanMarshallingPlan.BeanProperty;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 import org.springframework.beans.BeanUtils;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class GenericJavaBeanMarshaller implements ObjectMarshaller<XML> {
+public class GenericJavaBeanMarshaller implements ObjectMarshaller<XML>, TypeBasedMarshaller {
+
+    private final BeanMarshallingPlan.Cache plans = new BeanMarshallingPlan.Cache();
 
     public boolean supports(Object object) {
         return true;
@@ -38,24 +45,11 @@ public class GenericJavaBeanMarshaller implements ObjectMarshaller<XML> {
 
     public void marshalObject(Object o, XML xml) throws ConverterException {
         try {
-            for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(o.getClass())) {
-                String name = property.getName();
-                Method readMethod = property.getReadMethod();
-                if (readMethod != null) {
-                    Object value = readMethod.invoke(o, (Object[]) null);
-                    xml.startNode(name);
-                    xml.convertAnother(value);
-                    xml.end();
-                }
-            }
-            for (Field field : o.getClass().getDeclaredFields()) {
-                int modifiers = field.getModifiers();
-                if (field.isAccessible() && Modifier.isPublic(modifiers) &&
-                        !(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))) {
-                    xml.startNode(field.getName());
-                    xml.convertAnother(field.get(o));
-                    xml.end();
-                }
+            for (BeanProperty property : getPlan(o.getClass()).getProperties()) {
+                Object value = property.getValue(o);
+                xml.startNode(property.getName());
+                xml.convertAnother(value);
+                xml.end();
             }
         }
         catch (ConverterException ce) {
@@ -65,4 +59,30 @@ public class GenericJavaBeanMarshaller implements ObjectMarshaller<XML> {
             throw new ConverterException("Error converting Bean with class " + o.getClass().getName(), e);
         }
     }
+
+    protected BeanMarshallingPlan getPlan(Class<?> clazz) throws IllegalAccessException {
+        BeanMarshallingPlan plan = plans.get(clazz, null, null);
+        if (plan == null) {
+            plan = plans.put(clazz, null, null, createPlan(clazz));
+        }
+        return plan;
+    }
+
+    protected BeanMarshallingPlan createPlan(Class<?> clazz) throws IllegalAccessException {
+        List<BeanProperty> properties = new ArrayList<BeanProperty>();
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(clazz)) {
+            Method readMethod = property.getReadMethod();
+            if (readMethod != null) {
+                properties.add(BeanMarshallingPlan.property(property.getName(), readMethod));
+            }
+        }
+        for (Field field : clazz.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (field.isAccessible() && Modifier.isPublic(modifiers) &&
+                    !(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))) {
+                properties.add(BeanMarshallingPlan.field(field));
+            }
+        }
+        return new BeanMarshallingPlan(properties);
+    }
 }
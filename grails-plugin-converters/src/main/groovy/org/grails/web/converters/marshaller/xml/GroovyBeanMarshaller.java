@@ -25,20 +25,26 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.List;
 
 import grails.core.GrailsDomainClassProperty;
 
 import org.grails.core.util.IncludeExcludeSupport;
 import org.grails.web.converters.exceptions.ConverterException;
+import org.grails.web.converters.marshaller.BeanMarshallingPlan;
+import org.grails.web.converters.marshaller.BeanMarshallingPlan.BeanProperty;
 import org.grails.web.converters.marshaller.IncludeExcludePropertyMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 import org.springframework.beans.BeanUtils;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class GroovyBeanMarshaller extends IncludeExcludePropertyMarshaller<XML> {
+public class GroovyBeanMarshaller extends IncludeExcludePropertyMarshaller<XML> implements TypeBasedMarshaller {
+
+    private final BeanMarshallingPlan.Cache plans = new BeanMarshallingPlan.Cache();
 
     public boolean supports(Object object) {
         return object instanceof GroovyObject;
@@ -49,35 +55,16 @@ public class GroovyBeanMarshaller extends IncludeExcludePropertyMarshaller<XML>
             Class<? extends Object> clazz = o.getClass();
             List<String> excludes = xml.getExcludes(clazz);
             List<String> includes = xml.getIncludes(clazz);
-            IncludeExcludeSupport<String> includeExcludeSupport = new IncludeExcludeSupport<String>();
 
-            boolean isEntity = o.getClass().getAnnotation(Entity.class)!=null;
-            for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(o.getClass())) {
+            for (BeanProperty property : getPlan(clazz, includes, excludes).getProperties()) {
                 String name = property.getName();
 
-                if(!shouldInclude(includeExcludeSupport,includes,excludes,o, name)) continue;
+                if(!shouldInclude(o, name)) continue;
 
-                if(isEntity && (name.equals(GrailsDomainClassProperty.ATTACHED) || name.equals(GrailsDomainClassProperty.ERRORS))) continue;
-                Method readMethod = property.getReadMethod();
-                if (readMethod != null && !(name.equals("metaClass"))&& !(name.equals("class"))) {
-                    if(readMethod.getAnnotation(PersistenceMethod.class) != null) continue;
-                    if(readMethod.getAnnotation(ControllerMethod.class) != null) continue;
-                    Object value = readMethod.invoke(o, (Object[]) null);
-                    xml.startNode(name);
-                    xml.convertAnother(value);
-                    xml.end();
-                }
-            }
-            for (Field field : o.getClass().getDeclaredFields()) {
-                int modifiers = field.getModifiers();
-                if (Modifier.isPublic(modifiers) && !(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))) {
-                    String name = field.getName();
-                    if(!shouldInclude(includeExcludeSupport,includes,excludes,o, name)) continue;
-                    if(isEntity && (name.equals(GrailsDomainClassProperty.ATTACHED) || name.equals(GrailsDomainClassProperty.ERRORS))) continue;
-                    xml.startNode(name);
-                    xml.convertAnother(field.get(o));
-                    xml.end();
-                }
+                Object value = property.getValue(o);
+                xml.startNode(name);
+                xml.convertAnother(value);
+                xml.end();
             }
         }
         catch (ConverterException ce) {
@@ -88,7 +75,45 @@ public class GroovyBeanMarshaller extends IncludeExcludePropertyMarshaller<XML>
         }
     }
 
-    private boolean shouldInclude(IncludeExcludeSupport<String> includeExcludeSupport, List<String> includes, List<String> excludes, Object o, String name) {
-        return includeExcludeSupport.shouldInclude(includes,excludes, name) && shouldInclude(o,name);
+    protected BeanMarshallingPlan getPlan(Class<?> clazz, List<String> includes, List<String> excludes) throws IllegalAccessException {
+        BeanMarshallingPlan plan = plans.get(clazz, includes, excludes);
+        if (plan == null) {
+            plan = plans.put(clazz, includes, excludes, createPlan(clazz, includes, excludes));
+        }
+        return plan;
+    }
+
+    /**
+     * Creates the plan of the properties to write for the given class. The per object {@link #shouldInclude(Object, String)}
+     * check is applied when marshalling.
+     */
+    protected BeanMarshallingPlan createPlan(Class<?> clazz, List<String> includes, List<String> excludes) throws IllegalAccessException {
+        IncludeExcludeSupport<String> includeExcludeSupport = new IncludeExcludeSupport<String>();
+        List<BeanProperty> properties = new ArrayList<BeanProperty>();
+
+        boolean isEntity = clazz.getAnnotation(Entity.class)!=null;
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(clazz)) {
+            String name = property.getName();
+
+            if(!includeExcludeSupport.shouldInclude(includes, excludes, name)) continue;
+
+            if(isEntity && (name.equals(GrailsDomainClassProperty.ATTACHED) || name.equals(GrailsDomainClassProperty.ERRORS))) continue;
+            Method readMethod = property.getReadMethod();
+            if (readMethod != null && !(name.equals("metaClass"))&& !(name.equals("class"))) {
+                if(readMethod.getAnnotation(PersistenceMethod.class) != null) continue;
+                if(readMethod.getAnnotation(ControllerMethod.class) != null) continue;
+                properties.add(BeanMarshallingPlan.property(name, readMethod));
+            }
+        }
+        for (Field field : clazz.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isPublic(modifiers) && !(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))) {
+                String name = field.getName();
+                if(!includeExcludeSupport.shouldInclude(includes, excludes, name)) continue;
+                if(isEntity && (name.equals(GrailsDomainClassProperty.ATTACHED) || name.equals(GrailsDomainClassProperty.ERRORS))) continue;
+                properties.add(BeanMarshallingPlan.field(field));
+            }
+        }
+        return new BeanMarshallingPlan(properties);
     }
 }
@@ -22,12 +22,13 @@ import java.util.Map;
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.NameAwareMarshaller;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class MapMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller {
+public class MapMarshaller implements ObjectMarshaller<XML>, NameAwareMarshaller, TypeBasedMarshaller {
 
     public boolean supports(Object object) {
         return object instanceof Map;
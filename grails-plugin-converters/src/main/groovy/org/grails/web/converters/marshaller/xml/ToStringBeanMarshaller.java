@@ -28,12 +28,13 @@ import java.util.TimeZone;
 
 import org.grails.web.converters.exceptions.ConverterException;
 import org.grails.web.converters.marshaller.ObjectMarshaller;
+import org.grails.web.converters.marshaller.TypeBasedMarshaller;
 
 /**
  * @author Siegfried Puchbauer
  * @since 1.1
  */
-public class ToStringBeanMarshaller implements ObjectMarshaller<XML> {
+public class ToStringBeanMarshaller implements ObjectMarshaller<XML>, TypeBasedMarshaller {
 
     private final Set<Class<?>> classes;
 
@@ -0,0 +1,98 @@
+package grails.converters
+
+import grails.core.DefaultGrailsApplication
+import org.grails.web.converters.Converter
+import org.grails.web.converters.configuration.ConvertersConfigurationHolder
+import org.grails.web.converters.configuration.ConvertersConfigurationInitializer
+import org.grails.web.converters.configuration.DefaultConverterConfiguration
+import org.grails.web.converters.exceptions.ConverterException
+import spock.lang.Specification
+
+class CircularReferenceSpec extends Specification {
+
+    void setup() {
+        def initializer = new ConvertersConfigurationInitializer()
+        def grailsApplication = new DefaultGrailsApplication()
+        grailsApplication.initialise()
+        initializer.grailsApplication = grailsApplication
+        initializer.initialize()
+    }
+
+    void cleanup() {
+        ConvertersConfigurationHolder.setThreadLocalConverterConfiguration(JSON, null)
+    }
+
+    void "a reference to an object that is being converted is rendered as a relative path"() {
+        given:
+        def root = new IdentityNode(name: 'root')
+        def child = new IdentityNode(name: 'child', parent: root)
+        root.children << child
+        child.children << new IdentityNode(name: 'grandchild', parent: child)
+
+        when:
+        def json = JSON.parse((root as JSON).toString())
+        def xml = new XmlSlurper().parseText((root as XML).toString())
+
+        then:
+        json.children[0].name == 'child'
+        json.children[0].parent._ref == '../..'
+        json.children[0].children[0].parent._ref == '../..'
+        xml.children.identityNode[0].parent.@ref.text() == '../..'
+        xml.children.identityNode[0].children.identityNode[0].parent.@ref.text() == '../..'
+    }
+
+    void "objects are found by identity without calling equals"() {
+        given:
+        def root = new IdentityNode(name: 'root', failOnEquals: true)
+        root.children << new IdentityNode(name: 'child', parent: root, failOnEquals: true)
+
+        expect:
+        JSON.parse((root as JSON).toString()).children[0].parent._ref == '../..'
+    }
+
+    void "an object that is equal to an object being converted is converted"() {
+        given:
+        def root = new IdentityNode(name: 'root', equalToAll: true)
+        root.children << new IdentityNode(name: 'child', equalToAll: true)
+
+        expect:
+        JSON.parse((root as JSON).toString()).children[0].name == 'child'
+    }
+
+    void "a circular reference fails with the EXCEPTION behaviour"() {
+        given:
+        def cfg = new DefaultConverterConfiguration<JSON>(ConvertersConfigurationHolder.getConverterConfiguration(JSON))
+        cfg.circularReferenceBehaviour = Converter.CircularReferenceBehaviour.EXCEPTION
+        ConvertersConfigurationHolder.setThreadLocalConverterConfiguration(JSON, cfg)
+        def root = new IdentityNode(name: 'root')
+        root.children << new IdentityNode(name: 'child', parent: root)
+
+        when:
+        new JSON(root).render(new StringWriter())
+
+        then:
+        ConverterException e = thrown()
+        e.message.contains('Circular Reference detected')
+    }
+}
+
+class IdentityNode {
+    String name
+    IdentityNode parent
+    List<IdentityNode> children = []
+    transient boolean failOnEquals
+    transient boolean equalToAll
+
+    @Override
+    boolean equals(Object o) {
+        if (failOnEquals) {
+            throw new IllegalStateException('equals was called')
+        }
+        equalToAll ? o instanceof IdentityNode : is(o)
+    }
+
+    @Override
+    int hashCode() {
+        equalToAll ? 1 : System.identityHashCode(this)
+    }
+}
@@ -0,0 +1,163 @@
+package grails.converters
+
+import org.grails.web.converters.configuration.ConvertersConfigurationHolder
+import org.grails.web.converters.configuration.DefaultConverterConfiguration
+import org.grails.web.converters.exceptions.ConverterException
+import org.grails.web.json.JSONArray
+import org.grails.web.json.JSONException
+import org.grails.web.json.JSONObject
+import org.springframework.mock.web.MockHttpServletRequest
+import spock.lang.Specification
+
+class LazyJsonParsingSpec extends Specification {
+
+    static final String BOOKS = '''[
+        {"title": "The Stand", "author": {"name": "Stephen King"}, "tags": ["horror", {"type": "bestseller"}]},
+        {"title": "It's a Book", 'pages': 100, note: it's unquoted, "nothing": null},
+        {"title": "Brackets in strings", "text": "]}\\"{[", /* a comment with } */ "n": 1}
+    ]'''
+
+    void cleanup() {
+        ConvertersConfigurationHolder.setThreadLocalConverterConfiguration(JSON, null)
+    }
+
+    void "a lazily parsed document is equal to the parsed document"() {
+        when:
+        def lazy = JSON.parseLazily(new StringReader(BOOKS))
+
+        then:
+        lazy instanceof JSONArray
+        lazy == JSON.parse(BOOKS)
+        lazy.toString() == JSON.parse(BOOKS).toString()
+        lazy[0].author.name == 'Stephen King'
+        lazy[0].tags[1].type == 'bestseller'
+        lazy[1].note == "it's unquoted"
+        lazy[2].text == ']}"{['
+    }
+
+    void "only the objects and arrays that are accessed are parsed"() {
+        given:
+        def json = JSON.parseLazily(new StringReader('{"name": "Grails", "invalid": {"a" 1}, "list": [1, 2 : 3]}'))
+
+        expect:
+        json.name == 'Grails'
+        json.invalid instanceof JSONObject
+        json.list instanceof JSONArray
+
+        when:
+        json.invalid.a
+
+        then:
+        JSONException e = thrown()
+        e.message.startsWith("Expected a ':' after a key")
+
+        when:
+        json.list.size()
+
+        then:
+        e = thrown(JSONException)
+        e.message.startsWith("Expected a ',' or ']'")
+    }
+
+    void "an object or array that fails to parse fails again on every access"() {
+        given:
+        def json = JSON.parseLazily(new StringReader('{"object": {"a": 1, "b" 2}, "array": [1, 2 : 3]}'))
+
+        when:
+        json.object.a
+
+        then:
+        thrown(JSONException)
+
+        when:
+        json.object.size()
+
+        then: 'the members parsed before the error are not returned'
+        thrown(JSONException)
+
+        when:
+        json.array[0]
+
+        then:
+        thrown(JSONException)
+
+        when:
+        json.array.size()
+
+        then:
+        thrown(JSONException)
+    }
+
+    void "an unterminated object fails when it is skipped"() {
+        when:
+        def json = JSON.parseLazily(new StringReader('{"a": {"b": [1, 2}'))
+        json.a
+
+        then:
+        JSONException e = thrown()
+        e.message.startsWith("A JSONObject text must end with '}'")
+    }
+
+    void "the elements of an array are iterated one at a time"() {
+        when:
+        def elements = JSON.iterate(new StringReader(BOOKS))
+        def first = elements.next()
+
+        then:
+        first == JSON.parse(BOOKS)[0]
+        elements.hasNext()
+        elements.collect { it.title } == ["It's a Book", 'Brackets in strings']
+        !elements.hasNext()
+    }
+
+    void "iterating a source that isn't an array returns the value"() {
+        expect:
+        JSON.iterate(new StringReader(source)).toList() == expected
+
+        where:
+        source          | expected
+        '{"a":1}'       | [new JSONObject(a: 1)]
+        '[]'            | []
+        ''              | []
+        '[1,,2]'        | [1, null, 2]
+    }
+
+    void "an invalid element fails when it is reached"() {
+        given:
+        def elements = JSON.iterate(new StringReader('[{"a":1},{"a" 2}]'))
+
+        expect:
+        elements.next().a == 1
+
+        when:
+        elements.next()
+
+        then:
+        thrown(ConverterException)
+    }
+
+    void "the request body is parsed lazily if lazy parsing is configured"() {
+        given:
+        def cfg = new DefaultConverterConfiguration<JSON>()
+        cfg.lazyParsing = true
+        ConvertersConfigurationHolder.setThreadLocalConverterConfiguration(JSON, cfg)
+        def request = new MockHttpServletRequest()
+        request.content = '{"name": "Grails", "invalid": {"a" 1}}'.bytes
+
+        when:
+        def json = JSON.parse(request)
+
+        then:
+        json.name == 'Grails'
+        JSON.parse(request).is(json)
+    }
+
+    void "the elements of a request body are iterated"() {
+        given:
+        def request = new MockHttpServletRequest()
+        request.content = BOOKS.bytes
+
+        expect:
+        JSON.iterate(request).collect { it.title } == ['The Stand', "It's a Book", 'Brackets in strings']
+    }
+}
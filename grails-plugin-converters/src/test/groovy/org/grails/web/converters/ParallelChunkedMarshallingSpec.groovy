@@ -0,0 +1,106 @@
+package org.grails.web.converters
+
+import grails.converters.JSON
+import grails.converters.XML
+import grails.core.DefaultGrailsApplication
+import org.grails.web.converters.configuration.ConvertersConfigurationHolder
+import org.grails.web.converters.configuration.ConvertersConfigurationInitializer
+import org.grails.web.converters.configuration.DefaultConverterConfiguration
+import org.grails.web.converters.exceptions.ConverterException
+import spock.lang.Specification
+
+class ParallelChunkedMarshallingSpec extends Specification {
+
+    void setup() {
+        def initializer = new ConvertersConfigurationInitializer()
+        def grailsApplication = new DefaultGrailsApplication()
+        grailsApplication.initialise()
+        initializer.grailsApplication = grailsApplication
+        initializer.initialize()
+    }
+
+    void cleanup() {
+        ConvertersConfigurationHolder.setThreadLocalConverterConfiguration(JSON, null)
+        ConvertersConfigurationHolder.setThreadLocalConverterConfiguration(XML, null)
+    }
+
+    void "large collections are rendered the same in parallel chunks as sequentially"() {
+        given:
+        def owner = createOwner(1000)
+        def sequentialJson = (owner as JSON).toString()
+        def sequentialXml = (owner as XML).toString()
+        def sequentialArray = (owner.items.toArray() as JSON).toString()
+
+        when:
+        useParallelThreshold(JSON, 100)
+        useParallelThreshold(XML, 100)
+
+        then:
+        (owner as JSON).toString() == sequentialJson
+        (owner as XML).toString() == sequentialXml
+        (owner.items.toArray() as JSON).toString() == sequentialArray
+        sequentialJson.contains('"_ref":"../.."')
+    }
+
+    void "chunks are converted with the thread-local configuration"() {
+        given:
+        def cfg = useParallelThreshold(JSON, 100)
+        cfg.registerObjectMarshaller(ParallelItem) { ParallelItem item ->
+            [n: item.n, threshold: ConvertersConfigurationHolder.getConverterConfiguration(JSON).parallelThreshold]
+        }
+
+        when:
+        def json = JSON.parse((createOwner(500).items as JSON).toString())
+
+        then:
+        json.size() == 500
+        json*.n == (1..500).toList()
+        json*.threshold.every { it == 100 }
+    }
+
+    void "an exception converting an element of a chunk is thrown by the converter"() {
+        given:
+        def cfg = useParallelThreshold(JSON, 100)
+        cfg.registerObjectMarshaller(ParallelItem) { ParallelItem item ->
+            if (item.n == 321) {
+                throw new ConverterException("Item ${item.n} can't be converted")
+            }
+            [n: item.n]
+        }
+
+        when:
+        (createOwner(500).items as JSON).toString()
+
+        then:
+        RuntimeException e = thrown()
+        def messages = []
+        for (Throwable t = e; t != null; t = t.cause) {
+            messages << t.message
+        }
+        messages.any { it?.contains("Item 321 can't be converted") }
+    }
+
+    private static <C extends Converter> DefaultConverterConfiguration<C> useParallelThreshold(Class<C> converterClass, int threshold) {
+        def cfg = new DefaultConverterConfiguration<C>(ConvertersConfigurationHolder.getConverterConfiguration(converterClass))
+        cfg.parallelThreshold = threshold
+        ConvertersConfigurationHolder.setThreadLocalConverterConfiguration(converterClass, cfg)
+        cfg
+    }
+
+    private static ParallelOwner createOwner(int itemCount) {
+        def owner = new ParallelOwner(name: 'Owner')
+        owner.items = (1..itemCount).collect { new ParallelItem(n: it, label: "Item $it <&>", owner: owner) }
+        owner
+    }
+}
+
+class ParallelOwner {
+    String name
+    List<ParallelItem> items
+}
+
+class ParallelItem {
+    int n
+    String label
+    ParallelOwner owner
+}
@@ -0,0 +1,168 @@
+package org.grails.web.converters.configuration
+
+import grails.converters.JSON
+import org.grails.web.converters.exceptions.ConverterException
+import org.grails.web.converters.marshaller.ClosureObjectMarshaller
+import org.grails.web.converters.marshaller.ObjectMarshaller
+import org.grails.web.converters.marshaller.ProxyUnwrappingMarshaller
+import org.grails.web.converters.marshaller.TypeBasedMarshaller
+import org.grails.web.converters.marshaller.json.DateMarshaller
+import org.grails.web.converters.marshaller.json.GenericJavaBeanMarshaller
+import org.grails.web.converters.marshaller.json.MapMarshaller
+import spock.lang.Specification
+
+class DefaultConverterConfigurationSpec extends Specification {
+
+    void "Test that the marshaller selected for a class is cached for type based marshallers"() {
+        given:"A configuration with a counting type based marshaller"
+            def counting = new CountingMarshaller()
+            def cfg = new DefaultConverterConfiguration<JSON>([counting, new GenericJavaBeanMarshaller()] as List<ObjectMarshaller<JSON>>)
+
+        when:"The marshaller for instances of the same class is looked up repeatedly"
+            def marshallers = (1..5).collect { cfg.getMarshaller(new Object()) }
+
+        then:"The marshallers are only asked once"
+            marshallers.every { it instanceof GenericJavaBeanMarshaller }
+            counting.calls == 1
+    }
+
+    void "Test that marshallers which aren't type based are asked for every object"() {
+        given:"A configuration with a marshaller that only supports even numbers"
+            def even = new EvenNumberMarshaller()
+            def cfg = new DefaultConverterConfiguration<JSON>([new MapMarshaller(), even, new GenericJavaBeanMarshaller()] as List<ObjectMarshaller<JSON>>)
+
+        expect:"The selection depends on the instance"
+            cfg.getMarshaller(2).is(even)
+            cfg.getMarshaller(3) instanceof GenericJavaBeanMarshaller
+            cfg.getMarshaller(4).is(even)
+            cfg.getMarshaller([:]) instanceof MapMarshaller
+    }
+
+    void "Test that classes are resolved without scanning the type based marshallers again after a marshaller that is not type based"() {
+        given:"A configuration with a marshaller that isn't type based before the proxy unwrapping and type based marshallers"
+            def even = new EvenNumberMarshaller()
+            def counting = new CountingMarshaller()
+            def cfg = new DefaultConverterConfiguration<JSON>([even, new ProxyUnwrappingMarshaller<JSON>(), counting,
+                    new DateMarshaller(), new GenericJavaBeanMarshaller()] as List<ObjectMarshaller<JSON>>)
+
+        when:"Dates and beans are looked up repeatedly"
+            def dates = (1..5).collect { cfg.getMarshaller(new Date()) }
+            def beans = (1..5).collect { cfg.getMarshaller(new Object()) }
+
+        then:"The type based marshallers are only asked once per class"
+            dates.every { it instanceof DateMarshaller }
+            beans.every { it instanceof GenericJavaBeanMarshaller }
+            counting.calls == 2
+
+        and:"The marshaller that isn't type based is still asked for every object"
+            cfg.getMarshaller(2).is(even)
+            !cfg.getMarshaller(3).is(even)
+            ObjectMarshallerResolver.isTypeBased(new ProxyUnwrappingMarshaller<JSON>())
+    }
+
+    void "Test that subclasses of type based marshallers overriding supports are asked for every object"() {
+        given:"A configuration with a subclass of a built-in marshaller that only supports even numbers"
+            def even = new EvenNumberBeanMarshaller()
+            def cfg = new DefaultConverterConfiguration<JSON>([even, new MapMarshaller(), new GenericJavaBeanMarshaller()] as List<ObjectMarshaller<JSON>>)
+
+        expect:"The selection depends on the instance"
+            cfg.getMarshaller(2).is(even)
+            !cfg.getMarshaller(3).is(even)
+            cfg.getMarshaller(4).is(even)
+            !ObjectMarshallerResolver.isTypeBased(even)
+            ObjectMarshallerResolver.isTypeBased(new GenericJavaBeanMarshaller())
+    }
+
+    void "Test that registering a marshaller invalidates the cached selection"() {
+        given:"A configuration whose selection for a class is cached"
+            def cfg = new DefaultConverterConfiguration<JSON>([new GenericJavaBeanMarshaller()] as List<ObjectMarshaller<JSON>>)
+            assert cfg.getMarshaller(new Date()) instanceof GenericJavaBeanMarshaller
+
+        when:"A marshaller for the class is registered"
+            cfg.registerObjectMarshaller(Date) { it.time }
+
+        then:"It is selected"
+            cfg.getMarshaller(new Date()) instanceof ClosureObjectMarshaller
+    }
+
+    void "Test that chained and immutable configurations share the cached selections"() {
+        given:"A default configuration"
+            def counting = new CountingMarshaller()
+            def cfg = new DefaultConverterConfiguration<JSON>([counting, new GenericJavaBeanMarshaller()] as List<ObjectMarshaller<JSON>>)
+            def chained = new ChainedConverterConfiguration<JSON>(cfg)
+            def immutable = new ImmutableConverterConfiguration<JSON>(chained)
+
+        when:"The same class is looked up through all of them"
+            cfg.getMarshaller(new Object())
+            chained.getMarshaller(new Object())
+            immutable.getMarshaller(new Object())
+
+        then:"The marshallers are only asked once"
+            counting.calls == 1
+            chained.getResolver().is(cfg.getResolver())
+            immutable.getResolver().is(cfg.getResolver())
+
+        when:"A marshaller is registered with the default configuration"
+            cfg.registerObjectMarshaller(Object) { 'registered' }
+
+        then:"The chained configuration keeps the marshallers it was created with"
+            chained.getMarshaller(new Object()) instanceof GenericJavaBeanMarshaller
+            cfg.getMarshaller(new Object()) instanceof ClosureObjectMarshaller
+    }
+
+    void "Test that the marshaller of the delegate is used if none of the registered marshallers supports the object"() {
+        given:
+            def parent = new ChainedConverterConfiguration<JSON>(new DefaultConverterConfiguration<JSON>([new GenericJavaBeanMarshaller()] as List<ObjectMarshaller<JSON>>))
+            def cfg = new DefaultConverterConfiguration<JSON>(parent)
+            cfg.registerObjectMarshaller(new MapMarshaller())
+
+        expect:
+            cfg.getMarshaller([:]) instanceof MapMarshaller
+            cfg.getMarshaller(new Object()) instanceof GenericJavaBeanMarshaller
+            cfg.getMarshaller(new Object()) instanceof GenericJavaBeanMarshaller
+    }
+
+    void "Test that the deprecated chained marshallers select the first marshaller of the chain that supports the object"() {
+        given:
+            def chained = new ChainedConverterConfiguration<JSON>(new DefaultConverterConfiguration<JSON>())
+            def even = new EvenNumberMarshaller()
+            def bean = new GenericJavaBeanMarshaller()
+            def tail = new ChainedConverterConfiguration.ChainedObjectMarshaller<JSON>(chained, bean, null)
+            def head = new ChainedConverterConfiguration.ChainedObjectMarshaller<JSON>(chained, even, tail)
+
+        expect:
+            head.findMarhallerFor(2).is(even)
+            head.findMarhallerFor(3).is(bean)
+            tail.findMarhallerFor(2).is(bean)
+            head.supports(2)
+            !head.supports(3)
+    }
+}
+
+class CountingMarshaller implements ObjectMarshaller<JSON>, TypeBasedMarshaller {
+    int calls
+
+    boolean supports(Object object) {
+        calls++
+        false
+    }
+
+    void marshalObject(Object object, JSON converter) throws ConverterException {
+    }
+}
+
+class EvenNumberMarshaller implements ObjectMarshaller<JSON> {
+    boolean supports(Object object) {
+        object instanceof Integer && ((Integer) object) % 2 == 0
+    }
+
+    void marshalObject(Object object, JSON converter) throws ConverterException {
+    }
+}
+
+class EvenNumberBeanMarshaller extends GenericJavaBeanMarshaller {
+    @Override
+    boolean supports(Object object) {
+        object instanceof Integer && ((Integer) object) % 2 == 0
+    }
+}
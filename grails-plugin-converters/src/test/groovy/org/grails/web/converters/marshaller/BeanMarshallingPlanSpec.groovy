@@ -0,0 +1,23 @@
+package org.grails.web.converters.marshaller
+
+import spock.lang.Specification
+
+class BeanMarshallingPlanSpec extends Specification {
+
+    void "Test that a cached plan is not affected by changes to the lists it was cached with"() {
+        given:"A plan cached for lists of includes and excludes"
+            def cache = new BeanMarshallingPlan.Cache()
+            def plan = new BeanMarshallingPlan([])
+            def includes = ['name', 'price']
+            def excludes = ['id']
+            cache.put(Object, includes, excludes, plan)
+
+        when:"The lists are modified by the caller"
+            includes << 'category'
+            excludes.clear()
+
+        then:"The plan is only found for the properties it was cached with"
+            cache.get(Object, ['name', 'price'], ['id']).is(plan)
+            cache.get(Object, includes, excludes) == null
+    }
+}
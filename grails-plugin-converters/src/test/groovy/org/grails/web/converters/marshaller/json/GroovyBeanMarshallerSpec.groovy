@@ -0,0 +1,64 @@
+package org.grails.web.converters.marshaller.json
+
+import grails.converters.JSON
+
+import org.grails.web.json.JSONWriter
+
+import spock.lang.Specification
+
+class GroovyBeanMarshallerSpec extends Specification {
+
+    void "Test that a Groovy bean is marshalled from its cached property plan"() {
+        given:"A marshaller"
+            def marshaller = new GroovyBeanMarshaller()
+
+        when:"Two instances of the same class are marshalled"
+            def first = marshal(marshaller, new PlanBook(title: 'The Stand', pages: 1153))
+            def second = marshal(marshaller, new PlanBook(title: 'Say "hi"', pages: 1))
+
+        then:"The properties and public fields are written with their names and values"
+            first == '{"pages":1153,"title":"The Stand","isbn":null}'
+            second == '{"pages":1,"title":"Say \\"hi\\"","isbn":null}'
+            marshaller.getPlan(PlanBook, null, null).is(marshaller.getPlan(PlanBook, null, null))
+    }
+
+    void "Test that includes and excludes of the converter are applied"() {
+        given:"A marshaller"
+            def marshaller = new GroovyBeanMarshaller()
+            def book = new PlanBook(title: 'The Stand', pages: 1153, isbn: '0-385-12168-7')
+
+        expect:"Only the included properties are written"
+            marshal(marshaller, book) { it.setIncludes(PlanBook, ['title']) } == '{"title":"The Stand"}'
+            marshal(marshaller, book) { it.setExcludes(PlanBook, ['title', 'isbn']) } == '{"pages":1153}'
+            marshal(marshaller, book) == '{"pages":1153,"title":"The Stand","isbn":"0-385-12168-7"}'
+    }
+
+    void "Test that the per object include check is applied to every object"() {
+        given:"A marshaller that excludes the title of short books"
+            def marshaller = new GroovyBeanMarshaller() {
+                @Override
+                protected boolean includesProperty(Object o, String property) {
+                    property != 'title' || o.pages > 100
+                }
+            }
+
+        expect:"The check depends on the instance"
+            marshal(marshaller, new PlanBook(title: 'The Stand', pages: 1153)) == '{"pages":1153,"title":"The Stand","isbn":null}'
+            marshal(marshaller, new PlanBook(title: 'Short', pages: 10)) == '{"pages":10,"isbn":null}'
+    }
+
+    private String marshal(GroovyBeanMarshaller marshaller, Object o, Closure configure = null) {
+        JSON json = new JSON()
+        StringWriter stringWriter = new StringWriter()
+        json.writer = new JSONWriter(stringWriter)
+        configure?.call(json)
+        marshaller.marshalObject(o, json)
+        stringWriter.toString()
+    }
+}
+
+class PlanBook {
+    String title
+    Integer pages
+    public String isbn
+}
@@ -15,6 +15,7 @@
  */
 package org.grails.plugins.databinding
 
+import grails.databinding.SimpleDataBinder
 import grails.plugins.Plugin
 import grails.util.GrailsUtil
 import grails.web.databinding.DataBindingUtils
@@ -50,6 +51,7 @@ class DataBindingGrailsPlugin extends Plugin {
     public static final List<String> DEFAULT_DATE_FORMATS = ['yyyy-MM-dd HH:mm:ss.S',"yyyy-MM-dd'T'HH:mm:ss'Z'","yyyy-MM-dd HH:mm:ss.S z","yyyy-MM-dd'T'HH:mm:ss.SSSX"]
 
     def version = GrailsUtil.getGrailsVersion()
+    def observe = ['domainClass', 'controllers', 'services']
 
     @Override
     Closure doWithSpring() {{->
@@ -102,4 +104,13 @@ class DataBindingGrailsPlugin extends Plugin {
         defaultCurrencyConverter CurrencyValueConverter
     }}
 
+    @Override
+    void onChange(Map<String, Object> event) {
+        def dataBinder = applicationContext.getBean(DataBindingUtils.DATA_BINDER_BEAN_NAME)
+        if (dataBinder instanceof SimpleDataBinder) {
+            // the binding plans of reloaded classes are out of date
+            ((SimpleDataBinder)dataBinder).clearBindingPlans()
+        }
+    }
+
 }
@@ -15,13 +15,18 @@
  */
 package org.grails.plugins.web.interceptors
 
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap
 import grails.artefact.Interceptor
 import grails.interceptors.Matcher
 import grails.util.GrailsNameUtils
+import grails.web.mapping.UrlMappingInfo
 import groovy.transform.CompileDynamic
 import groovy.transform.CompileStatic
+import groovy.transform.EqualsAndHashCode
 import org.apache.commons.logging.Log
 import org.apache.commons.logging.LogFactory
+import org.codehaus.groovy.transform.trait.Traits
+import org.grails.web.mapping.mvc.UrlMappingsHandlerMapping
 import org.grails.web.util.GrailsApplicationAttributes
 import org.grails.web.util.WebUtils
 import org.springframework.beans.factory.annotation.Autowired
@@ -31,10 +36,16 @@ import org.springframework.web.servlet.ModelAndView
 
 import javax.servlet.http.HttpServletRequest
 import javax.servlet.http.HttpServletResponse
+import java.lang.reflect.Method
+import java.util.concurrent.ConcurrentMap
 
 /**
  * Adapts Grails {@link Interceptor} instances to the Spring {@link HandlerInterceptor} interface
  *
+ * <p>The interceptors that apply to a request are resolved once per controller, action, namespace and HTTP method
+ * and cached. Interceptors whose matching depends on the URI or on the state of the request, such as interceptors with
+ * URI patterns or closure excludes, remain in the cached chain and are matched for every request.</p>
+ *
  * @author Graeme Rocher
  * @since 3.0
  */
@@ -44,15 +55,20 @@ class GrailsInterceptorHandlerInterceptorAdapter implements HandlerInterceptor {
     private static final Log LOG = LogFactory.getLog(Interceptor)
 
     static final String INTERCEPTOR_RENDERED_VIEW = 'interceptor_rendered_view'
+    static final String INTERCEPTOR_CHAIN = 'org.grails.interceptors.CHAIN'
+    static final int DEFAULT_CHAIN_CACHE_SIZE = 1000
 
     protected List<Interceptor> interceptors = []
     protected List<Interceptor> reverseInterceptors = []
+    protected int chainCacheSize = DEFAULT_CHAIN_CACHE_SIZE
+    private ConcurrentMap<InterceptorChainKey, InterceptorChain> interceptorChains = createChainCache(DEFAULT_CHAIN_CACHE_SIZE)
 
     @Autowired(required = false)
     @CompileDynamic
     void setInterceptors(Interceptor[] interceptors) {
         this.interceptors = interceptors.sort(new OrderComparator()) as List<Interceptor>
         this.reverseInterceptors = this.interceptors.reverse()
+        this.interceptorChains = createChainCache(chainCacheSize)
         if(LOG.isDebugEnabled()) {
             LOG.debug("Computed interceptor execution order:")
             for(Interceptor i in interceptors) {
@@ -61,11 +77,23 @@ class GrailsInterceptorHandlerInterceptorAdapter implements HandlerInterceptor {
         }
     }
 
+    /**
+     * Sets the maximum number of interceptor chains that are cached
+     *
+     * @param chainCacheSize The maximum number of chains
+     */
+    void setChainCacheSize(int chainCacheSize) {
+        this.chainCacheSize = chainCacheSize
+        this.interceptorChains = createChainCache(chainCacheSize)
+    }
+
     @Override
     boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         if(interceptors) {
-            for(i in interceptors) {
-                if(i.doesMatch()) {
+            InterceptorChain chain = getInterceptorChain(request)
+            for(int j = 0; j < chain.interceptors.length; j++) {
+                Interceptor i = chain.interceptors[j]
+                if(chain.doesMatch(j, request)) {
                     if( !i.before() ) {
                         return false
                     }
@@ -81,8 +109,10 @@ class GrailsInterceptorHandlerInterceptorAdapter implements HandlerInterceptor {
             if (modelAndView != null) {
                 request.setAttribute(GrailsApplicationAttributes.MODEL_AND_VIEW, modelAndView)
             }
-            for(i in reverseInterceptors) {
-                if(i.doesMatch()) {
+            InterceptorChain chain = getInterceptorChain(request)
+            for(int j = chain.interceptors.length - 1; j >= 0; j--) {
+                Interceptor i = chain.interceptors[j]
+                if(chain.doesMatch(j, request)) {
                     if( !i.after() ) {
                         if(request.getAttribute(INTERCEPTOR_RENDERED_VIEW)) {
                             ModelAndView interceptorsModelAndView = i.modelAndView
@@ -107,11 +137,141 @@ class GrailsInterceptorHandlerInterceptorAdapter implements HandlerInterceptor {
         }
         request.setAttribute(Matcher.THROWABLE, ex)
         if(reverseInterceptors) {
-            for(i in reverseInterceptors) {
+            InterceptorChain chain = getInterceptorChain(request)
+            for(int j = chain.interceptors.length - 1; j >= 0; j--) {
+                if(chain.doesMatch(j, request)) {
+                    chain.interceptors[j].afterView()
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtains the interceptors that may apply to the current request. The chain is resolved once per request, as
+     * {@link Interceptor#doesMatch(javax.servlet.http.HttpServletRequest)} does for each interceptor, unless the
+     * request is a forward or include.
+     *
+     * @param request The request
+     * @return The interceptor chain
+     */
+    protected InterceptorChain getInterceptorChain(HttpServletRequest request) {
+        def existing = request.getAttribute(INTERCEPTOR_CHAIN)
+        if(existing != null && !WebUtils.isForward(request) && !WebUtils.isInclude(request)) {
+            return (InterceptorChain)existing
+        }
+
+        UrlMappingInfo info = (UrlMappingInfo)request.getAttribute(UrlMappingsHandlerMapping.MATCHED_REQUEST)
+        def key = info != null ?
+                new InterceptorChainKey(info.controllerName, info.actionName, info.namespace, info.httpMethod, request.method) :
+                new InterceptorChainKey(null, null, null, null, request.method)
+        ConcurrentMap<InterceptorChainKey, InterceptorChain> chains = interceptorChains
+        InterceptorChain chain = chains.get(key)
+        if(chain == null) {
+            chain = resolveInterceptorChain(request)
+            chains.put(key, chain)
+        }
+        request.setAttribute(INTERCEPTOR_CHAIN, chain)
+        return chain
+    }
+
+    /**
+     * Resolves the interceptor chain for a request. Interceptors whose matching only depends on the matched controller,
+     * action, namespace and HTTP method are matched now and left out if they don't match, all other interceptors are
+     * kept in the chain and matched for every request.
+     *
+     * @param request The request
+     * @return The interceptor chain
+     */
+    protected InterceptorChain resolveInterceptorChain(HttpServletRequest request) {
+        List<Interceptor> chainInterceptors = []
+        List<Boolean> requiresMatch = []
+        for(i in interceptors) {
+            if(isCacheable(i)) {
                 if(i.doesMatch(request)) {
-                    i.afterView()
+                    chainInterceptors << i
+                    requiresMatch << Boolean.FALSE
                 }
             }
+            else {
+                chainInterceptors << i
+                requiresMatch << Boolean.TRUE
+            }
+        }
+        boolean[] requiresMatchArray = new boolean[requiresMatch.size()]
+        for(int j = 0; j < requiresMatchArray.length; j++) {
+            requiresMatchArray[j] = requiresMatch[j]
+        }
+        return new InterceptorChain(chainInterceptors.toArray(new Interceptor[chainInterceptors.size()]), requiresMatchArray)
+    }
+
+    /**
+     * Whether the matches of the given interceptor can be cached per controller, action, namespace and HTTP method
+     *
+     * @param interceptor The interceptor
+     * @return True if it can
+     */
+    protected boolean isCacheable(Interceptor interceptor) {
+        if(overridesDoesMatch(interceptor.getClass())) {
+            return false
+        }
+        for(Matcher matcher in interceptor.matchers) {
+            if(!(matcher instanceof UrlMappingMatcher) || !((UrlMappingMatcher)matcher).isCacheable()) {
+                return false
+            }
+        }
+        return true
+    }
+
+    private static boolean overridesDoesMatch(Class<?> interceptorClass) {
+        try {
+            Method doesMatch = interceptorClass.getMethod('doesMatch')
+            Method doesMatchRequest = interceptorClass.getMethod('doesMatch', HttpServletRequest)
+            return !doesMatch.isAnnotationPresent(Traits.TraitBridge) || !doesMatchRequest.isAnnotationPresent(Traits.TraitBridge)
+        } catch (NoSuchMethodException e) {
+            return true
+        }
+    }
+
+    private static ConcurrentMap<InterceptorChainKey, InterceptorChain> createChainCache(int size) {
+        new ConcurrentLinkedHashMap.Builder<InterceptorChainKey, InterceptorChain>()
+                .maximumWeightedCapacity(size)
+                .build()
+    }
+
+    /**
+     * The interceptors that may apply to a request in execution order
+     */
+    static class InterceptorChain {
+        final Interceptor[] interceptors
+        private final boolean[] requiresMatch
+
+        InterceptorChain(Interceptor[] interceptors, boolean[] requiresMatch) {
+            this.interceptors = interceptors
+            this.requiresMatch = requiresMatch
+        }
+
+        /**
+         * @return Whether the interceptor at the given index applies to the request
+         */
+        boolean doesMatch(int index, HttpServletRequest request) {
+            !requiresMatch[index] || interceptors[index].doesMatch(request)
+        }
+    }
+
+    @EqualsAndHashCode
+    static class InterceptorChainKey {
+        final String controller
+        final String action
+        final String namespace
+        final String mappingHttpMethod
+        final String requestMethod
+
+        InterceptorChainKey(String controller, String action, String namespace, String mappingHttpMethod, String requestMethod) {
+            this.controller = controller
+            this.action = action
+            this.namespace = namespace
+            this.mappingHttpMethod = mappingHttpMethod
+            this.requestMethod = requestMethod
         }
     }
 }
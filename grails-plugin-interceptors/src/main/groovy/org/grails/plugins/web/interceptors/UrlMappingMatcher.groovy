@@ -21,6 +21,7 @@ import grails.util.Environment
 import grails.web.mapping.UrlMappingInfo
 import groovy.transform.CompileStatic
 import org.apache.commons.lang.builder.HashCodeBuilder
+import org.grails.web.mapping.AntPatternsMatcher
 import org.springframework.util.AntPathMatcher
 
 import java.util.concurrent.ConcurrentHashMap
@@ -51,6 +52,8 @@ class UrlMappingMatcher implements Matcher {
     protected List<String> uriExcludePatterns = []
     protected AntPathMatcher pathMatcher = new AntPathMatcher()
     protected boolean matchAll = false
+    private volatile AntPatternsMatcher compiledUriPatterns
+    private volatile AntPatternsMatcher compiledUriExcludePatterns
 
     UrlMappingMatcher(Interceptor interceptor) {
         this.interceptor = interceptor
@@ -69,10 +72,13 @@ class UrlMappingMatcher implements Matcher {
         if(!isExcluded) {
             if (hasUriPatterns) {
                 uri = uri.replace(';', '')
-                for (pattern in uriPatterns) {
-                    if (pathMatcher.match(pattern, uri)) {
-                        return true
-                    }
+                AntPatternsMatcher compiled = compiledUriPatterns
+                if (compiled == null) {
+                    compiled = new AntPatternsMatcher(uriPatterns)
+                    compiledUriPatterns = compiled
+                }
+                if (compiled.matches(uri)) {
+                    return true
                 }
             } else if (info) {
                 def infoCode = hashCode(info)
@@ -91,8 +97,15 @@ class UrlMappingMatcher implements Matcher {
     }
 
     protected boolean isExcluded(String uri, UrlMappingInfo info) {
-        if( uriExcludePatterns.any() { String p -> pathMatcher.match(p, uri)} ) {
-            return true
+        if(!uriExcludePatterns.isEmpty()) {
+            AntPatternsMatcher compiled = compiledUriExcludePatterns
+            if (compiled == null) {
+                compiled = new AntPatternsMatcher(uriExcludePatterns)
+                compiledUriExcludePatterns = compiled
+            }
+            if (compiled.matches(uri)) {
+                return true
+            }
         }
         if(info) {
             for(exclude in excludes) {
@@ -112,6 +125,19 @@ class UrlMappingMatcher implements Matcher {
             ((method  ?: info.httpMethod ?: '') ==~ methodRegex))
     }
 
+    /**
+     * Whether the result of this matcher only depends on the controller, action, namespace and HTTP methods of the
+     * request, so that it can be cached for those values. Matchers with URI patterns or closure excludes can't be cached.
+     *
+     * @return True if it can be cached
+     */
+    boolean isCacheable() {
+        getClass() == UrlMappingMatcher &&
+            uriPatterns.isEmpty() &&
+            uriExcludePatterns.isEmpty() &&
+            excludes.every { Exclude exclude -> exclude instanceof MapExclude }
+    }
+
     @Override
     Matcher matchAll() {
         matchAll = true
@@ -122,6 +148,7 @@ class UrlMappingMatcher implements Matcher {
     Matcher matches(Map arguments) {
         if(arguments.uri) {
             uriPatterns << arguments.uri.toString()
+            compiledUriPatterns = null
         }
         else {
             controllerRegex = regexMatch( arguments, "controller")
@@ -136,6 +163,7 @@ class UrlMappingMatcher implements Matcher {
     Matcher excludes(Map arguments) {
         if(arguments.uri) {
             uriExcludePatterns << arguments.uri.toString()
+            compiledUriExcludePatterns = null
         }
         else {
             def exclude = new MapExclude()
@@ -3,6 +3,8 @@ package grails.artefact
 import grails.interceptors.Matcher
 import grails.util.GrailsWebMockUtil
 import org.grails.plugins.web.interceptors.GrailsInterceptorHandlerInterceptorAdapter
+import org.grails.web.mapping.ForwardUrlMappingInfo
+import org.grails.web.mapping.mvc.UrlMappingsHandlerMapping
 import org.grails.web.servlet.mvc.GrailsWebRequest
 import org.springframework.web.context.request.RequestContextHolder
 import org.springframework.web.servlet.ModelAndView
@@ -122,6 +124,74 @@ class GrailsInterceptorHandlerInterceptorAdapterSpec extends Specification{
         then:
         webRequest.request.getAttribute(Matcher.THROWABLE) instanceof Exception
     }
+
+    void "Test that interceptor chains are cached per controller and action"() {
+        given:"Interceptors matched by controller and by a closure exclude"
+            def adapter = new GrailsInterceptorHandlerInterceptorAdapter()
+            def book = new BookInterceptor()
+            def excluding = new ExcludingInterceptor()
+            adapter.setInterceptors([book, excluding] as Interceptor[])
+
+        when:"Two requests for the same action are handled"
+            handle(adapter, 'book', 'list', false)
+            handle(adapter, 'book', 'list', true)
+
+        then:"The chain is resolved once and the closure exclude is evaluated for each request"
+            adapter.interceptorChains.size() == 1
+            book.beforeCount == 2
+            excluding.beforeCount == 1
+
+        when:"A request for another controller is handled"
+            handle(adapter, 'author', 'list', false)
+
+        then:"A chain without the controller interceptor is resolved"
+            adapter.interceptorChains.size() == 2
+            book.beforeCount == 2
+            excluding.beforeCount == 2
+
+        when:"The interceptors are replaced"
+            adapter.setInterceptors([book] as Interceptor[])
+
+        then:"The cached chains are discarded"
+            adapter.interceptorChains.isEmpty()
+    }
+
+    private void handle(GrailsInterceptorHandlerInterceptorAdapter adapter, String controllerName, String actionName, boolean skip) {
+        def webRequest = GrailsWebMockUtil.bindMockWebRequest()
+        webRequest.request.setAttribute(UrlMappingsHandlerMapping.MATCHED_REQUEST, new ForwardUrlMappingInfo(controllerName: controllerName, actionName: actionName))
+        if (skip) {
+            webRequest.request.setAttribute('skip', true)
+        }
+        adapter.preHandle(webRequest.request, webRequest.response, this)
+    }
+}
+class BookInterceptor implements Interceptor {
+
+    int beforeCount
+
+    BookInterceptor() {
+        match(controller: 'book')
+    }
+
+    @Override
+    boolean before() {
+        beforeCount++
+        true
+    }
+}
+class ExcludingInterceptor implements Interceptor {
+
+    int beforeCount
+
+    ExcludingInterceptor() {
+        matchAll().excludes { request.getAttribute('skip') }
+    }
+
+    @Override
+    boolean before() {
+        beforeCount++
+        true
+    }
 }
 class MyInterceptor implements Interceptor {
 
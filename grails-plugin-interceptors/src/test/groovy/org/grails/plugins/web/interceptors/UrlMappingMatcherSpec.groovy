@@ -51,4 +51,38 @@ class UrlMappingMatcherSpec extends Specification {
         System.setProperty(Environment.KEY, "test")
         Environment.cacheCurrentEnvironment()
     }
+
+    void 'test uri patterns and excludes are matched like AntPathMatcher'() {
+        given:
+        def matcher = new UrlMappingMatcher(Mock(Interceptor))
+        matcher.matches(uri: '/api/**')
+        matcher.matches(uri: '/books/*/edit')
+        matcher.excludes(uri: '/api/internal/**')
+        def mappingInfo = Mock(UrlMappingInfo)
+
+        expect:
+        matcher.doesMatch('/api', mappingInfo)
+        matcher.doesMatch('/api/books/1', mappingInfo)
+        matcher.doesMatch('/books/1/edit', mappingInfo)
+        !matcher.doesMatch('/books/1/show', mappingInfo)
+        !matcher.doesMatch('/api/internal/health', mappingInfo)
+
+        when:"A pattern is added after the patterns were compiled"
+        matcher.matches(uri: '/authors/**')
+
+        then:
+        matcher.doesMatch('/authors/1', mappingInfo)
+    }
+
+    void 'test only matchers without uri patterns and closure excludes are cacheable'() {
+        given:
+        def interceptor = Mock(Interceptor)
+
+        expect:
+        new UrlMappingMatcher(interceptor).matches(controller: 'book').isCacheable()
+        new UrlMappingMatcher(interceptor).matches(controller: 'book').excludes(action: 'list').isCacheable()
+        !new UrlMappingMatcher(interceptor).matches(uri: '/book/**').isCacheable()
+        !new UrlMappingMatcher(interceptor).matchAll().excludes(uri: '/static/**').isCacheable()
+        !new UrlMappingMatcher(interceptor).matchAll().excludes { true }.isCacheable()
+    }
 }
@@ -45,6 +45,6 @@ class JsonCollectionRenderer extends JsonRenderer implements ContainerRenderer {
     protected void renderJson(JSON converter, RenderContext context) {
         converter.setExcludes(componentType, excludes != null ? excludes : context.excludes)
         converter.setIncludes(componentType, includes != null ? includes : context.includes)
-        converter.render(context.getWriter())
+        writeConverter(converter, context)
     }
 }
@@ -123,6 +123,6 @@ class JsonRenderer <T> extends DefaultJsonRenderer<T> {
     protected void renderJson(JSON converter, RenderContext context) {
         converter.setExcludes(excludes ?: context.excludes)
         converter.setIncludes(includes != null ? includes : context.includes)
-        converter.render(context.getWriter())
+        writeConverter(converter, context)
     }
 }
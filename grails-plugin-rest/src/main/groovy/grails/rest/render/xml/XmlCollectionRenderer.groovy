@@ -46,6 +46,6 @@ class XmlCollectionRenderer extends XmlRenderer implements ContainerRenderer {
     protected void renderXml(XML converter, RenderContext context) {
         converter.setExcludes(componentType, excludes ?: context.excludes)
         converter.setIncludes(componentType, includes != null ? includes : context.includes)
-        converter.render(context.getWriter())
+        writeConverter(converter, context)
     }
 }
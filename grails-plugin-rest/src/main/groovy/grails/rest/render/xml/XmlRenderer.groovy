@@ -112,6 +112,6 @@ class XmlRenderer<T> extends DefaultXmlRenderer<T> {
     protected void renderXml(XML converter, RenderContext context) {
         converter.setExcludes(excludes ?: context.excludes)
         converter.setIncludes(includes != null ? includes : context.includes)
-        converter.render(context.getWriter())
+        writeConverter(converter, context)
     }
 }
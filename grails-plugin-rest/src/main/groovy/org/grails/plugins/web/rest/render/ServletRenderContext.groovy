@@ -18,6 +18,7 @@ package org.grails.plugins.web.rest.render
 import groovy.transform.CompileStatic
 import groovy.transform.TypeCheckingMode
 import grails.web.mime.MimeType
+import org.grails.web.converters.AbstractConverter
 import org.grails.web.util.GrailsApplicationAttributes
 import org.grails.web.servlet.mvc.GrailsWebRequest
 import org.grails.web.util.WebUtils
@@ -99,6 +100,17 @@ class ServletRenderContext extends AbstractRenderContext {
         webRequest.currentResponse.writer
     }
 
+    /**
+     * Renders the converter to the output stream of the response as bytes
+     *
+     * @param converter The converter
+     * @see AbstractConverter#renderBytes(javax.servlet.http.HttpServletResponse)
+     */
+    void renderBytes(AbstractConverter converter) {
+        writerObtained = true
+        converter.renderBytes(webRequest.currentResponse)
+    }
+
     @Override
     HttpMethod getHttpMethod() {
         HttpMethod.valueOf(webRequest.currentRequest.method)
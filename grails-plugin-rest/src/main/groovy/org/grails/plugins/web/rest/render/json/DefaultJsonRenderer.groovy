@@ -23,6 +23,7 @@ import grails.util.GrailsWebUtil
 import groovy.transform.CompileStatic
 import grails.web.mime.MimeType
 import org.grails.web.gsp.io.GrailsConventionGroovyPageLocator
+import org.grails.plugins.web.rest.render.ServletRenderContext
 import org.grails.plugins.web.rest.render.html.DefaultHtmlRenderer
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.http.HttpStatus
@@ -113,6 +114,22 @@ class DefaultJsonRenderer<T> implements Renderer<T> {
     protected void renderJson(JSON converter, RenderContext context) {
         converter.setExcludes(context.excludes)
         converter.setIncludes(context.includes)
-        converter.render(context.getWriter())
+        writeConverter(converter, context)
+    }
+
+    /**
+     * Writes the converter to the context, as bytes if the converter is configured for byte output and the context
+     * renders to a servlet response
+     *
+     * @param converter The converter
+     * @param context The context
+     */
+    protected void writeConverter(JSON converter, RenderContext context) {
+        if (converter.byteOutput && context instanceof ServletRenderContext) {
+            ((ServletRenderContext) context).renderBytes(converter)
+        }
+        else {
+            converter.render(context.getWriter())
+        }
     }
 }
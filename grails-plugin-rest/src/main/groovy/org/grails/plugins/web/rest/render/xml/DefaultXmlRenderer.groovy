@@ -23,6 +23,7 @@ import grails.util.GrailsWebUtil
 import groovy.transform.CompileStatic
 import grails.web.mime.MimeType
 import org.grails.web.gsp.io.GrailsConventionGroovyPageLocator
+import org.grails.plugins.web.rest.render.ServletRenderContext
 import org.grails.plugins.web.rest.render.html.DefaultHtmlRenderer
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.http.HttpStatus
@@ -119,6 +120,22 @@ class DefaultXmlRenderer<T> implements Renderer<T> {
     protected void renderXml(XML converter, RenderContext context) {
         converter.setExcludes(context.excludes)
         converter.setIncludes(context.includes)
-        converter.render(context.getWriter())
+        writeConverter(converter, context)
+    }
+
+    /**
+     * Writes the converter to the context, as bytes if the converter is configured for byte output and the context
+     * renders to a servlet response
+     *
+     * @param converter The converter
+     * @param context The context
+     */
+    protected void writeConverter(XML converter, RenderContext context) {
+        if (converter.byteOutput && context instanceof ServletRenderContext) {
+            ((ServletRenderContext) context).renderBytes(converter)
+        }
+        else {
+            converter.render(context.getWriter())
+        }
     }
 }
@@ -1,5 +1,6 @@
 package org.grails.plugins.web.rest.render.json
 
+import grails.converters.JSON
 import grails.core.DefaultGrailsApplication
 import grails.persistence.Entity
 import grails.rest.render.json.JsonRenderer
@@ -71,6 +72,22 @@ class JsonRendererSpec extends Specification {
 
     }
 
+    void "Test rendering a converter as bytes in the character encoding of the response"() {
+        given:"A response with an encoding other than the one of the converter"
+            final webRequest = GrailsWebMockUtil.bindMockWebRequest()
+            webRequest.response.characterEncoding = 'ISO-8859-1'
+            def context = new ServletRenderContext(webRequest)
+
+        when:"A converter is rendered as bytes"
+            context.renderBytes(new JSON([name: 'Gr\u00fc\u00dfe']))
+
+        then:"The bytes are encoded in the encoding of the response and the content length is set"
+            webRequest.response.contentAsByteArray == '{"name":"Gr\u00fc\u00dfe"}'.getBytes('ISO-8859-1')
+            webRequest.response.contentLength == 16
+            webRequest.response.contentAsString == '{"name":"Gr\u00fc\u00dfe"}'
+            context.wasWrittenTo()
+    }
+
     void "Test render domain class with JsonRenderer"() {
         given:"A new JsonRenderer instance is created with the defaults"
         def renderer = new JsonRenderer(Song)
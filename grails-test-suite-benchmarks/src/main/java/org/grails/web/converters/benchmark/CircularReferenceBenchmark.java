@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.converters.benchmark;
+
+import grails.converters.JSON;
+import grails.converters.XML;
+import grails.core.DefaultGrailsApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.grails.web.converters.configuration.ConvertersConfigurationInitializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures converting a tree of 10 000 nodes to JSON and XML. Below the root the nodes form branches of the given
+ * depth, and every node refers to its parent, so every node is checked against the objects being converted and
+ * renders a circular reference.
+ *
+ * @since 3.3
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CircularReferenceBenchmark {
+
+    private static final int NODE_COUNT = 10000;
+
+    @Param({"10", "1000"})
+    public int depth;
+
+    private TreeNode root;
+
+    @Setup
+    public void setup() {
+        DefaultGrailsApplication grailsApplication = new DefaultGrailsApplication();
+        grailsApplication.initialise();
+        ConvertersConfigurationInitializer initializer = new ConvertersConfigurationInitializer();
+        initializer.setGrailsApplication(grailsApplication);
+        initializer.initialize();
+
+        root = new TreeNode("root", null);
+        int count = 1;
+        while (count < NODE_COUNT) {
+            TreeNode parent = root;
+            for (int level = 1; level < depth && count < NODE_COUNT; level++) {
+                parent = new TreeNode("node" + count++, parent);
+            }
+        }
+    }
+
+    @Benchmark
+    public String json() {
+        return new JSON(root).toString();
+    }
+
+    @Benchmark
+    public String xml() {
+        return new XML(root).toString();
+    }
+
+    public static class TreeNode {
+        private final String name;
+        private final TreeNode parent;
+        private final List<TreeNode> children = new ArrayList<TreeNode>();
+
+        TreeNode(String name, TreeNode parent) {
+            this.name = name;
+            this.parent = parent;
+            if (parent != null) {
+                parent.children.add(this);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public TreeNode getParent() {
+            return parent;
+        }
+
+        public List<TreeNode> getChildren() {
+            return children;
+        }
+    }
+}
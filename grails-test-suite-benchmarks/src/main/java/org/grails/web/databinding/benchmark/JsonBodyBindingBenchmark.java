@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.databinding.benchmark;
+
+import grails.core.DefaultGrailsApplication;
+import grails.databinding.DataBindingSource;
+import grails.web.databinding.GrailsWebDataBinder;
+import grails.web.mime.MimeType;
+import groovy.lang.GroovyClassLoader;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.grails.web.databinding.bindingsource.JsonDataBindingSourceCreator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures binding a JSON request body to a command object with a source that is read from the token stream for the
+ * class of the command object and with a source that wraps the Map read by the JsonSlurper. The body has members that
+ * the command object doesn't have, like the links and metadata that API clients often send back.
+ *
+ * @since 3.3
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonBodyBindingBenchmark {
+
+    private static final String BODY = "{" +
+            "\"firstName\": \"Jeff\", \"lastName\": \"Brown\", \"email\": \"jeff@example.com\", \"age\": 42, " +
+            "\"accountNumber\": 1234567890, \"balance\": 1024.50, \"rate\": 0.0375, \"active\": true, " +
+            "\"tags\": [\"grails\", \"groovy\", \"spring\"], " +
+            "\"address\": " +
+            "{\"street\": \"12140 Woodcrest Executive Dr\", \"city\": \"St. Louis\", \"zip\": \"63141\"}, " +
+            "\"_links\": {\"self\": {\"href\": \"/people/42\"}, \"orders\": {\"href\": \"/people/42/orders\"}}, " +
+            "\"metadata\": [{\"created\": \"2016-11-15T10:00:00Z\", \"by\": \"admin\"}, " +
+            "{\"modified\": \"2016-11-16T10:00:00Z\", \"by\": \"jeff\"}], \"revision\": 7}";
+
+    private GrailsWebDataBinder binder;
+    private JsonDataBindingSourceCreator creator;
+    private Class<?> command;
+
+    @Setup
+    public void setup() throws Exception {
+        DefaultGrailsApplication grailsApplication = new DefaultGrailsApplication();
+        grailsApplication.initialise();
+        binder = new GrailsWebDataBinder(grailsApplication);
+        creator = new JsonDataBindingSourceCreator();
+
+        GroovyClassLoader classLoader = new GroovyClassLoader(getClass().getClassLoader());
+        classLoader.parseClass(
+                "package benchmark\n" +
+                "class Address { String street\n String city\n String zip }\n" +
+                "class PersonCommand {\n" +
+                "    String firstName\n" +
+                "    String lastName\n" +
+                "    String email\n" +
+                "    int age\n" +
+                "    Long accountNumber\n" +
+                "    BigDecimal balance\n" +
+                "    double rate\n" +
+                "    Boolean active\n" +
+                "    List<String> tags\n" +
+                "    Address address\n" +
+                "}\n");
+        command = classLoader.loadClass("benchmark.PersonCommand");
+    }
+
+    @Benchmark
+    public Object tokenStreamBinding() throws Exception {
+        return bind(command);
+    }
+
+    @Benchmark
+    public Object mapBinding() throws Exception {
+        // without a target type the body is read into a Map
+        return bind(null);
+    }
+
+    private Object bind(Class<?> bindingTargetType) throws Exception {
+        DataBindingSource source =
+                creator.createDataBindingSource(MimeType.JSON, bindingTargetType, new StringReader(BODY));
+        Object instance = command.newInstance();
+        binder.bind(instance, source);
+        return instance;
+    }
+}
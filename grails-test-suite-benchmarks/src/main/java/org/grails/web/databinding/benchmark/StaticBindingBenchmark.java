@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.databinding.benchmark;
+
+import grails.core.DefaultGrailsApplication;
+import grails.databinding.SimpleMapDataBindingSource;
+import grails.web.databinding.GrailsWebDataBinder;
+import grails.web.databinding.StaticBinding;
+import groovy.lang.GroovyClassLoader;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures binding a command object with the code generated for classes annotated with {@link StaticBinding} and with
+ * the dynamic binding of {@link GrailsWebDataBinder}. The command object has strings, numbers, an enum, a formatted
+ * date, a list and a nested command object. The values are either strings, like request parameters, or already have
+ * the types of the properties, like the values of a JSON body.
+ *
+ * @since 3.3
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StaticBindingBenchmark {
+
+    private static final String PROPERTIES =
+            "    String firstName\n" +
+            "    String lastName\n" +
+            "    String email\n" +
+            "    int age\n" +
+            "    Long accountNumber\n" +
+            "    BigDecimal balance\n" +
+            "    Boolean active\n" +
+            "    Status status\n" +
+            "    @BindingFormat('yyyy-MM-dd')\n" +
+            "    Date birthDate\n" +
+            "    List<String> tags\n";
+
+    @Param({"params", "json"})
+    public String values;
+
+    private GrailsWebDataBinder binder;
+    private Class<?> staticCommand;
+    private Class<?> dynamicCommand;
+    private Map<String, Object> source;
+
+    @Setup
+    public void setup() throws Exception {
+        DefaultGrailsApplication grailsApplication = new DefaultGrailsApplication();
+        grailsApplication.initialise();
+        binder = new GrailsWebDataBinder(grailsApplication);
+
+        GroovyClassLoader classLoader = new GroovyClassLoader(getClass().getClassLoader());
+        classLoader.parseClass(
+                "package benchmark\n" +
+                "import grails.databinding.BindingFormat\n" +
+                "import grails.web.databinding.StaticBinding\n" +
+                "enum Status { ACTIVE, INACTIVE }\n" +
+                "@StaticBinding class StaticAddress { String street\n String city\n String zip }\n" +
+                "@StaticBinding class StaticCommand {\n" + PROPERTIES + "    StaticAddress address\n}\n" +
+                "class DynamicAddress { String street\n String city\n String zip }\n" +
+                "class DynamicCommand {\n" + PROPERTIES + "    DynamicAddress address\n}\n");
+        staticCommand = classLoader.loadClass("benchmark.StaticCommand");
+        dynamicCommand = classLoader.loadClass("benchmark.DynamicCommand");
+
+        boolean params = "params".equals(values);
+        source = new LinkedHashMap<String, Object>();
+        source.put("firstName", "Jeff");
+        source.put("lastName", "Brown");
+        source.put("email", "jeff@example.com");
+        source.put("age", params ? "42" : (Object) 42);
+        source.put("accountNumber", params ? "1234567890" : (Object) 1234567890L);
+        source.put("balance", params ? "1024.50" : (Object) new java.math.BigDecimal("1024.50"));
+        source.put("active", params ? "true" : (Object) Boolean.TRUE);
+        source.put("status", "ACTIVE");
+        source.put("birthDate", "1969-11-15");
+        source.put("tags", Arrays.asList("grails", "groovy", "spring"));
+        Map<String, Object> address = new LinkedHashMap<String, Object>();
+        address.put("street", "12140 Woodcrest Executive Dr");
+        address.put("city", "St. Louis");
+        address.put("zip", "63141");
+        source.put("address", address);
+    }
+
+    @Benchmark
+    public Object staticBinding() throws Exception {
+        Object command = staticCommand.newInstance();
+        binder.bind(command, new SimpleMapDataBindingSource(source));
+        return command;
+    }
+
+    @Benchmark
+    public Object dynamicBinding() throws Exception {
+        Object command = dynamicCommand.newInstance();
+        binder.bind(command, new SimpleMapDataBindingSource(source));
+        return command;
+    }
+}
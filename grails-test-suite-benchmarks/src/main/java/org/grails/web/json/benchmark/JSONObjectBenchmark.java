@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.json.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.grails.web.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures building, reading and iterating a JSONObject with the given number of properties, with a HashMap of the
+ * same entries as the baseline. Everything a build benchmark allocates is retained by the map it returns, so the
+ * normalized allocation rate reported by the GC profiler of the build benchmarks is the memory footprint of a map.
+ *
+ * @since 3.3
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JSONObjectBenchmark {
+
+    @Param({"3", "8", "32"})
+    public int propertyCount;
+
+    private String[] keys;
+    private Integer[] values;
+    private JSONObject jsonObject;
+    private Map<String, Object> hashMap;
+
+    @Setup
+    public void setup() {
+        keys = new String[propertyCount];
+        values = new Integer[propertyCount];
+        for (int i = 0; i < propertyCount; i++) {
+            keys[i] = "property" + i;
+            values[i] = i;
+        }
+        jsonObject = buildJSONObject();
+        hashMap = buildHashMap();
+    }
+
+    @Benchmark
+    public JSONObject buildJSONObject() {
+        JSONObject object = new JSONObject();
+        for (int i = 0; i < keys.length; i++) {
+            object.put((Object) keys[i], values[i]);
+        }
+        return object;
+    }
+
+    @Benchmark
+    public Map<String, Object> buildHashMap() {
+        Map<String, Object> map = new HashMap<String, Object>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], values[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public int getJSONObject() {
+        int sum = 0;
+        for (String key : keys) {
+            sum += (Integer) jsonObject.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int getHashMap() {
+        int sum = 0;
+        for (String key : keys) {
+            sum += (Integer) hashMap.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public int iterateJSONObject() {
+        int sum = 0;
+        for (Object entry : jsonObject.entrySet()) {
+            sum += (Integer) ((Map.Entry<Object, Object>) entry).getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int iterateHashMap() {
+        int sum = 0;
+        for (Map.Entry<String, Object> entry : hashMap.entrySet()) {
+            sum += (Integer) entry.getValue();
+        }
+        return sum;
+    }
+}
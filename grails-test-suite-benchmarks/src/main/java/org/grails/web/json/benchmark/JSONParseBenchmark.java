@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.json.benchmark;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.grails.web.json.JSONStreamParser;
+import org.grails.web.json.JSONTokener;
+import org.grails.web.json.parser.JSONParser;
+import org.grails.web.json.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures parsing a JSON document of the given size with {@link JSONTokener}, which JSON.parse used before, the
+ * JavaCC generated {@link JSONParser} and {@link JSONStreamParser}. The documents are arrays of objects with strings,
+ * escapes, integers, decimals, booleans, nulls and a nested array.
+ *
+ * @since 3.3
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@SuppressWarnings("deprecation")
+public class JSONParseBenchmark {
+
+    @Param({"1024", "102400", "10485760"})
+    public int payloadSize;
+
+    private String json;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder(payloadSize + 256);
+        sb.append('[');
+        for (int i = 0; sb.length() < payloadSize; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Book ").append(i).append("\"")
+                    .append(",\"description\":\"A \\\"quoted\\\" title\\nwith an escape \\u00e9\"")
+                    .append(",\"price\":").append(i % 100).append('.').append(i % 10).append(5)
+                    .append(",\"published\":").append(i % 2 == 0)
+                    .append(",\"isbn\":null")
+                    .append(",\"sales\":").append(1000000000000L + i)
+                    .append(",\"tags\":[\"fiction\",\"paperback\",").append(i % 7).append("]}");
+        }
+        sb.append(']');
+        json = sb.toString();
+    }
+
+    @Benchmark
+    public Object tokener() {
+        return new JSONTokener(json).nextValue();
+    }
+
+    @Benchmark
+    public Object javacc() throws ParseException {
+        return new JSONParser(new StringReader(json)).parseJSON();
+    }
+
+    @Benchmark
+    public Object stream() {
+        return new JSONStreamParser(new StringReader(json)).parse();
+    }
+}
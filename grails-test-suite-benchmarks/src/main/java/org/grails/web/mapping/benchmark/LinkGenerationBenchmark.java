@@ -0,0 +1,103 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping.benchmark;
+
+import grails.web.mapping.UrlCreator;
+import grails.web.mapping.UrlMappingsHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.grails.web.mapping.DefaultLinkGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the throughput of reverse mapping lookups and link generation. With the "hot" cache the links and URL
+ * creators are cached, with the "cold" cache a plain {@link DefaultLinkGenerator} without a URL creator cache is used.
+ *
+ * @since 3.3
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LinkGenerationBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int mappingCount;
+
+    @Param({"hot", "cold"})
+    public String cache;
+
+    private DefaultLinkGenerator linkGenerator;
+    private UrlMappingsHolder holder;
+    private Map<String, Object>[] links;
+    private Map<String, Object>[] reverseMappingParams;
+    private int index;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        SyntheticUrlMappings mappings = new SyntheticUrlMappings(mappingCount);
+        linkGenerator = mappings.createLinkGenerator("hot".equals(cache));
+        holder = linkGenerator.getUrlMappingsHolder();
+        links = mappings.linkAttributes();
+
+        reverseMappingParams = new Map[links.length];
+        for (int i = 0; i < links.length; i++) {
+            Map<String, Object> params = new HashMap<String, Object>();
+            Object linkParams = links[i].get("params");
+            if (linkParams instanceof Map) {
+                params.putAll((Map<String, Object>) linkParams);
+            }
+            if (links[i].get("id") != null) {
+                params.put("id", links[i].get("id"));
+            }
+            reverseMappingParams[i] = params;
+        }
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (SyntheticUrlMappings.SAMPLE_SIZE - 1);
+        return index;
+    }
+
+    @Benchmark
+    public UrlCreator getReverseMapping() {
+        int i = nextIndex();
+        Map<String, Object> attrs = links[i];
+        return holder.getReverseMapping((String) attrs.get("controller"), (String) attrs.get("action"), null, null,
+                (String) attrs.get("method"), reverseMappingParams[i]);
+    }
+
+    @Benchmark
+    public String createURL() {
+        int i = nextIndex();
+        Map<String, Object> attrs = links[i];
+        UrlCreator urlCreator = holder.getReverseMapping((String) attrs.get("controller"), (String) attrs.get("action"),
+                null, null, (String) attrs.get("method"), reverseMappingParams[i]);
+        return urlCreator.createURL(reverseMappingParams[i], "UTF-8");
+    }
+
+    @Benchmark
+    public String link() {
+        return linkGenerator.link(links[nextIndex()]);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping.benchmark;
+
+import grails.core.DefaultGrailsApplication;
+import grails.core.GrailsApplication;
+import grails.web.CamelCaseUrlConverter;
+import grails.web.mapping.UrlMapping;
+
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.grails.support.MockApplicationContext;
+import org.grails.web.mapping.CachingLinkGenerator;
+import org.grails.web.mapping.DefaultLinkGenerator;
+import org.grails.web.mapping.DefaultUrlMappingEvaluator;
+import org.grails.web.mapping.DefaultUrlMappingsHolder;
+import org.springframework.core.io.ByteArrayResource;
+
+/**
+ * Creates synthetic URL mappings and the URIs and link attributes to benchmark them with. The mappings come in groups
+ * of four: a static mapping, a mapping with a variable, a mapping with two constrained variables and a mapping that is
+ * restricted to the PUT method.
+ *
+ * @since 3.3
+ */
+public class SyntheticUrlMappings {
+
+    /**
+     * The number of distinct URIs and links used per benchmark, small enough to fit into the default caches
+     */
+    public static final int SAMPLE_SIZE = 1024;
+
+    private static final long SEED = 42L;
+
+    private final int groups;
+    private final List<UrlMapping> mappings;
+
+    /**
+     * @param mappingCount The number of mappings, a multiple of four
+     */
+    public SyntheticUrlMappings(int mappingCount) {
+        if (mappingCount <= 0 || mappingCount % 4 != 0) {
+            throw new IllegalArgumentException("The number of mappings must be a positive multiple of 4, was " + mappingCount);
+        }
+        this.groups = mappingCount / 4;
+        this.mappings = evaluate(groups);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<UrlMapping> evaluate(int groups) {
+        String script = "mappings {\n" +
+                "    for (int i = 0; i < " + groups + "; i++) {\n" +
+                "        \"/static${i}/list\"(controller: \"static${i}\", action: \"list\")\n" +
+                "        \"/variable${i}/$id\"(controller: \"variable${i}\", action: \"show\")\n" +
+                "        \"/constrained${i}/$year/$month\"(controller: \"constrained${i}\", action: \"archive\") {\n" +
+                "            constraints {\n" +
+                "                year(matches: /\\d{4}/)\n" +
+                "                month(matches: /\\d{2}/)\n" +
+                "            }\n" +
+                "        }\n" +
+                "        \"/resource${i}/$id\"(controller: \"resource${i}\", action: \"update\", method: \"PUT\")\n" +
+                "    }\n" +
+                "}\n";
+
+        MockApplicationContext ctx = new MockApplicationContext();
+        ctx.registerMockBean(GrailsApplication.APPLICATION_ID, new DefaultGrailsApplication());
+        DefaultUrlMappingEvaluator evaluator = new DefaultUrlMappingEvaluator(ctx);
+        return evaluator.evaluateMappings(new ByteArrayResource(script.getBytes(Charset.forName("UTF-8"))));
+    }
+
+    /**
+     * Creates a holder for the mappings
+     *
+     * @param caching Whether the match and URL creator caches are enabled. Without them every call does the full work.
+     * @return The holder
+     */
+    public DefaultUrlMappingsHolder createHolder(boolean caching) {
+        DefaultUrlMappingsHolder holder = newHolder(caching);
+        holder.initialize();
+        return holder;
+    }
+
+    /**
+     * Creates a holder for the mappings that still has to be initialized, so that its settings can be changed
+     *
+     * @param caching Whether the match and URL creator caches are enabled. Without them every call does the full work.
+     * @return The holder
+     */
+    public DefaultUrlMappingsHolder newHolder(boolean caching) {
+        DefaultUrlMappingsHolder holder = new DefaultUrlMappingsHolder(mappings, null, true);
+        if (!caching) {
+            holder.setMaxWeightedCacheCapacity(0);
+            holder.setUrlCreatorMaxWeightedCacheCapacity(0);
+        }
+        return holder;
+    }
+
+    /**
+     * Creates a link generator for the mappings
+     *
+     * @param caching Whether links and URL creators are cached
+     * @return The link generator
+     */
+    public DefaultLinkGenerator createLinkGenerator(boolean caching) {
+        DefaultLinkGenerator linkGenerator = caching ?
+                new CachingLinkGenerator("http://localhost", "") : new DefaultLinkGenerator("http://localhost", "");
+        linkGenerator.setGrailsUrlConverter(new CamelCaseUrlConverter());
+        linkGenerator.setUrlMappingsHolder(createHolder(caching));
+        return linkGenerator;
+    }
+
+    /**
+     * @return URIs spread evenly over all mappings, one in eight of them doesn't match any mapping
+     */
+    public String[] uris() {
+        Random random = new Random(SEED);
+        String[] uris = new String[SAMPLE_SIZE];
+        for (int n = 0; n < uris.length; n++) {
+            int i = random.nextInt(groups);
+            int id = random.nextInt(10000);
+            switch (random.nextInt(8)) {
+                case 0:
+                case 1:
+                    uris[n] = "/static" + i + "/list";
+                    break;
+                case 2:
+                case 3:
+                    uris[n] = "/variable" + i + "/" + id;
+                    break;
+                case 4:
+                case 5:
+                    uris[n] = "/constrained" + i + "/" + (2000 + id % 20) + "/" + (10 + id % 3);
+                    break;
+                case 6:
+                    uris[n] = "/resource" + i + "/" + id;
+                    break;
+                default:
+                    uris[n] = "/missing" + i + "/" + id;
+            }
+        }
+        return uris;
+    }
+
+    /**
+     * @return Link attributes spread evenly over all mappings
+     */
+    public Map<String, Object>[] linkAttributes() {
+        Random random = new Random(SEED);
+        @SuppressWarnings("unchecked")
+        Map<String, Object>[] links = new Map[SAMPLE_SIZE];
+        for (int n = 0; n < links.length; n++) {
+            int i = random.nextInt(groups);
+            int id = random.nextInt(10000);
+            Map<String, Object> attrs = new HashMap<String, Object>();
+            switch (random.nextInt(4)) {
+                case 0:
+                    attrs.put("controller", "static" + i);
+                    attrs.put("action", "list");
+                    break;
+                case 1:
+                    attrs.put("controller", "variable" + i);
+                    attrs.put("action", "show");
+                    attrs.put("id", id);
+                    break;
+                case 2:
+                    Map<String, Object> params = new HashMap<String, Object>();
+                    params.put("year", 2000 + id % 20);
+                    params.put("month", 10 + id % 3);
+                    attrs.put("controller", "constrained" + i);
+                    attrs.put("action", "archive");
+                    attrs.put("params", params);
+                    break;
+                default:
+                    attrs.put("controller", "resource" + i);
+                    attrs.put("action", "update");
+                    attrs.put("id", id);
+                    attrs.put("method", "PUT");
+            }
+            links[n] = attrs;
+        }
+        return links;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping.benchmark;
+
+import grails.web.mapping.UrlMapping;
+import grails.web.mapping.UrlMappingInfo;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.grails.web.mapping.DefaultUrlMappingsHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Measures the throughput of matching URIs against {@link DefaultUrlMappingsHolder}, finding the candidate mappings
+ * with the segment trie or by scanning every mapping. With the "hot" cache the URIs are answered from the match caches
+ * after the warmup and with the "cold" cache the caches are disabled, so that every call evaluates the mappings. The
+ * cache mode and the admission filter keep their defaults.
+ *
+ * @since 3.3
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UrlMappingsHolderBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int mappingCount;
+
+    @Param({"hot", "cold"})
+    public String cache;
+
+    @Param({"false", "true"})
+    public boolean segmentTrie;
+
+    private DefaultUrlMappingsHolder holder;
+    private String[] uris;
+    private int index;
+
+    @Setup
+    public void setup() {
+        SyntheticUrlMappings mappings = new SyntheticUrlMappings(mappingCount);
+        holder = mappings.newHolder(!"cold".equals(cache));
+        holder.setSegmentTrieEnabled(segmentTrie);
+        holder.initialize();
+        uris = mappings.uris();
+    }
+
+    private String nextUri() {
+        index = (index + 1) & (SyntheticUrlMappings.SAMPLE_SIZE - 1);
+        return uris[index];
+    }
+
+    @Benchmark
+    public UrlMappingInfo match() {
+        return holder.match(nextUri());
+    }
+
+    @Benchmark
+    public UrlMappingInfo[] matchAll() {
+        return holder.matchAll(nextUri(), HttpMethod.GET);
+    }
+
+    @Benchmark
+    public UrlMappingInfo[] matchAllAnyMethod() {
+        return holder.matchAll(nextUri(), UrlMapping.ANY_HTTP_METHOD);
+    }
+
+    @Benchmark
+    public Set<HttpMethod> allowedMethods() {
+        return holder.allowedMethods(nextUri());
+    }
+}
@@ -14,6 +14,7 @@
  */
 package grails.web.databinding
 
+import grails.core.GrailsApplication
 import grails.databinding.BindUsing
 import grails.databinding.BindingFormat
 import grails.databinding.DataBindingSource
@@ -718,6 +719,54 @@ class GrailsWebDataBinderSpec extends Specification {
         error.cause?.message == 'Illegal attempt to update element in [authors] Set with id [42]. No such record was found.'
     }
 
+    void 'Test referenced instances are retrieved with one query per domain class'() {
+        given:
+        def a1 = new Author(name: 'Author One').save()
+        def a2 = new Author(name: 'Author Two').save()
+        def a3 = new Author(name: 'Author Three').save()
+        def publisher = new Publisher(name: 'Some Publisher')
+        def countingBinder = new QueryCountingDataBinder(grailsApplication)
+
+        when:
+        countingBinder.bind publisher, new SimpleMapDataBindingSource(['authors': [
+                                [id: a3.id, name: 'Author Tres'],
+                                [id: a1.id, name: 'Author Uno'],
+                                [id: a2.id, name: 'Author Dos']]])
+
+        then:
+        countingBinder.getAllQueries == 1
+        countingBinder.getQueries == 0
+        publisher.authors.size() == 3
+        publisher.authors.find { it.id == a1.id }.name == 'Author Uno'
+        publisher.authors.find { it.id == a2.id }.name == 'Author Dos'
+        publisher.authors.find { it.id == a3.id }.name == 'Author Tres'
+    }
+
+    void 'Test updating Set elements by ids that are retrieved together when one does not exist'() {
+        given:
+        def bindingErrors = []
+        def listener = new DataBindingListenerAdapter() {
+            void bindingError(BindingError error, errors) {
+                bindingErrors << error
+            }
+        }
+        def author = new Author(name: 'Author One').save()
+        def publisher = new Publisher(name: 'Apress').save(flush: true)
+        def countingBinder = new QueryCountingDataBinder(grailsApplication)
+
+        when:
+        countingBinder.bind publisher, new SimpleMapDataBindingSource(['authors[0]': [id: author.id, name: 'Author Uno'],
+                                                                       'authors[1]': [id: 42, name: 'Some Name']]), listener
+
+        then:
+        countingBinder.getAllQueries == 1
+        countingBinder.getQueries == 0
+        publisher.authors*.name == ['Author Uno']
+        bindingErrors.size() == 1
+        bindingErrors[0].propertyName == 'authors'
+        bindingErrors[0].cause?.message == 'Illegal attempt to update element in [authors] Set with id [42]. No such record was found.'
+    }
+
     void 'Test updating nested entities retrieved by id'() {
         when:
         def publisher = new Publisher(name: 'Apress').save()
@@ -1598,3 +1647,24 @@ class AlbumHolder {
 class ListCommand implements Validateable { 
     List<Long> myLongList 
 }
+
+class QueryCountingDataBinder extends GrailsWebDataBinder {
+    int getQueries
+    int getAllQueries
+
+    QueryCountingDataBinder(GrailsApplication grailsApplication) {
+        super(grailsApplication)
+    }
+
+    @Override
+    protected getPersistentInstance(Class<?> type, id) {
+        getQueries++
+        super.getPersistentInstance(type, id)
+    }
+
+    @Override
+    protected List getPersistentInstances(Class<?> type, List ids) {
+        getAllQueries++
+        super.getPersistentInstances(type, ids)
+    }
+}
@@ -30,4 +30,94 @@ class JSONObjectTests extends GroovyTestCase {
         assertEquals j1, j2
         assertTrue j1 == j2
     }
+
+    void testKeysAreIteratedInInsertionOrder() {
+        [3, 8, 9, 50].each { count ->
+            JSONObject j = new JSONObject()
+            def keys = (count..1).collect { "key$it".toString() }
+            keys.each { j.put(it, it.size()) }
+
+            assertEquals count, j.size()
+            assertEquals keys, j.keySet().toList()
+            assertEquals keys, j.keys().toList()
+            keys.each { assertEquals it.size(), j.get(it) }
+            assertEquals '{' + keys.collect { "\"$it\":${it.size()}" }.join(',') + '}', j.toString()
+        }
+    }
+
+    void testMapSemanticsMatchHashMap() {
+        [2, 8, 20].each { count ->
+            JSONObject j = new JSONObject()
+            Map expected = new HashMap()
+            (1..count).each {
+                j.put((Object) "k$it".toString(), it)
+                expected.put("k$it".toString(), it)
+            }
+            j.put((Object) null, 'null key')
+            expected.put(null, 'null key')
+            j.put((Object) 'nullValue', null)
+            expected.put('nullValue', null)
+
+            assertEquals expected, new HashMap(j)
+            assertTrue j.equals(new JSONObject(expected))
+            assertEquals expected.hashCode(), j.hashCode()
+            assertTrue j.containsKey(null)
+            assertTrue j.containsKey('nullValue')
+            assertTrue j.containsValue(null)
+            assertEquals 1, j.put((Object) 'k1', 'replaced')
+            assertEquals 'replaced', j.remove('k1')
+            assertNull j.remove('missing')
+
+            def iterator = j.entrySet().iterator()
+            while (iterator.hasNext()) {
+                def entry = iterator.next()
+                if (entry.key == 'k2') {
+                    iterator.remove()
+                }
+                else if (entry.key == null) {
+                    entry.value = 'changed'
+                }
+            }
+            assertFalse j.containsKey('k2')
+            assertEquals 'changed', j.get(null)
+            assertEquals count + 2 - 2, j.size()
+
+            j.clear()
+            assertTrue j.isEmpty()
+            j.put('again', 1)
+            assertEquals 1, j.get('again')
+        }
+    }
+
+    void testModificationDuringIterationFails() {
+        JSONObject j = new JSONObject([a: 1, b: 2])
+        shouldFail(ConcurrentModificationException) {
+            j.keySet().each { j.put('c', 3) }
+        }
+    }
+
+    void testRemovingEntriesKeepsTheOrderOfTheOthers() {
+        JSONObject j = new JSONObject()
+        List keys = (1..1000).collect { "key$it".toString() }
+        keys.each { j.put(it, it) }
+
+        def iterator = j.keySet().iterator()
+        while (iterator.hasNext()) {
+            if (iterator.next().size() % 2 == 0) {
+                iterator.remove()
+            }
+        }
+        keys.removeAll { it.size() % 2 == 0 }
+        (1..100).each {
+            j.remove(keys.remove(0))
+            String key = "added$it".toString()
+            j.put(key, key)
+            keys << key
+        }
+
+        assertEquals keys.size(), j.size()
+        assertEquals keys, j.keySet().toList()
+        keys.each { assertEquals it, j.get(it) }
+        assertFalse j.containsKey('key10')
+    }
 }
@@ -21,6 +21,19 @@ class ControllerWithXmlConvertersTests {
 
         assert response.text == '<?xml version="1.0" encoding="UTF-8"?><list><string>tst0</string><string>tst1</string><null /><string>fail</string></list>'
     }
+
+    @Test
+    void testRenderBytes() {
+        def xml = new XML(['Gr\u00fc\u00dfe'])
+        xml.byteOutput = true
+        xml.render(response)
+
+        byte[] expected = '<?xml version="1.0" encoding="UTF-8"?><list><string>Gr\u00fc\u00dfe</string></list>'.getBytes('UTF-8')
+        assert response.contentAsByteArray == expected
+        assert response.characterEncoding == 'UTF-8'
+        assert response.contentType.startsWith('application/xml')
+        assert response.contentLength == expected.length
+    }
 }
 
 @Artefact("Controller")
@@ -29,6 +29,17 @@ class JSONConverterTests {
         assertEquals('{}', response.contentAsString)
     }
 
+    @Test
+    void testRenderBytes() {
+        def json = new JSON([name: 'Gr\u00fc\u00dfe'])
+        json.byteOutput = true
+        json.render(response)
+
+        assertEquals('{"name":"Gr\u00fc\u00dfe"}', response.contentAsString)
+        assertEquals(18, response.contentAsByteArray.length)
+        assertEquals(18, response.contentLength)
+    }
+
     @Test
     void testJSONConverter() {
         controller.test()
@@ -0,0 +1,263 @@
+package org.grails.web.json
+
+import groovy.json.JsonSlurper
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class JSONStreamParserSpec extends Specification {
+
+    @Unroll
+    void "parsing #json gives the same values as JSONTokener"() {
+        expect:
+        equalToTokener(json)
+
+        where:
+        json << [
+                '{"name":"Grails","version":3,"tags":["web","groovy"],"nested":{"a":null,"b":true,"c":false}}',
+                '[1,-1,0,-0,2147483647,2147483648,-2147483649,9223372036854775807,9223372036854775808,123456789012345678901]',
+                '[0.5,-0.5,1.,.5,1e5,1E-5,-1.25e+3,0.1,3.141592653589793,1.7976931348623157E308,4.9E-324,1e400,-0.0,123456789012345.6]',
+                '[010,08,0x1F,0X1f,+5,+0.5,00.5,1.5d,1L,1e,.,-,1 2]',
+                '["a\\"b","c\\\\d","\\/","\\b\\f\\n\\r\\t","\\u00e9\\u2028","\\x41",\'single "quoted"\',"\\q"]',
+                '{a:1, b = 2; c => 3, \'d\':4,}',
+                '[1,,2,]',
+                '[TRUE,False,nULL,truth]',
+                '{"date":new Date(1234567890)}',
+                '// comment\n{ /* block */ "a" : # hash\n 1 }',
+                '[unquoted text, with spaces ]',
+                '{"":"empty key","dup":1,"dup":2}'
+        ]
+    }
+
+    void "strings, numbers and keys that cross the read buffer boundary are parsed"() {
+        given:
+        def sb = new StringBuilder('[')
+        20000.times { i ->
+            sb << '{"key' << (i % 50) << '":"value\\t' << i << '","n":' << i << '.' << (i % 10) << '}'
+            sb << ','
+        }
+        sb << '"' << ('x' * 20000) << '\\n' << ('y' * 20000) << '"]'
+        def json = sb.toString()
+
+        expect:
+        equalToTokener(json)
+        new JSONStreamParser(new OneCharReader(json)).parse().equals(new JSONTokener(json).nextValue())
+    }
+
+    void "equal keys of different objects are the same String"() {
+        when:
+        JSONArray array = (JSONArray) new JSONStreamParser(new StringReader('[{"name":"a"},{"name":"b"}]')).parse()
+
+        then:
+        ((JSONObject) array[0]).keySet().first().is(((JSONObject) array[1]).keySet().first())
+    }
+
+    void "decimals are converted to the same doubles as Double.valueOf"() {
+        given:
+        def random = new Random(42)
+        def values = (1..10000).collect {
+            def digits = (random.nextLong() % 1000000000000000L).abs()
+            def scale = random.nextInt(40) - 20
+            new BigDecimal(BigInteger.valueOf(digits), scale).toString()
+        }
+        def json = '[' + values.join(',') + ']'
+
+        when:
+        JSONArray parsed = (JSONArray) new JSONStreamParser(new StringReader(json)).parse()
+
+        then:
+        parsed.equals(new JSONTokener(json).nextValue())
+    }
+
+    void "numbers are converted to the same types as the JsonSlurper with big decimals"() {
+        given:
+        def json = '[1, 12345678901, 123456789012345678901, 0.1, 1.5e3, -2.50]'
+        def parser = new JSONStreamParser(new StringReader(json))
+        parser.bigDecimals = true
+
+        when:
+        JSONArray parsed = (JSONArray) parser.parse()
+
+        then:
+        parsed.collect { it.getClass() } == new JsonSlurper().parseText(json).collect { it.getClass() }
+        parsed == [1, 12345678901L, 123456789012345678901G, 0.1G, 1.5e3G, -2.50G]
+    }
+
+    @Unroll
+    void "invalid JSON #json fails with '#message'"() {
+        when:
+        new JSONStreamParser(new StringReader(json)).parse()
+
+        then:
+        JSONException e = thrown()
+        e.message.startsWith(message)
+
+        where:
+        json            | message
+        '{"a":1'        | "Expected a ',' or '}'"
+        '{"a" 1}'       | "Expected a ':' after a key"
+        '{'             | "A JSONObject text must end with '}'"
+        '[1 2'          | "Expected a ',' or ']'"
+        '["abc'         | 'Unterminated string'
+        '["a\nb"]'      | 'Unterminated string'
+        '["\\u12"]'     | 'Substring bounds error'
+        '{"a":}'        | 'Missing value.'
+        '/* open'       | 'Unclosed comment.'
+    }
+
+    void "a parser created while another one is parsing on the same thread doesn't share its buffers"() {
+        given:
+        def outer = new JSONStreamParser(new StringReader('{"outer":[1,2,3]}'))
+        def inner = new JSONStreamParser(new StringReader('{"inner":"value"}'))
+
+        expect:
+        inner.parse().equals(new JSONTokener('{"inner":"value"}').nextValue())
+        outer.parse().equals(new JSONTokener('{"outer":[1,2,3]}').nextValue())
+    }
+
+    void "the members of an object are read one at a time and the values that aren't read are skipped"() {
+        given:
+        def json = "{'a': 1.5, b: [1, {'c': '}'}], /* comment */ 'd': {'e': true}, 'f': \"x\\\"y\", 'g': 2.5, 'h': null,}"
+        def parser = new JSONStreamParser(new OneCharReader(json))
+        parser.bigDecimals = true
+        def members = [:]
+
+        when:
+        boolean isObject = parser.readObject({ String key, JSONStreamParser p ->
+            if (key == 'd') {
+                assert p.isObjectValue()
+                members[key] = p.readValue(false)
+            } else if (key == 'a' || key == 'g') {
+                members[key] = p.readValue(key == 'g')
+            } else if (key == 'f') {
+                p.skipValue()
+            }
+        } as JSONStreamParser.MemberHandler)
+
+        then:
+        isObject
+        members == [a: 1.5G, d: [e: true], g: 2.5d]
+        members.a instanceof BigDecimal
+        members.g instanceof Double
+
+        when:
+        parser.skipValue()
+
+        then:
+        thrown IllegalStateException
+    }
+
+    void "reading the members of a value that isn't an object reads no members"() {
+        expect:
+        !new JSONStreamParser(new StringReader(json)).readObject({ String key, JSONStreamParser p ->
+            throw new AssertionError(key)
+        } as JSONStreamParser.MemberHandler)
+
+        where:
+        json << ['', '[{"a": 1}]', '"text"']
+    }
+
+    @Unroll
+    void "strict JSON #json is parsed to the same values as the JsonSlurper"() {
+        given:
+        def parser = new JSONStreamParser(new OneCharReader(json))
+        parser.bigDecimals = true
+        parser.strict = true
+
+        expect:
+        parser.parse() == new JsonSlurper().parseText(json)
+
+        where:
+        json << [
+                '{"name":"Grails","tags":["web","groovy"],"nested":{"b":true,"c":false}}',
+                ' [1, -0, 12345678901, 123456789012345678901, 0.5, -1.25e+3, 1E-5] ',
+                '["a\\"b","c\\\\d","\\/","\\b\\f\\n\\r\\t","\\u00e9"]',
+                '[]',
+                '{}',
+                '42'
+        ]
+    }
+
+    @Unroll
+    void "the lenient syntax #json fails in strict mode"() {
+        given:
+        def parser = new JSONStreamParser(new StringReader(json))
+        parser.strict = true
+
+        when:
+        parser.parse()
+
+        then:
+        thrown JSONException
+
+        where:
+        json << [
+                '{a:1}',
+                "{'a':1}",
+                '{"a":\'b\'}',
+                '{"a" = 1}',
+                '{"a":1;"b":2}',
+                '{"a":1,}',
+                '[1,,2]',
+                '[1,]',
+                '[010]',
+                '[0x1F]',
+                '[+5]',
+                '[.5]',
+                '[1.]',
+                '[TRUE]',
+                '[unquoted]',
+                '{"date":new Date(1234567890)}',
+                '["\\x41"]',
+                '["\\q"]',
+                '["\\u00G1"]',
+                '["tab\there"]',
+                '// comment\n{}',
+                '{"a":1} # hash',
+                '{"a":1} {"b":2}'
+        ]
+    }
+
+    void "values that are skipped are checked in strict mode"() {
+        given:
+        def parser = new JSONStreamParser(new StringReader(json))
+        parser.strict = true
+
+        when:
+        parser.readObject({ String key, JSONStreamParser p -> p.skipValue() } as JSONStreamParser.MemberHandler)
+
+        then:
+        thrown JSONException
+
+        where:
+        json << ['{"a": {b: 1}}', '{"a": [1, 2,]}', '{"a": \'x\'}', '{"a": {"b": 0x1}}', '{"a": 1} x']
+    }
+
+    private static boolean equalToTokener(String json) {
+        Object expected = new JSONTokener(json).nextValue()
+        Object parsed = new JSONStreamParser(new StringReader(json)).parse()
+        // Java equality, so that an Integer isn't equal to the Long or Double of the same value
+        expected == null ? parsed == null : expected.equals(parsed)
+    }
+
+    static class OneCharReader extends Reader {
+        private final String source
+        private int index
+
+        OneCharReader(String source) {
+            this.source = source
+        }
+
+        @Override
+        int read(char[] cbuf, int off, int len) {
+            if (index == source.length()) {
+                return -1
+            }
+            cbuf[off] = source.charAt(index++)
+            return 1
+        }
+
+        @Override
+        void close() {
+        }
+    }
+}
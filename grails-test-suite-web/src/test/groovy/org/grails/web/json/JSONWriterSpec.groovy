@@ -32,6 +32,74 @@ class JSONWriterSpec extends Specification {
         '[{"key":null},{"key":null}]' == writer.toString()
     }
 
+    void 'should write primitive values without changing their output'() {
+        given:
+        def writer = new StringWriter()
+        def jsonWriter = new JSONWriter(writer)
+
+        when:
+        jsonWriter.array()
+                .value(0).value(-42).value(Long.MAX_VALUE).value(Long.MIN_VALUE)
+                .value(1.5d).value(true).value(false)
+                .value((Number) 7).value((Number) 2.50G)
+                .endArray()
+
+        then:
+        '[0,-42,9223372036854775807,-9223372036854775808,1.5,true,false,7,2.50]' == writer.toString()
+    }
+
+    void 'should escape strings and keys like the JSON encoder'() {
+        given:
+        def writer = new StringWriter()
+        def jsonWriter = new JSONWriter(writer)
+        def input = 'a"b\\c\t\n\r\u0001\u000B</script> /é'
+
+        when:
+        jsonWriter.object().key(input).value(input).endObject()
+
+        then:
+        def expected = '"' + new org.grails.plugins.codecs.JSONEncoder().encode(input) + '"'
+        "{${expected}:${expected}}".toString() == writer.toString()
+    }
+
+    void 'should write pre-quoted keys as is'() {
+        given:
+        def writer = new StringWriter()
+        def jsonWriter = new JSONWriter(writer)
+
+        when:
+        jsonWriter.object().key('a"b', JSONWriter.quoteKey('a"b')).value(1).endObject()
+
+        then:
+        '{"a\\"b":1}' == writer.toString()
+    }
+
+    void 'should allow more nesting than the initial mode stack'() {
+        given:
+        def writer = new StringWriter()
+        def jsonWriter = new JSONWriter(writer)
+
+        when:
+        50.times { jsonWriter.array() }
+        50.times { jsonWriter.endArray() }
+
+        then:
+        ('[' * 50) + (']' * 50) == writer.toString()
+    }
+
+    void 'should pretty print values'() {
+        given:
+        def writer = new StringWriter()
+        def jsonWriter = new PrettyPrintJSONWriter(writer)
+        def nl = PrettyPrintJSONWriter.NEWLINE
+
+        when:
+        jsonWriter.object().key('a').array().value(1).value('x').endArray().key('b').value(true).endObject()
+
+        then:
+        "{${nl}  \"a\": ${nl}  [${nl}    1,${nl}    \"x\"${nl}  ],${nl}  \"b\": true${nl}}".toString() == writer.toString()
+    }
+
     @CompileStatic
     private writeNumber(JSONWriter jsonWriter, Number n) {
         jsonWriter.object().key('key').value(n).endObject()
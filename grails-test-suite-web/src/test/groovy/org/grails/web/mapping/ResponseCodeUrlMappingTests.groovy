@@ -52,6 +52,18 @@ mappings {
         assertEquals "custom", info.actionName
     }
 
+    void testMatchStatusCodeAndExceptionSubclass() {
+        // resolve twice to exercise the per exception class cache
+        2.times {
+            def info = holder.matchStatusCode(500, new NumberFormatException())
+            assertEquals "custom", info.actionName
+        }
+
+        assertNull holder.matchStatusCode(500, new IllegalStateException())
+        assertNull holder.matchStatusCode(500, null)
+        assertNull holder.matchStatusCode(404, new IllegalArgumentException())
+    }
+
     void testForwardMapping() {
         def info = holder.matchStatusCode(404)
         assertNotNull info
@@ -0,0 +1,413 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.json;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The map of a {@link JSONObject}. The entries are kept in a single array of alternating keys and values in the order
+ * they were added, which is also the iteration order. Up to {@value #MAX_LINEAR_ENTRIES} entries the array is searched
+ * linearly. Larger maps add an open addressing hash table of positions in the array. Without an entry object per
+ * mapping and with no table at all for the few properties of a typical JSON object, this takes a fraction of the memory
+ * of a HashMap. Null keys and values are supported.
+ *
+ * <p>Removing an entry from a small map moves the following entries. In a map with a hash table the entry is marked as
+ * removed instead, so that the positions of the other entries stay valid, and is deleted from the hash table by
+ * shifting the following entries of its probe sequence back. The removed entries are compacted away when the array is
+ * full.</p>
+ *
+ * @since 3.3
+ */
+final class CompactMap extends AbstractMap<Object, Object> {
+
+    static final int MAX_LINEAR_ENTRIES = 8;
+
+    private static final Object[] EMPTY = new Object[0];
+    /**
+     * The key of a removed entry in a map with a hash table
+     */
+    private static final Object REMOVED = new Object();
+
+    /**
+     * Alternating keys and values in insertion order
+     */
+    private Object[] table = EMPTY;
+    /**
+     * The end of the used part of {@link #table}, which includes the removed entries
+     */
+    private int end;
+    /**
+     * The positions of the entries in {@link #table} plus one by the hash of their keys, null for small maps
+     */
+    private int[] index;
+    private int size;
+    private int modCount;
+    private Set<Map.Entry<Object, Object>> entrySet;
+
+    CompactMap() {
+    }
+
+    CompactMap(Map<?, ?> map) {
+        table = map.isEmpty() ? EMPTY : new Object[map.size() * 2];
+        putAll(map);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < end; i += 2) {
+            if (table[i] != REMOVED && (value == null ? table[i + 1] == null : value.equals(table[i + 1]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? table[i + 1] : null;
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            Object old = table[i + 1];
+            table[i + 1] = value;
+            return old;
+        }
+
+        modCount++;
+        if (end == table.length) {
+            resize();
+        }
+        int position = end;
+        table[position] = key;
+        table[position + 1] = value;
+        end += 2;
+        size++;
+        if (index != null && size * 2 <= index.length) {
+            addToIndex(position);
+        } else if (size > MAX_LINEAR_ENTRIES) {
+            rebuildIndex();
+        }
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        Object old = table[i + 1];
+        removeAt(i);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(table, 0, end, null);
+        end = 0;
+        size = 0;
+        index = null;
+    }
+
+    @Override
+    public Set<Map.Entry<Object, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private static int hash(Object key) {
+        // scattered, so that consecutive hash codes don't form the long clusters in which deletions are slow
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return The slot of the index at which the probe sequence of the key starts
+     */
+    private static int home(Object key, int mask) {
+        return key == null ? 0 : hash(key) & mask;
+    }
+
+    /**
+     * @return The position of the key in the table or -1
+     */
+    private int indexOf(Object key) {
+        Object[] table = this.table;
+        if (index != null) {
+            int mask = index.length - 1;
+            for (int i = home(key, mask); ; i = (i + 1) & mask) {
+                int slot = index[i];
+                if (slot == 0) {
+                    return -1;
+                }
+                Object k = table[slot - 1];
+                if (k == key || (key != null && key.equals(k))) {
+                    return slot - 1;
+                }
+            }
+        }
+
+        if (key == null) {
+            for (int i = 0; i < end; i += 2) {
+                if (table[i] == null) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        for (int i = 0; i < end; i += 2) {
+            if (table[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < end; i += 2) {
+            if (key.equals(table[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void addToIndex(int position) {
+        Object key = table[position];
+        int mask = index.length - 1;
+        int i = home(key, mask);
+        while (index[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        index[i] = position + 1;
+    }
+
+    /**
+     * Deletes the position from the index and moves the following positions of the probe sequence back into the gap,
+     * unless their probe sequence starts after the gap
+     */
+    private void removeFromIndex(int position) {
+        int mask = index.length - 1;
+        int gap = home(table[position], mask);
+        while (index[gap] != position + 1) {
+            gap = (gap + 1) & mask;
+        }
+        for (int i = (gap + 1) & mask; index[i] != 0; i = (i + 1) & mask) {
+            int home = home(table[index[i] - 1], mask);
+            boolean homeInGap = gap <= i ? home <= gap || home > i : home <= gap && home > i;
+            if (homeInGap) {
+                index[gap] = index[i];
+                gap = i;
+            }
+        }
+        index[gap] = 0;
+    }
+
+    /**
+     * Copies the entries into an array with room for as many entries again, leaving out the removed entries
+     */
+    private void resize() {
+        Object[] entries = new Object[Math.max(size * 4, 4)];
+        int position = 0;
+        for (int i = 0; i < end; i += 2) {
+            if (table[i] != REMOVED) {
+                entries[position] = table[i];
+                entries[position + 1] = table[i + 1];
+                position += 2;
+            }
+        }
+        table = entries;
+        end = position;
+        rebuildIndex();
+    }
+
+    private void rebuildIndex() {
+        if (size <= MAX_LINEAR_ENTRIES) {
+            index = null;
+            return;
+        }
+        // at most half full
+        index = new int[Integer.highestOneBit(size * 2 - 1) << 1];
+        for (int i = 0; i < end; i += 2) {
+            if (table[i] != REMOVED) {
+                addToIndex(i);
+            }
+        }
+    }
+
+    private void removeAt(int i) {
+        modCount++;
+        size--;
+        if (index == null) {
+            System.arraycopy(table, i + 2, table, i, end - i - 2);
+            end -= 2;
+            table[end] = null;
+            table[end + 1] = null;
+        } else {
+            removeFromIndex(i);
+            table[i] = REMOVED;
+            table[i + 1] = null;
+        }
+    }
+
+    /**
+     * @return The position of the first entry from the given position on that isn't removed
+     */
+    private int skipRemoved(int position) {
+        while (position < end && table[position] == REMOVED) {
+            position += 2;
+        }
+        return position;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Object, Object>> {
+        @Override
+        public Iterator<Map.Entry<Object, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            next = skipRemoved(next);
+            return next < end;
+        }
+
+        @Override
+        public Map.Entry<Object, Object> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            next = skipRemoved(next);
+            if (next >= end) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next += 2;
+            return new Entry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            if (table[last] != REMOVED) {
+                // the following entries were moved
+                next = last;
+            }
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class Entry implements Map.Entry<Object, Object> {
+        private final int position;
+        private final Object key;
+        private final int expectedModCount = modCount;
+
+        Entry(int position) {
+            this.position = position;
+            this.key = table[position];
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return modCount == expectedModCount ? table[position + 1] : CompactMap.this.get(key);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            if (modCount == expectedModCount) {
+                Object old = table[position + 1];
+                table[position + 1] = value;
+                return old;
+            }
+            return CompactMap.this.put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object value = getValue();
+            return (key == null ? e.getKey() == null : key.equals(e.getKey())) &&
+                    (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -88,6 +88,11 @@ public class JSONArray implements JSONElement, List {
      */
     private ArrayList myArrayList;
 
+    /**
+     * The text of an array that is parsed on first access.
+     */
+    private JSONStreamParser.Region unparsed;
+
 
     /**
      * Construct an empty JSONArray.
@@ -96,6 +101,14 @@ public class JSONArray implements JSONElement, List {
         this.myArrayList = new ArrayList();
     }
 
+    /**
+     * Construct a JSONArray that parses the given text when it is first accessed.
+     */
+    JSONArray(JSONStreamParser.Region unparsed) {
+        this();
+        this.unparsed = unparsed;
+    }
+
     /**
      * Construct a JSONArray from a JSONTokener.
      *
@@ -114,10 +127,10 @@ public class JSONArray implements JSONElement, List {
         for (; ;) {
             if (x.nextClean() == ',') {
                 x.back();
-                this.myArrayList.add(null);
+                list().add(null);
             } else {
                 x.back();
-                this.myArrayList.add(x.nextValue());
+                list().add(x.nextValue());
             }
             switch (x.nextClean()) {
                 case ';':
@@ -175,63 +188,63 @@ public class JSONArray implements JSONElement, List {
     }
 
     public Object set(int i, Object o) {
-        return myArrayList.set(i, o);
+        return list().set(i, o);
     }
 
     public boolean add(Object o) {
-        return myArrayList.add(o);
+        return list().add(o);
     }
 
     public void add(int i, Object o) {
-        myArrayList.add(i, o);
+        list().add(i, o);
     }
 
     public Object remove(int i) {
-        return myArrayList.remove(i);
+        return list().remove(i);
     }
 
     public boolean remove(Object o) {
-        return myArrayList.remove(o);
+        return list().remove(o);
     }
 
     public void clear() {
-        myArrayList.clear();
+        list().clear();
     }
 
     public boolean addAll(Collection collection) {
-        return myArrayList.addAll(collection);
+        return list().addAll(collection);
     }
 
     public boolean addAll(int i, Collection collection) {
-        return myArrayList.addAll(i, collection);
+        return list().addAll(i, collection);
     }
 
     public Iterator iterator() {
-        return myArrayList.iterator();
+        return list().iterator();
     }
 
     public ListIterator listIterator() {
-        return myArrayList.listIterator();
+        return list().listIterator();
     }
 
     public ListIterator listIterator(int i) {
-        return myArrayList.listIterator(i);
+        return list().listIterator(i);
     }
 
     public List subList(int i, int i1) {
-        return myArrayList.subList(i, i1);
+        return list().subList(i, i1);
     }
 
     public boolean containsAll(Collection collection) {
-        return myArrayList.containsAll(collection);
+        return list().containsAll(collection);
     }
 
     public boolean removeAll(Collection collection) {
-        return myArrayList.removeAll(collection);
+        return list().removeAll(collection);
     }
 
     public boolean retainAll(Collection collection) {
-        return myArrayList.retainAll(collection);
+        return list().retainAll(collection);
     }
 
 
@@ -386,7 +399,7 @@ public class JSONArray implements JSONElement, List {
             if (i > 0) {
                 sb.append(separator);
             }
-            sb.append(JSONObject.valueToString(this.myArrayList.get(i)));
+            sb.append(JSONObject.valueToString(list().get(i)));
         }
         return sb.toString();
     }
@@ -398,7 +411,7 @@ public class JSONArray implements JSONElement, List {
      * @return The length (or size).
      */
     public int length() {
-        return myArrayList.size();
+        return list().size();
     }
 
 
@@ -411,7 +424,7 @@ public class JSONArray implements JSONElement, List {
      */
     public Object opt(int index) {
         return (index < 0 || index >= length()) ?
-                null : this.myArrayList.get(index);
+                null : list().get(index);
     }
 
 
@@ -653,7 +666,7 @@ public class JSONArray implements JSONElement, List {
      * @return this
      */
     public JSONArray put(Object value) {
-        this.myArrayList.add(value);
+        list().add(value);
         return this;
     }
 
@@ -740,7 +753,7 @@ public class JSONArray implements JSONElement, List {
             throw new JSONException("JSONArray[" + index + "] not found.");
         }
         if (index < length()) {
-            this.myArrayList.set(index, value);
+            list().set(index, value);
         } else {
             while (index != length()) {
                 put(null);
@@ -830,7 +843,7 @@ public class JSONArray implements JSONElement, List {
         int i;
         StringBuilder sb = new StringBuilder("[");
         if (len == 1) {
-            sb.append(JSONObject.valueToString(this.myArrayList.get(0),
+            sb.append(JSONObject.valueToString(list().get(0),
                     indentFactor, indent));
         } else {
             int newindent = indent + indentFactor;
@@ -842,7 +855,7 @@ public class JSONArray implements JSONElement, List {
                 for (int j = 0; j < newindent; j += 1) {
                     sb.append(' ');
                 }
-                sb.append(JSONObject.valueToString(this.myArrayList.get(i),
+                sb.append(JSONObject.valueToString(list().get(i),
                         indentFactor, newindent));
             }
             sb.append('\n');
@@ -864,14 +877,14 @@ public class JSONArray implements JSONElement, List {
 
         JSONArray that = (JSONArray) obj;
 
-        if (myArrayList != null ? !myArrayList.equals(that.myArrayList) : that.myArrayList != null) return false;
+        if (!list().equals(that.list())) return false;
 
         return true;
     }
 
     @Override
     public int hashCode() {
-        return  myArrayList != null ? myArrayList.hashCode() : super.hashCode();
+        return list().hashCode();
     }
 
     /**
@@ -894,7 +907,7 @@ public class JSONArray implements JSONElement, List {
                 if (b) {
                     writer.write(',');
                 }
-                Object v = this.myArrayList.get(i);
+                Object v = list().get(i);
                 if (v instanceof JSONObject) {
                     ((JSONObject) v).write(writer);
                 } else if (v instanceof JSONArray) {
@@ -912,44 +925,55 @@ public class JSONArray implements JSONElement, List {
     }
 
     public void trimToSize() {
-        myArrayList.trimToSize();
+        list().trimToSize();
     }
 
     public void ensureCapacity(int i) {
-        myArrayList.ensureCapacity(i);
+        list().ensureCapacity(i);
     }
 
     public int size() {
-        return myArrayList.size();
+        return list().size();
+    }
+
+    private ArrayList list() {
+        if (unparsed != null) {
+            // parsed into another array, so that this one stays unparsed and fails again if the text isn't valid
+            JSONArray parsed = new JSONArray();
+            unparsed.parseInto(parsed);
+            myArrayList = parsed.myArrayList;
+            unparsed = null;
+        }
+        return myArrayList;
     }
 
     public boolean isEmpty() {
-        return myArrayList.isEmpty();
+        return list().isEmpty();
     }
 
     public boolean contains(Object o) {
-        return myArrayList.contains(o);
+        return list().contains(o);
     }
 
     public int indexOf(Object o) {
-        return myArrayList.indexOf(o);
+        return list().indexOf(o);
     }
 
     public int lastIndexOf(Object o) {
-        return myArrayList.lastIndexOf(o);
+        return list().lastIndexOf(o);
     }
 
     @Override
     public Object clone() {
-        return myArrayList.clone();
+        return list().clone();
     }
 
     public Object[] toArray() {
-        return myArrayList.toArray();
+        return list().toArray();
     }
 
     public Object[] toArray(Object[] objects) {
-        return myArrayList.toArray(objects);
+        return list().toArray(objects);
     }
 
     @Override
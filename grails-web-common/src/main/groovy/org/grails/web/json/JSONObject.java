@@ -25,6 +25,7 @@ SOFTWARE.
 */
 
 import groovy.lang.Writable;
+import org.grails.charsequences.CharSequences;
 import org.grails.encoder.EncodesToWriter;
 import org.grails.encoder.StreamingEncoder;
 import org.grails.encoder.StreamingEncoderWritable;
@@ -93,6 +94,26 @@ public class JSONObject implements JSONElement, Map {
     private static EncodesToWriter javascriptEncoderStateless;
     private static StreamingEncoder javascriptEncoder;
     private static boolean useStreamingJavascriptEncoder=false;
+
+    /**
+     * The escape sequences of the JSON encoder for the ASCII characters, looked up by character instead of asking the
+     * encoder for every character of a string. '/' is only escaped after '<'.
+     */
+    private static final String[] ESCAPES = new String[128];
+    static {
+        for (char c = 0; c < ' '; c++) {
+            String hex = Integer.toHexString(c);
+            ESCAPES[c] = "\\u" + "0000".substring(hex.length()) + hex;
+        }
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['\t'] = "\\t";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\u000B'] = "\\v";
+    }
     static {
         try {
             javascriptEncoder = (StreamingEncoder)ClassUtils.forName("org.grails.plugins.codecs.JSONEncoder", JSONObject.class.getClassLoader()).newInstance();
@@ -105,15 +126,28 @@ public class JSONObject implements JSONElement, Map {
     }
 
     /**
-     * The hash map where the JSONObject's properties are kept.
+     * The map where the JSONObject's properties are kept, in the order they were added.
      */
-    private HashMap myHashMap;
+    private CompactMap myMap;
+
+    /**
+     * The text of an object that is parsed on first access.
+     */
+    private JSONStreamParser.Region unparsed;
 
     /**
      * Construct an empty JSONObject.
      */
     public JSONObject() {
-        this.myHashMap = new HashMap();
+        this.myMap = new CompactMap();
+    }
+
+    /**
+     * Construct a JSONObject that parses the given text when it is first accessed.
+     */
+    JSONObject(JSONStreamParser.Region unparsed) {
+        this();
+        this.unparsed = unparsed;
     }
 
 
@@ -172,7 +206,7 @@ public class JSONObject implements JSONElement, Map {
             } else if (c != ':') {
                 throw x.syntaxError("Expected a ':' after a key");
             }
-            this.myHashMap.put(key, x.nextValue());
+            map().put(key, x.nextValue());
 
             /*
              * Pairs are separated by ','. We will also tolerate ';'.
@@ -202,7 +236,7 @@ public class JSONObject implements JSONElement, Map {
      *            the JSONObject.
      */
     public JSONObject(Map map) {
-        this.myHashMap = new HashMap(map);
+        this.myMap = new CompactMap(map);
     }
 
 
@@ -256,7 +290,7 @@ public class JSONObject implements JSONElement, Map {
      * @throws JSONException if the key is not found.
      */
     public Object get(String key) throws JSONException {
-        if(!myHashMap.containsKey(key)) {
+        if(!map().containsKey(key)) {
             throw new JSONException("JSONObject[" + quote(key) +
                     "] not found.");
         }
@@ -394,7 +428,7 @@ public class JSONObject implements JSONElement, Map {
      * @return true if the key exists in the JSONObject.
      */
     public boolean has(String key) {
-        return myHashMap.containsKey(key);
+        return map().containsKey(key);
     }
 
 
@@ -417,7 +451,7 @@ public class JSONObject implements JSONElement, Map {
      * @return An iterator of the keys.
      */
     public Iterator keys() {
-        return myHashMap.keySet().iterator();
+        return map().keySet().iterator();
     }
 
 
@@ -427,7 +461,7 @@ public class JSONObject implements JSONElement, Map {
      * @return The number of keys in the JSONObject.
      */
     public int length() {
-        return myHashMap.size();
+        return map().size();
     }
 
 
@@ -487,7 +521,7 @@ public class JSONObject implements JSONElement, Map {
      * @return An object which is the value, or null if there is no value.
      */
     public Object opt(String key) {
-        return key == null ? null : this.myHashMap.get(key);
+        return key == null ? null : map().get(key);
     }
 
 
@@ -752,7 +786,7 @@ public class JSONObject implements JSONElement, Map {
         }
         if (value != null) {
             testValidity(value);
-            this.myHashMap.put(key, value);
+            map().put(key, value);
         } else {
             remove(key);
         }
@@ -852,7 +886,7 @@ public class JSONObject implements JSONElement, Map {
      *         or null if there was no value.
      */
     public Object remove(String key) {
-        return myHashMap.remove(key);
+        return map().remove(key);
     }
 
     /**
@@ -923,7 +957,7 @@ public class JSONObject implements JSONElement, Map {
                 Object o = keys.next();
                 sb.append(quote(o.toString()));
                 sb.append(':');
-                sb.append(valueToString(this.myHashMap.get(o)));
+                sb.append(valueToString(map().get(o)));
             }
             sb.append('}');
             return sb.toString();
@@ -979,7 +1013,7 @@ public class JSONObject implements JSONElement, Map {
             o = keys.next();
             sb.append(quote(o.toString()));
             sb.append(": ");
-            sb.append(valueToString(this.myHashMap.get(o), indentFactor,
+            sb.append(valueToString(map().get(o), indentFactor,
                     indent));
         } else {
             while (keys.hasNext()) {
@@ -994,7 +1028,7 @@ public class JSONObject implements JSONElement, Map {
                 }
                 sb.append(quote(o.toString()));
                 sb.append(": ");
-                sb.append(valueToString(this.myHashMap.get(o), indentFactor,
+                sb.append(valueToString(map().get(o), indentFactor,
                         newindent));
             }
             if (sb.length() > 1) {
@@ -1076,7 +1110,30 @@ public class JSONObject implements JSONElement, Map {
 
 
     protected static void encodeToWriter(CharSequence str, Writer writer) throws IOException {
-        javascriptEncoderStateless.encodeToWriter(str, 0, str.length(), writer, null);
+        int len = str.length();
+        int start = 0;
+        char previous = 0;
+        for (int i = 0; i < len; i++) {
+            char c = str.charAt(i);
+            String escaped;
+            if (c < ESCAPES.length) {
+                escaped = c == '/' && previous == '<' ? "\\u002f" : ESCAPES[c];
+            }
+            else {
+                escaped = c == '\u2028' ? "\\u2028" : c == '\u2029' ? "\\u2029" : null;
+            }
+            if (escaped != null) {
+                if (i > start) {
+                    CharSequences.writeCharSequence(writer, str, start, i);
+                }
+                writer.write(escaped);
+                start = i + 1;
+            }
+            previous = c;
+        }
+        if (len > start) {
+            CharSequences.writeCharSequence(writer, str, start, len);
+        }
     }
 
     static void writeDate(Writer writer, Date d) throws IOException {
@@ -1141,7 +1198,7 @@ public class JSONObject implements JSONElement, Map {
         try {
             boolean notFirst = false;
             writer.write('{');
-            for(Iterator it = myHashMap.entrySet().iterator(); it.hasNext();) {
+            for(Iterator it = map().entrySet().iterator(); it.hasNext();) {
                 Map.Entry entry = (Entry)it.next();
                 if (notFirst) {
                     writer.write(',');
@@ -1159,51 +1216,62 @@ public class JSONObject implements JSONElement, Map {
     }
 
     public int size() {
-        return myHashMap.size();
+        return map().size();
+    }
+
+    private CompactMap map() {
+        if (unparsed != null) {
+            // parsed into another object, so that this one stays unparsed and fails again if the text isn't valid
+            JSONObject parsed = new JSONObject();
+            unparsed.parseInto(parsed);
+            myMap = parsed.myMap;
+            unparsed = null;
+        }
+        return myMap;
     }
 
     public boolean isEmpty() {
-        return myHashMap.isEmpty();
+        return map().isEmpty();
     }
 
     public boolean containsKey(Object o) {
-        return myHashMap.containsKey(o);
+        return map().containsKey(o);
     }
 
     public boolean containsValue(Object o) {
-        return myHashMap.containsValue(o);
+        return map().containsValue(o);
     }
 
     public Object get(Object o) {
-        return myHashMap.get(o);
+        return map().get(o);
     }
 
     public Object put(Object o, Object o1) {
-        return myHashMap.put(o, o1);
+        return map().put(o, o1);
     }
 
     public Object remove(Object o) {
-        return myHashMap.remove(o);
+        return map().remove(o);
     }
 
     public void putAll(Map map) {
-        this.myHashMap.putAll(map);
+        map().putAll(map);
     }
 
     public void clear() {
-        this.myHashMap.clear();
+        map().clear();
     }
 
     public Set keySet() {
-        return myHashMap.keySet();
+        return map().keySet();
     }
 
     public Collection values() {
-        return myHashMap.values();
+        return map().values();
     }
 
     public Set entrySet() {
-        return myHashMap.entrySet();
+        return map().entrySet();
     }
 
     @Override
@@ -1213,14 +1281,14 @@ public class JSONObject implements JSONElement, Map {
 
         JSONObject that = (JSONObject) o;
 
-        if (myHashMap != null ? !myHashMap.equals(that.myHashMap) : that.myHashMap != null) return false;
+        if (!map().equals(that.map())) return false;
 
         return true;
     }
 
     @Override
     public int hashCode() {
-        return (myHashMap != null ? myHashMap.hashCode() : 0);
+        return map().hashCode();
     }
 
 
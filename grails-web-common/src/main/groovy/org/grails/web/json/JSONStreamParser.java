@@ -0,0 +1,1423 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses JSON text from a Reader into the same tree of {@link JSONObject}, {@link JSONArray} and values as
+ * {@link JSONTokener}, including its lenient syntax: unquoted and single quoted strings, comments, '=' and ';' as
+ * separators, hex and octal integers and <code>new Date(...)</code> values.
+ *
+ * <p>The input is read in blocks into a char array that is reused by the parsers of a thread, and strings without
+ * escapes are created straight from that array. Integers and decimals of up to 15 significant digits are converted from
+ * their digits, the other numbers go through the same Integer, Long and Double conversions as JSONTokener. Keys are
+ * canonicalized, so the keys of repeated objects share their String instances.</p>
+ *
+ * <p>Besides parsing a whole tree with {@link #parse()}, the elements of a large array can be pulled one at a time with
+ * {@link #elements()}, and {@link #parseLazily(Reader)} returns a JSONObject or JSONArray that only parses the parts of
+ * the text that are accessed. The members of an object can also be read one at a time with
+ * {@link #readObject(MemberHandler)}, which lets the caller skip the values it doesn't need without parsing them.</p>
+ *
+ * <p>In strict mode, see {@link #setStrict(boolean)}, only JSON as defined by RFC 7159 is accepted.</p>
+ *
+ * @since 3.3
+ */
+public class JSONStreamParser {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The number of consumed chars kept when the buffer is refilled, which is how far {@link #back()} may go
+     */
+    private static final int HISTORY = 2;
+
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final Pattern DATE_PATTERN = Pattern.compile("^\\s*new\\s+Date\\(\\s*(\\d+)\\s*\\)\\s*$");
+
+    /**
+     * The chars that end an unquoted value
+     */
+    private static final boolean[] VALUE_DELIMITERS = new boolean[128];
+    static {
+        for (char c : ",:]}/\\\"[{;=#".toCharArray()) {
+            VALUE_DELIMITERS[c] = true;
+        }
+    }
+
+    private static final ThreadLocal<Buffers> BUFFERS = new ThreadLocal<Buffers>() {
+        @Override
+        protected Buffers initialValue() {
+            return new Buffers();
+        }
+    };
+
+    private final Reader reader;
+    private final boolean lazy;
+    private boolean bigDecimals;
+    private boolean strict;
+    private boolean decimalsAsDoubles;
+    private boolean valuePending;
+    private char[] buf;
+    private StringBuilder text;
+    private KeyCache keys;
+    private int pos;
+    private int limit;
+    private long offset;
+    private boolean eof;
+
+    public JSONStreamParser(Reader reader) {
+        this.reader = reader;
+        lazy = false;
+    }
+
+    /**
+     * Parses text that is already in memory. In lazy mode objects and arrays are skipped and returned unparsed.
+     */
+    private JSONStreamParser(char[] chars, int start, int end, boolean lazy) {
+        reader = null;
+        this.lazy = lazy;
+        buf = chars;
+        pos = start;
+        limit = end;
+        eof = true;
+    }
+
+    /**
+     * Makes the parser convert decimals to BigDecimals and integers too large for a Long to BigIntegers, like
+     * groovy.json.JsonSlurper, instead of converting them to Doubles like JSONTokener
+     *
+     * @param bigDecimals Whether to convert numbers that aren't Integers or Longs to BigDecimals and BigIntegers
+     */
+    public void setBigDecimals(boolean bigDecimals) {
+        this.bigDecimals = bigDecimals;
+    }
+
+    /**
+     * Makes the parser reject the lenient syntax of JSONTokener, so that only JSON as defined by RFC 7159 is accepted:
+     * strings and keys are double quoted and only contain valid escapes, the only unquoted values are numbers,
+     * <code>true</code>, <code>false</code> and <code>null</code>, there are no comments, no separators besides ':'
+     * and ',', no empty or trailing elements, and nothing but whitespace follows the value. Values that are skipped are
+     * checked as well.
+     *
+     * @param strict Whether to only accept strict JSON
+     */
+    public void setStrict(boolean strict) {
+        this.strict = strict;
+    }
+
+    /**
+     * Reads the whole input and returns its value. If it is an object or an array, it is returned unparsed and only
+     * parsed when it is first accessed, one level at a time: the objects and arrays it contains are again only parsed
+     * when they are accessed. Syntax errors inside an object or array are therefore only reported when it is accessed.
+     * The text is kept in memory until all objects and arrays have been parsed.
+     *
+     * @param reader The input
+     * @return A JSONObject, JSONArray, String, Number, Boolean, Date or null
+     * @throws JSONException If the input can't be read or isn't valid
+     */
+    public static Object parseLazily(Reader reader) throws JSONException {
+        char[] chars = new char[BUFFER_SIZE];
+        int length = 0;
+        try {
+            for (int n; (n = reader.read(chars, length, chars.length - length)) != -1; ) {
+                length += n;
+                if (length == chars.length) {
+                    chars = Arrays.copyOf(chars, chars.length * 2);
+                }
+            }
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+
+        JSONStreamParser parser = new JSONStreamParser(chars, 0, length, true);
+        Buffers buffers = parser.acquire();
+        try {
+            char c = parser.nextClean();
+            if (c == '{') {
+                return new JSONObject(new Region(chars, parser.pos - 1, length));
+            }
+            if (c == '[') {
+                return new JSONArray(new Region(chars, parser.pos - 1, length));
+            }
+            parser.back();
+            return parser.nextValue(false);
+        }
+        finally {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Parses the next value of the input and releases the buffers of the parser.
+     *
+     * @return A JSONObject, JSONArray, String, Number, Boolean, Date or null
+     * @throws JSONException If the input isn't valid or can't be read
+     */
+    public Object parse() throws JSONException {
+        Buffers buffers = acquire();
+        try {
+            Object value = nextValue(false);
+            checkEnd();
+            return value;
+        }
+        finally {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Returns an iterator that parses the elements of the array the input starts with one at a time, so that only the
+     * current element has to be kept in memory. If the input doesn't start with an array, its value is the only
+     * element, and an empty input has no elements.
+     *
+     * @return The elements, which are JSONObjects, JSONArrays, Strings, Numbers, Booleans, Dates or null
+     */
+    public Iterator<Object> elements() {
+        // the iterator may be abandoned before the end of the input, so it doesn't use the buffers of the thread
+        use(new Buffers());
+        return new ElementIterator();
+    }
+
+    /**
+     * Reads the members of the object the input starts with one at a time and releases the buffers of the parser. The
+     * handler is called with the key of each member and reads its value with {@link #readValue(boolean)} or skips it
+     * with {@link #skipValue()}. Values that the handler neither reads nor skips are skipped.
+     *
+     * @param handler The handler of the members
+     * @return false if the input doesn't start with an object, in which case its value is skipped
+     * @throws JSONException If the input isn't valid or can't be read
+     */
+    public boolean readObject(MemberHandler handler) throws JSONException {
+        Buffers buffers = acquire();
+        try {
+            char c = nextClean();
+            if (c != '{') {
+                if (c != 0) {
+                    back();
+                    skipNextValue();
+                    checkEnd();
+                }
+                return false;
+            }
+            for (; ;) {
+                c = nextClean();
+                switch (c) {
+                    case 0:
+                        throw syntaxError("A JSONObject text must end with '}'");
+                    case '}':
+                        checkEnd();
+                        return true;
+                    default:
+                        back();
+                }
+                String key = nextValue(true).toString();
+                nextKeySeparator();
+                valuePending = true;
+                handler.member(key, this);
+                if (valuePending) {
+                    skipValue();
+                }
+                if (nextMemberSeparator()) {
+                    checkEnd();
+                    return true;
+                }
+            }
+        }
+        finally {
+            valuePending = false;
+            buffers.release();
+        }
+    }
+
+    /**
+     * Reads the value of the current member of the object read by {@link #readObject(MemberHandler)}
+     *
+     * @param decimalsAsDoubles Whether decimals are converted to Doubles when the parser converts numbers to
+     * BigDecimals, for values that are bound to floating point properties. Decimals that can't be converted exactly
+     * are still converted to BigDecimals.
+     * @return A JSONObject, JSONArray, String, Number, Boolean, Date or null
+     * @throws JSONException If the value isn't valid or can't be read
+     * @throws IllegalStateException If there is no member whose value hasn't been read
+     */
+    public Object readValue(boolean decimalsAsDoubles) throws JSONException {
+        checkValuePending();
+        this.decimalsAsDoubles = decimalsAsDoubles;
+        try {
+            return nextValue(false);
+        }
+        finally {
+            this.decimalsAsDoubles = false;
+        }
+    }
+
+    /**
+     * Skips the value of the current member of the object read by {@link #readObject(MemberHandler)} without creating
+     * it. Objects and arrays are only checked for the nesting of their brackets.
+     *
+     * @throws JSONException If the value isn't valid or can't be read
+     * @throws IllegalStateException If there is no member whose value hasn't been read
+     */
+    public void skipValue() throws JSONException {
+        checkValuePending();
+        skipNextValue();
+    }
+
+    /**
+     * @return Whether the value of the current member of the object read by {@link #readObject(MemberHandler)} is an
+     * object
+     * @throws IllegalStateException If there is no member whose value hasn't been read
+     */
+    public boolean isObjectValue() {
+        return peekValue() == '{';
+    }
+
+    /**
+     * @return Whether the value of the current member of the object read by {@link #readObject(MemberHandler)} is an
+     * array
+     * @throws IllegalStateException If there is no member whose value hasn't been read
+     */
+    public boolean isArrayValue() {
+        return peekValue() == '[';
+    }
+
+    private char peekValue() {
+        if (!valuePending) {
+            throw new IllegalStateException("There is no member value to read");
+        }
+        char c = nextClean();
+        if (c != 0) {
+            back();
+        }
+        return c;
+    }
+
+    private void checkValuePending() {
+        if (!valuePending) {
+            throw new IllegalStateException("There is no member value to read");
+        }
+        valuePending = false;
+    }
+
+    private Buffers acquire() {
+        Buffers pooled = BUFFERS.get();
+        if (pooled.inUse) {
+            // a parser that runs while another one of the same thread is parsing gets its own buffers
+            pooled = new Buffers();
+        }
+        pooled.inUse = true;
+        use(pooled);
+        return pooled;
+    }
+
+    private void use(Buffers buffers) {
+        if (reader != null) {
+            buf = buffers.chars;
+        }
+        text = buffers.text;
+        keys = buffers.keys;
+    }
+
+    private Object nextValue(boolean key) {
+        char c = nextClean();
+        if (strict) {
+            return nextStrictValue(c, key);
+        }
+        switch (c) {
+            case '"':
+            case '\'':
+                return nextString(c, key);
+            case '{':
+                return lazy ? new JSONObject(skipUnparsed()) : nextObject(new JSONObject());
+            case '[':
+                return lazy ? new JSONArray(skipUnparsed()) : nextArray(new JSONArray());
+        }
+        return nextUnquoted(c);
+    }
+
+    private Object nextStrictValue(char c, boolean key) {
+        if (c == '"') {
+            return nextString(c, key);
+        }
+        if (key) {
+            throw syntaxError("A JSONObject key must be a string");
+        }
+        switch (c) {
+            case '{':
+                return nextObject(new JSONObject());
+            case '[':
+                return nextArray(new JSONArray());
+        }
+        StringBuilder sb = nextStrictLiteral(c);
+        return sb.charAt(0) == 't' ? Boolean.TRUE : sb.charAt(0) == 'f' ? Boolean.FALSE :
+                sb.charAt(0) == 'n' ? null : toNumber(sb, 0, sb.length());
+    }
+
+    /**
+     * Reads an unquoted value in strict mode, which is either a number, <code>true</code>, <code>false</code> or
+     * <code>null</code>
+     *
+     * @param c The first char of the value
+     * @return The text of the value
+     */
+    private StringBuilder nextStrictLiteral(char c) {
+        StringBuilder sb = text;
+        sb.setLength(0);
+        while ((c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '.' || c == '-' || c == '+') {
+            sb.append(c);
+            c = next();
+        }
+        if (c != 0) {
+            back();
+        }
+        if (sb.length() == 0) {
+            throw syntaxError("Missing value.");
+        }
+        if (!isJsonNumber(sb) && !contentEquals(sb, "true") && !contentEquals(sb, "false") && !contentEquals(sb, "null")) {
+            throw syntaxError("Invalid value '" + sb + "'");
+        }
+        return sb;
+    }
+
+    /**
+     * @return Whether the text is a number of the grammar -?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?
+     */
+    private static boolean isJsonNumber(CharSequence s) {
+        int length = s.length();
+        int i = 0;
+        if (i < length && s.charAt(i) == '-') {
+            i++;
+        }
+        if (i == length || !isDigit(s.charAt(i))) {
+            return false;
+        }
+        if (s.charAt(i++) != '0') {
+            while (i < length && isDigit(s.charAt(i))) {
+                i++;
+            }
+        }
+        if (i < length && s.charAt(i) == '.') {
+            int fractionStart = ++i;
+            while (i < length && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i == fractionStart) {
+                return false;
+            }
+        }
+        if (i < length && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < length && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i == exponentStart) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static boolean isHex(String digits) {
+        for (int i = 0; i < digits.length(); i++) {
+            if (Character.digit(digits.charAt(i), 16) == -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean contentEquals(CharSequence s, String other) {
+        if (s.length() != other.length()) {
+            return false;
+        }
+        for (int i = 0; i < other.length(); i++) {
+            if (s.charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * In strict mode, checks that nothing but whitespace follows the value that has been read
+     */
+    private void checkEnd() {
+        if (strict && nextClean() != 0) {
+            throw syntaxError("Unexpected text after the JSON value");
+        }
+    }
+
+    /**
+     * Skips the object or array whose opening bracket has just been read, without checking its syntax beyond the
+     * nesting of brackets, strings, unquoted text and comments
+     *
+     * @return The text of the object or array
+     */
+    private Region skipUnparsed() {
+        int start = pos - 1;
+        skipNested(buf[start]);
+        return new Region(buf, start, pos);
+    }
+
+    /**
+     * Skips the next value without creating it
+     */
+    private void skipNextValue() {
+        char c = nextClean();
+        if (strict) {
+            skipStrictValue(c);
+            return;
+        }
+        switch (c) {
+            case '"':
+            case '\'':
+                skipString(c);
+                return;
+            case '{':
+            case '[':
+                skipNested(c);
+                return;
+        }
+        boolean empty = true;
+        while (!isDelimiter(c)) {
+            if (c > ' ') {
+                empty = false;
+            }
+            c = next();
+        }
+        back();
+        if (empty) {
+            throw syntaxError("Missing value.");
+        }
+    }
+
+    /**
+     * Skips a value in strict mode, checking its syntax without creating it
+     *
+     * @param c The first char of the value
+     */
+    private void skipStrictValue(char c) {
+        switch (c) {
+            case '"':
+                skipString(c);
+                return;
+            case '{':
+                if (nextClean() == '}') {
+                    return;
+                }
+                back();
+                do {
+                    if (nextClean() != '"') {
+                        throw syntaxError("A JSONObject key must be a string");
+                    }
+                    skipString('"');
+                    nextKeySeparator();
+                    skipStrictValue(nextClean());
+                } while (!nextMemberSeparator());
+                return;
+            case '[':
+                if (nextClean() == ']') {
+                    return;
+                }
+                back();
+                do {
+                    skipStrictValue(nextClean());
+                } while (!nextElementSeparator());
+                return;
+        }
+        nextStrictLiteral(c);
+    }
+
+    /**
+     * Skips the object or array whose opening bracket has just been read like {@link #skipUnparsed()}
+     *
+     * @param open The opening bracket
+     */
+    private void skipNested(char open) {
+        int depth = 1;
+        while (depth > 0) {
+            char c = nextClean();
+            switch (c) {
+                case 0:
+                    throw syntaxError(open == '{' ?
+                            "A JSONObject text must end with '}'" : "Expected a ',' or ']'");
+                case '"':
+                case '\'':
+                    skipString(c);
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    depth--;
+                    break;
+                case '>':
+                    // part of a '=>' separator
+                    break;
+                default:
+                    // unquoted text, which may contain quotes
+                    while (!isDelimiter(c) && (pos < limit || fill())) {
+                        c = buf[pos];
+                        if (!isDelimiter(c)) {
+                            pos++;
+                        }
+                    }
+            }
+        }
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c < ' ' || (c < VALUE_DELIMITERS.length && VALUE_DELIMITERS[c]);
+    }
+
+    private void skipString(char quote) {
+        for (; ;) {
+            char c = next();
+            if (c == quote) {
+                return;
+            }
+            switch (c) {
+                case 0:
+                case '\n':
+                case '\r':
+                    throw syntaxError("Unterminated string");
+                case '\\':
+                    c = next();
+                    if (strict) {
+                        checkStrictEscape(c);
+                    }
+                    break;
+                default:
+                    if (strict && c < ' ') {
+                        throw syntaxError("Unterminated string");
+                    }
+            }
+        }
+    }
+
+    /**
+     * Checks that the char after a backslash starts an escape that is valid in strict mode and reads the hex digits of
+     * a unicode escape
+     */
+    private void checkStrictEscape(char c) {
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+            case 'b':
+            case 'f':
+            case 'n':
+            case 'r':
+            case 't':
+                return;
+            case 'u':
+                for (int i = 0; i < 4; i++) {
+                    if (Character.digit(next(), 16) == -1) {
+                        throw syntaxError("Illegal escape.");
+                    }
+                }
+                return;
+            default:
+                throw syntaxError("Illegal escape.");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject nextObject(JSONObject object) {
+        for (; ;) {
+            String key;
+            char c = nextClean();
+            switch (c) {
+                case 0:
+                    throw syntaxError("A JSONObject text must end with '}'");
+                case '}':
+                    return object;
+                default:
+                    back();
+                    key = nextValue(true).toString();
+            }
+
+            nextKeySeparator();
+            object.put((Object) key, nextValue(false));
+
+            if (nextMemberSeparator()) {
+                return object;
+            }
+        }
+    }
+
+    /**
+     * Reads the ':' or '=>' after the key of a member
+     */
+    private void nextKeySeparator() {
+        char c = nextClean();
+        if (c == '=' && !strict) {
+            if (next() != '>') {
+                back();
+            }
+        } else if (c != ':') {
+            throw syntaxError("Expected a ':' after a key");
+        }
+    }
+
+    /**
+     * Reads the separator after the value of a member
+     *
+     * @return true if it is the end of the object
+     */
+    private boolean nextMemberSeparator() {
+        char c = nextClean();
+        if (c == ',' || (c == ';' && !strict)) {
+            if (nextClean() == '}') {
+                if (strict) {
+                    throw syntaxError("Expected a key after ','");
+                }
+                return true;
+            }
+            back();
+            return false;
+        }
+        if (c == '}') {
+            return true;
+        }
+        throw syntaxError("Expected a ',' or '}'");
+    }
+
+    /**
+     * Reads the separator after an element of an array
+     *
+     * @return true if it is the end of the array
+     */
+    private boolean nextElementSeparator() {
+        char c = nextClean();
+        if (c == ',' || (c == ';' && !strict)) {
+            if (nextClean() == ']') {
+                if (strict) {
+                    throw syntaxError("Expected a value after ','");
+                }
+                return true;
+            }
+            back();
+            return false;
+        }
+        if (c == ']') {
+            return true;
+        }
+        throw syntaxError("Expected a ',' or ']'");
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONArray nextArray(JSONArray array) {
+        if (nextClean() == ']') {
+            return array;
+        }
+        back();
+        for (; ;) {
+            array.add(nextElement());
+            if (nextElementSeparator()) {
+                // parsed arrays are rarely modified, so they don't need room to grow
+                array.trimToSize();
+                return array;
+            }
+        }
+    }
+
+    /**
+     * Reads the next element of an array, which is null if it is empty
+     */
+    private Object nextElement() {
+        if (nextClean() == ',') {
+            if (strict) {
+                throw syntaxError("Missing value.");
+            }
+            back();
+            return null;
+        }
+        back();
+        return nextValue(false);
+    }
+
+    private String nextString(char quote, boolean key) {
+        StringBuilder sb = null;
+        for (; ;) {
+            int start = pos;
+            while (pos < limit) {
+                char c = buf[pos];
+                if (c == quote || c == '\\' || c == '\n' || c == '\r' || c == 0 || (strict && c < ' ')) {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == limit) {
+                if (sb == null) {
+                    sb = text;
+                    sb.setLength(0);
+                }
+                sb.append(buf, start, pos - start);
+                if (!fill()) {
+                    throw syntaxError("Unterminated string");
+                }
+                continue;
+            }
+
+            char c = buf[pos++];
+            int length = pos - 1 - start;
+            if (c == quote) {
+                if (sb == null) {
+                    return key ? keys.get(buf, start, length) : new String(buf, start, length);
+                }
+                sb.append(buf, start, length);
+                return key ? keys.get(sb) : sb.toString();
+            }
+            if (c != '\\') {
+                throw syntaxError("Unterminated string");
+            }
+            if (sb == null) {
+                sb = text;
+                sb.setLength(0);
+            }
+            sb.append(buf, start, length);
+            c = next();
+            switch (c) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 'u':
+                    String digits = next(4);
+                    if (strict && !isHex(digits)) {
+                        throw syntaxError("Illegal escape.");
+                    }
+                    sb.append((char) Integer.parseInt(digits, 16));
+                    break;
+                case 'x':
+                    if (strict) {
+                        throw syntaxError("Illegal escape.");
+                    }
+                    sb.append((char) Integer.parseInt(next(2), 16));
+                    break;
+                default:
+                    if (strict && c != '"' && c != '\\' && c != '/') {
+                        throw syntaxError("Illegal escape.");
+                    }
+                    sb.append(c);
+            }
+        }
+    }
+
+    private Object nextUnquoted(char c) {
+        StringBuilder sb = text;
+        sb.setLength(0);
+        char b = c;
+        while (!isDelimiter(c)) {
+            sb.append(c);
+            c = next();
+        }
+        back();
+
+        int start = 0;
+        int end = sb.length();
+        while (start < end && sb.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && sb.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw syntaxError("Missing value.");
+        }
+        if (equalsIgnoreCase(sb, start, end, "true")) {
+            return Boolean.TRUE;
+        }
+        if (equalsIgnoreCase(sb, start, end, "false")) {
+            return Boolean.FALSE;
+        }
+        if (equalsIgnoreCase(sb, start, end, "null")) {
+            return null;
+        }
+
+        if ((b >= '0' && b <= '9') || b == '.' || b == '-' || b == '+') {
+            Object number = parsePlainNumber(sb, start, end);
+            if (number != null) {
+                return number;
+            }
+        }
+
+        String s = sb.substring(start, end);
+        if (s.startsWith("new Date(")) {
+            try {
+                Matcher matcher = DATE_PATTERN.matcher(s);
+                if (matcher.find()) {
+                    long time = Long.parseLong(matcher.group(1));
+                    return new Date(time);
+                }
+            } catch (Exception e) {
+                // ignored
+            }
+        }
+
+        if ((b >= '0' && b <= '9') || b == '.' || b == '-' || b == '+') {
+            if (b == '0') {
+                if (s.length() > 2 &&
+                        (s.charAt(1) == 'x' || s.charAt(1) == 'X')) {
+                    try {
+                        return Integer.parseInt(s.substring(2), 16);
+                    } catch (Exception e) {
+                        /* Ignore the error */
+                    }
+                } else {
+                    try {
+                        return Integer.parseInt(s, 8);
+                    } catch (Exception e) {
+                        /* Ignore the error */
+                    }
+                }
+            }
+            try {
+                return Integer.valueOf(s);
+            } catch (Exception e) {
+                try {
+                    return Long.valueOf(s);
+                } catch (Exception f) {
+                    try {
+                        return Double.valueOf(s);
+                    } catch (Exception g) {
+                        return s;
+                    }
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Converts a number of the strict grammar, which JSONTokener would convert with Integer.valueOf, Long.valueOf or
+     * Double.valueOf
+     */
+    private Object toNumber(CharSequence s, int start, int end) {
+        Object number = parsePlainNumber(s, start, end);
+        if (number != null) {
+            return number;
+        }
+        String text = s.subSequence(start, end).toString();
+        try {
+            return Integer.valueOf(text);
+        } catch (NumberFormatException e) {
+            try {
+                return Long.valueOf(text);
+            } catch (NumberFormatException f) {
+                return Double.valueOf(text);
+            }
+        }
+    }
+
+    /**
+     * Converts plain numbers with {@link #parseNumber(CharSequence, int, int)} or, if the parser converts numbers to
+     * BigDecimals, {@link #parseBigNumber(CharSequence, int, int)}
+     *
+     * @return The number or null if the text has to be converted by the JDK methods
+     */
+    private Object parsePlainNumber(CharSequence s, int start, int end) {
+        Object number = parseNumber(s, start, end);
+        if (bigDecimals && !(number instanceof Integer || number instanceof Long ||
+                (decimalsAsDoubles && number instanceof Double))) {
+            number = parseBigNumber(s, start, end);
+        }
+        return number;
+    }
+
+    /**
+     * Converts plain numbers that {@link #parseNumber(CharSequence, int, int)} doesn't convert to an Integer or Long
+     * to BigIntegers and BigDecimals
+     *
+     * @return The number or null if the text isn't a plain number
+     */
+    private static Object parseBigNumber(CharSequence s, int start, int end) {
+        String text = s.subSequence(start, end).toString();
+        try {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    return new BigDecimal(text);
+                }
+            }
+            return new BigInteger(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts plain decimal numbers the same way as Integer.valueOf, Long.valueOf and Double.valueOf would.
+     * Integers are accumulated in a long. Decimals are only converted if their significant digits and the power of ten
+     * are small enough for the result of a single multiplication or division of two exact doubles to be correctly
+     * rounded.
+     *
+     * @return The number or null if the text has to be converted by the JDK methods
+     */
+    private static Object parseNumber(CharSequence s, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        int integerDigits = 0;
+        int integerStart = i;
+        for (; i < end && (c = s.charAt(i)) >= '0' && c <= '9'; i++) {
+            if (mantissa != 0 || c != '0') {
+                if (++significantDigits > MAX_FAST_DIGITS) {
+                    return null;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+            }
+            integerDigits++;
+        }
+
+        if (i == end) {
+            if (integerDigits == 0) {
+                return null;
+            }
+            if (integerDigits > 1 && s.charAt(integerStart) == '0' && !negative && integerStart == start) {
+                // unsigned integers with a leading zero are octal
+                return null;
+            }
+            long value = negative ? -mantissa : mantissa;
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                return Integer.valueOf((int) value);
+            }
+            return Long.valueOf(value);
+        }
+
+        int fractionDigits = 0;
+        if (c == '.') {
+            for (i++; i < end && (c = s.charAt(i)) >= '0' && c <= '9'; i++) {
+                if (mantissa != 0 || c != '0') {
+                    if (++significantDigits > MAX_FAST_DIGITS) {
+                        return null;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                exponent--;
+                fractionDigits++;
+            }
+        }
+        if (integerDigits == 0 && fractionDigits == 0) {
+            return null;
+        }
+
+        if (i < end && (c == 'e' || c == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && ((c = s.charAt(i)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < end && (c = s.charAt(i)) >= '0' && c <= '9'; i++) {
+                if (i - exponentStart >= 4) {
+                    return null;
+                }
+                explicitExponent = explicitExponent * 10 + (c - '0');
+            }
+            if (i == exponentStart) {
+                return null;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (i != end) {
+            return null;
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        }
+        else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        }
+        else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        }
+        else {
+            return null;
+        }
+        return Double.valueOf(negative ? -value : value);
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence s, int start, int end, String other) {
+        if (end - start != other.length()) {
+            return false;
+        }
+        for (int i = 0; i < other.length(); i++) {
+            char c1 = s.charAt(start + i);
+            char c2 = other.charAt(i);
+            if (c1 == c2) {
+                continue;
+            }
+            char u1 = Character.toUpperCase(c1);
+            char u2 = Character.toUpperCase(c2);
+            if (u1 == u2 || Character.toLowerCase(u1) == Character.toLowerCase(u2)) {
+                continue;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the next char, skipping whitespace and comments.
+     *
+     * @return A character, or 0 if there are no more characters.
+     */
+    private char nextClean() {
+        if (strict) {
+            for (; ;) {
+                char c = next();
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                    return c;
+                }
+            }
+        }
+        for (; ;) {
+            char c = next();
+            if (c == '/') {
+                switch (next()) {
+                    case '/':
+                        do {
+                            c = next();
+                        } while (c != '\n' && c != '\r' && c != 0);
+                        break;
+                    case '*':
+                        for (; ;) {
+                            c = next();
+                            if (c == 0) {
+                                throw syntaxError("Unclosed comment.");
+                            }
+                            if (c == '*') {
+                                if (next() == '/') {
+                                    break;
+                                }
+                                back();
+                            }
+                        }
+                        break;
+                    default:
+                        back();
+                        return '/';
+                }
+            } else if (c == '#') {
+                do {
+                    c = next();
+                } while (c != '\n' && c != '\r' && c != 0);
+            } else if (c == 0 || c > ' ') {
+                return c;
+            }
+        }
+    }
+
+    private char next() {
+        if (pos == limit && !fill()) {
+            return 0;
+        }
+        return buf[pos++];
+    }
+
+    private String next(int n) {
+        char[] chars = new char[n];
+        for (int i = 0; i < n; i++) {
+            if (pos == limit && !fill()) {
+                throw syntaxError("Substring bounds error");
+            }
+            chars[i] = buf[pos++];
+        }
+        if (pos == limit && !fill()) {
+            throw syntaxError("Substring bounds error");
+        }
+        return new String(chars);
+    }
+
+    private void back() {
+        if (pos > 0) {
+            pos--;
+        }
+    }
+
+    /**
+     * Reads the next block of the input, keeping the last chars read for {@link #back()}
+     *
+     * @return false if the end of the input has been reached
+     */
+    private boolean fill() {
+        if (eof) {
+            return false;
+        }
+        int keep = Math.min(limit, HISTORY);
+        System.arraycopy(buf, limit - keep, buf, 0, keep);
+        offset += limit - keep;
+        pos -= limit - keep;
+        limit = keep;
+        try {
+            int n;
+            do {
+                n = reader.read(buf, limit, buf.length - limit);
+            } while (n == 0);
+            if (n < 0) {
+                eof = true;
+                return false;
+            }
+            limit += n;
+            return true;
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+    }
+
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at character " + (offset + pos));
+    }
+
+    /**
+     * Receives the members of an object read by {@link JSONStreamParser#readObject(MemberHandler)}
+     */
+    public interface MemberHandler {
+
+        /**
+         * Called for each member of the object, before its value has been read
+         *
+         * @param key The key of the member
+         * @param parser The parser, which reads the value with {@link JSONStreamParser#readValue(boolean)} or skips it
+         * with {@link JSONStreamParser#skipValue()}
+         */
+        void member(String key, JSONStreamParser parser);
+    }
+
+    /**
+     * The text of an object or array that hasn't been parsed yet
+     */
+    static class Region {
+        private final char[] chars;
+        private final int start;
+        private final int end;
+
+        Region(char[] chars, int start, int end) {
+            this.chars = chars;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Parses the object into the given empty JSONObject, leaving the objects and arrays it contains unparsed
+         */
+        void parseInto(JSONObject object) {
+            JSONStreamParser parser = new JSONStreamParser(chars, start + 1, end, true);
+            Buffers buffers = parser.acquire();
+            try {
+                parser.nextObject(object);
+            }
+            finally {
+                buffers.release();
+            }
+        }
+
+        /**
+         * Parses the array into the given empty JSONArray, leaving the objects and arrays it contains unparsed
+         */
+        void parseInto(JSONArray array) {
+            JSONStreamParser parser = new JSONStreamParser(chars, start + 1, end, true);
+            Buffers buffers = parser.acquire();
+            try {
+                parser.nextArray(array);
+            }
+            finally {
+                buffers.release();
+            }
+        }
+    }
+
+    /**
+     * Parses the elements of an array on demand, following the same steps as {@link #nextArray(JSONArray)}
+     */
+    private class ElementIterator implements Iterator<Object> {
+        private static final int START = 0;
+        private static final int ELEMENT = 1;
+        private static final int SINGLE = 2;
+        private static final int DONE = 3;
+
+        private int state = START;
+        private Object single;
+
+        @Override
+        public boolean hasNext() {
+            if (state == START) {
+                char c = nextClean();
+                if (c == '[') {
+                    if (nextClean() == ']') {
+                        state = DONE;
+                        checkEnd();
+                    } else {
+                        back();
+                        state = ELEMENT;
+                    }
+                } else if (c == 0) {
+                    state = DONE;
+                } else {
+                    back();
+                    single = nextValue(false);
+                    checkEnd();
+                    state = SINGLE;
+                }
+            }
+            return state == ELEMENT || state == SINGLE;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (state == SINGLE) {
+                state = DONE;
+                Object value = single;
+                single = null;
+                return value;
+            }
+
+            Object value = nextElement();
+            if (nextElementSeparator()) {
+                state = DONE;
+                checkEnd();
+            }
+            return value;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+
+    /**
+     * The buffers of the parsers of a thread
+     */
+    private static class Buffers {
+        final char[] chars = new char[BUFFER_SIZE];
+        final StringBuilder text = new StringBuilder();
+        final KeyCache keys = new KeyCache();
+        boolean inUse;
+
+        void release() {
+            inUse = false;
+            if (text.capacity() > BUFFER_SIZE) {
+                text.setLength(0);
+                text.trimToSize();
+            }
+        }
+    }
+
+    /**
+     * Returns the same String instance for keys with the same chars as long as they don't collide with other keys
+     */
+    private static class KeyCache {
+        private static final int MAX_KEY_LENGTH = 64;
+        private final String[] keys = new String[512];
+
+        String get(char[] chars, int start, int length) {
+            if (length > MAX_KEY_LENGTH) {
+                return new String(chars, start, length);
+            }
+            int hash = 0;
+            for (int i = start; i < start + length; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            int index = (hash ^ (hash >>> 16)) & (keys.length - 1);
+            String key = keys[index];
+            if (key != null && key.length() == length) {
+                int i = 0;
+                while (i < length && key.charAt(i) == chars[start + i]) {
+                    i++;
+                }
+                if (i == length) {
+                    return key;
+                }
+            }
+            key = new String(chars, start, length);
+            keys[index] = key;
+            return key;
+        }
+
+        String get(StringBuilder chars) {
+            int length = chars.length();
+            if (length > MAX_KEY_LENGTH) {
+                return chars.toString();
+            }
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + chars.charAt(i);
+            }
+            int index = (hash ^ (hash >>> 16)) & (keys.length - 1);
+            String key = keys[index];
+            if (key != null && key.contentEquals(chars)) {
+                return key;
+            }
+            key = chars.toString();
+            keys[index] = key;
+            return key;
+        }
+    }
+}
@@ -5,8 +5,9 @@ import static org.grails.web.json.JSONWriter.Mode.*;
 import groovy.lang.Writable;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
-import java.util.Stack;
+import java.util.Arrays;
 /*
 Copyright (c) 2006 JSON.org
 
@@ -63,6 +64,8 @@ SOFTWARE.
  */
 public class JSONWriter {
 
+    private static final int MAX_LONG_LENGTH = 20;
+
     /**
      * The comma flag determines if a comma should be output before the next
      * value.
@@ -77,7 +80,17 @@ public class JSONWriter {
     /**
      * The Mode stack.
      */
-    private Stack<Mode> stack = new Stack<Mode>();
+    private Mode[] stack = new Mode[20];
+
+    /**
+     * The number of modes on the stack.
+     */
+    private int top;
+
+    /**
+     * Holds the digits of integer values while they are written.
+     */
+    private char[] digits;
 
     /**
      * The writer that will receive the output.
@@ -92,25 +105,7 @@ public class JSONWriter {
         this.mode = INIT;
         this.writer = w;
     }
-    
-    private static class WritableString implements Writable {
-        private String string;
-        
-        WritableString(String string) {
-            this.string = string;
-        }
-        
-        @Override
-        public Writer writeTo(Writer out) throws IOException {
-            out.write(string);
-            return out;
-        }
-        
-        public String toString() {
-            return string;
-        }
-    }
-    
+
     /**
      * Append a value.
      * @param s A string value.
@@ -120,26 +115,51 @@ public class JSONWriter {
         if (s == null) {
             throw new JSONException("Null pointer");
         }
-        return append(new WritableString(s));
+        beforeValue(s);
+        try {
+            writer.write(s);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return afterValue();
     }
 
     protected JSONWriter append(Writable writableValue) {
+        beforeValue(writableValue);
+        try {
+            writableValue.writeTo(writer);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return afterValue();
+    }
+
+    /**
+     * Checks that a value may be written and writes what precedes it.
+     *
+     * @param value The value, used in the error message
+     */
+    protected void beforeValue(Object value) {
         if (this.mode == OBJECT || this.mode == ARRAY) {
-            try {
-                if (this.comma && this.mode == ARRAY) {
-                    this.comma();
-                }
-                writableValue.writeTo(writer);
-            } catch (IOException e) {
-                throw new JSONException(e);
-            }
-            if (this.mode == OBJECT) {
-                this.mode = KEY;
+            if (this.comma && this.mode == ARRAY) {
+                this.comma();
             }
-            this.comma = true;
-            return this;
+            return;
         }
-        throw new JSONException("Value out of sequence: expected mode to be OBJECT or ARRAY when writing '" + writableValue + "' but was " + this.mode);
+        throw new JSONException("Value out of sequence: expected mode to be OBJECT or ARRAY when writing '" + value + "' but was " + this.mode);
+    }
+
+    /**
+     * Updates the state after a value has been written.
+     *
+     * @return this
+     */
+    protected JSONWriter afterValue() {
+        if (this.mode == OBJECT) {
+            this.mode = KEY;
+        }
+        this.comma = true;
+        return this;
     }
 
     protected void comma() {
@@ -199,6 +219,53 @@ public class JSONWriter {
         return end(ARRAY, ']');
     }
 
+    /**
+     * Begin appending values that another JSONWriter appends to its array.
+     * The values are separated by commas like the values of an array, but no
+     * bracket is written. The <code>endElements</code> method must be called
+     * to mark their end, and the text is added to the array of the other
+     * JSONWriter with <code>appendElements</code>.
+     *
+     * @return this
+     */
+    public JSONWriter beginElements() {
+        if (this.mode == INIT) {
+            this.push(ARRAY);
+            this.comma = false;
+            return this;
+        }
+        throw new JSONException("Misplaced elements: expected mode of INIT but was " + this.mode);
+    }
+
+    /**
+     * End the values started with <code>beginElements</code>.
+     *
+     * @return this
+     */
+    public JSONWriter endElements() {
+        if (this.mode != ARRAY) {
+            throw new JSONException("Misplaced endElements.");
+        }
+        this.pop(ARRAY);
+        this.comma = true;
+        return this;
+    }
+
+    /**
+     * Append the text of one or more values written between
+     * <code>beginElements</code> and <code>endElements</code> by another
+     * JSONWriter to the current array.
+     *
+     * @param elements The text of the values, which must not be empty.
+     * @return this
+     */
+    public JSONWriter appendElements(Writable elements) {
+        if (this.mode != ARRAY) {
+            throw new JSONException("Misplaced elements: expected mode of ARRAY but was " + this.mode);
+        }
+        return append(elements);
+    }
+
     /**
      * End an object. This method most be called to balance calls to
      * <code>object</code>.
@@ -237,6 +304,53 @@ public class JSONWriter {
         throw new JSONException("Misplaced key: expected mode of KEY but was " + this.mode);
     }
 
+    /**
+     * Append a key whose quoted and escaped form has been created in advance with {@link #quoteKey(String)}.
+     *
+     * @param s A key string.
+     * @param quoted The quoted key.
+     * @return this
+     */
+    public JSONWriter key(String s, String quoted) {
+        if (s == null) {
+            throw new JSONException("Null key.");
+        }
+        if (this.mode == KEY) {
+            try {
+                if (this.comma) {
+                    this.comma();
+                }
+                this.writer.write(quoted);
+                this.writer.write(':');
+                this.comma = false;
+                this.mode = OBJECT;
+                return this;
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+        }
+        throw new JSONException("Misplaced key: expected mode of KEY but was " + this.mode);
+    }
+
+    /**
+     * Quotes and escapes a key the same way {@link #key(String)} does.
+     *
+     * @param s A key string.
+     * @return The quoted key
+     */
+    public static String quoteKey(String s) {
+        if (s == null) {
+            throw new JSONException("Null key.");
+        }
+        StringWriter quoted = new StringWriter(s.length() + 2);
+        try {
+            JSONObject.writeQuoted(quoted, s);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return quoted.toString();
+    }
+
 
     /**
      * Begin appending a new object. All keys and values until the balancing
@@ -266,11 +380,12 @@ public class JSONWriter {
      * @param c The scope to close.
      */
     protected void pop(Mode c) {
-        if (this.stack.size() == 0 || this.stack.pop() != c) {
+        if (this.top == 0 || this.stack[--this.top] != c) {
             throw new JSONException("Nesting error.");
         }
-        if (this.stack.size() > 0)
-            this.mode = this.stack.peek();
+        this.stack[this.top] = null;
+        if (this.top > 0)
+            this.mode = this.stack[this.top - 1];
         else
             this.mode = DONE;
 
@@ -282,7 +397,10 @@ public class JSONWriter {
      * @param c The scope to open.
      */
     protected void push(Mode c) {
-        this.stack.push(c);
+        if (this.top == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.stack.length * 2);
+        }
+        this.stack[this.top++] = c;
         this.mode = c;
     }
 
@@ -305,7 +423,17 @@ public class JSONWriter {
      * @return this
      */
     public JSONWriter value(double d) {
-        return value(Double.valueOf(d));
+        return append(Double.toString(d));
+    }
+
+    /**
+     * Append an int value.
+     *
+     * @param i An int.
+     * @return this
+     */
+    public JSONWriter value(int i) {
+        return value((long) i);
     }
 
     /**
@@ -315,7 +443,10 @@ public class JSONWriter {
      * @return this
      */
     public JSONWriter value(long l) {
-        return append(Long.toString(l));
+        // the value is only boxed for the error message of a value out of sequence
+        beforeValue(this.mode == OBJECT || this.mode == ARRAY ? null : (Object) l);
+        writeLong(l);
+        return afterValue();
     }
 
     /**
@@ -325,21 +456,14 @@ public class JSONWriter {
      * @return
      */
     public JSONWriter value(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            return value(number.longValue());
+        }
         return number != null ? append(number.toString()) : valueNull();
     }
     
     public JSONWriter valueNull() {
-        return append(nullWritable);
-    }
-    
-    static Writable nullWritable = new NullWritable();
-    
-    private static class NullWritable implements Writable {
-        @Override
-        public Writer writeTo(Writer out) throws IOException {
-            out.write("null");
-            return out;
-        }
+        return append("null");
     }
 
     /**
@@ -350,24 +474,44 @@ public class JSONWriter {
      * @return this
      */
     public JSONWriter value(Object o) {
-        return  o != null ? append(new QuotedWritable(o)) : valueNull();
-    }
-    
-    private static class QuotedWritable implements Writable {
-        Object o;
-        
-        QuotedWritable(Object o) {
-            this.o = o;
+        if (o == null) {
+            return valueNull();
         }
-
-        @Override
-        public Writer writeTo(Writer out) throws IOException {
-            JSONObject.writeValue(out, o);
-            return out;
+        beforeValue(o);
+        try {
+            JSONObject.writeValue(writer, o);
+        } catch (IOException e) {
+            throw new JSONException(e);
         }
-        
-        public String toString() {
-            return String.valueOf(o);
+        return afterValue();
+    }
+
+    /**
+     * Writes the digits of a long without creating a String
+     *
+     * @param l A long.
+     */
+    private void writeLong(long l) {
+        try {
+            if (l == Long.MIN_VALUE) {
+                writer.write(Long.toString(l));
+                return;
+            }
+            if (digits == null) {
+                digits = new char[MAX_LONG_LENGTH];
+            }
+            int pos = digits.length;
+            long remaining = l < 0 ? -l : l;
+            do {
+                digits[--pos] = (char) ('0' + (remaining % 10));
+                remaining /= 10;
+            } while (remaining != 0);
+            if (l < 0) {
+                digits[--pos] = '-';
+            }
+            writer.write(digits, pos, digits.length - pos);
+        } catch (IOException e) {
+            throw new JSONException(e);
         }
     }
 
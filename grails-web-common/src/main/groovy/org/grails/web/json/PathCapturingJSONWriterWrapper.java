@@ -116,6 +116,17 @@ public class PathCapturingJSONWriterWrapper extends JSONWriter {
         return this;
     }
 
+    @Override
+    public JSONWriter key(String s, String quoted) {
+        if (log.isDebugEnabled()) {
+            if (debugCurrentStack) log.debug(delegate.mode.name() + " > " +String.format(">> " + getCurrentStrackReference()));
+            log.debug(delegate.mode.name() + " > " +String.format("key(%s)", s));
+        }
+        pathStack.push(new PropertyElement(s));
+        delegate.key(s, quoted);
+        return this;
+    }
+
     @Override
     public JSONWriter object() {
         if (log.isDebugEnabled()) {
@@ -210,6 +221,38 @@ public class PathCapturingJSONWriterWrapper extends JSONWriter {
         return this;
     }
 
+    @Override
+    public JSONWriter value(Number number) {
+        if (log.isDebugEnabled()) {
+            if (debugCurrentStack) log.debug(delegate.mode.name() + " > " +String.format(">> " + getCurrentStrackReference()));
+            log.debug(delegate.mode.name() + " > " +String.format("value(Number %s)", number));
+        }
+        if (delegate.mode == Mode.ARRAY) {
+            pushNextIndex();
+        }
+        else {
+            pathStack.pop();
+        }
+        delegate.value(number);
+        return this;
+    }
+
+    @Override
+    public JSONWriter valueNull() {
+        if (log.isDebugEnabled()) {
+            if (debugCurrentStack) log.debug(delegate.mode.name() + " > " +String.format(">> " + getCurrentStrackReference()));
+            log.debug(delegate.mode.name() + " > " +String.format("valueNull()"));
+        }
+        if (delegate.mode == Mode.ARRAY) {
+            pushNextIndex();
+        }
+        else {
+            pathStack.pop();
+        }
+        delegate.valueNull();
+        return this;
+    }
+
     @Override
     public JSONWriter value(Object o) {
         if (log.isDebugEnabled()) {
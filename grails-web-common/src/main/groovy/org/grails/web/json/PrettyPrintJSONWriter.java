@@ -18,7 +18,6 @@ package org.grails.web.json;
 import static org.grails.web.json.JSONWriter.Mode.ARRAY;
 import static org.grails.web.json.JSONWriter.Mode.KEY;
 import static org.grails.web.json.JSONWriter.Mode.OBJECT;
-import groovy.lang.Writable;
 
 import java.io.IOException;
 import java.io.Writer;
@@ -72,29 +71,12 @@ public class PrettyPrintJSONWriter extends JSONWriter {
     }
 
     @Override
-    protected JSONWriter append(Writable writableValue) {
-        if (mode == OBJECT || mode == ARRAY) {
-            try {
-                if (comma && mode == ARRAY) {
-                    comma();
-                }
-                if (mode == ARRAY) {
-                    newline();
-                    indent();
-                }
-                writableValue.writeTo(writer);
-            }
-            catch (IOException e) {
-                throw new JSONException(e);
-            }
-            if (mode == OBJECT) {
-                mode = KEY;
-            }
-            comma = true;
-            return this;
+    protected void beforeValue(Object value) {
+        super.beforeValue(value);
+        if (mode == ARRAY) {
+            newline();
+            indent();
         }
-
-        throw new JSONException("Value out of sequence: expected mode to be OBJECT or ARRAY when writing '" + writableValue + "' but was " + this.mode);
     }
 
     @Override
@@ -157,4 +139,30 @@ public class PrettyPrintJSONWriter extends JSONWriter {
         }
         throw new JSONException("Misplaced key: expected mode of KEY but was " + this.mode);
     }
+
+    @Override
+    public JSONWriter key(String s, String quoted) {
+        if (s == null) {
+            throw new JSONException("Null key.");
+        }
+
+        if (mode == KEY) {
+            try {
+                if (comma) {
+                    comma();
+                }
+                newline();
+                indent();
+                writer.write(quoted);
+                writer.write(": ");
+                comma = false;
+                mode = OBJECT;
+                return this;
+            }
+            catch (IOException e) {
+                throw new JSONException(e);
+            }
+        }
+        throw new JSONException("Misplaced key: expected mode of KEY but was " + this.mode);
+    }
 }
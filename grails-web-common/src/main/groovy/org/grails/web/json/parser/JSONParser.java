@@ -6,6 +6,10 @@ import org.grails.web.json.JSONElement;
 import org.grails.web.json.JSONObject;
 
 
+/**
+ * @deprecated Use {@link org.grails.web.json.JSONStreamParser}, which the JSON converter parses with
+ */
+@Deprecated
 @SuppressWarnings("all")
 public final class JSONParser implements JsonParserConstants {
 
@@ -15,6 +15,8 @@
  */
 package org.grails.web.xml;
 
+import groovy.lang.Writable;
+
 import java.io.Writer;
 import java.io.IOException;
 
@@ -34,6 +36,17 @@ public class StreamingMarkupWriter extends groovy.xml.streamingmarkupsupport.Str
         super(writer);
     }
 
+    /**
+     * Writes markup to the target writer without escaping it. A StreamCharBuffer is added to a target buffer as a
+     * sub-buffer instead of being copied.
+     *
+     * @param markup The markup
+     * @throws IOException
+     */
+    public void writeUnescaped(Writable markup) throws IOException {
+        markup.writeTo(writer);
+    }
+
     @Override
     public void write(int i) throws IOException {
         if (writingAttribute && i == '"') {
@@ -15,6 +15,7 @@
  */
 package org.grails.web.xml;
 
+import groovy.lang.Writable;
 import groovy.xml.streamingmarkupsupport.StreamingMarkupWriter;
 import static org.grails.web.xml.XMLStreamWriter.Mode.*;
 
@@ -118,6 +119,27 @@ public class XMLStreamWriter {
         return this;
     }
 
+    /**
+     * Writes markup that was written by another XMLStreamWriter as content of the current node.
+     *
+     * @param markup The markup
+     * @return this
+     * @throws IOException
+     */
+    public XMLStreamWriter content(Writable markup) throws IOException {
+        if (mode == TAG) {
+            endStartTag();
+        }
+        mode = CONTENT;
+        if (writer instanceof org.grails.web.xml.StreamingMarkupWriter) {
+            ((org.grails.web.xml.StreamingMarkupWriter) writer).writeUnescaped(markup);
+        }
+        else {
+            markup.writeTo(writer.unescaped());
+        }
+        return this;
+    }
+
     protected enum Mode {
         INIT,
         TAG,
@@ -38,6 +38,7 @@ import org.grails.core.artefact.AnnotationDomainClassArtefactHandler
 import org.grails.core.artefact.DomainClassArtefactHandler
 import org.grails.databinding.IndexedPropertyReferenceDescriptor
 import org.grails.databinding.xml.GPathResultMap
+import org.grails.databinding.xml.XmlElementMap
 import org.grails.web.databinding.DataBindingEventMulticastListener
 import org.grails.web.databinding.DefaultASTDatabindingHelper
 import org.grails.web.databinding.GrailsWebDataBindingListener
@@ -58,6 +59,7 @@ import java.util.concurrent.ConcurrentHashMap
 @CompileStatic
 class GrailsWebDataBinder extends SimpleDataBinder {
     protected static final Map<Class, List> CLASS_TO_BINDING_INCLUDE_LIST = new ConcurrentHashMap<Class, List>()
+    private static final ThreadLocal<Map<Class, Map>> FETCHED_INSTANCES = new ThreadLocal<Map<Class, Map>>()
     protected GrailsApplication grailsApplication
     protected MessageSource messageSource
     boolean trimStrings = true
@@ -103,7 +105,20 @@ class GrailsWebDataBinder extends SimpleDataBinder {
         boolean bind = listenerWrapper.beforeBinding(object, bindingResult)
 
         if (bind) {
-            super.doBind object, source, filter, whiteList, blackList, listenerWrapper, bindingResult
+            def previouslyFetchedInstances = FETCHED_INSTANCES.get()
+            def fetchedInstances = fetchReferencedInstances(object, source, filter, whiteList, blackList)
+            if (fetchedInstances) {
+                FETCHED_INSTANCES.set fetchedInstances
+            }
+            try {
+                super.doBind object, source, filter, whiteList, blackList, listenerWrapper, bindingResult
+            } finally {
+                if (previouslyFetchedInstances != null) {
+                    FETCHED_INSTANCES.set previouslyFetchedInstances
+                } else {
+                    FETCHED_INSTANCES.remove()
+                }
+            }
         }
 
         listenerWrapper.afterBinding object, bindingResult
@@ -179,7 +194,7 @@ class GrailsWebDataBinder extends SimpleDataBinder {
                 def val = source.getPropertyValue propName
                 def idValue = getIdentifierValueFrom(val)
                 if (idValue != null) {
-                    def persistentInstance = getPersistentInstance(propertyType, idValue)
+                    def persistentInstance = findPersistentInstance(propertyType, idValue)
                     if (persistentInstance != null) {
                         obj[propName] = persistentInstance
                         isInitialized = true
@@ -198,6 +213,120 @@ class GrailsWebDataBinder extends SimpleDataBinder {
         } catch (Exception exc) {}
     }
 
+    /**
+     * @param type A domain class
+     * @param ids The ids of instances of the domain class
+     * @return The instances in the order of the ids, with null for ids that don't exist, or null if the instances
+     * can't be retrieved in one query
+     */
+    protected List getPersistentInstances(Class<?> type, List ids) {
+        try {
+            (List)InvokerHelper.invokeStaticMethod(type, 'getAll', [ids] as Object[])
+        } catch (Exception exc) {}
+    }
+
+    /**
+     * Retrieves a referenced persistent instance from the instances fetched for the current binding or, if it
+     * wasn't fetched, with {@link #getPersistentInstance(Class, Object)}.
+     *
+     * @param type A domain class
+     * @param id The id of an instance
+     * @return The instance or null if it doesn't exist
+     */
+    protected findPersistentInstance(Class<?> type, id) {
+        def instances = FETCHED_INSTANCES.get()?.get(type)
+        if (instances != null && instances.containsKey(id)) {
+            return instances.get(id)
+        }
+        getPersistentInstance type, id
+    }
+
+    /**
+     * Collects the ids of the persistent instances referenced by a binding source and retrieves the instances of each
+     * domain class that is referenced more than once with one getAll query, instead of a get query per id.
+     *
+     * @return The instances by id by domain class or null if no domain class is referenced more than once
+     */
+    protected Map<Class, Map> fetchReferencedInstances(obj, DataBindingSource source, String filter, List whiteList, List blackList) {
+        if (!source.dataSourceAware) {
+            return null
+        }
+        Map<Class, Set> referencedIds = [:]
+        for (String key in source.getPropertyNames()) {
+            if (filter && !key.startsWith(filter + '.')) {
+                continue
+            }
+            String propName = filter ? key[(1 + filter.size())..-1] : key
+            def metaProperty = getMetaProperty obj, propName
+            if (metaProperty) {
+                if (isBasicType(metaProperty.type) || !isOkToBind(metaProperty.name, whiteList, blackList)) {
+                    continue
+                }
+                def val = source.getPropertyValue key
+                if (val instanceof List) {
+                    if (Collection.isAssignableFrom(metaProperty.type)) {
+                        def referencedType = getReferencedTypeForCollection metaProperty.name, obj
+                        if (referencedType != null && isDomainClass(referencedType)) {
+                            for (item in (List)val) {
+                                if (item instanceof Map || item instanceof DataBindingSource) {
+                                    addReferencedId referencedIds, referencedType, getIdentifierValueFrom(item)
+                                }
+                            }
+                        }
+                    }
+                } else if (val != null && isDomainClass(metaProperty.type)) {
+                    def propertyType = getDomainClassType(obj, metaProperty.name)
+                    if (propertyType) {
+                        addReferencedId referencedIds, propertyType, getIdentifierValueFrom(val)
+                    }
+                }
+            } else {
+                def descriptor = getIndexedPropertyReferenceDescriptor propName
+                if (descriptor) {
+                    metaProperty = getMetaProperty obj, descriptor.propertyName
+                    if (metaProperty && isOkToBind(metaProperty.name, whiteList, blackList)) {
+                        def referencedType = getReferencedTypeForCollection descriptor.propertyName, obj
+                        if (referencedType != null && isDomainClass(referencedType)) {
+                            addReferencedId referencedIds, referencedType, getIdentifierValueFrom(source.getPropertyValue(key))
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<Class, Map> fetchedInstances = null
+        for (entry in referencedIds.entrySet()) {
+            if (entry.value.size() < 2) {
+                // a single instance is retrieved with get, which may use the session and second level caches
+                continue
+            }
+            def ids = new ArrayList(entry.value)
+            def instances = getPersistentInstances(entry.key, ids)
+            if (instances != null && instances.size() == ids.size()) {
+                Map instancesById = new HashMap(ids.size())
+                for (int i = 0; i < ids.size(); i++) {
+                    instancesById.put ids[i], instances[i]
+                }
+                if (fetchedInstances == null) {
+                    fetchedInstances = [:]
+                }
+                fetchedInstances.put entry.key, instancesById
+            }
+        }
+        fetchedInstances
+    }
+
+    private static void addReferencedId(Map<Class, Set> referencedIds, Class type, idValue) {
+        if (idValue != null && idValue != '' && idValue != 'null') {
+            def ids = referencedIds.get(type)
+            if (ids == null) {
+                ids = new LinkedHashSet()
+                referencedIds.put type, ids
+            }
+            ids.add idValue
+        }
+    }
+
     /**
      * @param obj any object
      * @param propName the name of a property on obj
@@ -244,7 +373,7 @@ class GrailsWebDataBinder extends SimpleDataBinder {
             if (propertyType && isDomainClass(propertyType)) {
                 def idValue = getIdentifierValueFrom(val)
                 if (idValue != 'null' && idValue != null && idValue != '') {
-                    def persistedInstance = getPersistentInstance(propertyType, idValue)
+                    def persistedInstance = findPersistentInstance(propertyType, idValue)
                     if (persistedInstance != null) {
                         needsBinding = false
                         bindProperty obj, source, metaProperty, persistedInstance, listener, errors
@@ -280,8 +409,8 @@ class GrailsWebDataBinder extends SimpleDataBinder {
                     def listValue
                     if(val instanceof List) {
                         listValue = (List)val
-                    } else if(val instanceof GPathResultMap && ((GPathResultMap)val).size() == 1) {
-                        def mapValue = (GPathResultMap)val
+                    } else if((val instanceof GPathResultMap || val instanceof XmlElementMap) && ((Map)val).size() == 1) {
+                        def mapValue = (Map)val
                         def valueInMap = mapValue[mapValue.keySet()[0]]
                         if(valueInMap instanceof List) {
                             listValue = (List)valueInMap
@@ -302,7 +431,7 @@ class GrailsWebDataBinder extends SimpleDataBinder {
                                 if(item instanceof Map || item instanceof DataBindingSource) {
                                     def idValue = getIdentifierValueFrom(item)
                                     if(idValue != null) {
-                                        persistentInstance = getPersistentInstance(referencedType, idValue)
+                                        persistentInstance = findPersistentInstance(referencedType, idValue)
                                         if(persistentInstance != null) {
                                             DataBindingSource newBindingSource
                                             if(item instanceof DataBindingSource) {
@@ -367,7 +496,7 @@ class GrailsWebDataBinder extends SimpleDataBinder {
                         }
                         if (instance == null) {
                             if ('null' != idValue) {
-                                instance = getPersistentInstance(referencedType, idValue)
+                                instance = findPersistentInstance(referencedType, idValue)
                             }
                             if (instance == null) {
                                 def message = "Illegal attempt to update element in [${propName}] Set with id [${idValue}]. No such record was found."
@@ -395,7 +524,7 @@ class GrailsWebDataBinder extends SimpleDataBinder {
                                 }
                             }
                         } else {
-                            def instance = getPersistentInstance(referencedType, idValue)
+                            def instance = findPersistentInstance(referencedType, idValue)
                             addElementToCollectionAt obj, propName, collection, idx, instance
                             if (instance != null) {
                                 if (val instanceof Map) {
@@ -413,7 +542,7 @@ class GrailsWebDataBinder extends SimpleDataBinder {
                             }
                         } else {
                             map = initializeMap obj, propName
-                            def persistedInstance = getPersistentInstance referencedType, idValue
+                            def persistedInstance = findPersistentInstance referencedType, idValue
                             if (persistedInstance != null) {
                                 if (map.size() < autoGrowCollectionLimit || map.containsKey(indexedPropertyReferenceDescriptor.index)) {
                                     map[indexedPropertyReferenceDescriptor.index] = persistedInstance
@@ -586,7 +715,7 @@ class GrailsWebDataBinder extends SimpleDataBinder {
         def referencedType = getReferencedTypeForCollection propName, obj
         if (referencedType != null) {
             if (isDomainClass(referencedType)) {
-                def persistentInstance = getPersistentInstance referencedType, propertyValue
+                def persistentInstance = findPersistentInstance referencedType, propertyValue
                 if (persistentInstance != null) {
                     elementToAdd = persistentInstance
                 }
@@ -632,7 +761,7 @@ class GrailsWebDataBinder extends SimpleDataBinder {
         }
         def persistentInstance
         if(isDomainClass(typeToConvertTo)) {
-            persistentInstance = getPersistentInstance(typeToConvertTo, value)
+            persistentInstance = findPersistentInstance(typeToConvertTo, value)
         }
         persistentInstance ?: super.convert(typeToConvertTo, value)
     }
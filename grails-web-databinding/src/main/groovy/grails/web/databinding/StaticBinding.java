@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package grails.web.databinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.codehaus.groovy.transform.GroovyASTTransformationClass;
+
+/**
+ * Apply StaticBinding to a command object or a validateable class to generate statically compiled data binding code
+ * for it. The class implements {@link grails.databinding.StaticallyBindable} and gets a
+ * <code>bindFrom(DataBindingSource)</code> method that binds the source like a controller binds a command object.
+ * <p/>
+ * The generated code binds properties of simple types, enums, properties with a {@link grails.databinding.BindingFormat}
+ * value, collections of simple types and enums and properties of classes that are annotated with StaticBinding
+ * themselves. Values are still converted by the converters of the binder. All other properties are bound dynamically,
+ * as are all properties of subclasses that aren't annotated with StaticBinding themselves.
+ *
+<pre>
+&#064;StaticBinding
+class SearchCommand implements Validateable {
+    String query
+    Integer max
+    &#064;BindingFormat('yyyy-MM-dd')
+    Date since
+    List&lt;String&gt; tags
+}
+</pre>
+ *
+ * @since 3.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@GroovyASTTransformationClass("org.grails.web.databinding.StaticBindingASTTransformation")
+public @interface StaticBinding {
+}
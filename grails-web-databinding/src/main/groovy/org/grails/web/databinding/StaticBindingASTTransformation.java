@@ -0,0 +1,401 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.databinding;
+
+import grails.databinding.BindUsing;
+import grails.databinding.BindingFormat;
+import grails.databinding.DataBindingSource;
+import grails.databinding.StaticBindingContext;
+import grails.databinding.StaticallyBindable;
+import grails.web.databinding.DataBindingUtils;
+import grails.web.databinding.StaticBinding;
+
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.AnnotationNode;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.GenericsType;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.PropertyNode;
+import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.BinaryExpression;
+import org.codehaus.groovy.ast.expr.BooleanExpression;
+import org.codehaus.groovy.ast.expr.CastExpression;
+import org.codehaus.groovy.ast.expr.ClassExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.ConstructorCallExpression;
+import org.codehaus.groovy.ast.expr.DeclarationExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.FieldExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.NotExpression;
+import org.codehaus.groovy.ast.expr.StaticMethodCallExpression;
+import org.codehaus.groovy.ast.expr.TernaryExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.groovy.ast.stmt.CatchStatement;
+import org.codehaus.groovy.ast.stmt.EmptyStatement;
+import org.codehaus.groovy.ast.stmt.ExpressionStatement;
+import org.codehaus.groovy.ast.stmt.IfStatement;
+import org.codehaus.groovy.ast.stmt.ReturnStatement;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.ast.stmt.TryCatchStatement;
+import org.codehaus.groovy.control.CompilePhase;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.runtime.MetaClassHelper;
+import org.codehaus.groovy.syntax.Token;
+import org.codehaus.groovy.syntax.Types;
+import org.codehaus.groovy.transform.ASTTransformation;
+import org.codehaus.groovy.transform.GroovyASTTransformation;
+import org.grails.compiler.injection.GrailsASTUtils;
+import org.springframework.validation.BindingResult;
+
+/**
+ * Generates the data binding code of classes annotated with {@link StaticBinding}. For every property that the
+ * generated code can bind, the statically compiled <code>bindFrom(String, Object, StaticBindingContext)</code> method
+ * has a branch that checks the shape of the value, notifies the listener, converts the value if it isn't an instance of
+ * the property type already and assigns the field. The method returns false for all other properties, so that the
+ * binder binds them dynamically. It also returns false for instances of subclasses, which may override the accessors
+ * of the properties, so the properties of a superclass are bound dynamically in a subclass.
+ *
+ * @since 3.3
+ */
+@GroovyASTTransformation(phase = CompilePhase.CANONICALIZATION)
+public class StaticBindingASTTransformation implements ASTTransformation {
+
+    private static final String BIND_FROM = "bindFrom";
+
+    private static final ClassNode MY_TYPE = ClassHelper.make(StaticBinding.class);
+    private static final ClassNode STATICALLY_BINDABLE_TYPE = ClassHelper.make(StaticallyBindable.class);
+    private static final ClassNode CONTEXT_TYPE = ClassHelper.make(StaticBindingContext.class);
+    private static final ClassNode DATA_BINDING_SOURCE_TYPE = ClassHelper.make(DataBindingSource.class);
+    private static final ClassNode DATA_BINDING_UTILS_TYPE = ClassHelper.make(DataBindingUtils.class);
+    private static final ClassNode BINDING_RESULT_TYPE = ClassHelper.make(BindingResult.class);
+    private static final ClassNode BIND_USING_TYPE = ClassHelper.make(BindUsing.class);
+    private static final ClassNode BINDING_FORMAT_TYPE = ClassHelper.make(BindingFormat.class);
+    private static final ClassNode EXCEPTION_TYPE = ClassHelper.make(Exception.class);
+    private static final ClassNode LIST_TYPE = ClassHelper.make(List.class).getPlainNodeReference();
+    private static final ClassNode COLLECTION_TYPE = ClassHelper.make(Collection.class).getPlainNodeReference();
+
+    private static final Token INSTANCEOF_OPERATOR = Token.newSymbol(Types.KEYWORD_INSTANCEOF, 0, 0);
+
+    private static final Set<String> SIMPLE_TYPE_NAMES = new HashSet<String>(Arrays.asList(
+            String.class.getName(), Boolean.class.getName(), Byte.class.getName(), Character.class.getName(),
+            Short.class.getName(), Integer.class.getName(), Long.class.getName(), Float.class.getName(),
+            Double.class.getName(), BigInteger.class.getName(), BigDecimal.class.getName(), URL.class.getName(),
+            Date.class.getName(), java.sql.Date.class.getName(), Calendar.class.getName()));
+
+    // the collection types that are bound and the types the binder creates for them. Plain Collection properties are
+    // bound dynamically, because the binder may keep a List value as it is.
+    private static final Map<String, ClassNode> COLLECTION_IMPLEMENTATION_TYPES = new HashMap<String, ClassNode>();
+    static {
+        COLLECTION_IMPLEMENTATION_TYPES.put(List.class.getName(), ClassHelper.make(ArrayList.class).getPlainNodeReference());
+        COLLECTION_IMPLEMENTATION_TYPES.put(SortedSet.class.getName(), ClassHelper.make(TreeSet.class).getPlainNodeReference());
+        COLLECTION_IMPLEMENTATION_TYPES.put(Set.class.getName(), ClassHelper.make(HashSet.class).getPlainNodeReference());
+    }
+
+    @Override
+    public void visit(ASTNode[] astNodes, SourceUnit sourceUnit) {
+        if (!(astNodes[0] instanceof AnnotationNode) || !(astNodes[1] instanceof ClassNode)) {
+            throw new RuntimeException("Internal error: wrong types: " + astNodes[0].getClass() + " / " + astNodes[1].getClass());
+        }
+
+        ClassNode classNode = (ClassNode) astNodes[1];
+        if (classNode.isInterface() || GrailsASTUtils.isDomainClass(classNode, sourceUnit)) {
+            GrailsASTUtils.error(sourceUnit, classNode, "The @StaticBinding annotation on [" + classNode.getName() +
+                    "] can only be applied to command objects and validateable classes.");
+            return;
+        }
+
+        Parameter[] parameters = {
+                new Parameter(ClassHelper.STRING_TYPE, "propertyName"),
+                new Parameter(ClassHelper.OBJECT_TYPE, "value"),
+                new Parameter(CONTEXT_TYPE, "context")
+        };
+        if (classNode.getDeclaredMethod(BIND_FROM, parameters) != null) {
+            GrailsASTUtils.error(sourceUnit, classNode, "The class [" + classNode.getName() +
+                    "] is annotated with @StaticBinding and must not declare a bindFrom(String, Object, StaticBindingContext) method.");
+            return;
+        }
+
+        boolean inheritsBindFrom = isStaticallyBindable(classNode.getSuperClass());
+        if (!inheritsBindFrom) {
+            classNode.addInterface(STATICALLY_BINDABLE_TYPE);
+        }
+
+        BlockStatement body = new BlockStatement();
+        Expression isSubclass = new BinaryExpression(new MethodCallExpression(new VariableExpression("this"), "getClass", ArgumentListExpression.EMPTY_ARGUMENTS),
+                GrailsASTUtils.NOT_EQUALS_OPERATOR, new ClassExpression(classNode.getPlainNodeReference()));
+        body.addStatement(new IfStatement(new BooleanExpression(isSubclass), new ReturnStatement(new ConstantExpression(Boolean.FALSE)), EmptyStatement.INSTANCE));
+        for (PropertyNode property : classNode.getProperties()) {
+            Statement statement = createBindingStatement(classNode, property, parameters);
+            if (statement != null) {
+                body.addStatement(statement);
+            }
+        }
+        Expression unbound;
+        // a bindFrom method generated for the superclass returns false, one that is implemented by hand may bind
+        if (inheritsBindFrom) {
+            unbound = new MethodCallExpression(new VariableExpression("super"), BIND_FROM, arguments(parameters));
+        } else {
+            unbound = new ConstantExpression(Boolean.FALSE);
+        }
+        body.addStatement(new ReturnStatement(unbound));
+
+        MethodNode bindFrom = new MethodNode(BIND_FROM, Modifier.PUBLIC, ClassHelper.boolean_TYPE, parameters, ClassNode.EMPTY_ARRAY, body);
+        classNode.addMethod(bindFrom);
+        GrailsASTUtils.addCompileStaticAnnotation(bindFrom);
+        GrailsASTUtils.processVariableScopes(sourceUnit, classNode, bindFrom);
+
+        if (!inheritsBindFrom) {
+            addBindFromSourceMethod(sourceUnit, classNode);
+        }
+    }
+
+    /**
+     * Adds <code>BindingResult bindFrom(DataBindingSource)</code>, which binds the source with
+     * {@link DataBindingUtils#bindObjectToInstance(Object, Object)}
+     */
+    protected void addBindFromSourceMethod(SourceUnit sourceUnit, ClassNode classNode) {
+        Parameter[] parameters = { new Parameter(DATA_BINDING_SOURCE_TYPE, "source") };
+        if (classNode.getDeclaredMethod(BIND_FROM, parameters) != null) {
+            return;
+        }
+        Expression bind = new StaticMethodCallExpression(DATA_BINDING_UTILS_TYPE, "bindObjectToInstance",
+                new ArgumentListExpression(new VariableExpression("this"), new VariableExpression(parameters[0])));
+        MethodNode bindFrom = new MethodNode(BIND_FROM, Modifier.PUBLIC, BINDING_RESULT_TYPE, parameters, ClassNode.EMPTY_ARRAY, new ReturnStatement(bind));
+        classNode.addMethod(bindFrom);
+        GrailsASTUtils.addCompileStaticAnnotation(bindFrom);
+        GrailsASTUtils.processVariableScopes(sourceUnit, classNode, bindFrom);
+    }
+
+    /**
+     * @return The statement that binds the property or null if the property is bound dynamically
+     */
+    protected Statement createBindingStatement(ClassNode classNode, PropertyNode property, Parameter[] parameters) {
+        FieldNode field = property.getField();
+        String capitalizedName = MetaClassHelper.capitalize(property.getName());
+        if (property.isStatic() || field == null || (field.getModifiers() & Modifier.FINAL) != 0 ||
+                !field.getAnnotations(BIND_USING_TYPE).isEmpty() ||
+                // properties with accessors of their own are bound dynamically, which calls the setter
+                !classNode.getDeclaredMethods("set" + capitalizedName).isEmpty() ||
+                !classNode.getDeclaredMethods("get" + capitalizedName).isEmpty() ||
+                !classNode.getDeclaredMethods("is" + capitalizedName).isEmpty()) {
+            return null;
+        }
+
+        ClassNode type = field.getType();
+        List<AnnotationNode> bindingFormats = field.getAnnotations(BINDING_FORMAT_TYPE);
+        if (!bindingFormats.isEmpty()) {
+            AnnotationNode bindingFormat = bindingFormats.get(0);
+            Expression format = bindingFormat.getMember("value");
+            // formats looked up by code depend on the locale of the request
+            if (bindingFormat.getMember("code") != null || !(format instanceof ConstantExpression) || ClassHelper.isPrimitiveType(type)) {
+                return null;
+            }
+            return createFormattedValueBinding(field, (ConstantExpression) format, parameters);
+        }
+        if (isSimpleType(type)) {
+            return createValueBinding(field, parameters);
+        }
+        ClassNode implementationType = COLLECTION_IMPLEMENTATION_TYPES.get(type.getName());
+        if (implementationType != null) {
+            ClassNode elementType = getElementType(type);
+            if (elementType == null || ClassHelper.isPrimitiveType(elementType) || !isSimpleType(elementType)) {
+                return null;
+            }
+            return createCollectionBinding(field, elementType, implementationType, parameters);
+        }
+        if (isStaticallyBindable(type) && !type.isAbstract() && GrailsASTUtils.hasZeroArgsConstructor(type)) {
+            return createNestedBinding(field, parameters);
+        }
+        return null;
+    }
+
+    /**
+     * Binds a single value, which is converted by the binder unless it is an instance of the property type
+     */
+    protected Statement createValueBinding(FieldNode field, Parameter[] parameters) {
+        ClassNode type = field.getType();
+        ClassNode wrapperType = ClassHelper.getWrapper(type);
+        Expression rejected = new NotExpression(callContext(parameters, "isSingleValue", var(parameters[1])));
+        if (ClassHelper.isPrimitiveType(type)) {
+            rejected = new BinaryExpression(rejected, Token.newSymbol(Types.LOGICAL_OR, 0, 0),
+                    new BinaryExpression(var(parameters[1]), GrailsASTUtils.EQUALS_OPERATOR, new ConstantExpression(null)));
+        }
+        Expression convertedValue = new TernaryExpression(
+                new BooleanExpression(new BinaryExpression(var(parameters[1]), INSTANCEOF_OPERATOR, new ClassExpression(wrapperType))),
+                new CastExpression(wrapperType, var(parameters[1])),
+                new CastExpression(wrapperType, callContext(parameters, "convert", new ClassExpression(type), var(parameters[1]))));
+        Statement binding = bindValue(field, parameters, var(parameters[1]), assignField(field, convertedValue));
+        return ifProperty(field, parameters, rejected, binding);
+    }
+
+    /**
+     * Binds a single value that is converted with the format of the BindingFormat annotation of the property. Like the
+     * formatted value converters of the binder, the value is converted before the listener is notified.
+     */
+    protected Statement createFormattedValueBinding(FieldNode field, ConstantExpression format, Parameter[] parameters) {
+        ClassNode type = field.getType();
+        Expression rejected = new NotExpression(callContext(parameters, "isSingleValue", var(parameters[1])));
+        VariableExpression convertedValue = new VariableExpression("convertedValue", type);
+        Statement conversion = new ExpressionStatement(new DeclarationExpression(convertedValue, GrailsASTUtils.ASSIGNMENT_OPERATOR,
+                new CastExpression(type, callContext(parameters, "convert", new ClassExpression(type), var(parameters[1]), new ConstantExpression(format.getValue())))));
+        Statement binding = bindValue(field, parameters, new VariableExpression("convertedValue", type),
+                assignField(field, new VariableExpression("convertedValue", type)));
+        return ifProperty(field, parameters, rejected, conversion, binding);
+    }
+
+    /**
+     * Binds a collection or an array to a collection property. The elements are converted by the binder and assigned as
+     * a new collection, like the binder does, so that a default such as an unmodifiable empty list isn't modified.
+     */
+    protected Statement createCollectionBinding(FieldNode field, ClassNode elementType, ClassNode implementationType, Parameter[] parameters) {
+        Expression rejected = new NotExpression(callContext(parameters, "isMultiValue", var(parameters[1])));
+        BlockStatement statements = new BlockStatement();
+        statements.addStatement(new ExpressionStatement(new DeclarationExpression(new VariableExpression("elements", LIST_TYPE),
+                GrailsASTUtils.ASSIGNMENT_OPERATOR, callContext(parameters, "convertElements", new ClassExpression(elementType), var(parameters[1])))));
+        statements.addStatement(assignField(field, new ConstructorCallExpression(implementationType,
+                new ArgumentListExpression(new CastExpression(COLLECTION_TYPE, new VariableExpression("elements", LIST_TYPE))))));
+        Statement binding = bindValue(field, parameters, var(parameters[1]), statements);
+        return ifProperty(field, parameters, rejected, binding);
+    }
+
+    /**
+     * Binds a Map or data binding source to a property of a class that is annotated with StaticBinding. The object is
+     * created if the property is null.
+     */
+    protected Statement createNestedBinding(FieldNode field, Parameter[] parameters) {
+        Expression rejected = new NotExpression(callContext(parameters, "isBindingSource", var(parameters[1])));
+        BlockStatement statements = new BlockStatement();
+        statements.addStatement(new IfStatement(
+                new BooleanExpression(new BinaryExpression(new FieldExpression(field), GrailsASTUtils.EQUALS_OPERATOR, new ConstantExpression(null))),
+                assignField(field, new ConstructorCallExpression(field.getType().getPlainNodeReference(), ArgumentListExpression.EMPTY_ARGUMENTS)),
+                EmptyStatement.INSTANCE));
+        statements.addStatement(new ExpressionStatement(callContext(parameters, "bind", new FieldExpression(field), var(parameters[1]))));
+        Statement binding = bindValue(field, parameters, var(parameters[1]), statements);
+        return ifProperty(field, parameters, rejected, binding);
+    }
+
+    /**
+     * <pre>
+     * if (context.beforeBinding(this, 'name', value)) {
+     *     try {
+     *         statement
+     *     } catch (Exception e) {
+     *         context.bindingError(this, 'name', value, e)
+     *     }
+     * }
+     * </pre>
+     */
+    private Statement bindValue(FieldNode field, Parameter[] parameters, VariableExpression boundValue, Statement statement) {
+        Parameter exception = new Parameter(EXCEPTION_TYPE, "e");
+        TryCatchStatement tryCatch = new TryCatchStatement(statement, EmptyStatement.INSTANCE);
+        tryCatch.addCatch(new CatchStatement(exception, new ExpressionStatement(callContext(parameters, "bindingError",
+                new VariableExpression("this"), new ConstantExpression(field.getName()), copy(boundValue), new VariableExpression(exception)))));
+        return new IfStatement(
+                new BooleanExpression(callContext(parameters, "beforeBinding", new VariableExpression("this"), new ConstantExpression(field.getName()), copy(boundValue))),
+                tryCatch,
+                EmptyStatement.INSTANCE);
+    }
+
+    /**
+     * <pre>
+     * if ('name' == propertyName) {
+     *     if (rejected) {
+     *         return false
+     *     }
+     *     statements
+     *     context.afterBinding(this, 'name')
+     *     return true
+     * }
+     * </pre>
+     */
+    private Statement ifProperty(FieldNode field, Parameter[] parameters, Expression rejected, Statement... statements) {
+        BlockStatement block = new BlockStatement();
+        block.addStatement(new IfStatement(new BooleanExpression(rejected), new ReturnStatement(new ConstantExpression(Boolean.FALSE)), EmptyStatement.INSTANCE));
+        for (Statement statement : statements) {
+            block.addStatement(statement);
+        }
+        block.addStatement(new ExpressionStatement(callContext(parameters, "afterBinding", new VariableExpression("this"), new ConstantExpression(field.getName()))));
+        block.addStatement(new ReturnStatement(new ConstantExpression(Boolean.TRUE)));
+        Expression isProperty = new MethodCallExpression(new ConstantExpression(field.getName()), "equals", new ArgumentListExpression(var(parameters[0])));
+        return new IfStatement(new BooleanExpression(isProperty), block, EmptyStatement.INSTANCE);
+    }
+
+    private Statement assignField(FieldNode field, Expression value) {
+        return new ExpressionStatement(new BinaryExpression(new FieldExpression(field), GrailsASTUtils.ASSIGNMENT_OPERATOR, value));
+    }
+
+    private MethodCallExpression callContext(Parameter[] parameters, String methodName, Expression... arguments) {
+        return new MethodCallExpression(var(parameters[2]), methodName, new ArgumentListExpression(arguments));
+    }
+
+    private ArgumentListExpression arguments(Parameter[] parameters) {
+        ArgumentListExpression arguments = new ArgumentListExpression();
+        for (Parameter parameter : parameters) {
+            arguments.addExpression(var(parameter));
+        }
+        return arguments;
+    }
+
+    private VariableExpression var(Parameter parameter) {
+        return new VariableExpression(parameter);
+    }
+
+    private VariableExpression copy(VariableExpression variable) {
+        if (variable.getAccessedVariable() instanceof Parameter) {
+            return var((Parameter) variable.getAccessedVariable());
+        }
+        return new VariableExpression(variable.getName(), variable.getOriginType());
+    }
+
+    private ClassNode getElementType(ClassNode collectionType) {
+        GenericsType[] genericsTypes = collectionType.getGenericsTypes();
+        if (genericsTypes == null || genericsTypes.length != 1 || genericsTypes[0].isWildcard() || genericsTypes[0].isPlaceholder()) {
+            return null;
+        }
+        return genericsTypes[0].getType();
+    }
+
+    private boolean isSimpleType(ClassNode type) {
+        return (ClassHelper.isPrimitiveType(type) && !ClassHelper.VOID_TYPE.equals(type)) ||
+                SIMPLE_TYPE_NAMES.contains(type.getName()) || type.isEnum();
+    }
+
+    private boolean isStaticallyBindable(ClassNode type) {
+        return type != null && (!type.getAnnotations(MY_TYPE).isEmpty() || type.implementsInterface(STATICALLY_BINDABLE_TYPE));
+    }
+}
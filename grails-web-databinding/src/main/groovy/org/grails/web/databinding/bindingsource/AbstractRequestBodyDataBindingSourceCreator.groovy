@@ -45,16 +45,16 @@ abstract class AbstractRequestBodyDataBindingSourceCreator extends DefaultDataBi
                 HttpMethod method = HttpMethod.resolve(req.method)
                 if (req.contentLength != 0 && !ignoredRequestBodyMethods.contains(method)) {
                     def is = req.getInputStream()
-                    return createBindingSource(is, req.getCharacterEncoding())
+                    return createBindingSource(is, req.getCharacterEncoding(), bindingTargetType)
                 }
             }
             if(bindingSource instanceof InputStream) {
                 def is = (InputStream)bindingSource
-                return createBindingSource(is, "UTF-8")
+                return createBindingSource(is, "UTF-8", bindingTargetType)
             }
             if(bindingSource instanceof Reader) {
                 def is = (Reader)bindingSource
-                return createBindingSource(is)
+                return createBindingSource(is, bindingTargetType)
             }
 
             return super.createDataBindingSource(mimeType, bindingTargetType, bindingSource)
@@ -101,6 +101,24 @@ abstract class AbstractRequestBodyDataBindingSourceCreator extends DefaultDataBi
 
     protected abstract DataBindingSource createBindingSource(Reader reader)
 
+    /**
+     * Creates the source for a body that is bound to an instance of the given type. Ignores the type by default.
+     *
+     * @param bindingTargetType The type being bound to or null
+     */
+    protected DataBindingSource createBindingSource(InputStream inputStream, String charsetName, Class bindingTargetType) {
+        return createBindingSource(inputStream, charsetName)
+    }
+
+    /**
+     * Creates the source for a body that is bound to an instance of the given type. Ignores the type by default.
+     *
+     * @param bindingTargetType The type being bound to or null
+     */
+    protected DataBindingSource createBindingSource(Reader reader, Class bindingTargetType) {
+        return createBindingSource(reader)
+    }
+
     protected CollectionDataBindingSource createCollectionBindingSource(InputStream inputStream, String charsetName){
         return createCollectionBindingSource(new InputStreamReader(inputStream, charsetName?:'UTF-8'))
     }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.databinding.bindingsource;
+
+import grails.databinding.BindUsing;
+import groovy.lang.ExpandoMetaClass;
+import groovy.lang.GroovySystem;
+import groovy.lang.MetaClass;
+import groovy.lang.MetaProperty;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The properties of a class that {@link JsonDataBindingSourceCreator} reads the members of a JSON object for. A plan is
+ * created once per class from its meta class.
+ * <p/>
+ * Arrays that the binder can't bind to an instance of the class are skipped without reading them, see
+ * {@link JsonObjectDataBindingSource}. Members are bound if their key is the name of a property or "id", contains a '.' or '[', which the binder reads as the path of
+ * a nested property or an index, or is the name of a property with a '_' prefix or a '_' suffix, which the binder reads
+ * as the marker of a checkbox or a part of a structured value. Decimals that are bound to double properties are read
+ * as Doubles instead of BigDecimals.
+ * <p/>
+ * Properties may be added to an {@link ExpandoMetaClass} after the plan has been created, and the instances of its
+ * class may have meta classes of their own, so every member is read for a class whose meta class is an
+ * ExpandoMetaClass.
+ * <p/>
+ * Classes that are bound to with a {@link BindUsing} closure or helper, which may read any member of the source, aren't
+ * read with a plan.
+ *
+ * @since 3.3
+ */
+public class JsonBindingPlan {
+
+    private static final String ID = "id";
+
+    private final MetaClass typeMetaClass;
+    private final Map<String, Class<?>> propertyTypes;
+    private final boolean dynamic;
+    private final boolean expandable;
+
+    private JsonBindingPlan(MetaClass typeMetaClass, Map<String, Class<?>> propertyTypes, boolean dynamic) {
+        this.typeMetaClass = typeMetaClass;
+        this.propertyTypes = propertyTypes;
+        this.dynamic = dynamic;
+        this.expandable = typeMetaClass instanceof ExpandoMetaClass;
+    }
+
+    /**
+     * @param type The class being bound to
+     * @return The plan of the class
+     */
+    public static JsonBindingPlan create(Class<?> type) {
+        MetaClass metaClass = GroovySystem.getMetaClassRegistry().getMetaClass(type);
+        if (isDynamic(type)) {
+            return new JsonBindingPlan(metaClass, null, true);
+        }
+        Map<String, Class<?>> propertyTypes = new HashMap<String, Class<?>>();
+        for (MetaProperty metaProperty : metaClass.getProperties()) {
+            propertyTypes.put(metaProperty.getName(), metaProperty.getType());
+        }
+        return new JsonBindingPlan(metaClass, propertyTypes, false);
+    }
+
+    private static boolean isDynamic(Class<?> type) {
+        if (type == Object.class || type.isInterface() || type.isArray() || type.isPrimitive() ||
+                Modifier.isAbstract(type.getModifiers()) ||
+                Map.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)) {
+            return true;
+        }
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (c.isAnnotationPresent(BindUsing.class)) {
+                return true;
+            }
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(BindUsing.class)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the class isn't bound to with a plan but with a Map of the whole object
+     */
+    public boolean isDynamic() {
+        return dynamic;
+    }
+
+    /**
+     * @param type The class the plan has been created for
+     * @return false if the meta class of the class has been replaced since the plan was created
+     */
+    public boolean isCurrent(Class<?> type) {
+        return typeMetaClass == GroovySystem.getMetaClassRegistry().getMetaClass(type);
+    }
+
+    /**
+     * @param key The key of a member
+     * @return Whether the member is read
+     */
+    public boolean isBound(String key) {
+        if (expandable || propertyTypes.containsKey(key) || ID.equals(key) || key.indexOf('.') > -1 || key.indexOf('[') > -1) {
+            return true;
+        }
+        for (int i = key.indexOf('_'); i > -1; i = key.indexOf('_', i + 1)) {
+            String propertyName = i == 0 ? key.substring(1) : key.substring(0, i);
+            if (propertyTypes.containsKey(propertyName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param key The key of a member
+     * @return Whether decimals are read as Doubles
+     */
+    public boolean isDecimalAsDouble(String key) {
+        Class<?> type = propertyTypes.get(key);
+        return type == double.class || type == Double.class;
+    }
+}
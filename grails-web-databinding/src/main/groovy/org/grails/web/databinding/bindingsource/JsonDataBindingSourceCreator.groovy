@@ -23,9 +23,14 @@ import groovy.json.JsonParserType
 import groovy.json.JsonSlurper;
 import groovy.transform.CompileStatic
 
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
 import java.util.regex.Pattern
 
+import org.grails.databinding.StreamingCollectionDataBindingSource
+import org.grails.web.json.JSONException
 import org.grails.web.json.JSONObject
+import org.grails.web.json.JSONStreamParser
 
 import grails.web.mime.MimeType
 
@@ -48,8 +53,14 @@ class JsonDataBindingSourceCreator extends AbstractRequestBodyDataBindingSourceC
 
     private static final Pattern INDEX_PATTERN = ~/^(\S+)\[(\d+)\]$/
 
+    private final JsonSlurper defaultJsonSlurper = new JsonSlurper()
+
     @Autowired(required = false)
-    JsonSlurper jsonSlurper = new JsonSlurper()
+    JsonSlurper jsonSlurper = defaultJsonSlurper
+
+    private final ConcurrentMap<Class, JsonBindingPlan> bindingPlans = new ConcurrentHashMap<Class, JsonBindingPlan>()
+
+    private final boolean mapHooksOverridden = isOverridden('createJsonMap', Object) || isOverridden('createBindingSource', Reader)
 
     @Override
     MimeType[] getMimeTypes() {
@@ -69,9 +80,47 @@ class JsonDataBindingSourceCreator extends AbstractRequestBodyDataBindingSourceC
         }
     }
 
+    /**
+     * Creates a source for each element of the JSON array in the body. The elements are parsed one at a time while the
+     * sources are iterated, so that large arrays are bound in constant memory. Bodies that aren't strict JSON are
+     * rejected. The whole array is read with the JsonSlurper if a JsonSlurper has been configured or a subclass
+     * overrides {@link #createJsonMap(Object)} or {@link #createBindingSource(Reader)}.
+     *
+     * @see StreamingCollectionDataBindingSource
+     */
     @Override
     protected CollectionDataBindingSource createCollectionBindingSource(Reader reader) {
+        if(!isTokenStreamEnabled()) {
+            return createSlurpedCollectionBindingSource(reader)
+        }
+        final JsonDataBindingSourceCreator creator = this
+        final Iterator<Object> elements = createStreamParser(reader).elements()
+        return new StreamingCollectionDataBindingSource() {
+            @Override
+            protected DataBindingSource readNext() {
+                if (!elements.hasNext()) {
+                    return null
+                }
+                def element = elements.next()
+                if(element instanceof Map) {
+                    return new SimpleMapDataBindingSource(creator.createJsonMap(element))
+                }
+                return new SimpleMapDataBindingSource(Collections.emptyMap())
+            }
 
+            @Override
+            void close() throws IOException {
+                reader.close()
+            }
+
+            @Override
+            protected RuntimeException createReadException(Exception e) {
+                return creator.createBindingSourceCreationException(e)
+            }
+        }
+    }
+
+    private CollectionDataBindingSource createSlurpedCollectionBindingSource(Reader reader) {
         Object jsonElement = jsonSlurper.parse(reader)
         def dataBindingSources = jsonElement.collect { element ->
             if(element instanceof Map) {
@@ -102,6 +151,87 @@ class JsonDataBindingSourceCreator extends AbstractRequestBodyDataBindingSourceC
 
     }
 
+    @Override
+    protected DataBindingSource createBindingSource(InputStream inputStream, String charsetName, Class bindingTargetType) {
+        if(isTokenBindingTarget(bindingTargetType)) {
+            return createBindingSource(new InputStreamReader(inputStream, charsetName ?: 'UTF-8'), bindingTargetType)
+        }
+        return createBindingSource(inputStream, charsetName)
+    }
+
+    /**
+     * Reads the object in the body straight from the token stream of a {@link JSONStreamParser} into a source for the
+     * type being bound to, skipping the members that can't be bound to it. Bodies that aren't strict JSON are rejected,
+     * including the values that are skipped. Dynamic targets, such as Maps and classes
+     * with {@link grails.databinding.BindUsing} closures, are read into a Map with the JsonSlurper.
+     *
+     * @see JsonBindingPlan
+     * @see JsonObjectDataBindingSource
+     */
+    @Override
+    protected DataBindingSource createBindingSource(Reader reader, Class bindingTargetType) {
+        if(isTokenBindingTarget(bindingTargetType)) {
+            def plan = getBindingPlan(bindingTargetType)
+            if(!plan.dynamic) {
+                return JsonObjectDataBindingSource.read(createStreamParser(reader), plan)
+            }
+        }
+        return createBindingSource(reader)
+    }
+
+    /**
+     * @param reader The body
+     * @return A parser that reads the same number types as the JsonSlurper and, like the JsonSlurper, rejects text that
+     * isn't strict JSON
+     */
+    protected JSONStreamParser createStreamParser(Reader reader) {
+        def parser = new JSONStreamParser(reader)
+        parser.bigDecimals = true
+        parser.strict = true
+        parser
+    }
+
+    /**
+     * @param bindingTargetType The type being bound to or null
+     * @return Whether a body bound to the type is read from the token stream
+     * @see #isTokenStreamEnabled()
+     */
+    protected boolean isTokenBindingTarget(Class bindingTargetType) {
+        bindingTargetType != null && isTokenStreamEnabled()
+    }
+
+    /**
+     * @return Whether bodies may be read from the token stream. Bodies are read with the JsonSlurper if a JsonSlurper
+     * has been configured or a subclass overrides {@link #createJsonMap(Object)} or {@link #createBindingSource(Reader)}.
+     */
+    protected boolean isTokenStreamEnabled() {
+        jsonSlurper.is(defaultJsonSlurper) && !mapHooksOverridden
+    }
+
+    private boolean isOverridden(String methodName, Class parameterType) {
+        for (Class type = getClass(); type != JsonDataBindingSourceCreator; type = type.superclass) {
+            try {
+                type.getDeclaredMethod(methodName, parameterType)
+                return true
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        false
+    }
+
+    /**
+     * @param type The type being bound to
+     * @return The plan of the type, which is created the first time a body is bound to it
+     */
+    protected JsonBindingPlan getBindingPlan(Class type) {
+        def plan = bindingPlans.get(type)
+        if(plan == null || !plan.isCurrent(type)) {
+            plan = JsonBindingPlan.create(type)
+            bindingPlans.put(type, plan)
+        }
+        plan
+    }
+
     protected Map createJsonMap(Object jsonElement) {
         (Map) jsonElement
     }
@@ -109,7 +239,7 @@ class JsonDataBindingSourceCreator extends AbstractRequestBodyDataBindingSourceC
 
     @Override
     protected DataBindingSourceCreationException createBindingSourceCreationException(Exception e) {
-        if(e instanceof JsonException) {
+        if(e instanceof JsonException || e instanceof JSONException) {
             return new InvalidRequestBodyException(e)
         }
         return super.createBindingSourceCreationException(e)
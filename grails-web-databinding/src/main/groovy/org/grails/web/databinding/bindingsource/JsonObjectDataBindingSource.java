@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.databinding.bindingsource;
+
+import grails.databinding.DataBindingSource;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.grails.web.json.JSONStreamParser;
+
+/**
+ * A DataBindingSource with the members of a JSON object that are read from the token stream of a
+ * {@link JSONStreamParser} for a {@link JsonBindingPlan}, without building a Map of the object first. The members are
+ * kept in arrays in the order of the object. Only arrays that the plan doesn't bind are skipped: members whose values
+ * are objects may be the properties of a command object with a prefix, and scalar members may be bound to properties
+ * that were added to the meta class of the instance being bound to, which the plan can't know about.
+ *
+ * @since 3.3
+ */
+public class JsonObjectDataBindingSource implements DataBindingSource {
+
+    private static final String ID = "id";
+
+    /**
+     * The number of members above which they are looked up in a hash index instead of by comparing their keys
+     */
+    private static final int MAX_SCANNED_MEMBERS = 16;
+
+    private String[] keys = new String[8];
+    private Object[] values = new Object[8];
+    private int size;
+    private Map<String, Integer> index;
+    private boolean dataSourceAware = true;
+
+    /**
+     * Reads the object the input of the parser starts with. If the input doesn't start with an object, the source is
+     * empty.
+     *
+     * @param parser The parser
+     * @param plan The plan of the class being bound to
+     * @return The source
+     */
+    public static JsonObjectDataBindingSource read(JSONStreamParser parser, final JsonBindingPlan plan) {
+        final JsonObjectDataBindingSource source = new JsonObjectDataBindingSource();
+        parser.readObject(new JSONStreamParser.MemberHandler() {
+            @Override
+            public void member(String key, JSONStreamParser parser) {
+                if (plan.isBound(key) || !parser.isArrayValue()) {
+                    source.put(key, parser.readValue(plan.isDecimalAsDouble(key)));
+                }
+                else {
+                    parser.skipValue();
+                }
+            }
+        });
+        return source;
+    }
+
+    private void put(String key, Object value) {
+        int i = indexOf(key);
+        if (i > -1) {
+            // the last of repeated keys wins, like in a Map
+            values[i] = value;
+            return;
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        if (index != null) {
+            index.put(key, size);
+        }
+        else if (size == MAX_SCANNED_MEMBERS) {
+            index = new HashMap<String, Integer>();
+            for (int j = 0; j <= size; j++) {
+                index.put(keys[j], j);
+            }
+        }
+        size++;
+    }
+
+    private int indexOf(String key) {
+        if (index != null) {
+            Integer i = index.get(key);
+            return i == null ? -1 : i;
+        }
+        for (int i = 0; i < size; i++) {
+            // the keys read by the parser are mostly canonical instances
+            if (keys[i] == key || keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Set<String> getPropertyNames() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public String next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        return keys[next++];
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && indexOf((String) o) > -1;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Object getPropertyValue(String propertyName) {
+        int i = indexOf(propertyName);
+        return i > -1 ? values[i] : null;
+    }
+
+    @Override
+    public Object getAt(String propertyName) {
+        return getPropertyValue(propertyName);
+    }
+
+    @Override
+    public boolean containsProperty(String propertyName) {
+        return indexOf(propertyName) > -1;
+    }
+
+    @Override
+    public boolean hasIdentifier() {
+        return containsProperty(ID);
+    }
+
+    @Override
+    public Object getIdentifierValue() {
+        return getPropertyValue(ID);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isDataSourceAware() {
+        return dataSourceAware;
+    }
+
+    @Override
+    public void setDataSourceAware(boolean dataSourceAware) {
+        this.dataSourceAware = dataSourceAware;
+    }
+}
@@ -25,8 +25,11 @@ import grails.web.mime.MimeType
 import org.grails.databinding.bindingsource.DataBindingSourceCreationException
 import org.grails.databinding.xml.GPathResultCollectionDataBindingSource
 import org.grails.databinding.xml.GPathResultMap
+import org.grails.databinding.xml.StaxXmlCollectionDataBindingSource
+import org.grails.databinding.xml.StaxXmlParser
 import org.xml.sax.SAXParseException
-import org.grails.io.support.SpringIOUtils
+
+import javax.xml.stream.XMLStreamException
 
 /**
  * Creates DataBindingSource objects from XML in the request body
@@ -54,9 +57,7 @@ class XmlDataBindingSourceCreator extends AbstractRequestBodyDataBindingSourceCr
 
     @Override
     protected DataBindingSource createBindingSource(Reader reader) {
-        def gpath = SpringIOUtils.createXmlSlurper().parse(reader)
-        def gpathMap = new GPathResultMap(gpath)
-        return new SimpleMapDataBindingSource(gpathMap)
+        return new SimpleMapDataBindingSource(StaxXmlParser.parse(reader))
     }
 
     @Override
@@ -71,13 +72,18 @@ class XmlDataBindingSourceCreator extends AbstractRequestBodyDataBindingSourceCr
 
     @Override
     protected CollectionDataBindingSource createCollectionBindingSource(Reader reader) {
-        def gpath = SpringIOUtils.createXmlSlurper().parse(reader)
-        return new GPathResultCollectionDataBindingSource(gpath)
+        final XmlDataBindingSourceCreator creator = this
+        return new StaxXmlCollectionDataBindingSource(reader) {
+            @Override
+            protected RuntimeException createReadException(Exception e) {
+                return creator.createBindingSourceCreationException(e)
+            }
+        }
     }
     
     @Override
     protected DataBindingSourceCreationException createBindingSourceCreationException(Exception e) {
-        if(e instanceof SAXParseException) {
+        if(e instanceof SAXParseException || e instanceof XMLStreamException) {
             return new InvalidRequestBodyException(e)
         }
         return super.createBindingSourceCreationException(e)
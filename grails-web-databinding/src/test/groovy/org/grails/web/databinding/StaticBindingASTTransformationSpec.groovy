@@ -0,0 +1,252 @@
+package org.grails.web.databinding
+
+import grails.databinding.SimpleDataBinder
+import grails.databinding.SimpleMapDataBindingSource
+import grails.databinding.StaticallyBindable
+import grails.databinding.errors.BindingError
+import grails.databinding.events.DataBindingListenerAdapter
+
+import org.codehaus.groovy.control.MultipleCompilationErrorsException
+
+import spock.lang.Shared
+import spock.lang.Specification
+
+class StaticBindingASTTransformationSpec extends Specification {
+
+    static final String PROPERTIES = '''
+    String name
+    int age
+    Long ssn
+    Status status
+    @BindingFormat('MMddyyyy')
+    Date birthDate
+    List<Integer> scores
+    Set<Status> statuses
+    SortedSet<Integer> ranks
+    Collection<String> nicknames
+    Address address
+    Object anything
+'''
+
+    @Shared
+    GroovyClassLoader classLoader = new GroovyClassLoader()
+
+    void setupSpec() {
+        classLoader.parseClass """
+package demo
+
+import grails.databinding.BindingFormat
+import grails.web.databinding.StaticBinding
+
+enum Status { ACTIVE, INACTIVE }
+
+@StaticBinding
+class Address {
+    String city
+}
+
+@StaticBinding
+class PersonCommand {
+$PROPERTIES
+}
+
+class DynamicPersonCommand {
+$PROPERTIES
+}
+"""
+    }
+
+    SimpleDataBinder binder = new SimpleDataBinder(conversionService: new SpringConversionServiceAdapter())
+
+    void 'Test the generated code binds the same values as dynamic binding'() {
+        given:
+        def values = [name: 'Jeff', age: '42', ssn: 123, status: 'ACTIVE', birthDate: '11151969',
+                      scores: ['1', 2], statuses: ['ACTIVE', 'INACTIVE'], ranks: ['3', 1], nicknames: ['Jeff', 'JB'],
+                      address: [city: 'St. Louis'], anything: 'x']
+        def person = classLoader.loadClass('demo.PersonCommand').newInstance()
+        def dynamicPerson = classLoader.loadClass('demo.DynamicPersonCommand').newInstance()
+
+        when:
+        binder.bind person, new SimpleMapDataBindingSource(values)
+        binder.bind dynamicPerson, new SimpleMapDataBindingSource(values)
+
+        then:
+        person instanceof StaticallyBindable
+        !(dynamicPerson instanceof StaticallyBindable)
+        person.name == 'Jeff'
+        person.age == 42
+        person.ssn == 123L
+        person.status.name() == 'ACTIVE'
+        person.scores == [1, 2]
+        person.statuses*.name() as Set == ['ACTIVE', 'INACTIVE'] as Set
+        person.ranks as List == [1, 3]
+        person.address.city == 'St. Louis'
+        person.anything == 'x'
+
+        and: 'every property has the value and the type dynamic binding gives it'
+        person.name == dynamicPerson.name
+        person.age == dynamicPerson.age
+        person.ssn == dynamicPerson.ssn
+        person.ssn.getClass() == dynamicPerson.ssn.getClass()
+        person.status == dynamicPerson.status
+        person.birthDate == dynamicPerson.birthDate
+        person.scores == dynamicPerson.scores
+        person.scores.getClass() == dynamicPerson.scores.getClass()
+        person.scores*.getClass() == dynamicPerson.scores*.getClass()
+        person.statuses == dynamicPerson.statuses
+        person.statuses.getClass() == dynamicPerson.statuses.getClass()
+        person.ranks == dynamicPerson.ranks
+        person.ranks.getClass() == dynamicPerson.ranks.getClass()
+        person.nicknames == dynamicPerson.nicknames
+        person.nicknames.getClass() == dynamicPerson.nicknames.getClass()
+        person.address.city == dynamicPerson.address.city
+        person.anything == dynamicPerson.anything
+    }
+
+    void 'Test values the generated code does not handle are left to dynamic binding'() {
+        given:
+        def person = classLoader.loadClass('demo.PersonCommand').newInstance()
+        def context = binder.createStaticBindingContext(null, null)
+
+        expect:
+        person.bindFrom('name', 'Jeff', context)
+        person.name == 'Jeff'
+        !person.bindFrom('anything', 'x', context)
+        !person.bindFrom('age', null, context)
+        !person.bindFrom('name', [first: 'Jeff'], context)
+        !person.bindFrom('scores', '1', context)
+        !person.bindFrom('nicknames', ['Jeff'], context)
+        !person.bindFrom('address', 'St. Louis', context)
+    }
+
+    void 'Test conversion errors and vetoes are reported to the listener'() {
+        given:
+        def person = classLoader.loadClass('demo.PersonCommand').newInstance()
+        def listener = new RecordingListener(vetoed: ['ssn'])
+
+        when:
+        binder.bind person, new SimpleMapDataBindingSource([name: 'Jeff', age: 'forty-two', birthDate: '1969', ssn: 123]), listener
+
+        then:
+        person.name == 'Jeff'
+        person.age == 0
+        person.birthDate == null
+        person.ssn == null
+        listener.errors*.propertyName as Set == ['age', 'birthDate'] as Set
+        listener.boundProperties as Set == ['name', 'age'] as Set
+    }
+
+    void 'Test a subclass binds its own properties and leaves the properties of its superclass to dynamic binding'() {
+        given:
+        def subclass = classLoader.parseClass '''
+package demo
+
+import grails.web.databinding.StaticBinding
+
+@StaticBinding
+class EmployeeCommand extends PersonCommand {
+    String employer
+}
+'''
+        def employee = subclass.newInstance()
+
+        when:
+        binder.bind employee, new SimpleMapDataBindingSource([name: 'Jeff', age: 42, employer: 'OCI'])
+
+        then:
+        employee.name == 'Jeff'
+        employee.age == 42
+        employee.employer == 'OCI'
+        employee.bindFrom('employer', 'Grails', binder.createStaticBindingContext(null, null))
+        employee.employer == 'Grails'
+        !employee.bindFrom('age', 43, binder.createStaticBindingContext(null, null))
+    }
+
+    void 'Test the setter of an unannotated subclass is called'() {
+        given:
+        def subclass = classLoader.parseClass '''
+package demo
+
+class UpperCasePersonCommand extends PersonCommand {
+    void setName(String name) {
+        super.setName(name.toUpperCase())
+    }
+}
+'''
+        def person = subclass.newInstance()
+
+        when:
+        binder.bind person, new SimpleMapDataBindingSource([name: 'Jeff', age: 42])
+
+        then:
+        person.name == 'JEFF'
+        person.age == 42
+        !person.bindFrom('name', 'Jeff', binder.createStaticBindingContext(null, null))
+    }
+
+    void 'Test a collection property with an unmodifiable default is replaced'() {
+        given:
+        def commandClass = classLoader.parseClass '''
+package demo
+
+import grails.web.databinding.StaticBinding
+
+@StaticBinding
+class ScoresCommand {
+    List<Integer> scores = Collections.emptyList()
+}
+'''
+        def command = commandClass.newInstance()
+        def defaultScores = command.scores
+
+        when:
+        binder.bind command, new SimpleMapDataBindingSource([scores: ['1', '2']])
+
+        then:
+        command.scores == [1, 2]
+        defaultScores.isEmpty()
+    }
+
+    void 'Test compiling @StaticBinding on a class that declares bindFrom'() {
+        when:
+        new GroovyClassLoader().parseClass '''
+package demo
+
+import grails.databinding.StaticBindingContext
+import grails.web.databinding.StaticBinding
+
+@StaticBinding
+class SomeCommand {
+    String name
+
+    boolean bindFrom(String propertyName, Object value, StaticBindingContext context) {
+        false
+    }
+}
+'''
+
+        then:
+        MultipleCompilationErrorsException e = thrown()
+        e.message.contains 'The class [demo.SomeCommand] is annotated with @StaticBinding and must not declare a bindFrom(String, Object, StaticBindingContext) method.'
+    }
+}
+
+class RecordingListener extends DataBindingListenerAdapter {
+    List<String> vetoed = []
+    List<String> boundProperties = []
+    List<BindingError> errors = []
+
+    @Override
+    Boolean beforeBinding(Object obj, String propertyName, Object value, Object errors) {
+        if (propertyName in vetoed) {
+            return false
+        }
+        boundProperties << propertyName
+        true
+    }
+
+    @Override
+    void bindingError(BindingError error, Object errors) {
+        this.errors << error
+    }
+}
@@ -1,7 +1,19 @@
 package org.grails.web.databinding.bindingsource.json
 
+import grails.databinding.BindUsing
+import grails.databinding.SimpleDataBinder
+import grails.databinding.SimpleMapDataBindingSource
+import grails.databinding.errors.BindingError
+import grails.databinding.events.DataBindingListenerAdapter
+import grails.web.mime.MimeType
 import groovy.json.JsonException
+import groovy.json.JsonSlurper
+import org.grails.web.databinding.bindingsource.HalJsonDataBindingSourceCreator
+import org.grails.web.databinding.bindingsource.InvalidRequestBodyException
 import org.grails.web.databinding.bindingsource.JsonDataBindingSourceCreator
+import org.grails.web.databinding.bindingsource.JsonObjectDataBindingSource
+import org.grails.web.json.JSONException
+import org.springframework.mock.web.MockHttpServletRequest
 
 import spock.lang.Specification
 
@@ -59,4 +71,308 @@ class JsonDataBindingSourceCreatorSpec extends Specification {
         then:
         thrown JsonException
     }
+
+    void 'Test the elements of a JSON array are streamed'() {
+        given:
+        def json = '''[{"name": "Groovy", "version": 2.4, "downloads": 12345678901234567890}, 42, {"name": "Java", "company": null}, {"name": '''
+        def inputStream = new ByteArrayInputStream(json.getBytes("UTF-8"))
+        def collectionBindingSource = new JsonDataBindingSourceCreator().createCollectionBindingSource(inputStream, "UTF-8")
+        def iterator = collectionBindingSource.dataBindingSources.iterator()
+
+        when: 'the elements before the malformed one are read'
+        def bindingSources = [iterator.next(), iterator.next(), iterator.next()]
+
+        then: 'they are parsed without parsing the rest of the array'
+        bindingSources[0]['name'] == 'Groovy'
+        bindingSources[0]['version'] == 2.4G
+        bindingSources[0]['version'] instanceof BigDecimal
+        bindingSources[0]['downloads'] == 12345678901234567890G
+        bindingSources[1].propertyNames.isEmpty()
+        bindingSources[2]['name'] == 'Java'
+        bindingSources[2].containsProperty('company')
+        bindingSources[2]['company'] == null
+
+        when:
+        iterator.hasNext()
+
+        then:
+        thrown InvalidRequestBodyException
+
+        when:
+        collectionBindingSource.dataBindingSources.size()
+
+        then:
+        thrown IllegalStateException
+    }
+
+    void 'Test the elements of a JSON array are iterated once'() {
+        given:
+        def json = '''[{"name": "Groovy"}, {"name": "Java"}]'''
+        def inputStream = new ByteArrayInputStream(json.getBytes("UTF-8"))
+        def collectionBindingSource = new JsonDataBindingSourceCreator().createCollectionBindingSource(inputStream, "UTF-8")
+        def names = []
+
+        when:
+        for (bindingSource in collectionBindingSource.dataBindingSources) {
+            names << bindingSource['name']
+        }
+
+        then:
+        names == ['Groovy', 'Java']
+
+        when:
+        collectionBindingSource.dataBindingSources.iterator()
+
+        then:
+        thrown IllegalStateException
+    }
+
+    void 'Test malformed JSON array elements fail while the elements are iterated'() {
+        given:
+        def json = '''[{"name": "Groovy"}, {"name": "Java"'''
+        def inputStream = new ByteArrayInputStream(json.getBytes("UTF-8"))
+        def names = []
+
+        when:
+        def collectionBindingSource = new JsonDataBindingSourceCreator().createCollectionBindingSource(inputStream, "UTF-8")
+        collectionBindingSource.dataBindingSources.each { names << it['name'] }
+
+        then:
+        thrown InvalidRequestBodyException
+        names == ['Groovy']
+    }
+
+    void 'Test JSON arrays that are not strict JSON are rejected while the elements are iterated'() {
+        given:
+        def inputStream = new ByteArrayInputStream(json.getBytes("UTF-8"))
+
+        when:
+        def collectionBindingSource = new JsonDataBindingSourceCreator().createCollectionBindingSource(inputStream, "UTF-8")
+        collectionBindingSource.dataBindingSources.each { it['name'] }
+
+        then:
+        def e = thrown(InvalidRequestBodyException)
+        e.cause instanceof JSONException
+
+        where:
+        json << ["[{name: 'Groovy'}]", '[{"name": "Groovy"},]', '[{"name": "Groovy"};{"name": "Java"}]', '[{"name": "Groovy"}] x']
+    }
+
+    void 'Test JSON arrays are read with the JsonSlurper if the Map hooks are overridden or a JsonSlurper is configured'() {
+        given:
+        def json = '''[{"name": "Groovy"}, {"name": "Java"}]'''
+        def inputStream = new ByteArrayInputStream(json.getBytes("UTF-8"))
+
+        when:
+        def collectionBindingSource = creator.createCollectionBindingSource(inputStream, "UTF-8")
+
+        then: 'the sources can be iterated more than once'
+        collectionBindingSource.dataBindingSources.size() == 2
+        collectionBindingSource.dataBindingSources*.getAt('name') == expected
+
+        where:
+        creator                                                          | expected
+        new UpperCaseJsonDataBindingSourceCreator()                      | ['GROOVY', 'JAVA']
+        new JsonDataBindingSourceCreator(jsonSlurper: new JsonSlurper()) | ['Groovy', 'Java']
+    }
+
+    void 'Test malformed JSON arrays fail when they are read with the JsonSlurper'() {
+        given:
+        def json = '''[{"name": "Groovy"}, {"name": "Java"'''
+        def inputStream = new ByteArrayInputStream(json.getBytes("UTF-8"))
+
+        when:
+        new JsonDataBindingSourceCreator(jsonSlurper: new JsonSlurper()).createCollectionBindingSource(inputStream, "UTF-8")
+
+        then:
+        thrown JsonException
+    }
+
+    void 'Test the members of a JSON object are read for the class being bound to'() {
+        given:
+        def json = '''{"name": "MacBook", "price": 1299.99, "weight": 1.35, "unknown": [1, {"a": 2}], "id": 42,
+  "category": {"name": "laptop"}, "other": {"name": "prefixed"}, "ignored": "value", "tags[0]": "new",
+  "_available": "", "_unknown": "", "price_currency": "USD", "category.name": "computer", "name": "MacBook Pro"}'''
+        def inputStream = new ByteArrayInputStream(json.getBytes("UTF-8"))
+
+        when:
+        def bindingSource = new JsonDataBindingSourceCreator().createBindingSource(inputStream, "UTF-8", Product)
+
+        then:
+        bindingSource instanceof JsonObjectDataBindingSource
+        bindingSource.propertyNames as List == ['name', 'price', 'weight', 'id', 'category', 'other', 'ignored', 'tags[0]', '_available', '_unknown', 'price_currency', 'category.name']
+        bindingSource['name'] == 'MacBook Pro'
+        bindingSource['price'] == 1299.99G
+        bindingSource['price'] instanceof BigDecimal
+        bindingSource['weight'] == 1.35d
+        bindingSource['weight'] instanceof Double
+        bindingSource.hasIdentifier()
+        bindingSource.identifierValue == 42
+        bindingSource['category'] == [name: 'laptop']
+        bindingSource['other'] == [name: 'prefixed']
+        !bindingSource.containsProperty('unknown')
+        bindingSource['unknown'] == null
+        bindingSource['ignored'] == 'value'
+    }
+
+    void 'Test a property added to the meta class of the instance being bound to is bound from the token stream'() {
+        given:
+        def json = '''{"name": "MacBook", "colour": "silver"}'''
+        def bindingSource = new JsonDataBindingSourceCreator().createBindingSource(new StringReader(json), Product)
+        def product = new Product()
+        product.metaClass.colour = null
+
+        when:
+        new SimpleDataBinder().bind(product, bindingSource)
+
+        then:
+        product.name == 'MacBook'
+        product.colour == 'silver'
+    }
+
+    void 'Test every member is read for a class with an ExpandoMetaClass'() {
+        given:
+        ExpandoProduct.metaClass.size = null
+        def creator = new JsonDataBindingSourceCreator()
+        creator.createBindingSource(new StringReader('{"name": "MacBook"}'), ExpandoProduct)
+        ExpandoProduct.metaClass.colours = null
+        def json = '''{"name": "MacBook", "colours": ["silver", "gold"]}'''
+
+        when:
+        def bindingSource = creator.createBindingSource(new StringReader(json), ExpandoProduct)
+        def product = new ExpandoProduct()
+        new SimpleDataBinder().bind(product, bindingSource)
+
+        then:
+        bindingSource['colours'] == ['silver', 'gold']
+        product.colours == ['silver', 'gold']
+
+        cleanup:
+        GroovySystem.metaClassRegistry.removeMetaClass(ExpandoProduct)
+    }
+
+    void 'Test dynamic binding targets are read into a Map'() {
+        given:
+        def json = '''{"name": "MacBook", "ignored": "value"}'''
+        def creator = new JsonDataBindingSourceCreator()
+
+        when:
+        def bindingSource = creator.createBindingSource(new ByteArrayInputStream(json.getBytes("UTF-8")), "UTF-8", type)
+
+        then:
+        bindingSource instanceof SimpleMapDataBindingSource
+        bindingSource['ignored'] == 'value'
+
+        where:
+        type << [Map, Object, BoundUsingProduct]
+    }
+
+    void 'Test bodies are read into a Map if the Map hooks are overridden or a JsonSlurper is configured'() {
+        given:
+        def json = '''{"name": "MacBook", "ignored": "value"}'''
+
+        when:
+        def bindingSource = creator.createBindingSource(new ByteArrayInputStream(json.getBytes("UTF-8")), "UTF-8", Product)
+
+        then:
+        bindingSource instanceof SimpleMapDataBindingSource
+        bindingSource['ignored'] == expected
+
+        where:
+        creator                                                          | expected
+        new UpperCaseJsonDataBindingSourceCreator()                      | 'VALUE'
+        new JsonDataBindingSourceCreator(jsonSlurper: new JsonSlurper()) | 'value'
+        new HalJsonDataBindingSourceCreator()                            | 'value'
+    }
+
+    void 'Test binding from the token stream filters properties and reports errors'() {
+        given:
+        def json = '''{"name": "MacBook", "price": "expensive", "weight": 1.35, "tags": ["new", "sale"], "category": {"name": "laptop"}}'''
+        def bindingSource = new JsonDataBindingSourceCreator().createBindingSource(new ByteArrayInputStream(json.getBytes("UTF-8")), "UTF-8", Product)
+        def product = new Product()
+        def errors = []
+        def listener = new DataBindingListenerAdapter() {
+            @Override
+            void bindingError(BindingError error, Object errorsObject) {
+                errors << error.propertyName
+            }
+        }
+
+        when:
+        new SimpleDataBinder().bind(product, bindingSource, null, ['price', 'weight', 'tags', 'category'], null, listener)
+
+        then:
+        product.name == null
+        product.price == null
+        product.weight == 1.35d
+        product.tags == ['new', 'sale']
+        product.category.name == 'laptop'
+        errors == ['price']
+    }
+
+    void 'Test malformed JSON fails while it is read for a class'() {
+        given:
+        def json = '''{"ignored": [1, 2, {"name": "Jeff"}], "name": "Jeff'''
+
+        when:
+        new JsonDataBindingSourceCreator().createBindingSource(new StringReader(json), Product)
+
+        then:
+        thrown JSONException
+    }
+
+    void 'Test bodies that are not strict JSON are rejected while they are read for a class'() {
+        given:
+        def request = new MockHttpServletRequest('POST', '/products')
+        request.contentType = 'application/json'
+        request.content = json.getBytes('UTF-8')
+
+        when:
+        new JsonDataBindingSourceCreator().createDataBindingSource(MimeType.JSON, Product, request)
+
+        then:
+        def e = thrown(InvalidRequestBodyException)
+        e.cause instanceof JSONException
+
+        where:
+        json << [
+            '''{name: "MacBook"}''',
+            '''{'name': 'MacBook'}''',
+            '''{"name": MacBook}''',
+            '''{"name": "MacBook", "price": 0x10}''',
+            '''{"name": "MacBook", "ignored": new Date(0)}''',
+            '''{"name": "MacBook", "ignored": {"a": 1,}}''',
+            '''{"name": "MacBook"} // comment''',
+            '''{"name": "MacBook",}'''
+        ]
+    }
+}
+
+class UpperCaseJsonDataBindingSourceCreator extends JsonDataBindingSourceCreator {
+    @Override
+    protected Map createJsonMap(Object jsonElement) {
+        ((Map) jsonElement).collectEntries { key, value -> [key, value instanceof String ? value.toUpperCase() : value] }
+    }
+}
+
+class Product {
+    String name
+    BigDecimal price
+    double weight
+    List<String> tags
+    boolean available
+    Category category
+}
+
+class Category {
+    String name
+}
+
+class ExpandoProduct {
+    String name
+}
+
+class BoundUsingProduct {
+    @BindUsing({ obj, source -> source['ignored'] })
+    String name
 }
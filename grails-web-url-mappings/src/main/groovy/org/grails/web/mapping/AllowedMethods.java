@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping;
+
+import grails.web.mapping.UrlMapping;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * An immutable set of allowed HTTP methods. There is one shared instance for each combination of methods, so the sets
+ * are only built once.
+ *
+ * @since 3.3
+ */
+final class AllowedMethods {
+
+    private static final ConcurrentMap<Set<HttpMethod>, AllowedMethods> INSTANCES = new ConcurrentHashMap<Set<HttpMethod>, AllowedMethods>();
+
+    static final AllowedMethods NONE = of(EnumSet.noneOf(HttpMethod.class));
+    static final AllowedMethods ALL = of(EnumSet.allOf(HttpMethod.class));
+
+    private final EnumSet<HttpMethod> methods;
+    private final Set<HttpMethod> unmodifiableMethods;
+
+    private AllowedMethods(EnumSet<HttpMethod> methods) {
+        this.methods = methods;
+        this.unmodifiableMethods = Collections.unmodifiableSet(methods);
+    }
+
+    /**
+     * @param methods The methods
+     * @return The shared instance for the given methods
+     */
+    static AllowedMethods of(EnumSet<HttpMethod> methods) {
+        AllowedMethods allowedMethods = INSTANCES.get(methods);
+        if (allowedMethods == null) {
+            EnumSet<HttpMethod> copy = EnumSet.copyOf(methods);
+            allowedMethods = new AllowedMethods(copy);
+            AllowedMethods existing = INSTANCES.putIfAbsent(copy, allowedMethods);
+            if (existing != null) {
+                allowedMethods = existing;
+            }
+        }
+        return allowedMethods;
+    }
+
+    /**
+     * @param httpMethod The HTTP method of a mapping
+     * @return The methods allowed by a mapping with the given HTTP method, which are all methods if it is null or
+     * {@link UrlMapping#ANY_HTTP_METHOD}
+     */
+    static AllowedMethods forMapping(String httpMethod) {
+        if (httpMethod == null || httpMethod.equals(UrlMapping.ANY_HTTP_METHOD)) {
+            return ALL;
+        }
+        return of(EnumSet.of(HttpMethod.valueOf(httpMethod.toUpperCase())));
+    }
+
+    /**
+     * @param other Other allowed methods
+     * @return The shared instance for the union of these and the other methods
+     */
+    AllowedMethods union(AllowedMethods other) {
+        if (other == this || methods.containsAll(other.methods)) {
+            return this;
+        }
+        EnumSet<HttpMethod> union = EnumSet.copyOf(methods);
+        union.addAll(other.methods);
+        return of(union);
+    }
+
+    /**
+     * @param other Other allowed methods
+     * @return True if all of the other methods are already allowed
+     */
+    boolean containsAll(AllowedMethods other) {
+        return methods.containsAll(other.methods);
+    }
+
+    /**
+     * @return The unmodifiable set of methods
+     */
+    Set<HttpMethod> getMethods() {
+        return unmodifiableMethods;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+/**
+ * Matches URIs against a list of Ant patterns, such as the exclude patterns of the URL mappings or the URI patterns of
+ * interceptors, with the same semantics as {@link AntPathMatcher}, but without evaluating each pattern separately.
+ *
+ * <p>The patterns are compiled once:</p>
+ * <ul>
+ *     <li>Literal patterns such as <code>/health</code> go into a hash set</li>
+ *     <li>Literal prefixes such as <code>/static/**</code> go into a trie of path segments</li>
+ *     <li>Patterns with <code>*</code> and <code>?</code> wildcards are combined into a single regular expression</li>
+ *     <li>Anything else, for example URI template variables or a <code>**</code> in the middle of the pattern, is
+ *     evaluated with an {@link AntPathMatcher}</li>
+ * </ul>
+ *
+ * <p>The compiled forms assume a normalized URI. A URI with empty segments or whitespace, which the
+ * {@link AntPathMatcher} tokenizer treats specially, is checked against every pattern with the {@link AntPathMatcher}.</p>
+ *
+ * @since 3.3
+ */
+public class AntPatternsMatcher {
+
+    private static final String SLASH = "/";
+    private static final String DOUBLE_WILDCARD = "**";
+    private static final String DOUBLE_WILDCARD_SUFFIX = "/**";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> patterns = new ArrayList<String>();
+    private final Set<String> literals = new HashSet<String>();
+    private final PrefixNode prefixes = new PrefixNode();
+    private final List<String> antPatterns = new ArrayList<String>();
+    private final Pattern wildcardPattern;
+
+    public AntPatternsMatcher(Collection<?> uriPatterns) {
+        StringBuilder wildcardRegex = new StringBuilder();
+        if (uriPatterns != null) {
+            for (Object uriPattern : uriPatterns) {
+                if (uriPattern == null) continue;
+                String pattern = uriPattern.toString();
+                patterns.add(pattern);
+                compile(pattern, wildcardRegex);
+            }
+        }
+        wildcardPattern = wildcardRegex.length() > 0 ? Pattern.compile(wildcardRegex.toString()) : null;
+    }
+
+    private void compile(String pattern, StringBuilder wildcardRegex) {
+        if (!pattern.startsWith(SLASH) || !isNormalized(pattern) || pattern.indexOf('{') > -1 || pattern.indexOf('}') > -1) {
+            antPatterns.add(pattern);
+            return;
+        }
+        if (pattern.endsWith(DOUBLE_WILDCARD_SUFFIX) && !hasWildcard(pattern, pattern.length() - DOUBLE_WILDCARD_SUFFIX.length())) {
+            addPrefix(pattern.substring(0, pattern.length() - DOUBLE_WILDCARD_SUFFIX.length()));
+        }
+        else if (!hasWildcard(pattern, pattern.length())) {
+            literals.add(pattern);
+        }
+        else if (pattern.endsWith(SLASH)) {
+            // a trailing slash changes how AntPathMatcher treats a trailing '*'
+            antPatterns.add(pattern);
+        }
+        else {
+            String regex = toRegex(pattern);
+            if (regex == null) {
+                antPatterns.add(pattern);
+            }
+            else {
+                if (wildcardRegex.length() > 0) {
+                    wildcardRegex.append('|');
+                }
+                wildcardRegex.append("(?:").append(regex).append(')');
+            }
+        }
+    }
+
+    private void addPrefix(String prefix) {
+        PrefixNode node = prefixes;
+        if (prefix.length() > 0) {
+            for (String segment : prefix.substring(1).split(SLASH)) {
+                PrefixNode child = node.children.get(segment);
+                if (child == null) {
+                    child = new PrefixNode();
+                    node.children.put(segment, child);
+                }
+                node = child;
+            }
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * Converts an Ant pattern whose only <code>**</code> is the last segment into a regular expression
+     *
+     * @param pattern The pattern
+     * @return The regular expression or null if the pattern is not supported
+     */
+    private String toRegex(String pattern) {
+        String[] segments = pattern.substring(1).split(SLASH);
+        boolean trailingDoubleWildcard = DOUBLE_WILDCARD.equals(segments[segments.length - 1]);
+        int count = trailingDoubleWildcard ? segments.length - 1 : segments.length;
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            String segment = segments[i];
+            if (segment.contains(DOUBLE_WILDCARD)) {
+                return null;
+            }
+            regex.append('/');
+            boolean last = i == count - 1 && !trailingDoubleWildcard;
+            if ("*".equals(segment)) {
+                // AntPathMatcher lets a trailing '*' match the empty segment of a trailing slash
+                regex.append(last ? "[^/]*" : "[^/]+");
+                continue;
+            }
+            StringBuilder literal = new StringBuilder();
+            for (int j = 0; j < segment.length(); j++) {
+                char c = segment.charAt(j);
+                if (c == '*' || c == '?') {
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(c == '*' ? "[^/]*" : "[^/]");
+                }
+                else {
+                    literal.append(c);
+                }
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+        }
+        if (trailingDoubleWildcard) {
+            regex.append("(?:/.*)?");
+        }
+        return regex.toString();
+    }
+
+    private static boolean hasWildcard(String pattern, int end) {
+        for (int i = 0; i < end; i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True if the path has no empty segments and no whitespace, other than a trailing slash
+     */
+    private static boolean isNormalized(String path) {
+        char previous = 0;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (Character.isWhitespace(c) || (c == '/' && previous == '/')) {
+                return false;
+            }
+            previous = c;
+        }
+        return true;
+    }
+
+    /**
+     * Whether the given URI matches any of the exclude patterns
+     *
+     * @param uri The URI
+     * @return True if it does
+     */
+    public boolean matches(String uri) {
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        if (!uri.startsWith(SLASH) || !isNormalized(uri)) {
+            return matchesAny(patterns, uri);
+        }
+        return literals.contains(uri) ||
+                matchesPrefix(uri) ||
+                (wildcardPattern != null && wildcardPattern.matcher(uri).matches()) ||
+                matchesAny(antPatterns, uri);
+    }
+
+    private boolean matchesPrefix(String uri) {
+        PrefixNode node = prefixes;
+        int segmentStart = 1;
+        while (true) {
+            if (node.terminal) {
+                return true;
+            }
+            if (node.children.isEmpty() || segmentStart > uri.length()) {
+                return false;
+            }
+            int segmentEnd = uri.indexOf('/', segmentStart);
+            if (segmentEnd == -1) {
+                segmentEnd = uri.length();
+            }
+            node = node.children.get(uri.substring(segmentStart, segmentEnd));
+            if (node == null) {
+                return false;
+            }
+            segmentStart = segmentEnd + 1;
+        }
+    }
+
+    private boolean matchesAny(List<String> candidates, String uri) {
+        for (String pattern : candidates) {
+            if (pathMatcher.match(pattern, uri)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class PrefixNode {
+        final Map<String, PrefixNode> children = new HashMap<String, PrefixNode>();
+        boolean terminal;
+    }
+}
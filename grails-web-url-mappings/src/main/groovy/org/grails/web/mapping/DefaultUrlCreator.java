@@ -18,7 +18,6 @@ package org.grails.web.mapping;
 import grails.util.GrailsWebUtil;
 
 import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -28,7 +27,6 @@ import java.util.Map;
 import grails.web.mapping.UrlCreator;
 import grails.core.GrailsControllerClass;
 import grails.util.GrailsStringUtils;
-import org.grails.buffer.FastStringWriter;
 import org.grails.web.servlet.mvc.DefaultRequestStateLookupStrategy;
 import org.grails.web.servlet.mvc.GrailsRequestStateLookupStrategy;
 import org.grails.web.servlet.mvc.GrailsWebRequest;
@@ -82,7 +80,7 @@ public class DefaultUrlCreator implements UrlCreator {
             }
         }
 
-        FastStringWriter actualUriBuf = new FastStringWriter();
+        StringBuilder actualUriBuf = new StringBuilder();
         if (includeContextPath) {
             actualUriBuf.append(requestStateLookupStrategy.getContextPath());
         }
@@ -182,7 +180,7 @@ public class DefaultUrlCreator implements UrlCreator {
     private String createUrlWithFragment(String encoding, String fragment, String url) {
         if (fragment != null) {
             try {
-                return url + '#' + URLEncoder.encode(fragment, encoding);
+                return url + '#' + UrlPercentEncoder.encode(fragment, encoding);
             }
             catch (UnsupportedEncodingException ex) {
                 throw new ControllerExecutionException("Error creating URL  [" + url +
@@ -196,7 +194,7 @@ public class DefaultUrlCreator implements UrlCreator {
     /*
      * Appends all the request parameters to the URI buffer
      */
-    private void appendRequestParams(FastStringWriter actualUriBuf, Map<Object, Object> params, String encoding) {
+    private void appendRequestParams(StringBuilder actualUriBuf, Map<Object, Object> params, String encoding) {
 
         boolean querySeparator = false;
 
@@ -244,21 +242,21 @@ public class DefaultUrlCreator implements UrlCreator {
     /*
      * Appends a request parameters for the given aname and value
      */
-    private void appendRequestParam(FastStringWriter actualUriBuf, Object name,
+    private void appendRequestParam(StringBuilder actualUriBuf, Object name,
             Object value, String encoding) {
 
         if (value == null) {
             value = "";
         }
 
-        actualUriBuf.append(urlEncode(name, encoding))
-                    .append('=')
-                    .append(urlEncode(value, encoding));
+        appendUrlEncoded(actualUriBuf, name, encoding);
+        actualUriBuf.append('=');
+        appendUrlEncoded(actualUriBuf, value, encoding);
     }
 
-    private String urlEncode(Object obj, String charset) {
+    private void appendUrlEncoded(StringBuilder actualUriBuf, Object obj, String charset) {
         try {
-            return URLEncoder.encode(obj.toString(), (charset != null) ? charset : GrailsWebUtil.DEFAULT_ENCODING);
+            UrlPercentEncoder.appendEncoded(actualUriBuf, obj.toString(), (charset != null) ? charset : GrailsWebUtil.DEFAULT_ENCODING);
         }
         catch (UnsupportedEncodingException ex) {
             throw new ControllerExecutionException(
@@ -269,7 +267,8 @@ public class DefaultUrlCreator implements UrlCreator {
     /*
      * Appends a URL token to the buffer
      */
-    private void appendUrlToken(FastStringWriter actualUriBuf, Object token, String charset) {
-        actualUriBuf.append(SLASH).append(urlEncode(token, charset));
+    private void appendUrlToken(StringBuilder actualUriBuf, Object token, String charset) {
+        actualUriBuf.append(SLASH);
+        appendUrlEncoded(actualUriBuf, token, charset);
     }
 }
@@ -19,6 +19,7 @@ import grails.core.GrailsControllerClass;
 import grails.util.CollectionUtils;
 import grails.util.Holders;
 import grails.validation.ConstrainedProperty;
+import grails.validation.Constraint;
 import grails.web.mapping.UrlCreator;
 import grails.web.mapping.UrlMapping;
 import grails.web.mapping.UrlMappingEvaluator;
@@ -46,11 +47,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.core.style.ToStringCreator;
 import org.springframework.http.HttpMethod;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.util.PathMatcher;
 import org.springframework.web.context.WebApplicationContext;
 
-import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import com.googlecode.concurrentlinkedhashmap.Weigher;
 
 /**
@@ -71,32 +69,46 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
     public static final UrlMappingInfo[] EMPTY_RESULTS = new UrlMappingInfo[0];
 
     private int maxWeightedCacheCapacity = DEFAULT_MAX_WEIGHTED_CAPACITY;
-    private Map<String, UrlMappingInfo> cachedMatches;
-    private Map<UriToUrlMappingKey, List<UrlMappingInfo>> cachedListMatches;
+    private CacheMode cacheMode = CacheMode.URI;
+    private boolean cacheAdmissionEnabled;
+
+    /**
+     * How the results of matching URIs are cached
+     */
+    public enum CacheMode {
+        /**
+         * Caches the matches of each URI
+         */
+        URI,
+        /**
+         * In addition to the matches of each URI, caches the candidate mappings for each URI template so that URIs
+         * that only differ in the values of their variables, such as <code>/api/orders/83749234</code>, are
+         * matched against a small set of mappings. Requires the segment trie, which is built automatically.
+         */
+        TEMPLATE
+    }
 
 
-    private enum CustomListWeigher implements Weigher<List<UrlMappingInfo>> {
+    private enum CustomListWeigher implements Weigher<List<UrlMappingMatch>> {
         INSTANCE;
-        public int weightOf(List<UrlMappingInfo> values) {
+        public int weightOf(List<UrlMappingMatch> values) {
             return values.size() + 1;
         }
     }
 
     private List<UrlMapping> urlMappings = new ArrayList<>();
-    private UrlMapping[] mappings;
-    private UrlCreatorCache urlCreatorCache;
+    // the route table is replaced as a whole and never modified once published, so readers need no locking
+    private volatile RouteTable routeTable;
+    private boolean segmentTrieEnabled;
+    private volatile UrlMappingsStatistics statistics;
     // capacity of the UrlCreatoreCache is the estimated number of char's stored in cached objects
     private int urlCreatorMaxWeightedCacheCapacity = 160000;
     private final List excludePatterns;
-    private final Map<UrlMappingKey, UrlMapping> mappingsLookup = new HashMap<>();
-    private final Map<String, UrlMapping> namedMappings = new HashMap<>();
-    private final UrlMappingsList mappingsListLookup = new UrlMappingsList();
     private final Set<String> DEFAULT_NAMESPACE_PARAMS = CollectionUtils.newSet(
             UrlMapping.NAMESPACE, UrlMapping.CONTROLLER, UrlMapping.ACTION);
     private final Set<String> DEFAULT_CONTROLLER_PARAMS = CollectionUtils.newSet(
           UrlMapping.CONTROLLER, UrlMapping.ACTION);
     private final Set<String> DEFAULT_ACTION_PARAMS = CollectionUtils.newSet(UrlMapping.ACTION);
-    private final PathMatcher pathMatcher = new AntPathMatcher();
 
     public DefaultUrlMappingsHolder(List<UrlMapping> mappings) {
         this(mappings, null, false);
@@ -121,82 +133,28 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
         UrlMappingEvaluator evaluator = new DefaultUrlMappingEvaluator(applicationContext);
 
         List<UrlMapping> newMappings = evaluator.evaluateMappings(mappings);
-        this.urlMappings.addAll(newMappings);
-        initialize();
+        synchronized (this) {
+            List<UrlMapping> allMappings = new ArrayList<UrlMapping>(this.urlMappings);
+            allMappings.addAll(newMappings);
+            this.urlMappings = allMappings;
+            initialize();
+        }
         return newMappings;
     }
 
-    public void initialize() {
-        sortMappings();
-
-        cachedMatches = new ConcurrentLinkedHashMap.Builder<String, UrlMappingInfo>()
-            .maximumWeightedCapacity(maxWeightedCacheCapacity)
-            .build();
-        cachedListMatches = new ConcurrentLinkedHashMap.Builder<UriToUrlMappingKey, List<UrlMappingInfo>>()
-            .maximumWeightedCapacity(maxWeightedCacheCapacity)
-            .weigher(CustomListWeigher.INSTANCE)
-            .build();
-        if (urlCreatorMaxWeightedCacheCapacity > 0) {
-            urlCreatorCache = new UrlCreatorCache(urlCreatorMaxWeightedCacheCapacity);
-        }
-
-        mappings = urlMappings.toArray(new UrlMapping[urlMappings.size()]);
-
-        for (UrlMapping mapping : mappings) {
-            String mappingName = mapping.getMappingName();
-            if (mappingName != null) {
-                namedMappings.put(mappingName, mapping);
-            }
-            String controllerName = mapping.getControllerName() instanceof String ? mapping.getControllerName().toString() : null;
-            String actionName = mapping.getActionName() instanceof String ? mapping.getActionName().toString() : null;
-            String pluginName = mapping.getPluginName() instanceof String ? mapping.getPluginName().toString() : null;
-            String httpMethod = mapping.getHttpMethod();
-            String version = mapping.getVersion();
-            String namespace = mapping.getNamespace() instanceof String ? mapping.getNamespace().toString() : null;
-
-            ConstrainedProperty[] params = mapping.getConstraints();
-            Set<String> requiredParams = new HashSet<String>();
-            int optionalIndex = -1;
-            for (int j = 0; j < params.length; j++) {
-                ConstrainedProperty param = params[j];
-                if (!param.isNullable()) {
-                    requiredParams.add(param.getPropertyName());
-                }
-                else {
-                    optionalIndex = j;
-                    break;
-                }
-            }
-            UrlMappingKey key = new UrlMappingKey(controllerName, actionName, namespace, pluginName,httpMethod, version,requiredParams);
-            mappingsLookup.put(key, mapping);
-
-            UrlMappingsListKey listKey = new UrlMappingsListKey(controllerName, actionName, namespace, pluginName,httpMethod, version);
-            mappingsListLookup.put(listKey, key);
-
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Reverse mapping: " + key + " -> " + mapping);
-            }
-            Set<String> requiredParamsAndOptionals = new HashSet<String>(requiredParams);
-            if (optionalIndex > -1) {
-                for (int j = optionalIndex; j < params.length; j++) {
-                    ConstrainedProperty param = params[j];
-                    requiredParamsAndOptionals.add(param.getPropertyName());
-                    key = new UrlMappingKey(controllerName, actionName, namespace, pluginName,httpMethod, version,new HashSet<String>(requiredParamsAndOptionals));
-                    mappingsLookup.put(key, mapping);
-
-                    listKey = new UrlMappingsListKey(controllerName, actionName, namespace, pluginName,httpMethod, version);
-                    mappingsListLookup.put(listKey, key);
-
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Reverse mapping: " + key + " -> " + mapping);
-                    }
-                }
-            }
-        }
+    /**
+     * Builds the route table from the current mappings and publishes it. Requests that are being matched carry on with
+     * the previous route table and only see the new one once it has been completely built.
+     */
+    public synchronized void initialize() {
+        List<UrlMapping> sortedMappings = new ArrayList<UrlMapping>(urlMappings);
+        sortMappings(sortedMappings);
+        urlMappings = sortedMappings;
+        routeTable = new RouteTable(sortedMappings.toArray(new UrlMapping[sortedMappings.size()]));
     }
 
     @SuppressWarnings("unchecked")
-    private void sortMappings() {
+    private static void sortMappings(List<UrlMapping> urlMappings) {
         List<ResponseCodeUrlMapping> responseCodeUrlMappings = new ArrayList<ResponseCodeUrlMapping>();
         Iterator<UrlMapping> iter = urlMappings.iterator();
         while (iter.hasNext()) {
@@ -213,7 +171,8 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
     }
 
     public UrlMapping[] getUrlMappings() {
-        return mappings;
+        RouteTable table = routeTable;
+        return table != null ? table.mappings : null;
     }
 
     public List getExcludePatterns() {
@@ -238,11 +197,13 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
     public UrlCreator getReverseMapping(String controller, String action, String namespace, String pluginName, String httpMethod, String version, Map params) {
         if (params == null) params = Collections.emptyMap();
 
+        RouteTable table = routeTable;
+        UrlCreatorCache urlCreatorCache = table.urlCreatorCache;
         if (urlCreatorCache != null) {
             UrlCreatorCache.ReverseMappingKey key=urlCreatorCache.createKey(controller, action, namespace, pluginName, httpMethod,params);
             UrlCreator creator=urlCreatorCache.lookup(key);
             if (creator==null) {
-                creator=resolveUrlCreator(controller, action, namespace, pluginName,httpMethod,version, params, true);
+                creator=resolveUrlCreator(table, controller, action, namespace, pluginName,httpMethod,version, params, true);
                 creator=urlCreatorCache.putAndDecorate(key, creator);
             }
             // preserve previous side-effect, remove mappingName from params
@@ -250,7 +211,7 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
             return creator;
         }
         // cache is disabled
-        return resolveUrlCreator(controller, action, namespace, pluginName, httpMethod,version, params, true);
+        return resolveUrlCreator(table, controller, action, namespace, pluginName, httpMethod,version, params, true);
     }
 
     /**
@@ -273,11 +234,13 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
     public UrlCreator getReverseMappingNoDefault(String controller, String action, String namespace, String pluginName, String httpMethod, String version, Map params) {
         if (params == null) params = Collections.emptyMap();
 
+        RouteTable table = routeTable;
+        UrlCreatorCache urlCreatorCache = table.urlCreatorCache;
         if (urlCreatorCache != null) {
             UrlCreatorCache.ReverseMappingKey key=urlCreatorCache.createKey(controller, action, namespace, pluginName, httpMethod, params);
             UrlCreator creator=urlCreatorCache.lookup(key);
             if (creator==null) {
-                creator=resolveUrlCreator(controller, action, namespace, pluginName, httpMethod,version, params, false);
+                creator=resolveUrlCreator(table, controller, action, namespace, pluginName, httpMethod,version, params, false);
                 if (creator != null) {
                     creator = urlCreatorCache.putAndDecorate(key, creator);
                 }
@@ -287,11 +250,12 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
             return creator;
         }
         // cache is disabled
-        return resolveUrlCreator(controller, action, namespace, pluginName, httpMethod,version, params, true);
+        return resolveUrlCreator(table, controller, action, namespace, pluginName, httpMethod,version, params, true);
     }
 
     @SuppressWarnings("unchecked")
-    private UrlCreator resolveUrlCreator(final String controller,
+    private UrlCreator resolveUrlCreator(RouteTable table,
+                                         final String controller,
                                          final String action,
                                          final String namespace,
                                          final String pluginName,
@@ -300,15 +264,16 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
                                          Map params,
                                          boolean useDefault) {
         UrlMapping mapping = null;
+        Map<UrlMappingKey, UrlMapping> mappingsLookup = table.mappingsLookup;
 
         if (httpMethod == null) {
             httpMethod = UrlMapping.ANY_HTTP_METHOD;
         }
-        mapping = namedMappings.get(params.remove("mappingName"));
+        mapping = table.namedMappings.get(params.remove("mappingName"));
         if (mapping == null) {
-            mapping = lookupMapping(controller, action, namespace, pluginName,httpMethod, version, params);
+            mapping = lookupMapping(table, controller, action, namespace, pluginName,httpMethod, version, params);
             if (mapping == null) {
-                lookupMapping(controller, action, namespace, pluginName, UrlMapping.ANY_HTTP_METHOD, version, params);
+                lookupMapping(table, controller, action, namespace, pluginName, UrlMapping.ANY_HTTP_METHOD, version, params);
             }
         }
         if (mapping == null || (mapping instanceof ResponseCodeUrlMapping)) {
@@ -409,6 +374,11 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
      */
     @SuppressWarnings("unchecked")
     protected UrlMapping lookupMapping(String controller, String action, String namespace, String pluginName, String httpMethod, String version, Map params) {
+        return lookupMapping(routeTable, controller, action, namespace, pluginName, httpMethod, version, params);
+    }
+
+    private UrlMapping lookupMapping(RouteTable table, String controller, String action, String namespace, String pluginName, String httpMethod, String version, Map params) {
+        UrlMappingsList mappingsListLookup = table.mappingsListLookup;
         final UrlMappingsListKey lookupKey = new UrlMappingsListKey(controller, action, namespace, pluginName, httpMethod, version);
         Collection mappingKeysSet = mappingsListLookup.get(lookupKey);
 
@@ -437,7 +407,7 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
         for (int i = mappingKeys.length; i > 0; i--) {
             UrlMappingKey mappingKey = mappingKeys[i - 1];
             if (lookupParams.containsAll(mappingKey.paramNames)) {
-                final UrlMapping mapping = mappingsLookup.get(mappingKey);
+                final UrlMapping mapping = table.mappingsLookup.get(mappingKey);
                 if (canInferAction(actionName, secondAttempt, isIndexAction, mapping)) {
                     return mapping;
                 }
@@ -457,23 +427,47 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
      * @see grails.web.mapping.UrlMappingsHolder#match(String)
      */
     public UrlMappingInfo match(String uri) {
-        UrlMappingInfo info = null;
-        if (cachedMatches.containsKey(uri)) {
-            return cachedMatches.get(uri);
+        UrlMappingsStatistics statistics = this.statistics;
+        long start = statistics != null ? System.nanoTime() : 0L;
+        RouteTable table = routeTable;
+        UrlMappingsMatchCache<String, UrlMappingMatch> cachedMatches = table.cachedMatches;
+        UrlMappingMatch cachedMatch = cachedMatches.get(uri);
+        if (cachedMatch != null) {
+            if (statistics != null) {
+                statistics.recordCachedMatch(cachedMatch.mapping);
+                statistics.recordMatch(System.nanoTime() - start, 0, true);
+            }
+            return cachedMatch.info;
         }
 
-        for (UrlMapping mapping : mappings) {
+        UrlMappingInfo info = null;
+        int evaluations = 0;
+        for (UrlMapping mapping : table.getCandidateMappings(uri)) {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Attempting to match URI [" + uri + "] with pattern [" + mapping.getUrlData().getUrlPattern() + "]");
             }
 
-            info = mapping.match(uri);
+            evaluations++;
+            info = evaluate(mapping, uri, statistics);
             if (info != null) {
-                cachedMatches.put(uri, info);
+                cachedMatches.put(uri, new UrlMappingMatch(mapping, info));
                 break;
             }
         }
 
+        if (statistics != null) {
+            statistics.recordMatch(System.nanoTime() - start, evaluations, false);
+        }
+        return info;
+    }
+
+    private UrlMappingInfo evaluate(UrlMapping mapping, String uri, UrlMappingsStatistics statistics) {
+        if (statistics == null) {
+            return mapping.match(uri);
+        }
+        long start = System.nanoTime();
+        UrlMappingInfo info = mapping.match(uri);
+        statistics.recordEvaluation(mapping, System.nanoTime() - start, info != null);
         return info;
     }
 
@@ -482,21 +476,32 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
     }
 
     public UrlMappingInfo[] matchAll(String uri, String httpMethod) {
-        if (isExcluded(uri)) return EMPTY_RESULTS;
-
+        UrlMappingsStatistics statistics = this.statistics;
+        long start = statistics != null ? System.nanoTime() : 0L;
+        RouteTable table = routeTable;
+        UrlMappingsMatchCache<UriToUrlMappingKey, List<UrlMappingMatch>> cachedListMatches = table.cachedListMatches;
         boolean anyHttpMethod = httpMethod != null && httpMethod.equalsIgnoreCase(UrlMapping.ANY_HTTP_METHOD);
-        List<UrlMappingInfo> matchingUrls = new ArrayList<UrlMappingInfo>();
         UriToUrlMappingKey cacheKey = new UriToUrlMappingKey(uri, httpMethod, UrlMapping.ANY_VERSION);
-        if (cachedListMatches.containsKey(cacheKey)) {
-            matchingUrls = cachedListMatches.get(cacheKey);
-        }
-        else {
-            for (UrlMapping mapping : mappings) {
+        List<UrlMappingMatch> matchingUrls = cachedListMatches.get(cacheKey);
+        boolean cached = matchingUrls != null;
+        int evaluations = 0;
+        if (matchingUrls == null) {
+            matchingUrls = new ArrayList<UrlMappingMatch>();
+            if (table.excludePatternsMatcher.matches(uri)) {
+                // excluded URIs are cached with no matches so the patterns are only evaluated once per URI
+                cachedListMatches.put(cacheKey, matchingUrls);
+                if (statistics != null) {
+                    statistics.recordMatch(System.nanoTime() - start, 0, false);
+                }
+                return EMPTY_RESULTS;
+            }
+            for (UrlMapping mapping : table.getCandidateMappings(uri)) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Attempting to match URI [" + uri + "] with pattern [" + mapping.getUrlData().getUrlPattern() + "]");
                 }
 
-                UrlMappingInfo current = mapping.match(uri);
+                evaluations++;
+                UrlMappingInfo current = evaluate(mapping, uri, statistics);
                 if (current != null) {
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("Matched URI [" + uri + "] with pattern [" + mapping.getUrlData().getUrlPattern() + "], adding to posibilities");
@@ -504,43 +509,67 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
 
                     String mappingHttpMethod = current.getHttpMethod();
                     if (mappingHttpMethod == null || anyHttpMethod || mappingHttpMethod.equalsIgnoreCase(UrlMapping.ANY_HTTP_METHOD) || mappingHttpMethod.equalsIgnoreCase(httpMethod))
-                        matchingUrls.add(current);
+                        matchingUrls.add(new UrlMappingMatch(mapping, current));
                 }
             }
             cachedListMatches.put(cacheKey, matchingUrls);
         }
-        return matchingUrls.toArray(new UrlMappingInfo[matchingUrls.size()]);
+        return toUrlMappingInfos(matchingUrls, statistics, start, evaluations, cached);
     }
 
-    private boolean isExcluded(String uri) {
-        if(excludePatterns != null) {
-            for (Object excludePattern : excludePatterns) {
-                if(pathMatcher.match(excludePattern.toString(), uri)) {
-                    return true;
-                }
+    private UrlMappingInfo[] toUrlMappingInfos(List<UrlMappingMatch> matches, UrlMappingsStatistics statistics, long start, int evaluations, boolean cached) {
+        UrlMappingInfo[] infos = new UrlMappingInfo[matches.size()];
+        for (int i = 0; i < infos.length; i++) {
+            UrlMappingMatch match = matches.get(i);
+            if (cached && statistics != null) {
+                statistics.recordCachedMatch(match.mapping);
             }
+            infos[i] = match.info;
         }
-        return false;
+        if (statistics != null) {
+            statistics.recordMatch(System.nanoTime() - start, evaluations, cached);
+        }
+        return infos;
     }
 
-    public UrlMappingInfo[] matchAll(String uri, String httpMethod, String version) {
-        if (isExcluded(uri)) return EMPTY_RESULTS;
+    /**
+     * Obtains the mappings that could match the given URI in order of precedence. If the segment trie is enabled
+     * only the mappings whose static and wildcard tokens fit the segments of the URI are returned.
+     *
+     * @param uri The URI
+     * @return The candidate mappings
+     */
+    protected UrlMapping[] getCandidateMappings(String uri) {
+        return routeTable.getCandidateMappings(uri);
+    }
 
-        List<UrlMappingInfo> matchingUrls;
+    public UrlMappingInfo[] matchAll(String uri, String httpMethod, String version) {
+        UrlMappingsStatistics statistics = this.statistics;
+        long start = statistics != null ? System.nanoTime() : 0L;
+        RouteTable table = routeTable;
+        UrlMappingsMatchCache<UriToUrlMappingKey, List<UrlMappingMatch>> cachedListMatches = table.cachedListMatches;
         UriToUrlMappingKey cacheKey = new UriToUrlMappingKey(uri, httpMethod, version);
-        if (cachedListMatches.containsKey(cacheKey)) {
-            matchingUrls = cachedListMatches.get(cacheKey);
-        }
-        else {
-            matchingUrls = new ArrayList<UrlMappingInfo>();
+        List<UrlMappingMatch> matchingUrls = cachedListMatches.get(cacheKey);
+        boolean cached = matchingUrls != null;
+        int evaluations = 0;
+        if (matchingUrls == null) {
+            matchingUrls = new ArrayList<UrlMappingMatch>();
+            if (table.excludePatternsMatcher.matches(uri)) {
+                cachedListMatches.put(cacheKey, matchingUrls);
+                if (statistics != null) {
+                    statistics.recordMatch(System.nanoTime() - start, 0, false);
+                }
+                return EMPTY_RESULTS;
+            }
             boolean anyHttpMethod = httpMethod != null && httpMethod.equals(UrlMapping.ANY_HTTP_METHOD);
             boolean anyVersion = version != null && version.equals(UrlMapping.ANY_VERSION);
-            for (UrlMapping mapping : mappings) {
+            for (UrlMapping mapping : table.getCandidateMappings(uri)) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Attempting to match URI [" + uri + "] with pattern [" + mapping.getUrlData().getUrlPattern() + "]");
                 }
 
-                UrlMappingInfo current = mapping.match(uri);
+                evaluations++;
+                UrlMappingInfo current = evaluate(mapping, uri, statistics);
                 if (current != null) {
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("Matched URI [" + uri + "] with pattern [" + mapping.getUrlData().getUrlPattern() + "], adding to posibilities");
@@ -551,13 +580,13 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
                     boolean isValidHttpMethod = mappingHttpMethod == null || anyHttpMethod || mappingHttpMethod.equalsIgnoreCase(UrlMapping.ANY_HTTP_METHOD) || mappingHttpMethod.equalsIgnoreCase(httpMethod);
                     boolean isValidVersion = mappingVersion == null || anyVersion || mappingVersion.equals(UrlMapping.ANY_VERSION) || mappingVersion.equals(version);
                     if (isValidHttpMethod && isValidVersion) {
-                        matchingUrls.add(current);
+                        matchingUrls.add(new UrlMappingMatch(mapping, current));
                     }
                 }
             }
             cachedListMatches.put(cacheKey, matchingUrls);
         }
-        return matchingUrls.toArray(new UrlMappingInfo[matchingUrls.size()]);
+        return toUrlMappingInfos(matchingUrls, statistics, start, evaluations, cached);
     }
 
     @Override
@@ -571,50 +600,16 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
     }
 
     public UrlMappingInfo matchStatusCode(int responseCode) {
-        for (UrlMapping mapping : mappings) {
-            if (mapping instanceof ResponseCodeUrlMapping) {
-                ResponseCodeUrlMapping responseCodeUrlMapping = (ResponseCodeUrlMapping) mapping;
-                if (responseCodeUrlMapping.getExceptionType() != null) continue;
-                final UrlMappingInfo current = responseCodeUrlMapping.match(responseCode);
-                if (current != null) return current;
-            }
-        }
-
-        return null;
+        return routeTable.responseCodeMappingsIndex.matchStatusCode(responseCode);
     }
 
     @Override
     public Set<HttpMethod> allowedMethods(String uri) {
-        UrlMappingInfo[] urlMappingInfos = matchAll(uri, UrlMapping.ANY_HTTP_METHOD);
-        Set<HttpMethod> methods = new HashSet<HttpMethod>();
-
-        for (UrlMappingInfo urlMappingInfo : urlMappingInfos) {
-            if (urlMappingInfo.getHttpMethod() == null || urlMappingInfo.getHttpMethod().equals(UrlMapping.ANY_HTTP_METHOD)) {
-                methods.addAll(Arrays.asList(HttpMethod.values())); break;
-            }
-            else {
-                HttpMethod method = HttpMethod.valueOf(urlMappingInfo.getHttpMethod().toUpperCase());
-                methods.add(method);
-            }
-        }
-
-        return Collections.unmodifiableSet(methods);
+        return routeTable.resolveAllowedMethods(uri).getMethods();
     }
 
     public UrlMappingInfo matchStatusCode(int responseCode, Throwable e) {
-        for (UrlMapping mapping : mappings) {
-            if (mapping instanceof ResponseCodeUrlMapping) {
-                ResponseCodeUrlMapping responseCodeUrlMapping = (ResponseCodeUrlMapping) mapping;
-                final UrlMappingInfo current = responseCodeUrlMapping.match(responseCode);
-                if (current != null) {
-                    if (responseCodeUrlMapping.getExceptionType() != null &&
-                            responseCodeUrlMapping.getExceptionType().isInstance(e)) {
-                        return current;
-                    }
-                }
-            }
-        }
-        return null;
+        return routeTable.responseCodeMappingsIndex.matchStatusCode(responseCode, e);
     }
 
     @Override
@@ -623,13 +618,224 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
         PrintWriter pw = new PrintWriter(sw);
         pw.println("URL Mappings");
         pw.println("------------");
-        for (UrlMapping mapping : mappings) {
-            pw.println(mapping);
+        RouteTable table = routeTable;
+        if (table != null) {
+            for (UrlMapping mapping : table.mappings) {
+                pw.println(mapping);
+            }
         }
         pw.flush();
         return sw.toString();
     }
 
+    /**
+     * An immutable snapshot of everything needed to match URIs and create URLs. The lookups are only populated in the
+     * constructor, the caches are thread safe.
+     */
+    class RouteTable {
+        final UrlMapping[] mappings;
+        final UrlMappingsSegmentTrie segmentTrie;
+        final boolean candidatesFromSegmentTrie;
+        final ResponseCodeUrlMappingsIndex responseCodeMappingsIndex;
+        final AntPatternsMatcher excludePatternsMatcher;
+        final UrlMappingsMatchCache<String, UrlMappingMatch> cachedMatches;
+        final UrlMappingsMatchCache<UriToUrlMappingKey, List<UrlMappingMatch>> cachedListMatches;
+        final UrlMappingsMatchCache<String, UrlMapping[]> cachedTemplateCandidates;
+        final UrlMappingsMatchCache<String, TemplateAllowedMethods> cachedAllowedMethods;
+        final AllowedMethods[] allowedMethodsByMapping;
+        final UrlCreatorCache urlCreatorCache;
+        final Map<UrlMappingKey, UrlMapping> mappingsLookup = new HashMap<>();
+        final Map<String, UrlMapping> namedMappings = new HashMap<>();
+        final UrlMappingsList mappingsListLookup = new UrlMappingsList();
+
+        RouteTable(UrlMapping[] mappings) {
+            this.mappings = mappings;
+            cachedMatches = new UrlMappingsMatchCache<String, UrlMappingMatch>(maxWeightedCacheCapacity, cacheAdmissionEnabled);
+            cachedListMatches = new UrlMappingsMatchCache<UriToUrlMappingKey, List<UrlMappingMatch>>(
+                    maxWeightedCacheCapacity, CustomListWeigher.INSTANCE, cacheAdmissionEnabled);
+            cachedTemplateCandidates = cacheMode == CacheMode.TEMPLATE ?
+                    new UrlMappingsMatchCache<String, UrlMapping[]>(maxWeightedCacheCapacity, cacheAdmissionEnabled) : null;
+            cachedAllowedMethods = new UrlMappingsMatchCache<String, TemplateAllowedMethods>(maxWeightedCacheCapacity, cacheAdmissionEnabled);
+            urlCreatorCache = urlCreatorMaxWeightedCacheCapacity > 0 ? new UrlCreatorCache(urlCreatorMaxWeightedCacheCapacity) : null;
+
+            // the trie is always built because the allowed methods are resolved per URI template
+            segmentTrie = new UrlMappingsSegmentTrie(mappings);
+            candidatesFromSegmentTrie = segmentTrieEnabled || cacheMode == CacheMode.TEMPLATE;
+            allowedMethodsByMapping = new AllowedMethods[mappings.length];
+            responseCodeMappingsIndex = new ResponseCodeUrlMappingsIndex(mappings);
+            excludePatternsMatcher = new AntPatternsMatcher(excludePatterns);
+
+            for (int i = 0; i < mappings.length; i++) {
+                UrlMapping mapping = mappings[i];
+                allowedMethodsByMapping[i] = AllowedMethods.forMapping(mapping.getHttpMethod());
+                addReverseMapping(mapping);
+            }
+        }
+
+        private void addReverseMapping(UrlMapping mapping) {
+            String mappingName = mapping.getMappingName();
+            if (mappingName != null) {
+                namedMappings.put(mappingName, mapping);
+            }
+            String controllerName = mapping.getControllerName() instanceof String ? mapping.getControllerName().toString() : null;
+            String actionName = mapping.getActionName() instanceof String ? mapping.getActionName().toString() : null;
+            String pluginName = mapping.getPluginName() instanceof String ? mapping.getPluginName().toString() : null;
+            String httpMethod = mapping.getHttpMethod();
+            String version = mapping.getVersion();
+            String namespace = mapping.getNamespace() instanceof String ? mapping.getNamespace().toString() : null;
+
+            ConstrainedProperty[] params = mapping.getConstraints();
+            Set<String> requiredParams = new HashSet<String>();
+            int optionalIndex = -1;
+            for (int j = 0; j < params.length; j++) {
+                ConstrainedProperty param = params[j];
+                if (!param.isNullable()) {
+                    requiredParams.add(param.getPropertyName());
+                }
+                else {
+                    optionalIndex = j;
+                    break;
+                }
+            }
+            UrlMappingKey key = new UrlMappingKey(controllerName, actionName, namespace, pluginName,httpMethod, version,requiredParams);
+            mappingsLookup.put(key, mapping);
+
+            UrlMappingsListKey listKey = new UrlMappingsListKey(controllerName, actionName, namespace, pluginName,httpMethod, version);
+            mappingsListLookup.put(listKey, key);
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Reverse mapping: " + key + " -> " + mapping);
+            }
+            Set<String> requiredParamsAndOptionals = new HashSet<String>(requiredParams);
+            if (optionalIndex > -1) {
+                for (int j = optionalIndex; j < params.length; j++) {
+                    ConstrainedProperty param = params[j];
+                    requiredParamsAndOptionals.add(param.getPropertyName());
+                    key = new UrlMappingKey(controllerName, actionName, namespace, pluginName,httpMethod, version,new HashSet<String>(requiredParamsAndOptionals));
+                    mappingsLookup.put(key, mapping);
+
+                    listKey = new UrlMappingsListKey(controllerName, actionName, namespace, pluginName,httpMethod, version);
+                    mappingsListLookup.put(listKey, key);
+
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Reverse mapping: " + key + " -> " + mapping);
+                    }
+                }
+            }
+        }
+
+        UrlMapping[] getCandidateMappings(String uri) {
+            if (!candidatesFromSegmentTrie) {
+                return mappings;
+            }
+            if (cachedTemplateCandidates != null) {
+                String templateKey = segmentTrie.toTemplateKey(uri);
+                UrlMapping[] candidateMappings = cachedTemplateCandidates.get(templateKey);
+                if (candidateMappings == null) {
+                    candidateMappings = findCandidateMappings(templateKey);
+                    cachedTemplateCandidates.put(templateKey, candidateMappings);
+                }
+                return candidateMappings;
+            }
+            return findCandidateMappings(uri);
+        }
+
+        /**
+         * Resolves the methods allowed for the given URI. The methods of the mappings whose match only depends on the
+         * template of the URI are resolved once per template, only the remaining candidates are evaluated per URI and
+         * only if they could add a method that isn't allowed yet.
+         */
+        AllowedMethods resolveAllowedMethods(String uri) {
+            if (excludePatternsMatcher.matches(uri)) {
+                return AllowedMethods.NONE;
+            }
+            String templateKey = segmentTrie.toTemplateKey(uri);
+            TemplateAllowedMethods templateAllowedMethods = cachedAllowedMethods.get(templateKey);
+            if (templateAllowedMethods == null) {
+                templateAllowedMethods = createTemplateAllowedMethods(templateKey, uri);
+                cachedAllowedMethods.put(templateKey, templateAllowedMethods);
+            }
+
+            AllowedMethods allowedMethods = templateAllowedMethods.allowedMethods;
+            for (int index : templateAllowedMethods.uriDependentCandidates) {
+                AllowedMethods mappingMethods = allowedMethodsByMapping[index];
+                if (!allowedMethods.containsAll(mappingMethods) && mappings[index].match(uri) != null) {
+                    allowedMethods = allowedMethods.union(mappingMethods);
+                }
+            }
+            return allowedMethods;
+        }
+
+        private TemplateAllowedMethods createTemplateAllowedMethods(String templateKey, String uri) {
+            int[] candidates = segmentTrie.findCandidates(templateKey);
+            AllowedMethods allowedMethods = AllowedMethods.NONE;
+            int[] uriDependentCandidates = new int[candidates.length];
+            int uriDependentCount = 0;
+            for (int index : candidates) {
+                UrlMapping mapping = mappings[index];
+                if (!isDeterminedByTemplate(index)) {
+                    uriDependentCandidates[uriDependentCount++] = index;
+                }
+                else if (!allowedMethods.containsAll(allowedMethodsByMapping[index]) && mapping.match(uri) != null) {
+                    allowedMethods = allowedMethods.union(allowedMethodsByMapping[index]);
+                }
+            }
+            return new TemplateAllowedMethods(allowedMethods, Arrays.copyOf(uriDependentCandidates, uriDependentCount));
+        }
+
+        private boolean isDeterminedByTemplate(int index) {
+            if (!segmentTrie.isFullyIndexed(index)) {
+                return false;
+            }
+            // constraints other than nullable may reject the values of the variables
+            for (ConstrainedProperty constraint : mappings[index].getConstraints()) {
+                for (Constraint appliedConstraint : constraint.getAppliedConstraints()) {
+                    if (!ConstrainedProperty.NULLABLE_CONSTRAINT.equals(appliedConstraint.getName())) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private UrlMapping[] findCandidateMappings(String uri) {
+            int[] candidates = segmentTrie.findCandidates(uri);
+            UrlMapping[] candidateMappings = new UrlMapping[candidates.length];
+            for (int i = 0; i < candidates.length; i++) {
+                candidateMappings[i] = mappings[candidates[i]];
+            }
+            return candidateMappings;
+        }
+    }
+
+    /**
+     * The methods allowed by the mappings whose match only depends on the URI template and the candidates that have to
+     * be evaluated against each URI of the template
+     */
+    static final class TemplateAllowedMethods {
+        final AllowedMethods allowedMethods;
+        final int[] uriDependentCandidates;
+
+        TemplateAllowedMethods(AllowedMethods allowedMethods, int[] uriDependentCandidates) {
+            this.allowedMethods = allowedMethods;
+            this.uriDependentCandidates = uriDependentCandidates;
+        }
+    }
+
+    /**
+     * A cached match, which remembers the mapping that produced the info so that hits served from the caches can be
+     * counted against it
+     */
+    static final class UrlMappingMatch {
+        final UrlMapping mapping;
+        final UrlMappingInfo info;
+
+        UrlMappingMatch(UrlMapping mapping, UrlMappingInfo info) {
+            this.mapping = mapping;
+            this.info = info;
+        }
+    }
+
     class UriToUrlMappingKey {
         String uri;
         String httpMethod;
@@ -867,6 +1073,80 @@ public class DefaultUrlMappingsHolder implements UrlMappings {
         this.maxWeightedCacheCapacity = maxWeightedCacheCapacity;
     }
 
+    /**
+     * Whether to route URIs through a {@link UrlMappingsSegmentTrie} so that only candidate mappings are evaluated.
+     * Takes effect on the next call to {@link #initialize()}.
+     *
+     * @param segmentTrieEnabled True if the segment trie should be used
+     */
+    public void setSegmentTrieEnabled(boolean segmentTrieEnabled) {
+        this.segmentTrieEnabled = segmentTrieEnabled;
+    }
+
+    /**
+     * Sets how match results are cached. Takes effect on the next call to {@link #initialize()}.
+     *
+     * @param cacheMode The cache mode
+     */
+    public void setCacheMode(CacheMode cacheMode) {
+        this.cacheMode = cacheMode != null ? cacheMode : CacheMode.URI;
+    }
+
+    /**
+     * Whether a TinyLFU admission filter decides which URIs are cached once the caches are full. Takes effect on the
+     * next call to {@link #initialize()}.
+     *
+     * @param cacheAdmissionEnabled True if the admission filter should be used
+     */
+    public void setCacheAdmissionEnabled(boolean cacheAdmissionEnabled) {
+        this.cacheAdmissionEnabled = cacheAdmissionEnabled;
+    }
+
+    /**
+     * @return The statistics of the cache used by {@link #match(String)}
+     */
+    public UrlMappingsMatchCache.Statistics getMatchCacheStatistics() {
+        return routeTable.cachedMatches.getStatistics();
+    }
+
+    /**
+     * @return The statistics of the cache used by the matchAll methods
+     */
+    public UrlMappingsMatchCache.Statistics getMatchAllCacheStatistics() {
+        return routeTable.cachedListMatches.getStatistics();
+    }
+
+    /**
+     * @return The statistics of the URI template cache or null if the cache mode isn't {@link CacheMode#TEMPLATE}
+     */
+    public UrlMappingsMatchCache.Statistics getTemplateCacheStatistics() {
+        UrlMappingsMatchCache<String, UrlMapping[]> cachedTemplateCandidates = routeTable.cachedTemplateCandidates;
+        return cachedTemplateCandidates != null ? cachedTemplateCandidates.getStatistics() : null;
+    }
+
+    /**
+     * Whether to record per mapping hit counters, match times and the number of mappings evaluated per URI. Adds a
+     * call to {@link System#nanoTime()} per evaluated mapping, so it is disabled by default.
+     *
+     * @param instrumentationEnabled True if statistics should be recorded
+     */
+    public void setInstrumentationEnabled(boolean instrumentationEnabled) {
+        if (!instrumentationEnabled) {
+            statistics = null;
+        }
+        else if (statistics == null) {
+            statistics = new UrlMappingsStatistics();
+        }
+    }
+
+    /**
+     * @return The recorded statistics or null if instrumentation is disabled
+     * @see #setInstrumentationEnabled(boolean)
+     */
+    public UrlMappingsStatistics getStatistics() {
+        return statistics;
+    }
+
     public void setUrlCreatorMaxWeightedCacheCapacity(int urlCreatorMaxWeightedCacheCapacity) {
         this.urlCreatorMaxWeightedCacheCapacity = urlCreatorMaxWeightedCacheCapacity;
     }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 Ben Manes. All Rights Reserved.
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping;
+
+/**
+ * A probabilistic estimate of how often a key has been seen recently, used as the TinyLFU admission filter of
+ * {@link UrlMappingsMatchCache}.
+ *
+ * <p>This is a count-min sketch with four 4-bit counters per key packed into a <code>long[]</code>. Small caches still get
+ * a table of at least 1024 entries so that collisions don't inflate the estimates. Once the number of increments reaches
+ * ten times the table size all counters are halved so that the history ages out.</p>
+ *
+ * <p>The sketch is derived from <code>com.github.benmanes.caffeine.cache.FrequencySketch</code> of Caffeine
+ * (https://github.com/ben-manes/caffeine) by Ben Manes, licensed under the Apache License, Version 2.0.</p>
+ *
+ * <p>Updates are intentionally not synchronized. A lost increment under contention only makes the estimate slightly
+ * less accurate, which is acceptable for an admission heuristic.</p>
+ *
+ * @since 3.3
+ */
+class FrequencySketch {
+
+    private static final long[] SEED = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MINIMUM_TABLE_SIZE = 1 << 10;
+    private static final int MAXIMUM_TABLE_SIZE = 1 << 24;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(int maximumSize) {
+        int expected = Math.min(Math.max(maximumSize, MINIMUM_TABLE_SIZE), MAXIMUM_TABLE_SIZE);
+        int tableSize = Integer.highestOneBit(expected - 1) << 1;
+        table = new long[tableSize];
+        tableMask = tableSize - 1;
+        sampleSize = 10 * expected;
+    }
+
+    /**
+     * @param key The key
+     * @return The estimated number of occurrences of the key, up to a maximum of 15
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an occurrence of the given key
+     *
+     * @param key The key
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEED[i]) * SEED[i];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -27,7 +27,6 @@ import groovy.lang.Closure;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
-import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -80,6 +79,7 @@ public class RegexUrlMapping extends AbstractUrlMapping {
     private Pattern[] patterns;
     private Map<Integer, List<Pattern>> patternByTokenCount = new HashMap<Integer, List<Pattern>>();
     private UrlMappingData urlData;
+    private ReverseUrlToken[] reverseUrlTokens;
     private static final String DEFAULT_ENCODING = "UTF-8";
     private static final Logger LOG = LoggerFactory.getLogger(RegexUrlMapping.class);
     public static final Pattern DOUBLE_WILDCARD_PATTERN = Pattern.compile("\\(\\*\\*?\\)\\??");
@@ -153,6 +153,7 @@ public class RegexUrlMapping extends AbstractUrlMapping {
             this.patterns[i] = pattern;
 
         }
+        reverseUrlTokens = compileReverseUrlTokens(data);
 
         if (constraints != null) {
             String[] tokens = data.getTokens();
@@ -301,22 +302,16 @@ public class RegexUrlMapping extends AbstractUrlMapping {
             }
         }
         if (paramValues == null) paramValues = Collections.emptyMap();
-        StringBuilder uri = new StringBuilder(contextPath);
+        StringBuilder uri = new StringBuilder(contextPath.length() + urlData.getUrlPattern().length() + 32);
+        uri.append(contextPath);
         Set usedParams = new HashSet();
 
-
-        String[] tokens = urlData.getTokens();
         int paramIndex = 0;
-        for (int i = 0; i < tokens.length; i++) {
-            String token = tokens[i];
-            if (i == tokens.length - 1 && urlData.hasOptionalExtension()) {
-                token += OPTIONAL_EXTENSION_WILDCARD;
-            }
-            Matcher m = OPTIONAL_EXTENSION_WILDCARD_PATTERN.matcher(token);
-            if (m.find()) {
-
+        for (ReverseUrlToken token : reverseUrlTokens) {
+            if (token.optionalExtension) {
+                String tokenValue = token.text;
                 boolean tokenSet = false;
-                if (token.startsWith(CAPTURED_WILDCARD)) {
+                if (token.literals != null) {
                     ConstrainedProperty prop = constraints[paramIndex++];
                     String propName = prop.getPropertyName();
 
@@ -324,11 +319,11 @@ public class RegexUrlMapping extends AbstractUrlMapping {
                     usedParams.add(propName);
 
                     if (value != null) {
-                        token = token.replaceFirst(DOUBLE_WILDCARD_PATTERN.pattern(), value.toString());
+                        tokenValue = token.literals[0] + value + token.literals[1];
                         tokenSet = true;
                     }
                     else {
-                        token = token.replaceFirst(DOUBLE_WILDCARD_PATTERN.pattern(), "");
+                        tokenValue = token.literals[0] + token.literals[1];
                     }
                 }
                 else {
@@ -344,70 +339,64 @@ public class RegexUrlMapping extends AbstractUrlMapping {
                 usedParams.add(propName);
                 if (value != null) {
                     String ext = "." + value;
-                    uri.append(token.replace(OPTIONAL_EXTENSION_WILDCARD+'?', ext).replace(OPTIONAL_EXTENSION_WILDCARD, ext));
+                    uri.append(tokenValue.replace(OPTIONAL_EXTENSION_WILDCARD+'?', ext).replace(OPTIONAL_EXTENSION_WILDCARD, ext));
                 }
                 else {
-                    uri.append(token.replace(OPTIONAL_EXTENSION_WILDCARD+'?', "").replace(OPTIONAL_EXTENSION_WILDCARD, ""));
+                    uri.append(tokenValue.replace(OPTIONAL_EXTENSION_WILDCARD+'?', "").replace(OPTIONAL_EXTENSION_WILDCARD, ""));
                 }
 
                 continue;
             }
-            if (token.endsWith("?")) {
-                token = token.substring(0,token.length()-1);
+            if (token.literals == null) {
+                // static token, the leading slash is part of the precompiled text
+                uri.append(token.text);
+                continue;
             }
-            m = DOUBLE_WILDCARD_PATTERN.matcher(token);
-            if (m.find()) {
-                StringBuffer buf = new StringBuffer();
-                do {
-                    ConstrainedProperty prop = constraints[paramIndex++];
-                    String propName = prop.getPropertyName();
-                    Object value = paramValues.get(propName);
-                    usedParams.add(propName);
-                    if (value == null && !prop.isNullable()) {
-                        throw new UrlMappingException("Unable to create URL for mapping [" + this +
-                                "] and parameters [" + paramValues + "]. Parameter [" +
-                                prop.getPropertyName() + "] is required, but was not specified!");
-                    }
-                    else if (value == null) {
-                        m.appendReplacement(buf, "");
-                    }
-                    else {
-                        m.appendReplacement(buf, Matcher.quoteReplacement(value.toString()));
-                    }
-                }
-                while (m.find());
 
-                m.appendTail(buf);
+            String[] literals = token.literals;
+            StringBuilder buf = new StringBuilder();
+            for (int slot = 0; slot < literals.length - 1; slot++) {
+                buf.append(literals[slot]);
+                ConstrainedProperty prop = constraints[paramIndex++];
+                String propName = prop.getPropertyName();
+                Object value = paramValues.get(propName);
+                usedParams.add(propName);
+                if (value == null && !prop.isNullable()) {
+                    throw new UrlMappingException("Unable to create URL for mapping [" + this +
+                            "] and parameters [" + paramValues + "]. Parameter [" +
+                            prop.getPropertyName() + "] is required, but was not specified!");
+                }
+                else if (value != null) {
+                    buf.append(value.toString());
+                }
+            }
+            buf.append(literals[literals.length - 1]);
 
-                try {
-                    String v = buf.toString();
-                    if (v.indexOf(SLASH) > -1 && CAPTURED_DOUBLE_WILDCARD.equals(token)) {
-                        // individually URL encode path segments
-                        if (v.startsWith(SLASH)) {
-                            // get rid of leading slash
-                            v = v.substring(SLASH.length());
-                        }
-                        String[] segs = v.split(SLASH);
-                        for (String segment : segs) {
-                            uri.append(SLASH).append(encode(segment, encoding));
-                        }
+            try {
+                String v = buf.toString();
+                if (v.indexOf(SLASH) > -1 && token.capturedDoubleWildcard) {
+                    // individually URL encode path segments
+                    if (v.startsWith(SLASH)) {
+                        // get rid of leading slash
+                        v = v.substring(SLASH.length());
                     }
-                    else if (v.length() > 0) {
-                        // original behavior
-                        uri.append(SLASH).append(encode(v, encoding));
-                    }
-                    else {
-                        // Stop processing tokens once we hit an empty one.
-                        break;
+                    String[] segs = v.split(SLASH);
+                    for (String segment : segs) {
+                        uri.append(SLASH).append(encode(segment, encoding));
                     }
                 }
-                catch (UnsupportedEncodingException e) {
-                    throw new ControllerExecutionException("Error creating URL for parameters [" +
-                            paramValues + "], problem encoding URL part [" + buf + "]: " + e.getMessage(), e);
+                else if (v.length() > 0) {
+                    // original behavior
+                    uri.append(SLASH).append(encode(v, encoding));
+                }
+                else {
+                    // Stop processing tokens once we hit an empty one.
+                    break;
                 }
             }
-            else {
-                uri.append(SLASH).append(token);
+            catch (UnsupportedEncodingException e) {
+                throw new ControllerExecutionException("Error creating URL for parameters [" +
+                        paramValues + "], problem encoding URL part [" + buf + "]: " + e.getMessage(), e);
             }
         }
         populateParameterList(paramValues, encoding, uri, usedParams);
@@ -419,7 +408,72 @@ public class RegexUrlMapping extends AbstractUrlMapping {
     }
 
     protected String encode(String s, String encoding) throws UnsupportedEncodingException {
-        return URLEncoder.encode(s, encoding).replaceAll("\\+", "%20");
+        return UrlPercentEncoder.encodePathSegment(s, encoding);
+    }
+
+    /**
+     * Compiles the tokens of the URL pattern into the constant text and the variable slots used for reverse mapping, so
+     * that the tokens aren't parsed again for every URL that is created.
+     *
+     * @param data The URL mapping data
+     * @return The compiled tokens
+     */
+    private static ReverseUrlToken[] compileReverseUrlTokens(UrlMappingData data) {
+        String[] tokens = data.getTokens();
+        ReverseUrlToken[] compiled = new ReverseUrlToken[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (i == tokens.length - 1 && data.hasOptionalExtension()) {
+                token += OPTIONAL_EXTENSION_WILDCARD;
+            }
+            if (OPTIONAL_EXTENSION_WILDCARD_PATTERN.matcher(token).find()) {
+                String[] literals = null;
+                if (token.startsWith(CAPTURED_WILDCARD)) {
+                    Matcher m = DOUBLE_WILDCARD_PATTERN.matcher(token);
+                    m.find();
+                    literals = new String[] { token.substring(0, m.start()), token.substring(m.end()) };
+                }
+                compiled[i] = new ReverseUrlToken(token, literals, true, false);
+                continue;
+            }
+            if (token.endsWith("?")) {
+                token = token.substring(0,token.length()-1);
+            }
+            Matcher m = DOUBLE_WILDCARD_PATTERN.matcher(token);
+            List<String> literals = new ArrayList<String>();
+            int literalStart = 0;
+            while (m.find()) {
+                literals.add(token.substring(literalStart, m.start()));
+                literalStart = m.end();
+            }
+            if (literals.isEmpty()) {
+                compiled[i] = new ReverseUrlToken(SLASH + token, null, false, false);
+            }
+            else {
+                literals.add(token.substring(literalStart));
+                compiled[i] = new ReverseUrlToken(token, literals.toArray(new String[literals.size()]), false,
+                        CAPTURED_DOUBLE_WILDCARD.equals(token));
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * A token of the URL pattern compiled for reverse mapping. Static tokens hold their text including the leading
+     * slash, tokens with variables hold the literal text around each variable slot.
+     */
+    private static final class ReverseUrlToken {
+        final String text;
+        final String[] literals;
+        final boolean optionalExtension;
+        final boolean capturedDoubleWildcard;
+
+        ReverseUrlToken(String text, String[] literals, boolean optionalExtension, boolean capturedDoubleWildcard) {
+            this.text = text;
+            this.literals = literals;
+            this.optionalExtension = optionalExtension;
+            this.capturedDoubleWildcard = capturedDoubleWildcard;
+        }
     }
 
     public String createURL(Map paramValues, String encoding, String fragment) {
@@ -519,7 +573,7 @@ public class RegexUrlMapping extends AbstractUrlMapping {
             }
 
             try {
-                return url + '#' + URLEncoder.encode(fragment, encoding);
+                return url + '#' + UrlPercentEncoder.encode(fragment, encoding);
             }
             catch (UnsupportedEncodingException ex) {
                 throw new ControllerExecutionException("Error creating URL  [" + url +
@@ -583,8 +637,9 @@ public class RegexUrlMapping extends AbstractUrlMapping {
 
     private void appendValueToURI(String encoding, StringBuilder uri, String name, Object value) {
         try {
-            uri.append(URLEncoder.encode(name, encoding)).append('=')
-                    .append(URLEncoder.encode(value != null ? value.toString() : "", encoding));
+            UrlPercentEncoder.appendEncoded(uri, name, encoding);
+            uri.append('=');
+            UrlPercentEncoder.appendEncoded(uri, value != null ? value.toString() : "", encoding);
         }
         catch (UnsupportedEncodingException e) {
             throw new ControllerExecutionException("Error redirecting request for url [" + name + ":" +
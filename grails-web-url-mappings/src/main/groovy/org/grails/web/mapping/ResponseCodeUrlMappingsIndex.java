@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping;
+
+import grails.web.mapping.UrlMapping;
+import grails.web.mapping.UrlMappingInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An index of the {@link ResponseCodeUrlMapping} instances of a {@link DefaultUrlMappingsHolder} by response code, so
+ * that error responses don't have to scan all mappings.
+ *
+ * <p>For mappings with an exception type the mapping that applies to a given exception class is resolved once per
+ * response code and exception class and then cached.</p>
+ *
+ * @since 3.3
+ */
+class ResponseCodeUrlMappingsIndex {
+
+    private static final Object NO_MAPPING = new Object();
+
+    private final Map<Integer, ResponseCodeUrlMapping> statusCodeMappings = new HashMap<Integer, ResponseCodeUrlMapping>();
+    private final Map<Integer, ExceptionMappings> exceptionMappings = new HashMap<Integer, ExceptionMappings>();
+
+    ResponseCodeUrlMappingsIndex(UrlMapping[] mappings) {
+        Map<Integer, List<ResponseCodeUrlMapping>> exceptionMappingLists = new HashMap<Integer, List<ResponseCodeUrlMapping>>();
+        for (UrlMapping mapping : mappings) {
+            if (!(mapping instanceof ResponseCodeUrlMapping)) continue;
+
+            ResponseCodeUrlMapping responseCodeUrlMapping = (ResponseCodeUrlMapping) mapping;
+            Integer responseCode = ((ResponseCodeMappingData) responseCodeUrlMapping.getUrlData()).getResponseCode();
+            if (responseCodeUrlMapping.getExceptionType() == null) {
+                // the first mapping wins, as with a scan of the mappings
+                if (!statusCodeMappings.containsKey(responseCode)) {
+                    statusCodeMappings.put(responseCode, responseCodeUrlMapping);
+                }
+            }
+            else {
+                List<ResponseCodeUrlMapping> list = exceptionMappingLists.get(responseCode);
+                if (list == null) {
+                    list = new ArrayList<ResponseCodeUrlMapping>();
+                    exceptionMappingLists.put(responseCode, list);
+                }
+                list.add(responseCodeUrlMapping);
+            }
+        }
+        for (Map.Entry<Integer, List<ResponseCodeUrlMapping>> entry : exceptionMappingLists.entrySet()) {
+            List<ResponseCodeUrlMapping> list = entry.getValue();
+            exceptionMappings.put(entry.getKey(), new ExceptionMappings(list.toArray(new ResponseCodeUrlMapping[list.size()])));
+        }
+    }
+
+    /**
+     * @param responseCode The response code
+     * @return The info of the first mapping without an exception type for the response code or null
+     */
+    UrlMappingInfo matchStatusCode(int responseCode) {
+        ResponseCodeUrlMapping mapping = statusCodeMappings.get(responseCode);
+        return mapping != null ? mapping.match(responseCode) : null;
+    }
+
+    /**
+     * @param responseCode The response code
+     * @param e The exception
+     * @return The info of the first mapping for the response code whose exception type the exception is an instance of or null
+     */
+    UrlMappingInfo matchStatusCode(int responseCode, Throwable e) {
+        if (e == null) return null;
+        ExceptionMappings candidates = exceptionMappings.get(responseCode);
+        if (candidates == null) return null;
+        ResponseCodeUrlMapping mapping = candidates.resolve(e.getClass());
+        return mapping != null ? mapping.match(responseCode) : null;
+    }
+
+    /**
+     * The mappings with an exception type for a response code together with a cache of the mapping resolved for
+     * each exception class. Classes without a mapping are cached with a marker.
+     */
+    private static class ExceptionMappings {
+        private final ResponseCodeUrlMapping[] mappings;
+        private final ConcurrentMap<Class<?>, Object> resolved = new ConcurrentHashMap<Class<?>, Object>();
+
+        ExceptionMappings(ResponseCodeUrlMapping[] mappings) {
+            this.mappings = mappings;
+        }
+
+        ResponseCodeUrlMapping resolve(Class<?> exceptionClass) {
+            Object result = resolved.get(exceptionClass);
+            if (result == null) {
+                result = NO_MAPPING;
+                for (ResponseCodeUrlMapping mapping : mappings) {
+                    if (mapping.getExceptionType().isAssignableFrom(exceptionClass)) {
+                        result = mapping;
+                        break;
+                    }
+                }
+                resolved.putIfAbsent(exceptionClass, result);
+            }
+            return result == NO_MAPPING ? null : (ResponseCodeUrlMapping) result;
+        }
+    }
+}
@@ -54,6 +54,10 @@ import java.util.List;
 public class UrlMappingsHolderFactoryBean implements FactoryBean<UrlMappings>, InitializingBean, ApplicationContextAware, GrailsApplicationAware, PluginManagerAware {
     private static final String URL_MAPPING_CACHE_MAX_SIZE = "grails.urlmapping.cache.maxsize";
     private static final String URL_CREATOR_CACHE_MAX_SIZE = "grails.urlcreator.cache.maxsize";
+    private static final String URL_MAPPING_SEGMENT_TRIE = "grails.urlmapping.trie.enabled";
+    private static final String URL_MAPPING_CACHE_MODE = "grails.urlmapping.cache.mode";
+    private static final String URL_MAPPING_CACHE_ADMISSION = "grails.urlmapping.cache.admission";
+    private static final String URL_MAPPING_INSTRUMENTATION = "grails.urlmapping.instrumentation.enabled";
     private GrailsApplication grailsApplication;
     private UrlMappings urlMappingsHolder;
     private GrailsPluginManager pluginManager;
@@ -114,6 +118,13 @@ public class UrlMappingsHolderFactoryBean implements FactoryBean<UrlMappings>, I
         if (urlCreatorCacheSize != null) {
             defaultUrlMappingsHolder.setUrlCreatorMaxWeightedCacheCapacity(urlCreatorCacheSize);
         }
+        defaultUrlMappingsHolder.setSegmentTrieEnabled(config.getProperty(URL_MAPPING_SEGMENT_TRIE, Boolean.class, false));
+        String cacheMode = config.getProperty(URL_MAPPING_CACHE_MODE, String.class, null);
+        if (cacheMode != null) {
+            defaultUrlMappingsHolder.setCacheMode(DefaultUrlMappingsHolder.CacheMode.valueOf(cacheMode.trim().toUpperCase()));
+        }
+        defaultUrlMappingsHolder.setCacheAdmissionEnabled(config.getProperty(URL_MAPPING_CACHE_ADMISSION, Boolean.class, false));
+        defaultUrlMappingsHolder.setInstrumentationEnabled(config.getProperty(URL_MAPPING_INSTRUMENTATION, Boolean.class, false));
         // call initialize() after settings are in place
         defaultUrlMappingsHolder.initialize();
         UrlConverter urlConverter = applicationContext.containsBean(UrlConverter.BEAN_NAME) ? applicationContext.getBean(UrlConverter.BEAN_NAME, UrlConverter.class) : null;
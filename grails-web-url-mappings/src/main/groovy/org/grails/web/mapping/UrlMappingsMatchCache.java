@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.googlecode.concurrentlinkedhashmap.EvictionListener;
+import com.googlecode.concurrentlinkedhashmap.Weigher;
+import com.googlecode.concurrentlinkedhashmap.Weighers;
+
+/**
+ * The cache of URL match results used by {@link DefaultUrlMappingsHolder}.
+ *
+ * <p>Entries are kept in a {@link ConcurrentLinkedHashMap} with LRU eviction. When admission is enabled a
+ * {@link FrequencySketch} records every lookup and, once the cache is full, a new entry is only stored if it has been
+ * requested more often than the entry that would be evicted for it (TinyLFU). This stops URIs that are requested only
+ * once, such as REST URIs containing identifiers, from evicting the frequently requested ones. Keys that have only been
+ * requested once are rejected without looking up the entry that would be evicted, which takes the eviction lock of the
+ * map, so that a stream of one-off URIs doesn't contend on it.</p>
+ *
+ * <p>Hit, miss, eviction and rejection counts are available from {@link #getStatistics()} and can be used to tune
+ * "grails.urlmapping.cache.maxsize".</p>
+ *
+ * @since 3.3
+ */
+public class UrlMappingsMatchCache<K, V> {
+
+    // the frequency a key needs before it is compared with the entry that would be evicted for it
+    private static final int MIN_ADMISSION_FREQUENCY = 2;
+
+    private final ConcurrentLinkedHashMap<K, V> cacheMap;
+    private final Weigher<? super V> weigher;
+    private final FrequencySketch sketch;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    public UrlMappingsMatchCache(int maxWeightedCapacity, boolean admissionEnabled) {
+        this(maxWeightedCapacity, Weighers.singleton(), admissionEnabled);
+    }
+
+    public UrlMappingsMatchCache(int maxWeightedCapacity, Weigher<? super V> weigher, boolean admissionEnabled) {
+        this.weigher = weigher;
+        cacheMap = new ConcurrentLinkedHashMap.Builder<K, V>()
+                .maximumWeightedCapacity(maxWeightedCapacity)
+                .weigher(weigher)
+                .listener(new EvictionListener<K, V>() {
+                    public void onEviction(K key, V value) {
+                        evictions.incrementAndGet();
+                    }
+                })
+                .build();
+        sketch = admissionEnabled ? new FrequencySketch(maxWeightedCapacity) : null;
+    }
+
+    /**
+     * Looks up a cached value
+     *
+     * @param key The key
+     * @return The value or null if it isn't cached
+     */
+    public V get(K key) {
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        V value = cacheMap.get(key);
+        if (value != null) {
+            hits.incrementAndGet();
+        }
+        else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value, subject to the admission filter if it is enabled
+     *
+     * @param key The key
+     * @param value The value
+     * @return True if the value was cached
+     */
+    public boolean put(K key, V value) {
+        if (sketch != null && cacheMap.weightedSize() + weigher.weightOf(value) > cacheMap.capacity()) {
+            int frequency = sketch.frequency(key);
+            if (frequency < MIN_ADMISSION_FREQUENCY) {
+                rejections.incrementAndGet();
+                return false;
+            }
+            Iterator<K> coldest = cacheMap.ascendingKeySetWithLimit(1).iterator();
+            if (coldest.hasNext() && frequency <= sketch.frequency(coldest.next())) {
+                rejections.incrementAndGet();
+                return false;
+            }
+        }
+        cacheMap.put(key, value);
+        return true;
+    }
+
+    public void clear() {
+        cacheMap.clear();
+    }
+
+    public boolean isAdmissionEnabled() {
+        return sketch != null;
+    }
+
+    /**
+     * @return A snapshot of the statistics of this cache
+     */
+    public Statistics getStatistics() {
+        return new Statistics(hits.get(), misses.get(), evictions.get(), rejections.get(),
+                cacheMap.size(), cacheMap.weightedSize(), cacheMap.capacity());
+    }
+
+    /**
+     * An immutable snapshot of the statistics of a {@link UrlMappingsMatchCache}
+     */
+    public static class Statistics {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long rejectionCount;
+        private final int size;
+        private final long weightedSize;
+        private final long capacity;
+
+        public Statistics(long hitCount, long missCount, long evictionCount, long rejectionCount, int size, long weightedSize, long capacity) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.rejectionCount = rejectionCount;
+            this.size = size;
+            this.weightedSize = weightedSize;
+            this.capacity = capacity;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * @return The number of entries evicted to make room for new ones
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * @return The number of entries the admission filter refused to cache
+         */
+        public long getRejectionCount() {
+            return rejectionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getWeightedSize() {
+            return weightedSize;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public double getHitRate() {
+            long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hitCount + ", misses=" + missCount + ", hitRate=" + String.format("%.4f", getHitRate()) +
+                    ", evictions=" + evictionCount + ", rejections=" + rejectionCount +
+                    ", size=" + size + ", weightedSize=" + weightedSize + "/" + capacity;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping;
+
+import grails.web.mapping.UrlMapping;
+import grails.web.mapping.UrlMappingData;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>A trie of URL path segments built from the tokens of the mappings held by a {@link DefaultUrlMappingsHolder}.</p>
+ *
+ * <p>Each {@link RegexUrlMapping} is inserted along the leading tokens of its pattern that are either static
+ * (resolved with a hash lookup) or a plain captured wildcard such as <code>/$id</code>. The first token that is
+ * optional, a double wildcard, a mix of static text and wildcards or subject to an optional extension ends the path and the
+ * mapping is stored on that node. Mappings that cannot be analysed are stored on the root node and are therefore
+ * candidates for every URI.</p>
+ *
+ * <p>The trie only narrows down the candidates, {@link UrlMapping#match(String)} still performs the regex and
+ * constraint evaluation. Candidates are returned as indices into the mappings array in ascending order so that the
+ * precedence of the mappings is unchanged.</p>
+ *
+ * @since 3.3
+ */
+public class UrlMappingsSegmentTrie {
+
+    private static final int[] NO_CANDIDATES = new int[0];
+    private static final String OPTIONAL_TOKEN_SUFFIX = String.valueOf(UrlMapping.QUESTION_MARK);
+    private static final char TEMPLATE_VARIABLE = '*';
+
+    private final Node root = new Node();
+    private final int[] allIndices;
+    private final Set<String> staticTokens = new HashSet<String>();
+    private final BitSet fullyIndexed = new BitSet();
+
+    public UrlMappingsSegmentTrie(UrlMapping[] mappings) {
+        allIndices = new int[mappings.length];
+        for (int i = 0; i < mappings.length; i++) {
+            allIndices[i] = i;
+            UrlMapping mapping = mappings[i];
+            // response code mappings never match a URI
+            if (!(mapping instanceof ResponseCodeUrlMapping)) {
+                insert(mapping, i);
+            }
+        }
+    }
+
+    private void insert(UrlMapping mapping, int index) {
+        Node node = root;
+        if (mapping instanceof RegexUrlMapping) {
+            UrlMappingData urlData = mapping.getUrlData();
+            String[] tokens = urlData.getTokens();
+            boolean hasOptionalExtension = urlData.hasOptionalExtension();
+            int i = 0;
+            for (; i < tokens.length; i++) {
+                String token = tokens[i].trim();
+                if (hasOptionalExtension && (i == tokens.length - 1 || tokens[i + 1].trim().endsWith(OPTIONAL_TOKEN_SUFFIX))) {
+                    // the optional extension may be appended to this token
+                    break;
+                }
+                if (UrlMapping.CAPTURED_WILDCARD.equals(token)) {
+                    if (node.wildcardChild == null) {
+                        node.wildcardChild = new Node();
+                    }
+                    node = node.wildcardChild;
+                }
+                else if (isStaticToken(token)) {
+                    Node child = node.staticChildren.get(token);
+                    if (child == null) {
+                        child = new Node();
+                        node.staticChildren.put(token, child);
+                        staticTokens.add(token);
+                    }
+                    node = child;
+                }
+                else {
+                    break;
+                }
+            }
+            if (i == tokens.length && !hasOptionalExtension) {
+                fullyIndexed.set(index);
+            }
+        }
+        node.add(index);
+    }
+
+    /**
+     * Whether every token of the mapping at the given index is a static token or a plain captured wildcard. Whether
+     * such a mapping matches the pattern of a URI only depends on the template of the URI, see
+     * {@link #toTemplateKey(String)}.
+     *
+     * @param index The index of the mapping
+     * @return True if the mapping was indexed with all of its tokens
+     */
+    public boolean isFullyIndexed(int index) {
+        return fullyIndexed.get(index);
+    }
+
+    /**
+     * Whether the given token only matches a path segment that is exactly equal to the token
+     *
+     * @param token The token
+     * @return True if it does
+     */
+    protected boolean isStaticToken(String token) {
+        if (token.length() == 0) return false;
+        for (int i = 0; i < token.length(); i++) {
+            switch (token.charAt(i)) {
+                case '*': case '(': case ')': case '?': case '[': case ']':
+                case '{': case '}': case '\\': case '^': case '$': case '|':
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the mappings that could match the given URI
+     *
+     * @param uri The URI
+     * @return The indices of the candidate mappings in ascending order
+     */
+    public int[] findCandidates(String uri) {
+        if (uri == null || !uri.startsWith(UrlMapping.SLASH)) {
+            // let the mappings decide, RegexUrlMapping patterns always start with a slash
+            return allIndices;
+        }
+        Candidates candidates = new Candidates();
+        collect(root, uri, 1, candidates);
+        return candidates.toSortedArray();
+    }
+
+    /**
+     * Converts the given URI into a template by replacing every non-empty segment that is not a static token of any
+     * mapping with a placeholder. Since such segments can only ever be matched by wildcards, the template has exactly the
+     * same candidates as the URI and URIs that only differ in the values of their variables share a template.
+     *
+     * @param uri The URI
+     * @return The template
+     */
+    public String toTemplateKey(String uri) {
+        if (uri == null || !uri.startsWith(UrlMapping.SLASH)) {
+            return uri;
+        }
+        StringBuilder template = new StringBuilder(uri.length());
+        int segmentStart = 1;
+        while (true) {
+            template.append('/');
+            int segmentEnd = uri.indexOf('/', segmentStart);
+            if (segmentEnd == -1) {
+                segmentEnd = uri.length();
+            }
+            if (segmentEnd > segmentStart) {
+                String segment = uri.substring(segmentStart, segmentEnd);
+                if (staticTokens.contains(segment)) {
+                    template.append(segment);
+                }
+                else {
+                    template.append(TEMPLATE_VARIABLE);
+                }
+            }
+            if (segmentEnd == uri.length()) {
+                break;
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return template.toString();
+    }
+
+    private void collect(Node node, String uri, int segmentStart, Candidates candidates) {
+        candidates.addAll(node);
+        if (segmentStart > uri.length()) {
+            return;
+        }
+
+        int segmentEnd = uri.indexOf('/', segmentStart);
+        if (segmentEnd == -1) {
+            segmentEnd = uri.length();
+        }
+        if (!node.staticChildren.isEmpty()) {
+            Node child = node.staticChildren.get(uri.substring(segmentStart, segmentEnd));
+            if (child != null) {
+                collect(child, uri, segmentEnd + 1, candidates);
+            }
+        }
+        if (node.wildcardChild != null && segmentEnd > segmentStart) {
+            collect(node.wildcardChild, uri, segmentEnd + 1, candidates);
+        }
+    }
+
+    private static class Node {
+        final Map<String, Node> staticChildren = new HashMap<String, Node>();
+        Node wildcardChild;
+        int[] indices = NO_CANDIDATES;
+
+        void add(int index) {
+            indices = Arrays.copyOf(indices, indices.length + 1);
+            indices[indices.length - 1] = index;
+        }
+    }
+
+    private static class Candidates {
+        int[] indices = new int[16];
+        int size;
+
+        void addAll(Node node) {
+            int[] nodeIndices = node.indices;
+            if (nodeIndices.length == 0) return;
+            if (size + nodeIndices.length > indices.length) {
+                indices = Arrays.copyOf(indices, Math.max(indices.length * 2, size + nodeIndices.length));
+            }
+            System.arraycopy(nodeIndices, 0, indices, size, nodeIndices.length);
+            size += nodeIndices.length;
+        }
+
+        int[] toSortedArray() {
+            if (size == 0) return NO_CANDIDATES;
+            int[] result = Arrays.copyOf(indices, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
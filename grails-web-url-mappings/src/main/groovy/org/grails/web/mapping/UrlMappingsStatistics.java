@@ -0,0 +1,296 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping;
+
+import grails.web.mapping.UrlMapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Statistics recorded by a {@link DefaultUrlMappingsHolder} when instrumentation is enabled.
+ *
+ * <p>For each mapping the number of times it matched, including the matches answered from the match caches, the number
+ * of times it was evaluated against a URI and the time spent evaluating it are recorded. The match counts therefore
+ * reflect the traffic served by each mapping, while URIs answered from the caches don't evaluate any mappings, so the
+ * evaluation counts reflect the work that the order of the mappings has an influence on. For every call to match a URI
+ * the time taken, whether it was answered from a cache and the number of mappings evaluated are recorded.</p>
+ *
+ * <p>All counters are updated without locking.</p>
+ *
+ * @since 3.3
+ */
+public class UrlMappingsStatistics {
+
+    /**
+     * The number of buckets of the match time histogram. Bucket 0 counts matches that took less than 1 microsecond,
+     * bucket n counts matches that took less than 2^n microseconds and the last bucket counts everything slower.
+     */
+    public static final int LATENCY_BUCKETS = 24;
+
+    private static final Comparator<MappingStatistics> BY_MATCHES = new Comparator<MappingStatistics>() {
+        @Override
+        public int compare(MappingStatistics o1, MappingStatistics o2) {
+            long m1 = o1.getMatchCount();
+            long m2 = o2.getMatchCount();
+            return m1 < m2 ? 1 : (m1 == m2 ? 0 : -1);
+        }
+    };
+
+    private final ConcurrentMap<UrlMapping, MappingStatistics> mappingStatistics = new ConcurrentHashMap<UrlMapping, MappingStatistics>();
+    private final AtomicLong matchCount = new AtomicLong();
+    private final AtomicLong cachedMatchCount = new AtomicLong();
+    private final AtomicLong evaluationCount = new AtomicLong();
+    private final AtomicLong maxEvaluationsPerMatch = new AtomicLong();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS);
+
+    /**
+     * Records the evaluation of a single mapping against a URI
+     *
+     * @param mapping The mapping
+     * @param nanos The time taken in nanoseconds
+     * @param matched Whether the mapping matched
+     */
+    void recordEvaluation(UrlMapping mapping, long nanos, boolean matched) {
+        MappingStatistics statistics = getOrCreateMappingStatistics(mapping);
+        statistics.evaluationCount.incrementAndGet();
+        statistics.evaluationNanos.addAndGet(nanos);
+        if (matched) {
+            statistics.matchCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records a match of a mapping that was answered from a cache without evaluating the mapping
+     *
+     * @param mapping The mapping that produced the cached match
+     */
+    void recordCachedMatch(UrlMapping mapping) {
+        getOrCreateMappingStatistics(mapping).matchCount.incrementAndGet();
+    }
+
+    private MappingStatistics getOrCreateMappingStatistics(UrlMapping mapping) {
+        MappingStatistics statistics = mappingStatistics.get(mapping);
+        if (statistics == null) {
+            statistics = new MappingStatistics(mapping);
+            MappingStatistics existing = mappingStatistics.putIfAbsent(mapping, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Records a call to match a URI
+     *
+     * @param nanos The time taken in nanoseconds
+     * @param evaluations The number of mappings evaluated
+     * @param cached Whether the result came from a cache
+     */
+    void recordMatch(long nanos, int evaluations, boolean cached) {
+        matchCount.incrementAndGet();
+        if (cached) {
+            cachedMatchCount.incrementAndGet();
+        }
+        else {
+            evaluationCount.addAndGet(evaluations);
+            long max = maxEvaluationsPerMatch.get();
+            while (evaluations > max && !maxEvaluationsPerMatch.compareAndSet(max, evaluations)) {
+                max = maxEvaluationsPerMatch.get();
+            }
+        }
+        latencyHistogram.incrementAndGet(bucketOf(nanos));
+    }
+
+    private static int bucketOf(long nanos) {
+        long micros = nanos / 1000;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return bucket < LATENCY_BUCKETS ? bucket : LATENCY_BUCKETS - 1;
+    }
+
+    /**
+     * @param bucket The bucket of the match time histogram
+     * @return The exclusive upper bound of the bucket in microseconds or -1 for the last bucket, which is unbounded
+     */
+    public static long getBucketUpperBoundMicros(int bucket) {
+        return bucket < LATENCY_BUCKETS - 1 ? 1L << bucket : -1;
+    }
+
+    /**
+     * @return The number of calls to match a URI
+     */
+    public long getMatchCount() {
+        return matchCount.get();
+    }
+
+    /**
+     * @return The number of calls to match a URI that were answered from a cache
+     */
+    public long getCachedMatchCount() {
+        return cachedMatchCount.get();
+    }
+
+    /**
+     * @return The number of mappings evaluated by all calls to match a URI
+     */
+    public long getEvaluationCount() {
+        return evaluationCount.get();
+    }
+
+    /**
+     * @return The largest number of mappings evaluated by a single call to match a URI
+     */
+    public long getMaxEvaluationsPerMatch() {
+        return maxEvaluationsPerMatch.get();
+    }
+
+    /**
+     * @return The average number of mappings evaluated by the calls to match a URI that weren't answered from a cache
+     */
+    public double getAverageEvaluationsPerMatch() {
+        long uncached = matchCount.get() - cachedMatchCount.get();
+        return uncached > 0 ? (double) evaluationCount.get() / uncached : 0d;
+    }
+
+    /**
+     * @return A copy of the match time histogram, see {@link #LATENCY_BUCKETS}
+     */
+    public long[] getLatencyHistogram() {
+        long[] histogram = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            histogram[i] = latencyHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    /**
+     * Estimates a percentile of the match time from the histogram
+     *
+     * @param percentile The percentile between 0 and 100
+     * @return The upper bound in microseconds of the bucket the percentile falls into, -1 if it falls into the last
+     * bucket and 0 if nothing has been recorded
+     */
+    public long getLatencyPercentileMicros(double percentile) {
+        long[] histogram = getLatencyHistogram();
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * percentile / 100d);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= threshold) {
+                return getBucketUpperBoundMicros(i);
+            }
+        }
+        return getBucketUpperBoundMicros(LATENCY_BUCKETS - 1);
+    }
+
+    /**
+     * @param mapping The mapping
+     * @return The statistics of the given mapping or null if it was never evaluated
+     */
+    public MappingStatistics getMappingStatistics(UrlMapping mapping) {
+        return mappingStatistics.get(mapping);
+    }
+
+    /**
+     * @param mappings The mappings
+     * @return The statistics of the given mappings, including mappings that were never evaluated, ordered by the
+     * number of times they matched
+     */
+    public List<MappingStatistics> getMappingStatistics(UrlMapping[] mappings) {
+        List<MappingStatistics> result = new ArrayList<MappingStatistics>(mappings.length);
+        for (UrlMapping mapping : mappings) {
+            MappingStatistics statistics = mappingStatistics.get(mapping);
+            result.add(statistics != null ? statistics : new MappingStatistics(mapping));
+        }
+        Collections.sort(result, BY_MATCHES);
+        return result;
+    }
+
+    /**
+     * Resets all counters
+     */
+    public void reset() {
+        mappingStatistics.clear();
+        matchCount.set(0);
+        cachedMatchCount.set(0);
+        evaluationCount.set(0);
+        maxEvaluationsPerMatch.set(0);
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            latencyHistogram.set(i, 0);
+        }
+    }
+
+    /**
+     * The counters of a single mapping
+     */
+    public static class MappingStatistics {
+        private final UrlMapping mapping;
+        private final AtomicLong evaluationCount = new AtomicLong();
+        private final AtomicLong matchCount = new AtomicLong();
+        private final AtomicLong evaluationNanos = new AtomicLong();
+
+        MappingStatistics(UrlMapping mapping) {
+            this.mapping = mapping;
+        }
+
+        public UrlMapping getMapping() {
+            return mapping;
+        }
+
+        /**
+         * @return The number of times the mapping was evaluated against a URI
+         */
+        public long getEvaluationCount() {
+            return evaluationCount.get();
+        }
+
+        /**
+         * @return The number of times the mapping matched a URI, including the matches answered from a cache
+         */
+        public long getMatchCount() {
+            return matchCount.get();
+        }
+
+        /**
+         * @return The total time spent evaluating the mapping in nanoseconds
+         */
+        public long getEvaluationNanos() {
+            return evaluationNanos.get();
+        }
+
+        /**
+         * @return The average time taken to evaluate the mapping in nanoseconds
+         */
+        public long getAverageEvaluationNanos() {
+            long evaluations = evaluationCount.get();
+            return evaluations > 0 ? evaluationNanos.get() / evaluations : 0;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+/**
+ * A table driven replacement for {@link URLEncoder} used when creating URLs from URL mappings.
+ *
+ * <p>The output is identical to {@link URLEncoder#encode(String, String)}. For UTF-8 the characters are encoded
+ * directly into the target {@link StringBuilder} without intermediate byte arrays and strings that don't need any
+ * encoding are returned as is. Other character encodings are delegated to {@link URLEncoder}.</p>
+ *
+ * @since 3.3
+ */
+public final class UrlPercentEncoder {
+
+    private static final String UTF_8 = "UTF-8";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final boolean[] SAFE = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) SAFE[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++) SAFE[c] = true;
+        for (char c = '0'; c <= '9'; c++) SAFE[c] = true;
+        SAFE['.'] = true;
+        SAFE['-'] = true;
+        SAFE['*'] = true;
+        SAFE['_'] = true;
+    }
+
+    private UrlPercentEncoder() {
+    }
+
+    /**
+     * Encodes the given value like {@link URLEncoder#encode(String, String)}, spaces become '+'
+     *
+     * @param value The value
+     * @param encoding The character encoding
+     * @return The encoded value
+     * @throws UnsupportedEncodingException If the encoding is not supported
+     */
+    public static String encode(String value, String encoding) throws UnsupportedEncodingException {
+        return encode(value, encoding, true);
+    }
+
+    /**
+     * Encodes the given value for use as a path segment, spaces become "%20"
+     *
+     * @param value The value
+     * @param encoding The character encoding
+     * @return The encoded value
+     * @throws UnsupportedEncodingException If the encoding is not supported
+     */
+    public static String encodePathSegment(String value, String encoding) throws UnsupportedEncodingException {
+        return encode(value, encoding, false);
+    }
+
+    private static String encode(String value, String encoding, boolean spaceAsPlus) throws UnsupportedEncodingException {
+        if (!isUtf8(encoding)) {
+            String encoded = URLEncoder.encode(value, encoding);
+            return spaceAsPlus ? encoded : encoded.replace("+", "%20");
+        }
+        int firstUnsafe = indexOfUnsafe(value);
+        if (firstUnsafe == -1) {
+            return value;
+        }
+        StringBuilder buf = new StringBuilder(value.length() + 16);
+        buf.append(value, 0, firstUnsafe);
+        appendUtf8(buf, value, firstUnsafe, spaceAsPlus);
+        return buf.toString();
+    }
+
+    /**
+     * Appends the encoded form of the given value to the target, spaces become '+'
+     *
+     * @param target The target
+     * @param value The value
+     * @param encoding The character encoding
+     * @throws UnsupportedEncodingException If the encoding is not supported
+     */
+    public static void appendEncoded(StringBuilder target, String value, String encoding) throws UnsupportedEncodingException {
+        if (isUtf8(encoding)) {
+            appendUtf8(target, value, 0, true);
+        }
+        else {
+            target.append(URLEncoder.encode(value, encoding));
+        }
+    }
+
+    /**
+     * Appends the encoded form of the given value to the target for use as a path segment, spaces become "%20"
+     *
+     * @param target The target
+     * @param value The value
+     * @param encoding The character encoding
+     * @throws UnsupportedEncodingException If the encoding is not supported
+     */
+    public static void appendEncodedPathSegment(StringBuilder target, String value, String encoding) throws UnsupportedEncodingException {
+        if (isUtf8(encoding)) {
+            appendUtf8(target, value, 0, false);
+        }
+        else {
+            target.append(URLEncoder.encode(value, encoding).replace("+", "%20"));
+        }
+    }
+
+    private static boolean isUtf8(String encoding) {
+        return UTF_8.equalsIgnoreCase(encoding) || "UTF8".equalsIgnoreCase(encoding);
+    }
+
+    private static int indexOfUnsafe(String value) {
+        for (int i = 0, len = value.length(); i < len; i++) {
+            char c = value.charAt(i);
+            if (c >= 128 || !SAFE[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendUtf8(StringBuilder target, String value, int start, boolean spaceAsPlus) {
+        for (int i = start, len = value.length(); i < len; i++) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                if (SAFE[c]) {
+                    target.append(c);
+                }
+                else if (c == ' ') {
+                    if (spaceAsPlus) {
+                        target.append('+');
+                    }
+                    else {
+                        target.append("%20");
+                    }
+                }
+                else {
+                    appendByte(target, c);
+                }
+            }
+            else if (c < 0x800) {
+                appendByte(target, 0xC0 | (c >> 6));
+                appendByte(target, 0x80 | (c & 0x3F));
+            }
+            else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    appendByte(target, 0xF0 | (codePoint >> 18));
+                    appendByte(target, 0x80 | ((codePoint >> 12) & 0x3F));
+                    appendByte(target, 0x80 | ((codePoint >> 6) & 0x3F));
+                    appendByte(target, 0x80 | (codePoint & 0x3F));
+                }
+                else {
+                    // malformed input is replaced with '?', as String.getBytes does for URLEncoder
+                    appendByte(target, '?');
+                }
+            }
+            else {
+                appendByte(target, 0xE0 | (c >> 12));
+                appendByte(target, 0x80 | ((c >> 6) & 0x3F));
+                appendByte(target, 0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static void appendByte(StringBuilder target, int b) {
+        target.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+}
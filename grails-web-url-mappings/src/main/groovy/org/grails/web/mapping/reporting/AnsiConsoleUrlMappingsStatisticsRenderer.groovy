@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.web.mapping.reporting
+
+import grails.web.mapping.UrlMapping
+import groovy.transform.CompileStatic
+import org.grails.web.mapping.UrlMappingsStatistics
+
+/**
+ * Renders the {@link UrlMappingsStatistics} recorded by an instrumented URL mappings holder to the console, with the
+ * mappings ordered by the number of times they matched and the mappings that never matched listed last
+ *
+ * @since 3.3
+ */
+@CompileStatic
+class AnsiConsoleUrlMappingsStatisticsRenderer extends AnsiConsoleUrlMappingsRenderer {
+
+    AnsiConsoleUrlMappingsStatisticsRenderer(PrintStream targetStream) {
+        super(targetStream)
+    }
+
+    AnsiConsoleUrlMappingsStatisticsRenderer() {
+    }
+
+    /**
+     * Renders the statistics of the given mappings
+     *
+     * @param statistics The statistics
+     * @param urlMappings The URL mappings
+     */
+    void render(UrlMappingsStatistics statistics, List<UrlMapping> urlMappings) {
+        targetStream.println(header("Match Statistics"))
+        targetStream.println("${yellowBar()}${bold('Matches:           ')}${statistics.matchCount} (${statistics.cachedMatchCount} from cache)")
+        targetStream.println("${yellowBar()}${bold('Evaluations:       ')}${statistics.evaluationCount} (average ${String.format('%.1f', statistics.averageEvaluationsPerMatch)}, max ${statistics.maxEvaluationsPerMatch} per match)")
+        targetStream.println("${yellowBar()}${bold('Match time:        ')}p50 ${percentile(statistics, 50)}, p99 ${percentile(statistics, 99)}")
+        targetStream.println()
+
+        targetStream.println(header("Match Time Histogram"))
+        long[] histogram = statistics.latencyHistogram
+        long lowerBound = 0
+        for (int i = 0; i < histogram.length; i++) {
+            long upperBound = UrlMappingsStatistics.getBucketUpperBoundMicros(i)
+            if (histogram[i] > 0) {
+                String range = upperBound > -1 ? "${lowerBound}-${upperBound}us" : ">= ${lowerBound}us"
+                targetStream.println("${yellowBar()}${range.padRight(20)}${yellowBar()}${String.valueOf(histogram[i]).padLeft(12)}${endBar()}")
+            }
+            lowerBound = upperBound
+        }
+        targetStream.println()
+
+        UrlMapping[] mappings = urlMappings.toArray(new UrlMapping[urlMappings.size()])
+        List<UrlMappingsStatistics.MappingStatistics> mappingStatistics = statistics.getMappingStatistics(mappings)
+        if (!mappingStatistics) {
+            return
+        }
+        int longestMapping = mappings.collect { UrlMapping mapping -> establishUrlPattern(mapping, false).length() }.max() + 5
+
+        targetStream.println(header("Mappings"))
+        List<UrlMappingsStatistics.MappingStatistics> unmatched = []
+        for (UrlMappingsStatistics.MappingStatistics mappingStats in mappingStatistics) {
+            if (mappingStats.matchCount == 0) {
+                unmatched << mappingStats
+                continue
+            }
+            targetStream.println(mappingLine(mappingStats, longestMapping))
+        }
+        targetStream.println()
+
+        if (unmatched) {
+            targetStream.println(header("Unmatched Mappings"))
+            for (UrlMappingsStatistics.MappingStatistics mappingStats in unmatched) {
+                targetStream.println(mappingLine(mappingStats, longestMapping))
+            }
+            targetStream.println()
+        }
+    }
+
+    protected String mappingLine(UrlMappingsStatistics.MappingStatistics mappingStats, int longestMapping) {
+        UrlMapping urlMapping = mappingStats.mapping
+        String urlPattern = establishUrlPattern(urlMapping, isAnsiEnabled, longestMapping)
+        "${yellowBar()}${urlMapping.httpMethod.center(8)}${yellowBar()}${urlPattern}${yellowBar()}${bold('Matches: ')}${String.valueOf(mappingStats.matchCount).padLeft(10)}${yellowBar()}${bold('Evaluations: ')}${String.valueOf(mappingStats.evaluationCount).padLeft(10)}${yellowBar()}${bold('Average: ')}${(String.valueOf(mappingStats.averageEvaluationNanos) + 'ns').padLeft(10)}${endBar()}".toString()
+    }
+
+    protected static String percentile(UrlMappingsStatistics statistics, double percentile) {
+        if (statistics.matchCount == 0) {
+            return "n/a"
+        }
+        long micros = statistics.getLatencyPercentileMicros(percentile)
+        micros > -1 ? "< ${micros}us".toString() : "unbounded"
+    }
+}
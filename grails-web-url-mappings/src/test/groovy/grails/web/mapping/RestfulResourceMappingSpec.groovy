@@ -495,6 +495,40 @@ class RestfulResourceMappingSpec extends Specification{
 
     }
 
+    void "Test that the allowed methods of a resource are resolved once per URI template"() {
+        given:"A resources definition and a mapping with a constraint"
+            DefaultUrlMappingsHolder urlMappingsHolder = getUrlMappingsHolder {
+                "/books"(resources: "book")
+                "/authors/$id?"(controller: "author")
+                "/reviews/$id"(controller: "review", action: "show", method: "GET") {
+                    constraints {
+                        id(matches: /\d+/)
+                    }
+                }
+            }
+
+        when:"The allowed methods are resolved repeatedly"
+            def allowed = urlMappingsHolder.allowedMethods('/books/1')
+
+        then:"The same immutable set is returned for every URI of the template"
+            allowed == [HttpMethod.GET, HttpMethod.DELETE, HttpMethod.PUT, HttpMethod.PATCH] as Set
+            urlMappingsHolder.allowedMethods('/books/1').is(allowed)
+            urlMappingsHolder.allowedMethods('/books/2').is(allowed)
+            urlMappingsHolder.allowedMethods('/books') == [HttpMethod.GET, HttpMethod.POST] as Set
+            urlMappingsHolder.allowedMethods('/authors/1') == HttpMethod.values() as Set
+            urlMappingsHolder.allowedMethods('/publishers').isEmpty()
+
+        and:"Mappings with constraints are still evaluated against each URI"
+            urlMappingsHolder.allowedMethods('/reviews/1') == [HttpMethod.GET] as Set
+            urlMappingsHolder.allowedMethods('/reviews/abc').isEmpty()
+
+        when:"The returned set is modified"
+            allowed.add(HttpMethod.POST)
+
+        then:"It is rejected"
+            thrown(UnsupportedOperationException)
+    }
+
     void "Test nested resource within another resource produce the correct URL mappings"() {
         given:"A URL mappings definition with nested resources"
         def urlMappingsHolder = getUrlMappingsHolder {
@@ -0,0 +1,57 @@
+package org.grails.web.mapping
+
+import grails.web.mapping.AbstractUrlMappingsSpec
+import org.springframework.util.AntPathMatcher
+import spock.lang.Unroll
+
+class AntPatternsMatcherSpec extends AbstractUrlMappingsSpec {
+
+    static final List<String> PATTERNS = [
+            '/health', '/stomp/', '/static/**', '/**/favicon.ico', '/assets/*', '/topic/*/events',
+            '/files/*.css', '/v?/api/**', '/users/{id}', '/a/*/'
+    ]
+
+    @Unroll
+    void "Test that #uri is matched with the same result as AntPathMatcher"() {
+        given:
+            def matcher = new AntPatternsMatcher(PATTERNS)
+            def antPathMatcher = new AntPathMatcher()
+
+        expect:
+            matcher.matches(uri) == PATTERNS.any { antPathMatcher.match(it, uri) }
+
+        where:
+            uri << [
+                    '/', '/health', '/health/', '/healthy', '/stomp', '/stomp/', '/static', '/static/', '/static/js/app.js',
+                    '/statics/app.js', '/favicon.ico', '/foo/bar/favicon.ico', '/assets', '/assets/', '/assets/app.js',
+                    '/assets/js/app.js', '/topic/news/events', '/topic/events', '/topic/news/events/', '/files/main.css',
+                    '/files/main.js', '/v1/api', '/v1/api/books', '/v12/api/books', '/users/10', '/users/10/edit',
+                    '/a/', '/a/b/', '/a/b', '//static/js', '/static//js', '/health ', 'health'
+            ]
+    }
+
+    void "Test that each kind of pattern is matched on its own"() {
+        expect:
+            new AntPatternsMatcher(['/**']).matches('/anything/at/all')
+            new AntPatternsMatcher(['/static/**']).matches('/static/css/main.css')
+            !new AntPatternsMatcher(['/static/**']).matches('/book/list')
+            new AntPatternsMatcher(['/assets/*.js']).matches('/assets/app.js')
+            !new AntPatternsMatcher(['/assets/*.js']).matches('/assets/app.css')
+            !new AntPatternsMatcher([]).matches('/book/list')
+            !new AntPatternsMatcher(null).matches('/book/list')
+    }
+
+    void "Test that excluded URIs don't match any URL mappings"() {
+        given:
+            def holder = getUrlMappingsHolder {
+                "/book/list"(controller: "book", action: "list")
+            }
+            holder = new DefaultUrlMappingsHolder(holder.urlMappings.toList(), ['/static/**', '/assets/*'])
+
+        expect:
+            holder.matchAll('/static/css/main.css').length == 0
+            holder.matchAll('/static/css/main.css', 'GET').length == 0
+            holder.matchAll('/assets/app.js', 'GET', '1.0').length == 0
+            holder.matchAll('/book/list').length == 1
+    }
+}
@@ -0,0 +1,63 @@
+package org.grails.web.mapping
+
+import grails.core.DefaultGrailsApplication
+import grails.core.GrailsApplication
+import grails.web.mapping.UrlMapping
+import org.grails.support.MockApplicationContext
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+
+class DefaultUrlMappingsHolderRouteTableSpec extends Specification {
+
+    void "Test that initializing the holder publishes a new route table without changing the previous one"() {
+        given:"A holder"
+            def holder = createHolder()
+            UrlMapping[] previousMappings = holder.urlMappings
+            int previousLength = previousMappings.length
+
+        when:"The holder is initialized again"
+            holder.initialize()
+
+        then:"The previous route table is unchanged and the new one has the same mappings"
+            !holder.urlMappings.is(previousMappings)
+            previousMappings.length == previousLength
+            holder.urlMappings.toList() == previousMappings.toList()
+            holder.getReverseMapping('order', 'show', [id: 1]).createURL([id: 1], 'UTF-8') == '/orders/1'
+    }
+
+    void "Test that URIs are matched while the route table is rebuilt"() {
+        given:"A holder that is re-initialized on another thread"
+            def holder = createHolder()
+            def failures = new AtomicInteger()
+            def done = new CountDownLatch(1)
+            def rebuilder = Thread.start {
+                while (done.count > 0) {
+                    holder.initialize()
+                }
+            }
+
+        when:"URIs are matched concurrently"
+            2000.times {
+                if (holder.match('/orders/1') == null) failures.incrementAndGet()
+                if (holder.matchAll('/orders/1/items/2').length != 1) failures.incrementAndGet()
+            }
+            done.countDown()
+            rebuilder.join()
+
+        then:"Every match saw a complete route table"
+            failures.get() == 0
+    }
+
+    protected DefaultUrlMappingsHolder createHolder() {
+        def ctx = new MockApplicationContext()
+        ctx.registerMockBean(GrailsApplication.APPLICATION_ID, new DefaultGrailsApplication())
+        def evaluator = new DefaultUrlMappingEvaluator(ctx)
+        new DefaultUrlMappingsHolder(evaluator.evaluateMappings {
+            "/orders/$id"(controller: "order", action: "show")
+            "/orders/list"(controller: "order", action: "list")
+            "/orders/$id/items/$itemId"(controller: "orderItem", action: "show")
+        })
+    }
+}
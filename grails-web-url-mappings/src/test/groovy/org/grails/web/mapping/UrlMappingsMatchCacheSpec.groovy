@@ -0,0 +1,103 @@
+package org.grails.web.mapping
+
+import grails.core.DefaultGrailsApplication
+import grails.core.GrailsApplication
+import org.grails.support.MockApplicationContext
+import spock.lang.Specification
+
+class UrlMappingsMatchCacheSpec extends Specification {
+
+    void "Test that one-off keys do not evict frequently requested keys when admission is enabled"() {
+        given:"A full cache of frequently requested keys"
+            def cache = new UrlMappingsMatchCache<String, String>(10, true)
+            (1..10).each { int i ->
+                5.times { cache.get("/hot/$i".toString()) }
+                cache.put("/hot/$i".toString(), "hot$i".toString())
+            }
+
+        when:"Many unique keys are requested once"
+            (1..1000).each { int i ->
+                String key = "/api/orders/${83749234 + i}".toString()
+                if (cache.get(key) == null) {
+                    cache.put(key, key)
+                }
+            }
+
+        then:"The frequently requested keys are still cached"
+            (1..10).every { int i -> cache.get("/hot/$i".toString()) == "hot$i" }
+            cache.statistics.rejectionCount == 1000
+            cache.statistics.evictionCount == 0
+            cache.statistics.hitCount == 10
+    }
+
+    void "Test that a key requested more often than the entry that would be evicted is admitted"() {
+        given:"A full cache of keys requested once"
+            def cache = new UrlMappingsMatchCache<String, String>(10, true)
+            (1..10).each { int i ->
+                cache.get("/cold/$i".toString())
+                cache.put("/cold/$i".toString(), "cold$i".toString())
+            }
+
+        when:"A new key is requested once"
+            cache.get('/warm')
+
+        then:"It isn't cached"
+            !cache.put('/warm', 'warm')
+
+        when:"It is requested again"
+            cache.get('/warm')
+
+        then:"It replaces the least recently used key"
+            cache.put('/warm', 'warm')
+            cache.get('/warm') == 'warm'
+            cache.statistics.rejectionCount == 1
+            cache.statistics.evictionCount == 1
+    }
+
+    void "Test that without admission the cache behaves like an LRU and counts evictions"() {
+        given:"A cache without admission"
+            def cache = new UrlMappingsMatchCache<String, String>(10, false)
+
+        when:"More keys than the capacity are added"
+            (1..20).each { int i -> cache.put("/key/$i".toString(), "value") }
+
+        then:"The oldest keys are evicted"
+            cache.get('/key/1') == null
+            cache.get('/key/20') == 'value'
+            cache.statistics.evictionCount == 10
+            cache.statistics.hitCount == 1
+            cache.statistics.missCount == 1
+            cache.statistics.hitRate == 0.5d
+    }
+
+    void "Test that the template cache mode produces the same matches as the default mode"() {
+        given:"Holders in each cache mode"
+            def uriHolder = createHolder(DefaultUrlMappingsHolder.CacheMode.URI)
+            def templateHolder = createHolder(DefaultUrlMappingsHolder.CacheMode.TEMPLATE)
+
+        expect:"The matches are the same"
+            ['/orders/1', '/orders/2', '/orders/2/items/5', '/orders/list', '/product/show/3'].every { String uri ->
+                templateHolder.matchAll(uri, 'GET')*.toString() == uriHolder.matchAll(uri, 'GET')*.toString()
+            }
+
+        and:"URIs that only differ in their variables share a template"
+            templateHolder.templateCacheStatistics.size == 4
+            uriHolder.templateCacheStatistics == null
+    }
+
+    protected DefaultUrlMappingsHolder createHolder(DefaultUrlMappingsHolder.CacheMode cacheMode) {
+        def ctx = new MockApplicationContext()
+        ctx.registerMockBean(GrailsApplication.APPLICATION_ID, new DefaultGrailsApplication())
+        def evaluator = new DefaultUrlMappingEvaluator(ctx)
+        def holder = new DefaultUrlMappingsHolder(evaluator.evaluateMappings {
+            "/$controller/$action?/$id?"()
+            "/orders/$id"(controller: "order", action: "show")
+            "/orders/list"(controller: "order", action: "list")
+            "/orders/$id/items/$itemId"(controller: "orderItem", action: "show")
+        }, null, true)
+        holder.cacheMode = cacheMode
+        holder.cacheAdmissionEnabled = true
+        holder.initialize()
+        return holder
+    }
+}
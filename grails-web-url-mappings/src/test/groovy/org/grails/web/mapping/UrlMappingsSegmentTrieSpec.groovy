@@ -0,0 +1,82 @@
+package org.grails.web.mapping
+
+import grails.core.DefaultGrailsApplication
+import grails.core.GrailsApplication
+import grails.web.mapping.UrlMappingInfo
+import org.grails.support.MockApplicationContext
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class UrlMappingsSegmentTrieSpec extends Specification {
+
+    static mappings = {
+        "/"(view: "/index")
+        "/$controller/$action?/$id?(.$format)?"()
+        "/books"(resources: "book")
+        "/books/$id/author"(controller: "author", action: "show")
+        "/books/recent"(controller: "book", action: "recent")
+        "/list/type/${type}_filter"(controller: "list", action: "filter")
+        "/files/**"(controller: "file", action: "serve")
+        "/api/v1/orders/$id"(controller: "order", action: "show", method: "GET")
+        "/api/v1/orders/$id"(controller: "order", action: "update", method: "PUT")
+        "/api/v1/orders/$id/items/$itemId" {
+            controller = "orderItem"
+            action = "show"
+            constraints {
+                itemId(matches: /\d+/)
+            }
+        }
+        "/reports/$year/$month?"(controller: "report", action: "monthly")
+        "/download/$name(.$format)?"(controller: "download", action: "file")
+        "500"(view: "/error")
+        "404"(controller: "errors", action: "notFound")
+    }
+
+    @Unroll
+    void "Test the segment trie produces the same matches as a linear scan for URI #uri"() {
+        given:"A holder with the segment trie enabled and one without"
+            def linear = createHolder(false)
+            def trie = createHolder(true)
+
+        expect:"The matches are identical and in the same order"
+            describe(trie.matchAll(uri, 'GET')) == describe(linear.matchAll(uri, 'GET'))
+            describe(trie.matchAll(uri, 'PUT', '*')) == describe(linear.matchAll(uri, 'PUT', '*'))
+            describe([trie.match(uri)] as UrlMappingInfo[]) == describe([linear.match(uri)] as UrlMappingInfo[])
+
+        where:
+            uri << ['/', '/books', '/books/', '/books/10', '/books/10/author', '/books/recent', '/books.json',
+                    '/list/type/foo_filter', '/files/a/b/c.txt', '/api/v1/orders/5', '/api/v1/orders/5/items/7',
+                    '/api/v1/orders/5/items/x', '/reports/2016', '/reports/2016/10', '/download/report.pdf',
+                    '/download/report', '/foo/bar/1.xml', '//books', 'books', '/unknown/path/that/is/long']
+    }
+
+    void "Test the trie only returns candidates whose static segments fit the URI"() {
+        given:"A trie built from the mappings"
+            def holder = createHolder(true)
+            def trie = new UrlMappingsSegmentTrie(holder.urlMappings)
+
+        when:"The candidates for a URI are computed"
+            def candidates = trie.findCandidates('/books/recent')
+
+        then:"They are ordered by precedence and exclude unrelated static mappings"
+            candidates == (candidates as List).sort() as int[]
+            candidates.every { int i -> !holder.urlMappings[i].urlData.urlPattern.startsWith('/api') }
+            candidates.any { int i -> holder.urlMappings[i].urlData.urlPattern == '/books/recent' }
+    }
+
+    protected DefaultUrlMappingsHolder createHolder(boolean segmentTrieEnabled) {
+        def ctx = new MockApplicationContext()
+        ctx.registerMockBean(GrailsApplication.APPLICATION_ID, new DefaultGrailsApplication())
+        def evaluator = new DefaultUrlMappingEvaluator(ctx)
+        def holder = new DefaultUrlMappingsHolder(evaluator.evaluateMappings(mappings), null, true)
+        holder.segmentTrieEnabled = segmentTrieEnabled
+        holder.initialize()
+        return holder
+    }
+
+    protected List describe(UrlMappingInfo[] infos) {
+        infos.collect { UrlMappingInfo info ->
+            info == null ? null : [info.toString(), info.httpMethod, info.parameters]
+        }
+    }
+}
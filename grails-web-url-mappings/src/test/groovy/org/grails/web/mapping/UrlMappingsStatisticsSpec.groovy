@@ -0,0 +1,123 @@
+package org.grails.web.mapping
+
+import grails.core.DefaultGrailsApplication
+import grails.core.GrailsApplication
+import org.grails.support.MockApplicationContext
+import org.grails.web.mapping.reporting.AnsiConsoleUrlMappingsStatisticsRenderer
+import spock.lang.Specification
+
+class UrlMappingsStatisticsSpec extends Specification {
+
+    void "Test that no statistics are recorded unless instrumentation is enabled"() {
+        given:
+            def holder = createHolder(false)
+
+        when:
+            holder.match('/orders/1')
+
+        then:
+            holder.statistics == null
+    }
+
+    void "Test that hits, evaluations and cache hits are recorded per mapping"() {
+        given:"An instrumented holder"
+            def holder = createHolder(true)
+            def statistics = holder.statistics
+
+        when:"URIs are matched, some of them repeatedly"
+            holder.match('/orders/1')
+            holder.match('/orders/1')
+            holder.match('/orders/2')
+            holder.matchAll('/orders/list', 'GET')
+
+        then:"The calls and the cache hits are counted"
+            statistics.matchCount == 4
+            statistics.cachedMatchCount == 1
+            statistics.latencyHistogram.sum() == 4
+            statistics.maxEvaluationsPerMatch >= 1
+            statistics.averageEvaluationsPerMatch > 0
+
+        and:"Each mapping records how often it matched"
+            def byPattern = statistics.getMappingStatistics(holder.urlMappings).collectEntries { [(it.mapping.urlData.urlPattern): it] }
+            byPattern['/orders/(*)'].matchCount == 4
+            byPattern['/orders/(*)'].evaluationCount == 3
+            byPattern['/orders/list'].matchCount == 1
+            byPattern['/products/(*)'].matchCount == 0
+            statistics.getMappingStatistics(holder.urlMappings).first().mapping.urlData.urlPattern == '/orders/(*)'
+    }
+
+    void "Test that matches answered from the caches are counted against the matched mapping"() {
+        given:"An instrumented holder"
+            def holder = createHolder(true)
+            def statistics = holder.statistics
+
+        when:"The same URIs are matched repeatedly"
+            3.times {
+                holder.match('/products/1')
+                holder.matchAll('/orders/list', 'GET')
+            }
+
+        then:"Every match is counted, but the mappings are only evaluated once"
+            statistics.cachedMatchCount == 4
+            def byPattern = statistics.getMappingStatistics(holder.urlMappings).collectEntries { [(it.mapping.urlData.urlPattern): it] }
+            byPattern['/products/(*)'].matchCount == 3
+            byPattern['/products/(*)'].evaluationCount == 1
+            byPattern['/orders/list'].matchCount == 3
+            byPattern['/orders/list'].evaluationCount == 1
+            byPattern['/orders/(*)'].matchCount == 3
+    }
+
+    void "Test that the histogram buckets and percentiles are derived from the match time"() {
+        given:
+            def statistics = new UrlMappingsStatistics()
+
+        when:
+            statistics.recordMatch(500, 1, false)
+            statistics.recordMatch(1500, 2, false)
+            statistics.recordMatch(3000, 3, false)
+            statistics.recordMatch(10000000000L, 3, false)
+
+        then:
+            statistics.latencyHistogram[0] == 1
+            statistics.latencyHistogram[1] == 1
+            statistics.latencyHistogram[2] == 1
+            statistics.latencyHistogram[UrlMappingsStatistics.LATENCY_BUCKETS - 1] == 1
+            statistics.getLatencyPercentileMicros(50) == 2
+            statistics.getLatencyPercentileMicros(100) == -1
+            statistics.maxEvaluationsPerMatch == 3
+            statistics.averageEvaluationsPerMatch == 2.25d
+    }
+
+    void "Test that the report lists matched and unmatched mappings"() {
+        given:
+            def holder = createHolder(true)
+            holder.match('/orders/1')
+            def out = new ByteArrayOutputStream()
+            def renderer = new AnsiConsoleUrlMappingsStatisticsRenderer(new PrintStream(out))
+            renderer.isAnsiEnabled = false
+
+        when:
+            renderer.render(holder.statistics, holder.urlMappings.toList())
+            String report = out.toString()
+
+        then:
+            report.contains('Match Statistics')
+            report.contains('Unmatched Mappings')
+            report.indexOf('/orders/${id}') < report.indexOf('Unmatched Mappings')
+            report.indexOf('/products/${id}') > report.indexOf('Unmatched Mappings')
+    }
+
+    protected DefaultUrlMappingsHolder createHolder(boolean instrumentationEnabled) {
+        def ctx = new MockApplicationContext()
+        ctx.registerMockBean(GrailsApplication.APPLICATION_ID, new DefaultGrailsApplication())
+        def evaluator = new DefaultUrlMappingEvaluator(ctx)
+        def holder = new DefaultUrlMappingsHolder(evaluator.evaluateMappings {
+            "/orders/$id"(controller: "order", action: "show")
+            "/orders/list"(controller: "order", action: "list")
+            "/products/$id"(controller: "product", action: "show")
+        }, null, true)
+        holder.instrumentationEnabled = instrumentationEnabled
+        holder.initialize()
+        return holder
+    }
+}
@@ -0,0 +1,55 @@
+package org.grails.web.mapping
+
+import grails.web.mapping.AbstractUrlMappingsSpec
+import spock.lang.Unroll
+
+class UrlPercentEncoderSpec extends AbstractUrlMappingsSpec {
+
+    @Unroll
+    void "Test that encoding #value with #encoding produces the same result as URLEncoder"() {
+        expect:
+            UrlPercentEncoder.encode(value, encoding) == URLEncoder.encode(value, encoding)
+            UrlPercentEncoder.encodePathSegment(value, encoding) == URLEncoder.encode(value, encoding).replaceAll("\\+", "%20")
+
+        and:"Appending to a builder produces the same result"
+            def builder = new StringBuilder('/')
+            UrlPercentEncoder.appendEncoded(builder, value, encoding)
+            builder.toString() == '/' + URLEncoder.encode(value, encoding)
+
+        where:
+            value                          | encoding
+            ''                             | 'UTF-8'
+            'simple'                       | 'UTF-8'
+            'a.b-c*d_e'                    | 'utf-8'
+            'with space'                   | 'UTF-8'
+            'a+b=c&d/e?f#g%h'              | 'UTF-8'
+            'café über'          | 'UTF-8'
+            '€100 中文'       | 'UTF-8'
+            'emoji 😀!'          | 'UTF-8'
+            'lone \ud83d surrogate'        | 'UTF-8'
+            'trailing \ude00'              | 'UTF-8'
+            'café über'          | 'ISO-8859-1'
+    }
+
+    void "Test that values that need no encoding are returned as is"() {
+        given:
+            String value = 'nothingToEncode-123'
+
+        expect:
+            UrlPercentEncoder.encode(value, 'UTF-8').is(value)
+    }
+
+    void "Test that links with encoded path and query parameters are unchanged"() {
+        given:"A link generator with variables in the path"
+            def linkGenerator = getLinkGenerator {
+                "/books/$author/$title(.$format)?"(controller: "book", action: "show")
+                "/files/$path**"(controller: "file", action: "download")
+            }
+
+        expect:
+            linkGenerator.link(controller: 'book', action: 'show', params: [author: 'Jürgen M', title: 'Dune', format: 'json', q: 'x y&z']) ==
+                    'http://localhost/books/J%C3%BCrgen%20M/Dune.json?q=x+y%26z'
+            linkGenerator.link(controller: 'file', action: 'download', params: [path: 'some dir/file name.txt']) ==
+                    'http://localhost/files/some%20dir/file%20name.txt'
+    }
+}